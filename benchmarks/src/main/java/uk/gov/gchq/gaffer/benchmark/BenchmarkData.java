@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Min;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the {@link Schema} and deterministic {@link Element}s shared by the
+ * benchmarks, so results are comparable between runs and between releases.
+ */
+public final class BenchmarkData {
+    public static final String ENTITY = "BasicEntity";
+    public static final String EDGE = "BasicEdge";
+    public static final String COUNT = "count";
+    public static final String FIRST_SEEN = "firstSeen";
+    public static final String LAST_SEEN = "lastSeen";
+    public static final String DAY = "day";
+
+    /**
+     * The seed for the random number generator, fixed so every run of a
+     * benchmark sees exactly the same data.
+     */
+    public static final long SEED = 20190101L;
+
+    private static final int EDGES_PER_VERTEX = 4;
+    private static final long DAYS = 7L;
+
+    private BenchmarkData() {
+        // Private constructor to prevent instantiation.
+    }
+
+    public static Schema createSchema() {
+        return new Schema.Builder()
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("count", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(new Sum())
+                        .build())
+                .type("min", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(new Min())
+                        .build())
+                .type("max", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(new Max())
+                        .build())
+                .type("day", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(new Max())
+                        .build())
+                .type("true", Boolean.class)
+                .entity(ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(COUNT, "count")
+                        .property(FIRST_SEEN, "min")
+                        .property(LAST_SEEN, "max")
+                        .build())
+                .edge(EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(DAY, "day")
+                        .property(COUNT, "count")
+                        .property(FIRST_SEEN, "min")
+                        .property(LAST_SEEN, "max")
+                        .groupBy(DAY)
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+    }
+
+    /**
+     * Creates a list of elements of the requested size. Roughly one element in
+     * five is an {@link Entity}, the rest are directed {@link Edge}s between a
+     * pool of vertices sized so that each vertex has a handful of edges and
+     * some elements share keys and will therefore be aggregated.
+     *
+     * @param size the number of elements to create
+     * @return the elements
+     */
+    public static List<Element> createElements(final int size) {
+        final Random random = new Random(SEED);
+        final int numVertices = Math.max(1, size / EDGES_PER_VERTEX);
+        final List<Element> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final long timestamp = 1546300800000L + random.nextInt(Integer.MAX_VALUE);
+            final String source = vertex(random.nextInt(numVertices));
+            final Element element;
+            if (0 == i % 5) {
+                element = new Entity.Builder()
+                        .group(ENTITY)
+                        .vertex(source)
+                        .property(COUNT, 1L)
+                        .property(FIRST_SEEN, timestamp)
+                        .property(LAST_SEEN, timestamp)
+                        .build();
+            } else {
+                element = new Edge.Builder()
+                        .group(EDGE)
+                        .source(source)
+                        .dest(vertex(random.nextInt(numVertices)))
+                        .directed(true)
+                        .property(DAY, (long) random.nextInt((int) DAYS))
+                        .property(COUNT, 1L)
+                        .property(FIRST_SEEN, timestamp)
+                        .property(LAST_SEEN, timestamp)
+                        .build();
+            }
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    /**
+     * Creates the vertex values used as seeds for the query benchmarks.
+     *
+     * @param numSeeds the number of seeds to create
+     * @param size     the number of elements the seeds will be queried against
+     * @return the vertices to use as seeds
+     */
+    public static List<String> createSeeds(final int numSeeds, final int size) {
+        final Random random = new Random(SEED + 1);
+        final int numVertices = Math.max(1, size / EDGES_PER_VERTEX);
+        final List<String> seeds = new ArrayList<>(numSeeds);
+        for (int i = 0; i < numSeeds; i++) {
+            seeds.add(vertex(random.nextInt(numVertices)));
+        }
+        return seeds;
+    }
+
+    public static String vertex(final int i) {
+        return "vertex" + i;
+    }
+}
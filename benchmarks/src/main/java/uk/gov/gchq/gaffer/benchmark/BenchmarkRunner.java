@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the Gaffer JMH benchmarks, writes the results to a JSON file named
+ * after the Gaffer version and optionally compares them against a baseline
+ * results file from a previous run.
+ * <p>
+ * Any standard JMH command line options can be provided, e.g. a regular
+ * expression to select a subset of the benchmarks. In addition the following
+ * system properties are supported:
+ * <ul>
+ * <li>{@value #RESULTS_DIR} - the directory to write the results file to, defaults to {@value #RESULTS_DIR_DEFAULT}</li>
+ * <li>{@value #BASELINE} - a JMH JSON results file to compare the new results against</li>
+ * <li>{@value #THRESHOLD} - the percentage change in score that is reported as a regression, defaults to {@value #THRESHOLD_DEFAULT}</li>
+ * </ul>
+ * The process exits with a non zero status if any benchmark has regressed by
+ * more than the threshold.
+ */
+public final class BenchmarkRunner {
+    public static final String RESULTS_DIR = "gaffer.benchmark.results.dir";
+    public static final String RESULTS_DIR_DEFAULT = "results";
+    public static final String BASELINE = "gaffer.benchmark.baseline";
+    public static final String THRESHOLD = "gaffer.benchmark.threshold";
+    public static final String THRESHOLD_DEFAULT = "10";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BenchmarkRunner.class);
+
+    private BenchmarkRunner() {
+        // Private constructor to prevent instantiation.
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        final String resultsFile = getResultsFile();
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultsFile)
+                .build();
+
+        final Collection<RunResult> results = new Runner(options).run();
+        LOGGER.info("Benchmark results written to {}", resultsFile);
+
+        final String baseline = System.getProperty(BASELINE);
+        if (null != baseline && !results.isEmpty()) {
+            final double threshold = Double.parseDouble(System.getProperty(THRESHOLD, THRESHOLD_DEFAULT));
+            final int regressions = compare(readScores(baseline), readScores(resultsFile), threshold);
+            if (regressions > 0) {
+                LOGGER.error("{} benchmark(s) regressed by more than {}% against {}", regressions, threshold, baseline);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static String getResultsFile() throws IOException {
+        final String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        final File dir = new File(System.getProperty(RESULTS_DIR, RESULTS_DIR_DEFAULT));
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Unable to create results directory " + dir.getAbsolutePath());
+        }
+        return new File(dir, "gaffer-" + (null != version ? version : "dev") + ".json").getPath();
+    }
+
+    /**
+     * Compares two sets of scores and logs the percentage difference for
+     * each benchmark. All the benchmarks use {@code AverageTime} mode, so an
+     * increase in score is a regression.
+     *
+     * @param baseline  the baseline scores
+     * @param current   the new scores
+     * @param threshold the percentage increase that counts as a regression
+     * @return the number of regressions
+     */
+    static int compare(final Map<String, Double> baseline, final Map<String, Double> current, final double threshold) {
+        int regressions = 0;
+        for (final Map.Entry<String, Double> entry : current.entrySet()) {
+            final Double baselineScore = baseline.get(entry.getKey());
+            if (null == baselineScore) {
+                LOGGER.info(String.format("%s: %.3f (no baseline)", entry.getKey(), entry.getValue()));
+            } else {
+                final double change = 100 * (entry.getValue() - baselineScore) / baselineScore;
+                final String summary = String.format("%s: %.3f -> %.3f (%+.1f%%)", entry.getKey(), baselineScore, entry.getValue(), change);
+                if (change > threshold) {
+                    regressions++;
+                    LOGGER.warn("{} REGRESSION", summary);
+                } else {
+                    LOGGER.info(summary);
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads a JMH JSON results file into a map of benchmark name, including
+     * its parameters, to primary score.
+     *
+     * @param path the path of the results file
+     * @return the scores
+     * @throws IOException if the file could not be read
+     */
+    static Map<String, Double> readScores(final String path) throws IOException {
+        final JsonNode root;
+        try {
+            root = JSONSerialiser.getJsonNodeFromString(new String(Files.readAllBytes(Paths.get(path)), "UTF-8"));
+        } catch (final SerialisationException e) {
+            throw new IOException("Unable to parse benchmark results " + path, e);
+        }
+
+        final Map<String, Double> scores = new TreeMap<>();
+        for (final JsonNode result : root) {
+            final Map<String, String> params = new TreeMap<>();
+            final JsonNode paramsNode = result.get("params");
+            if (null != paramsNode) {
+                final Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields();
+                while (fields.hasNext()) {
+                    final Map.Entry<String, JsonNode> field = fields.next();
+                    params.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            final String name = result.get("benchmark").asText() + (params.isEmpty() ? "" : params.toString());
+            scores.put(name, result.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.accumulostore.data.element.AccumuloEdgeValueLoader;
+import uk.gov.gchq.gaffer.accumulostore.data.element.AccumuloEntityValueLoader;
+import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.LazyEdge;
+import uk.gov.gchq.gaffer.data.element.LazyEntity;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building Accumulo {@link Key}s and {@link Value}s from
+ * {@link Element}s, and converting them back again, using the
+ * {@link AbstractCoreKeyAccumuloElementConverter} implementations. The
+ * {@code getPropertyForFilter} benchmark reads one property from each key
+ * value through a lazy element, as the filtering iterators do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccumuloElementConverterBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"byteEntity", "classic"})
+    public String keyPackage;
+
+    private Schema schema;
+    private AbstractCoreKeyAccumuloElementConverter converter;
+    private List<Element> elements;
+    private List<Pair<Key, Value>> keyValues;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        schema = BenchmarkData.createSchema();
+        if ("classic".equals(keyPackage)) {
+            converter = new ClassicAccumuloElementConverter(schema);
+        } else {
+            converter = new ByteEntityAccumuloElementConverter(schema);
+        }
+        elements = BenchmarkData.createElements(size);
+        keyValues = new ArrayList<>(size);
+        for (final Element element : elements) {
+            keyValues.add(new Pair<>(converter.getKeysFromElement(element).getFirst(), converter.getValueFromElement(element)));
+        }
+    }
+
+    @Benchmark
+    public void buildKeys(final Blackhole blackhole) {
+        for (final Element element : elements) {
+            blackhole.consume(converter.getKeysFromElement(element));
+        }
+    }
+
+    @Benchmark
+    public void buildKeysAndValues(final Blackhole blackhole) {
+        for (final Element element : elements) {
+            blackhole.consume(converter.getKeysFromElement(element));
+            blackhole.consume(converter.getValueFromElement(element));
+        }
+    }
+
+    @Benchmark
+    public void getFullElement(final Blackhole blackhole) {
+        for (final Pair<Key, Value> keyValue : keyValues) {
+            blackhole.consume(converter.getFullElement(keyValue.getFirst(), keyValue.getSecond(), false));
+        }
+    }
+
+    /**
+     * Reads a single property from each key value, in the same way as the
+     * filtering iterators do when a filter only uses one property.
+     *
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void getPropertyForFilter(final Blackhole blackhole) {
+        for (final Pair<Key, Value> keyValue : keyValues) {
+            final Key key = keyValue.getFirst();
+            final String group = converter.getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
+            final Element element;
+            if (schema.isEntity(group)) {
+                element = new LazyEntity(new Entity(group), new AccumuloEntityValueLoader(group, key, keyValue.getSecond(), converter, schema));
+            } else {
+                element = new LazyEdge(new Edge(group, null, null, false), new AccumuloEdgeValueLoader(group, key, keyValue.getSecond(), converter, schema, true));
+            }
+            blackhole.consume(element.getProperty(BenchmarkData.LAST_SEEN));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.accumulostore.key.MutationBuffer;
+import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the rate at which {@link Element}s can be converted into
+ * Accumulo {@link Mutation}s and added to a {@link BatchWriter}. The
+ * {@code path} parameter compares creating a {@link Mutation} from the
+ * {@link Key}s of each element with adding the elements to a
+ * {@link MutationBuffer}. The batch writer discards the mutations, so only the
+ * client side conversion is measured.
+ * <p>
+ * Each operation is one element, so the score is the average time to ingest
+ * an element and the ingest rate in elements per second is 10<sup>9</sup>
+ * divided by the score. Average time is used, rather than throughput, so the
+ * score can be compared with a baseline in the same way as the other
+ * benchmarks.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccumuloIngestBenchmark {
+    private static final int SIZE = 10000;
+
+    @Param({"byteEntity", "classic"})
+    public String keyPackage;
+
+    @Param({"keys", "mutationBuffer"})
+    public String path;
+
+    private AbstractCoreKeyAccumuloElementConverter converter;
+    private List<Element> elements;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        final Schema schema = BenchmarkData.createSchema();
+        if ("classic".equals(keyPackage)) {
+            converter = new ClassicAccumuloElementConverter(schema);
+        } else {
+            converter = new ByteEntityAccumuloElementConverter(schema);
+        }
+        elements = BenchmarkData.createElements(SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void ingest(final Blackhole blackhole) throws Exception {
+        final BatchWriter writer = createWriter(blackhole);
+        if ("keys".equals(path)) {
+            for (final Element element : elements) {
+                final Pair<Key, Key> keys = converter.getKeysFromElement(element);
+                final Value value = converter.getValueFromElement(element);
+                writer.addMutation(createMutation(keys.getFirst(), value));
+                if (null != keys.getSecond()) {
+                    writer.addMutation(createMutation(keys.getSecond(), value));
+                }
+            }
+        } else {
+            final MutationBuffer buffer = new MutationBuffer(writer);
+            for (final Element element : elements) {
+                converter.addMutations(element, buffer);
+                buffer.flushIfFull();
+            }
+            buffer.flush();
+        }
+        writer.close();
+    }
+
+    private Mutation createMutation(final Key key, final Value value) {
+        final Mutation mutation = new Mutation(key.getRow());
+        mutation.put(key.getColumnFamily(), key.getColumnQualifier(),
+                new ColumnVisibility(key.getColumnVisibility()), key.getTimestamp(), value);
+        return mutation;
+    }
+
+    private BatchWriter createWriter(final Blackhole blackhole) {
+        return (BatchWriter) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BatchWriter.class},
+                (proxy, method, args) -> {
+                    if (null != args) {
+                        blackhole.consume(args[0]);
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ValidatorFilter;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsCache;
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the start up cost of a small point lookup scan: initialising the
+ * Gaffer filter iterators on a tablet and reading the single matching
+ * {@link Element}. The {@code cache} parameter controls whether the parsed
+ * schema, view and element converter are reused from the
+ * {@link IteratorOptionsCache}, or the cache is cleared before every scan so
+ * they are parsed from the iterator options each time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccumuloIteratorInitBenchmark {
+    @Param({"warm", "cold"})
+    public String cache;
+
+    private Map<String, String> options;
+    private TreeMap<Key, Value> tablet;
+    private Range range;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        final Schema schema = BenchmarkData.createSchema();
+        final View view = new View.Builder()
+                .entity(BenchmarkData.ENTITY, new ViewElementDefinition.Builder()
+                        .preAggregationFilter(new ElementFilter.Builder()
+                                .select(BenchmarkData.COUNT)
+                                .execute(new IsMoreThan(0L))
+                                .build())
+                        .build())
+                .edge(BenchmarkData.EDGE, new ViewElementDefinition.Builder()
+                        .postAggregationFilter(new ElementFilter.Builder()
+                                .select(BenchmarkData.COUNT)
+                                .execute(new IsMoreThan(0L))
+                                .build())
+                        .build())
+                .build();
+
+        options = new HashMap<>();
+        options.put(AccumuloStoreConstants.SCHEMA, StringUtil.toString(schema.toCompactJson()));
+        options.put(AccumuloStoreConstants.VIEW, StringUtil.toString(view.toCompactJson()));
+        options.put(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS, ByteEntityAccumuloElementConverter.class.getName());
+
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(schema);
+        final Element element = BenchmarkData.createElements(1).get(0);
+        final Key key = converter.getKeysFromElement(element).getFirst();
+        tablet = new TreeMap<>();
+        tablet.put(key, converter.getValueFromElement(element));
+        range = new Range(key.getRow());
+    }
+
+    @Benchmark
+    public void pointLookup(final Blackhole blackhole) throws IOException {
+        if ("cold".equals(cache)) {
+            IteratorOptionsCache.clear();
+        }
+
+        final SortedKeyValueIterator<Key, Value> iterator = init(new ElementPostAggregationFilter(),
+                init(new ElementPreAggregationFilter(),
+                        init(new ValidatorFilter(), new SortedMapIterator(tablet))));
+        iterator.seek(range, Collections.emptyList(), false);
+        while (iterator.hasTop()) {
+            blackhole.consume(iterator.getTopValue());
+            iterator.next();
+        }
+    }
+
+    private SortedKeyValueIterator<Key, Value> init(final SortedKeyValueIterator<Key, Value> iterator,
+                                                    final SortedKeyValueIterator<Key, Value> source) throws IOException {
+        iterator.init(source, options, null);
+        return iterator;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.mapstore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.impl.AddElementsHandler;
+import uk.gov.gchq.gaffer.mapstore.impl.GetElementsHandler;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for the {@link AddElementsHandler} and {@link GetElementsHandler}
+ * of the {@link MapStore}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapStoreBenchmark {
+    private static final int NUM_SEEDS = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"0", "1000"})
+    public int ingestBufferSize;
+
+    private final AddElementsHandler addElementsHandler = new AddElementsHandler();
+    private final GetElementsHandler getElementsHandler = new GetElementsHandler();
+    private final Context context = new Context(new User());
+
+    private Schema schema;
+    private List<Element> elements;
+    private AddElements addElements;
+    private GetElements getElements;
+    private MapStore populatedStore;
+    private MapStore emptyStore;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws StoreException, OperationException {
+        schema = BenchmarkData.createSchema();
+        elements = BenchmarkData.createElements(size);
+        addElements = new AddElements.Builder()
+                .input(elements)
+                .validate(false)
+                .build();
+        getElements = new GetElements.Builder()
+                .input(BenchmarkData.createSeeds(NUM_SEEDS, size)
+                        .stream()
+                        .map(EntitySeed::new)
+                        .collect(Collectors.toList()))
+                .view(new View.Builder()
+                        .entity(BenchmarkData.ENTITY)
+                        .edge(BenchmarkData.EDGE)
+                        .build())
+                .build();
+        populatedStore = createStore();
+        addElementsHandler.doOperation(addElements, context, populatedStore);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws StoreException {
+        emptyStore = createStore();
+    }
+
+    @Benchmark
+    public MapStore addElements() throws OperationException {
+        addElementsHandler.doOperation(addElements, context, emptyStore);
+        return emptyStore;
+    }
+
+    @Benchmark
+    public void getElements(final Blackhole blackhole) throws OperationException {
+        try (final CloseableIterable<? extends Element> results = getElementsHandler.doOperation(getElements, context, populatedStore);
+             final CloseableIterator<? extends Element> itr = results.iterator()) {
+            while (itr.hasNext()) {
+                blackhole.consume(itr.next());
+            }
+        }
+    }
+
+    private MapStore createStore() throws StoreException {
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setIngestBufferSize(ingestBufferSize);
+        final MapStore store = new MapStore();
+        store.initialise("benchmark", schema.clone(), properties);
+        return store;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.serialisation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.TypeSubTypeValueSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.types.TypeSubTypeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serialising and then deserialising a batch of values with the
+ * commonly used {@link ToBytesSerialiser}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerialiserBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private final CompactRawLongSerialiser compactRawLongSerialiser = new CompactRawLongSerialiser();
+    private final OrderedLongSerialiser orderedLongSerialiser = new OrderedLongSerialiser();
+    private final StringSerialiser stringSerialiser = new StringSerialiser();
+    private final TypeSubTypeValueSerialiser typeSubTypeValueSerialiser = new TypeSubTypeValueSerialiser();
+
+    private Long[] longs;
+    private String[] strings;
+    private TypeSubTypeValue[] typeSubTypeValues;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        final Random random = new Random(BenchmarkData.SEED);
+        longs = new Long[size];
+        strings = new String[size];
+        typeSubTypeValues = new TypeSubTypeValue[size];
+        for (int i = 0; i < size; i++) {
+            // Mix small and large values so the variable length encodings are exercised
+            longs[i] = 0 == i % 2 ? (long) random.nextInt(1000) : random.nextLong();
+            strings[i] = BenchmarkData.vertex(random.nextInt());
+            typeSubTypeValues[i] = new TypeSubTypeValue("type" + (i % 10), "subType" + (i % 3), strings[i]);
+        }
+    }
+
+    @Benchmark
+    public void compactRawLongSerialiser(final Blackhole blackhole) throws SerialisationException {
+        roundTrip(compactRawLongSerialiser, longs, blackhole);
+    }
+
+    @Benchmark
+    public void orderedLongSerialiser(final Blackhole blackhole) throws SerialisationException {
+        roundTrip(orderedLongSerialiser, longs, blackhole);
+    }
+
+    @Benchmark
+    public void stringSerialiser(final Blackhole blackhole) throws SerialisationException {
+        roundTrip(stringSerialiser, strings, blackhole);
+    }
+
+    @Benchmark
+    public void typeSubTypeValueSerialiser(final Blackhole blackhole) throws SerialisationException {
+        roundTrip(typeSubTypeValueSerialiser, typeSubTypeValues, blackhole);
+    }
+
+    private static <T> void roundTrip(final ToBytesSerialiser<T> serialiser, final T[] values, final Blackhole blackhole) throws SerialisationException {
+        for (final T value : values) {
+            blackhole.consume(serialiser.deserialise(serialiser.serialise(value)));
+        }
+    }
+}
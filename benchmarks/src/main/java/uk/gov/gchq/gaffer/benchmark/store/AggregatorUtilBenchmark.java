@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.gaffer.benchmark.BenchmarkData;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for ingest aggregation using {@link AggregatorUtil}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregatorUtilBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private Schema schema;
+    private List<Element> elements;
+    private AggregatorUtil.IngestPropertiesBinaryOperator propertiesOperator;
+    private List<GroupedProperties> properties;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        schema = BenchmarkData.createSchema();
+        elements = BenchmarkData.createElements(size);
+        propertiesOperator = new AggregatorUtil.IngestPropertiesBinaryOperator(schema);
+    }
+
+    /**
+     * The binary operator aggregates into its first argument, so fresh copies
+     * of the properties are required for every invocation.
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        properties = new ArrayList<>(elements.size());
+        for (final Element element : elements) {
+            if (BenchmarkData.EDGE.equals(element.getGroup())) {
+                final GroupedProperties groupedProperties = new GroupedProperties(element.getGroup());
+                groupedProperties.putAll(element.getProperties());
+                properties.add(groupedProperties);
+            }
+        }
+    }
+
+    @Benchmark
+    public GroupedProperties ingestPropertiesBinaryOperator() {
+        GroupedProperties result = null;
+        for (final GroupedProperties props : properties) {
+            result = null == result ? props : propertiesOperator.apply(result, props);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void ingestAggregate(final Blackhole blackhole) {
+        for (final Element element : AggregatorUtil.ingestAggregate(elements, schema)) {
+            blackhole.consume(element);
+        }
+    }
+}
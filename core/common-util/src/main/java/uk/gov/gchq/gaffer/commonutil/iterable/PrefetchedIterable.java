@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.commonutil.iterable;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code PrefetchedIterable} reads up to a maximum number of items from an
+ * {@link Iterable} when it is created, so the cost of producing those items,
+ * for example running a scan, is paid by the thread creating it rather than
+ * the thread iterating over it.
+ * <p>
+ * If the iterable has no more than the maximum number of items it is closed
+ * straight away and the prefetched items can be iterated over any number of
+ * times. Otherwise the prefetched items are followed by the rest of the
+ * items, read from the original iterator, so the items can only be iterated
+ * over once. Closing this closes the original iterator and iterable.
+ *
+ * @param <T> the type of items in the iterable.
+ */
+public class PrefetchedIterable<T> implements CloseableIterable<T> {
+    private final List<T> items;
+    private final Iterable<T> iterable;
+    private Iterator<T> remaining;
+    private boolean iterated;
+
+    public PrefetchedIterable(final Iterable<T> iterable, final int maxItems) {
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("maxItems must not be negative");
+        }
+        this.iterable = iterable;
+        this.items = new ArrayList<>(Math.min(maxItems, 16));
+        final Iterator<T> itr = iterable.iterator();
+        try {
+            while (items.size() < maxItems && itr.hasNext()) {
+                items.add(itr.next());
+            }
+            if (itr.hasNext()) {
+                remaining = itr;
+            } else {
+                CloseableUtil.close(itr, iterable);
+            }
+        } catch (final RuntimeException e) {
+            CloseableUtil.close(itr, iterable);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if all the items were prefetched
+     */
+    public boolean isComplete() {
+        return null == remaining;
+    }
+
+    /**
+     * @return the prefetched items
+     */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        if (isComplete()) {
+            return new WrappedCloseableIterator<>(getItems().iterator());
+        }
+
+        if (iterated) {
+            throw new IllegalStateException("The remaining items have already been iterated over");
+        }
+        iterated = true;
+        final Iterator<T> itr = remaining;
+        final Iterator<T> prefetched = items.iterator();
+        return new CloseableIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return prefetched.hasNext() || itr.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (prefetched.hasNext()) {
+                    return prefetched.next();
+                }
+                if (!itr.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return itr.next();
+            }
+
+            @Override
+            public void close() {
+                CloseableUtil.close(itr, iterable);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (null != remaining) {
+            CloseableUtil.close(remaining, iterable);
+        }
+    }
+}
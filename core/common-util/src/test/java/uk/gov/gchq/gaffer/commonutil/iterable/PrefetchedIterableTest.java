@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PrefetchedIterableTest {
+
+    @Test
+    public void shouldPrefetchAllItemsAndCloseIterableWhenWithinLimit() {
+        // Given
+        final CloseableIterable<Integer> iterable = new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3));
+        final CloseableIterable<Integer> source = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> itr = iterable.iterator();
+        when(source.iterator()).thenReturn(itr);
+
+        // When
+        final PrefetchedIterable<Integer> prefetched = new PrefetchedIterable<>(source, 3);
+
+        // Then
+        assertTrue(prefetched.isComplete());
+        assertEquals(Arrays.asList(1, 2, 3), prefetched.getItems());
+        verify(source).close();
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(prefetched));
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(prefetched));
+    }
+
+    @Test
+    public void shouldPrefetchUpToLimitAndIterateOverTheRemainingItems() {
+        // Given
+        final Iterable<Integer> iterable = Arrays.asList(1, 2, 3, 4, 5);
+
+        // When
+        final PrefetchedIterable<Integer> prefetched = new PrefetchedIterable<>(iterable, 2);
+
+        // Then
+        assertFalse(prefetched.isComplete());
+        assertEquals(Arrays.asList(1, 2), prefetched.getItems());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), Lists.newArrayList(prefetched));
+    }
+
+    @Test
+    public void shouldOnlyIterateOverTheRemainingItemsOnce() {
+        // Given
+        final PrefetchedIterable<Integer> prefetched = new PrefetchedIterable<>(Arrays.asList(1, 2, 3), 1);
+        prefetched.iterator();
+
+        // When / Then
+        try {
+            prefetched.iterator();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("already been iterated over"));
+        }
+    }
+
+    @Test
+    public void shouldCloseTheRemainingItems() {
+        // Given
+        final CloseableIterable<Integer> iterable = mock(CloseableIterable.class);
+        final CloseableIterator<Integer> itr = mock(CloseableIterator.class);
+        when(iterable.iterator()).thenReturn(itr);
+        when(itr.hasNext()).thenReturn(true);
+        when(itr.next()).thenReturn(1);
+        final PrefetchedIterable<Integer> prefetched = new PrefetchedIterable<>(iterable, 2);
+
+        // When
+        final Iterator<Integer> result = prefetched.iterator();
+        ((CloseableIterator<Integer>) result).close();
+
+        // Then
+        verify(itr).close();
+        verify(iterable).close();
+    }
+}
@@ -34,8 +34,10 @@ import java.util.function.BinaryOperator;
  * {@link Element} objects into a single element.
  */
 public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<String> {
-    private final PropertiesTuple stateTuple = new PropertiesTuple();
-    private final PropertiesTuple propertiesTuple = new PropertiesTuple();
+    // The tuples are reused for each aggregation, one pair per thread so the aggregator can be shared.
+    // The properties are cleared after each call, so the tuples do not keep them alive.
+    private final ThreadLocal<PropertiesTuple> stateTuples = ThreadLocal.withInitial(PropertiesTuple::new);
+    private final ThreadLocal<PropertiesTuple> propertiesTuples = ThreadLocal.withInitial(PropertiesTuple::new);
     private boolean readOnly;
 
     /**
@@ -60,9 +62,16 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return properties;
         }
 
-        propertiesTuple.setProperties(properties);
+        final PropertiesTuple stateTuple = stateTuples.get();
+        final PropertiesTuple propertiesTuple = propertiesTuples.get();
         stateTuple.setProperties(state);
-        apply(stateTuple, propertiesTuple);
+        propertiesTuple.setProperties(properties);
+        try {
+            apply(stateTuple, propertiesTuple);
+        } finally {
+            stateTuple.setProperties(null);
+            propertiesTuple.setProperties(null);
+        }
         return state;
     }
 
@@ -92,12 +101,8 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return false;
         }
 
-        final ElementAggregator that = (ElementAggregator) obj;
-
         return new EqualsBuilder()
                 .appendSuper(super.equals(obj))
-                .append(stateTuple, that.stateTuple)
-                .append(propertiesTuple, that.propertiesTuple)
                 .isEquals();
     }
 
@@ -105,16 +110,13 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
     public int hashCode() {
         return new HashCodeBuilder(59, 13)
                 .appendSuper(super.hashCode())
-                .append(stateTuple)
-                .append(propertiesTuple)
                 .toHashCode();
     }
 
     @Override
     public String toString() {
         return new ToStringBuilder(this)
-                .append("stateTuple", stateTuple)
-                .append("propertiesTuple", propertiesTuple)
+                .appendSuper(super.toString())
                 .toString();
     }
 
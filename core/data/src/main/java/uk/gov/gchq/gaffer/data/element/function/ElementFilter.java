@@ -37,24 +37,36 @@ import java.util.function.Predicate;
  */
 @JsonPropertyOrder(alphabetic = true)
 public class ElementFilter extends TupleAdaptedPredicateComposite<String> {
-    private final ElementTuple elementTuple = new ElementTuple();
+    // The tuple is reused for each element, one per thread so the filter can be shared.
+    // The element is cleared after each call, so the tuple does not keep it alive.
+    private final ThreadLocal<ElementTuple> elementTuples = ThreadLocal.withInitial(ElementTuple::new);
     private boolean readOnly;
 
     public boolean test(final Element element) {
+        final ElementTuple elementTuple = elementTuples.get();
         elementTuple.setElement(element);
-        return test(elementTuple);
+        try {
+            return test(elementTuple);
+        } finally {
+            elementTuple.setElement(null);
+        }
     }
 
     public ValidationResult testWithValidationResult(final Element element) {
         final ValidationResult result = new ValidationResult();
+        final ElementTuple elementTuple = elementTuples.get();
         elementTuple.setElement(element);
-        components.stream()
-                .filter(predicate -> !predicate.test(elementTuple))
-                .forEach(predicate -> result.addError(getErrorMsg(predicate)));
+        try {
+            components.stream()
+                    .filter(predicate -> !predicate.test(elementTuple))
+                    .forEach(predicate -> result.addError(getErrorMsg(predicate, elementTuple)));
+        } finally {
+            elementTuple.setElement(null);
+        }
         return result;
     }
 
-    private String getErrorMsg(final TupleAdaptedPredicate<String, ?> predicate) {
+    private String getErrorMsg(final TupleAdaptedPredicate<String, ?> predicate, final ElementTuple elementTuple) {
         final StringBuilder builder = new StringBuilder();
         builder.append("Filter: ")
                 .append(predicate.getPredicate())
@@ -101,11 +113,8 @@ public class ElementFilter extends TupleAdaptedPredicateComposite<String> {
             return false;
         }
 
-        final ElementFilter that = (ElementFilter) obj;
-
         return new EqualsBuilder()
                 .appendSuper(super.equals(obj))
-                .append(elementTuple, that.elementTuple)
                 .isEquals();
     }
 
@@ -113,14 +122,13 @@ public class ElementFilter extends TupleAdaptedPredicateComposite<String> {
     public int hashCode() {
         return new HashCodeBuilder(19, 53)
                 .appendSuper(super.hashCode())
-                .append(elementTuple)
                 .toHashCode();
     }
 
     @Override
     public String toString() {
         return new ToStringBuilder(this)
-                .append("elementTuple", elementTuple)
+                .appendSuper(super.toString())
                 .toString();
     }
 
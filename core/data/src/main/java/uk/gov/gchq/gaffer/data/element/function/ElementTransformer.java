@@ -32,11 +32,18 @@ import java.util.function.Function;
  * transformations to an {@link Element}.
  */
 public class ElementTransformer extends TupleAdaptedFunctionComposite<String> {
-    private final ElementTuple elementTuple = new ElementTuple();
+    // The tuple is reused for each element, one per thread so the transformer can be shared.
+    // The element is cleared after each call, so the tuple does not keep it alive.
+    private final ThreadLocal<ElementTuple> elementTuples = ThreadLocal.withInitial(ElementTuple::new);
 
     public Element apply(final Element element) {
+        final ElementTuple elementTuple = elementTuples.get();
         elementTuple.setElement(element);
-        apply(elementTuple);
+        try {
+            apply(elementTuple);
+        } finally {
+            elementTuple.setElement(null);
+        }
         return element;
     }
 
@@ -50,11 +57,8 @@ public class ElementTransformer extends TupleAdaptedFunctionComposite<String> {
             return false;
         }
 
-        final ElementTransformer that = (ElementTransformer) obj;
-
         return new EqualsBuilder()
                 .appendSuper(super.equals(obj))
-                .append(elementTuple, that.elementTuple)
                 .isEquals();
     }
 
@@ -62,14 +66,13 @@ public class ElementTransformer extends TupleAdaptedFunctionComposite<String> {
     public int hashCode() {
         return new HashCodeBuilder(47, 17)
                 .appendSuper(super.hashCode())
-                .append(elementTuple)
                 .toHashCode();
     }
 
     @Override
     public String toString() {
         return new ToStringBuilder(this)
-                .append("elementTuple", elementTuple)
+                .appendSuper(super.toString())
                 .toString();
     }
 
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.data.graph.adjacency;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@code CompactAdjacencyMap} is an immutable equivalent of an
+ * {@link AdjacencyMap} which holds its contents in primitive arrays rather
+ * than a table of sets.
+ * <p>
+ * Vertices are referred to by the int ids assigned by the parent
+ * {@link CompactAdjacencyMaps}. The map is held in compressed sparse row
+ * form: the distinct source and destination pairs are sorted by source, so
+ * the pairs for a source are the range {@code [getFirstPair(source),
+ * getEndPair(source))}, and the edges for each pair are a range in a single
+ * array of edges. The pairs for a source, and the edges for a pair, are kept
+ * in the order they were first added.
+ */
+public final class CompactAdjacencyMap {
+    private final CompactAdjacencyMaps adjacencyMaps;
+
+    /**
+     * The index of the first pair for each source vertex id, indexed by
+     * vertex id, with an extra entry holding the number of pairs.
+     */
+    private int[] pairOffsets;
+    private int[] destinations;
+
+    /**
+     * The index of the first edge for each pair, with an extra entry holding
+     * the number of edges.
+     */
+    private int[] edgeOffsets;
+    private Edge[] edges;
+
+    private CompactAdjacencyMap(final CompactAdjacencyMaps adjacencyMaps,
+                                final int[] pairOffsets,
+                                final int[] destinations,
+                                final int[] edgeOffsets,
+                                final Edge[] edges) {
+        this.adjacencyMaps = adjacencyMaps;
+        this.pairOffsets = pairOffsets;
+        this.destinations = destinations;
+        this.edgeOffsets = edgeOffsets;
+        this.edges = edges;
+    }
+
+    /**
+     * @param source the source vertex id
+     * @return the index of the first source and destination pair for the
+     * source vertex
+     */
+    public int getFirstPair(final int source) {
+        return source > -1 && source < pairOffsets.length - 1 ? pairOffsets[source] : 0;
+    }
+
+    /**
+     * @param source the source vertex id
+     * @return the index after the last source and destination pair for the
+     * source vertex
+     */
+    public int getEndPair(final int source) {
+        return source > -1 && source < pairOffsets.length - 1 ? pairOffsets[source + 1] : 0;
+    }
+
+    public int getDestination(final int pair) {
+        return destinations[pair];
+    }
+
+    /**
+     * @param pair the index of a source and destination pair
+     * @return the edges between the source and destination
+     */
+    public Set<Edge> getEdges(final int pair) {
+        final Set<Edge> pairEdges = new LinkedHashSet<>();
+        Collections.addAll(pairEdges, Arrays.copyOfRange(edges, edgeOffsets[pair], edgeOffsets[pair + 1]));
+        return pairEdges;
+    }
+
+    public int getPairCount() {
+        return destinations.length;
+    }
+
+    public int getEdgeCount() {
+        return edges.length;
+    }
+
+    public boolean containsSource(final int source) {
+        return getFirstPair(source) < getEndPair(source);
+    }
+
+    /**
+     * Converts this map into an {@link AdjacencyMap}.
+     *
+     * @return a new AdjacencyMap containing the same edges
+     */
+    public AdjacencyMap toAdjacencyMap() {
+        final AdjacencyMap adjacencyMap = new AdjacencyMap();
+        for (int source = 0; source < pairOffsets.length - 1; source++) {
+            for (int pair = pairOffsets[source]; pair < pairOffsets[source + 1]; pair++) {
+                final Object sourceVertex = adjacencyMaps.getVertex(source);
+                final Object destinationVertex = adjacencyMaps.getVertex(destinations[pair]);
+                for (int edge = edgeOffsets[pair]; edge < edgeOffsets[pair + 1]; edge++) {
+                    adjacencyMap.putEdge(sourceVertex, destinationVertex, edges[edge]);
+                }
+            }
+        }
+        return adjacencyMap;
+    }
+
+    /**
+     * Removes the pairs whose destination does not match the predicate.
+     *
+     * @param predicate the predicate to test the destination vertex ids with
+     * @return true if any pairs were removed
+     */
+    boolean retainDestinations(final IntPredicate predicate) {
+        final int[] newPairOffsets = new int[pairOffsets.length];
+        final int[] newDestinations = new int[destinations.length];
+        final int[] newEdgeOffsets = new int[edgeOffsets.length];
+        int pairCount = 0;
+        int edgeCount = 0;
+        for (int source = 0; source < pairOffsets.length - 1; source++) {
+            newPairOffsets[source] = pairCount;
+            for (int pair = pairOffsets[source]; pair < pairOffsets[source + 1]; pair++) {
+                if (predicate.test(destinations[pair])) {
+                    newDestinations[pairCount] = destinations[pair];
+                    newEdgeOffsets[pairCount] = edgeCount;
+                    final int pairEdgeCount = edgeOffsets[pair + 1] - edgeOffsets[pair];
+                    System.arraycopy(edges, edgeOffsets[pair], edges, edgeCount, pairEdgeCount);
+                    edgeCount += pairEdgeCount;
+                    pairCount++;
+                }
+            }
+        }
+
+        if (pairCount == destinations.length) {
+            return false;
+        }
+
+        newPairOffsets[pairOffsets.length - 1] = pairCount;
+        newEdgeOffsets[pairCount] = edgeCount;
+        pairOffsets = newPairOffsets;
+        destinations = Arrays.copyOf(newDestinations, pairCount);
+        edgeOffsets = Arrays.copyOf(newEdgeOffsets, pairCount + 1);
+        edges = Arrays.copyOf(edges, edgeCount);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return toAdjacencyMap().toString();
+    }
+
+    /**
+     * A {@code Builder} collects the edges for a {@link CompactAdjacencyMap}
+     * and then sorts them into compressed sparse row form.
+     */
+    public static final class Builder {
+        private final CompactAdjacencyMaps adjacencyMaps;
+        private int[] sources = new int[16];
+        private int[] destinations = new int[16];
+        private final List<Edge> edges = new ArrayList<>();
+
+        Builder(final CompactAdjacencyMaps adjacencyMaps) {
+            this.adjacencyMaps = adjacencyMaps;
+        }
+
+        public Builder edge(final Object source, final Object destination, final Edge edge) {
+            final int index = edges.size();
+            if (index == sources.length) {
+                sources = Arrays.copyOf(sources, index * 2);
+                destinations = Arrays.copyOf(destinations, index * 2);
+            }
+            sources[index] = adjacencyMaps.intern(source);
+            destinations[index] = adjacencyMaps.intern(destination);
+            edges.add(edge);
+            return this;
+        }
+
+        public CompactAdjacencyMap build() {
+            final int vertexCount = adjacencyMaps.getVertexCount();
+            final int edgeCount = edges.size();
+
+            // Group the edges by source, then number the pairs for each source
+            // in the order their destinations were first added.
+            final int[] bySource = sort(sources, edgeCount, vertexCount);
+            final int[] pairOffsets = new int[vertexCount + 1];
+            final int[] pairDestinations = new int[edgeCount];
+            final int[] edgePairs = new int[edgeCount];
+            final int[] destinationSources = new int[vertexCount];
+            final int[] destinationPairs = new int[vertexCount];
+            int pairCount = 0;
+            for (final int edge : bySource) {
+                final int source = sources[edge];
+                final int destination = destinations[edge];
+                if (destinationSources[destination] != source + 1) {
+                    destinationSources[destination] = source + 1;
+                    destinationPairs[destination] = pairCount;
+                    pairDestinations[pairCount] = destination;
+                    pairOffsets[source + 1]++;
+                    pairCount++;
+                }
+                edgePairs[edge] = destinationPairs[destination];
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                pairOffsets[vertex + 1] += pairOffsets[vertex];
+            }
+
+            final int[] byPair = sort(edgePairs, edgeCount, pairCount);
+            final int[] edgeOffsets = new int[pairCount + 1];
+            final Edge[] sortedEdges = new Edge[edgeCount];
+            final Set<Edge> pairEdges = new LinkedHashSet<>();
+            int sortedEdgeCount = 0;
+            int i = 0;
+            for (int pair = 0; pair < pairCount; pair++) {
+                edgeOffsets[pair] = sortedEdgeCount;
+
+                // Equal edges between the same pair of vertices are only held once
+                pairEdges.clear();
+                while (i < edgeCount && edgePairs[byPair[i]] == pair) {
+                    pairEdges.add(edges.get(byPair[i]));
+                    i++;
+                }
+                for (final Edge edge : pairEdges) {
+                    sortedEdges[sortedEdgeCount++] = edge;
+                }
+            }
+            edgeOffsets[pairCount] = sortedEdgeCount;
+
+            return new CompactAdjacencyMap(adjacencyMaps,
+                    pairOffsets,
+                    Arrays.copyOf(pairDestinations, pairCount),
+                    edgeOffsets,
+                    Arrays.copyOf(sortedEdges, sortedEdgeCount));
+        }
+
+        /**
+         * Performs a stable counting sort of the edge indices by a key.
+         *
+         * @param keys     the keys to sort by, indexed by edge index
+         * @param count    the number of edges
+         * @param keyCount the number of distinct keys
+         * @return the sorted edge indices
+         */
+        private static int[] sort(final int[] keys, final int count, final int keyCount) {
+            final int[] starts = new int[keyCount + 1];
+            for (int i = 0; i < count; i++) {
+                starts[keys[i] + 1]++;
+            }
+            for (int key = 0; key < keyCount; key++) {
+                starts[key + 1] += starts[key];
+            }
+
+            final int[] sorted = new int[count];
+            for (int i = 0; i < count; i++) {
+                sorted[starts[keys[i]]++] = i;
+            }
+            return sorted;
+        }
+    }
+}
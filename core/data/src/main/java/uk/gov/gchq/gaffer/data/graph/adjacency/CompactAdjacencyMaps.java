@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.data.graph.adjacency;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code CompactAdjacencyMaps} object represents a collection of
+ * {@link CompactAdjacencyMap}s containing graph adjacency information.
+ * <p>
+ * The vertices in all of the maps are encoded to int ids using a shared
+ * dictionary, and each map holds its edges in primitive arrays indexed by
+ * those ids, so far fewer objects are held than with {@link AdjacencyMap}s.
+ * <p>
+ * If pruning is enabled, then as each map is added any source and destination
+ * pairs in the preceding maps which do not join up with a source vertex in the
+ * newly added map are removed, in the same way as {@link PrunedAdjacencyMaps}.
+ * <p>
+ * The {@link List} returned by {@link #asList()} is a read-only view which
+ * converts each map into an {@link AdjacencyMap} when it is retrieved.
+ */
+public class CompactAdjacencyMaps implements AdjacencyMaps {
+    private final boolean prune;
+    private final Map<Object, Integer> vertexIds = new HashMap<>();
+    private final List<Object> vertices = new ArrayList<>();
+    private final List<CompactAdjacencyMap> adjacencyMaps = new ArrayList<>();
+
+    public CompactAdjacencyMaps() {
+        this(false);
+    }
+
+    public CompactAdjacencyMaps(final boolean prune) {
+        this.prune = prune;
+    }
+
+    /**
+     * Creates a builder for a new {@link CompactAdjacencyMap} which uses the
+     * vertex ids of this object.
+     *
+     * @return the builder
+     */
+    public CompactAdjacencyMap.Builder newAdjacencyMap() {
+        return new CompactAdjacencyMap.Builder(this);
+    }
+
+    /**
+     * Add a new {@link CompactAdjacencyMap}, which must have been built using
+     * {@link #newAdjacencyMap()}.
+     *
+     * @param adjacencyMap the map to add
+     */
+    public void add(final CompactAdjacencyMap adjacencyMap) {
+        if (prune) {
+            CompactAdjacencyMap next = adjacencyMap;
+            for (int i = adjacencyMaps.size() - 1; i > -1; i--) {
+                final CompactAdjacencyMap nextMap = next;
+                final CompactAdjacencyMap prev = adjacencyMaps.get(i);
+                if (!prev.retainDestinations(nextMap::containsSource)) {
+                    break;
+                }
+                next = prev;
+            }
+        }
+        adjacencyMaps.add(adjacencyMap);
+    }
+
+    @Override
+    public void add(final AdjacencyMap adjacencyMap) {
+        final CompactAdjacencyMap.Builder builder = newAdjacencyMap();
+        for (final Object source : adjacencyMap.getAllSources()) {
+            for (final Object destination : adjacencyMap.getDestinations(source)) {
+                for (final Edge edge : adjacencyMap.getEdges(source, destination)) {
+                    builder.edge(source, destination, edge);
+                }
+            }
+        }
+        add(builder.build());
+    }
+
+    public CompactAdjacencyMap getCompact(final int n) {
+        return adjacencyMaps.get(n);
+    }
+
+    /**
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if the vertex is not in any of the maps
+     */
+    public int getVertexId(final Object vertex) {
+        final Integer id = vertexIds.get(vertex);
+        return null != id ? id : -1;
+    }
+
+    public Object getVertex(final int id) {
+        return vertices.get(id);
+    }
+
+    public int getVertexCount() {
+        return vertices.size();
+    }
+
+    @Override
+    public int size() {
+        return adjacencyMaps.size();
+    }
+
+    @Override
+    public boolean empty() {
+        return adjacencyMaps.isEmpty();
+    }
+
+    @Override
+    public List<AdjacencyMap> asList() {
+        return new AbstractList<AdjacencyMap>() {
+            @Override
+            public AdjacencyMap get(final int index) {
+                return adjacencyMaps.get(index).toAdjacencyMap();
+            }
+
+            @Override
+            public int size() {
+                return adjacencyMaps.size();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return prettyPrint();
+    }
+
+    int intern(final Object vertex) {
+        return vertexIds.computeIfAbsent(vertex, v -> {
+            vertices.add(v);
+            return vertices.size() - 1;
+        });
+    }
+}
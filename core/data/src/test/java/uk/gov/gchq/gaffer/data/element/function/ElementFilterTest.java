@@ -29,7 +29,11 @@ import uk.gov.gchq.koryphe.impl.predicate.Or;
 import uk.gov.gchq.koryphe.tuple.predicate.KoryphePredicate2;
 import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 import static junit.framework.TestCase.assertSame;
@@ -354,4 +358,39 @@ public class ElementFilterTest extends JSONSerialisationTest<ElementFilter> {
         // Then - no exceptions
         components.add(null);
     }
+
+    @Test
+    public void shouldTestElementsConcurrentlyWithASharedFilter() throws Exception {
+        // Given
+        final ElementFilter filter = new ElementFilter.Builder()
+                .select("prop1")
+                .execute(new IsMoreThan(50))
+                .build();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        final List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    for (int value = 0; value < 10000; value++) {
+                        final Entity element = new Entity.Builder()
+                                .property("prop1", value)
+                                .build();
+                        if (filter.test(element) != value > 50) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            // Then
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
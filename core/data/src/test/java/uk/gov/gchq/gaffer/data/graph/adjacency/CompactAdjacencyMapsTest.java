@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.data.graph.adjacency;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactAdjacencyMapsTest {
+
+    @Test
+    public void shouldGroupEdgesBySourceAndDestination() {
+        // Given
+        final CompactAdjacencyMaps adjacencyMaps = new CompactAdjacencyMaps();
+        final Edge edge1To2 = makeEdge(1, 2);
+        final Edge otherEdge1To2 = new Edge.Builder().group(TestGroups.EDGE_2).source(1).dest(2).directed(true).build();
+        final Edge edge1To3 = makeEdge(1, 3);
+        final Edge edge3To1 = makeEdge(3, 1);
+
+        // When
+        final CompactAdjacencyMap adjacencyMap = adjacencyMaps.newAdjacencyMap()
+                .edge(3, 1, edge3To1)
+                .edge(1, 2, edge1To2)
+                .edge(1, 3, edge1To3)
+                .edge(1, 2, otherEdge1To2)
+                .edge(1, 2, makeEdge(1, 2))
+                .build();
+        adjacencyMaps.add(adjacencyMap);
+
+        // Then
+        final int vertex1 = adjacencyMaps.getVertexId(1);
+        assertEquals(2, adjacencyMap.getEndPair(vertex1) - adjacencyMap.getFirstPair(vertex1));
+        final int pair1To2 = adjacencyMap.getFirstPair(vertex1);
+        assertEquals(2, adjacencyMaps.getVertex(adjacencyMap.getDestination(pair1To2)));
+        assertEquals(Sets.newHashSet(edge1To2, otherEdge1To2), adjacencyMap.getEdges(pair1To2));
+        assertEquals(3, adjacencyMaps.getVertex(adjacencyMap.getDestination(pair1To2 + 1)));
+        assertEquals(Collections.singleton(edge1To3), adjacencyMap.getEdges(pair1To2 + 1));
+        assertEquals(3, adjacencyMap.getPairCount());
+        assertEquals(4, adjacencyMap.getEdgeCount());
+        assertFalse(adjacencyMap.containsSource(adjacencyMaps.getVertexId(2)));
+        assertEquals(-1, adjacencyMaps.getVertexId(4));
+
+        final AdjacencyMap converted = adjacencyMaps.get(0);
+        assertEquals(Sets.newHashSet(2, 3), converted.getDestinations(1));
+        assertEquals(Sets.newHashSet(edge1To2, otherEdge1To2), converted.getEdges(1, 2));
+        assertEquals(Collections.singleton(edge3To1), converted.getEdges(3, 1));
+    }
+
+    @Test
+    public void shouldAddAdjacencyMap() {
+        // Given
+        final CompactAdjacencyMaps adjacencyMaps = new CompactAdjacencyMaps();
+        final AdjacencyMap adjacencyMap = new AdjacencyMap();
+        adjacencyMap.putEdge(1, 2, makeEdge(1, 2));
+        adjacencyMap.putEdge(2, 3, makeEdge(2, 3));
+
+        // When
+        adjacencyMaps.add(adjacencyMap);
+
+        // Then
+        assertEquals(1, adjacencyMaps.size());
+        assertEquals(adjacencyMap.getEdges(1, 2), adjacencyMaps.get(0).getEdges(1, 2));
+        assertEquals(adjacencyMap.getEdges(2, 3), adjacencyMaps.get(0).getEdges(2, 3));
+    }
+
+    @Test
+    public void shouldNotPruneByDefault() {
+        // Given
+        final CompactAdjacencyMaps adjacencyMaps = new CompactAdjacencyMaps();
+
+        // When
+        adjacencyMaps.add(adjacencyMaps.newAdjacencyMap()
+                .edge(1, 2, makeEdge(1, 2))
+                .edge(1, 3, makeEdge(1, 3))
+                .build());
+        adjacencyMaps.add(adjacencyMaps.newAdjacencyMap()
+                .edge(2, 3, makeEdge(2, 3))
+                .build());
+
+        // Then
+        assertThat(adjacencyMaps.get(0).getDestinations(1), hasSize(2));
+    }
+
+    @Test
+    public void shouldPruneRecursively() {
+        // Given
+        final CompactAdjacencyMaps adjacencyMaps = new CompactAdjacencyMaps(true);
+
+        // When
+        adjacencyMaps.add(adjacencyMaps.newAdjacencyMap()
+                .edge(1, 2, makeEdge(1, 2))
+                .edge(1, 3, makeEdge(1, 3))
+                .build());
+        adjacencyMaps.add(adjacencyMaps.newAdjacencyMap()
+                .edge(2, 4, makeEdge(2, 4))
+                .edge(2, 5, makeEdge(2, 5))
+                .edge(3, 6, makeEdge(3, 6))
+                .edge(3, 7, makeEdge(3, 7))
+                .build());
+        adjacencyMaps.add(adjacencyMaps.newAdjacencyMap()
+                .edge(4, 8, makeEdge(4, 8))
+                .edge(4, 9, makeEdge(4, 9))
+                .edge(5, 10, makeEdge(5, 10))
+                .edge(5, 11, makeEdge(5, 11))
+                .build());
+
+        // Then
+        final AdjacencyMap firstPruned = adjacencyMaps.get(0);
+        final AdjacencyMap secondPruned = adjacencyMaps.get(1);
+        final AdjacencyMap thirdPruned = adjacencyMaps.get(2);
+
+        assertThat(firstPruned.getDestinations(1), hasSize(1));
+        assertTrue(firstPruned.getDestinations(1).contains(2));
+        assertThat(secondPruned.getDestinations(2), hasSize(2));
+        assertFalse(secondPruned.containsSource(3));
+        assertThat(thirdPruned.getDestinations(4), hasSize(2));
+        assertThat(thirdPruned.getDestinations(5), hasSize(2));
+        assertEquals(1, adjacencyMaps.getCompact(0).getEdgeCount());
+        assertEquals(2, adjacencyMaps.getCompact(1).getEdgeCount());
+    }
+
+    private Edge makeEdge(final Object source, final Object destination) {
+        return new Edge.Builder().group(TestGroups.EDGE).source(source).dest(destination).directed(true).build();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import uk.gov.gchq.gaffer.data.elementdefinition.view.NamedView;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@code ExpandedViewCache} expands the views of operations, merging in
+ * the graph view or the schema groups where required and expanding the global
+ * element definitions.
+ * <p>
+ * Expanding a view can require a number of copies of the view, so expanded views
+ * are memoised, keyed by the operation view, its config and its all edges and
+ * all entities flags. The memoised views are only valid for a single graph view
+ * and schema, so they are discarded if either of these are changed. Views that
+ * are already expanded are returned without any copying.
+ * </p>
+ * <p>
+ * The expanded views are shared between operations, so should not be modified.
+ * </p>
+ */
+final class ExpandedViewCache {
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+    private final Map<ViewKey, View> expandedViews = new ConcurrentHashMap<>();
+    private volatile View graphView;
+    private volatile Schema schema;
+
+    ExpandedViewCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    ExpandedViewCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Expands an operation view.
+     *
+     * @param opView    the operation view, may be null
+     * @param graphView the view of the graph
+     * @param schema    the graph schema
+     * @return the expanded view
+     */
+    View expand(final View opView, final View graphView, final Schema schema) {
+        if (null == opView) {
+            graphView.expandGlobalDefinitions();
+            return graphView;
+        }
+
+        final boolean mergeGraphView = !(opView instanceof NamedView) && !opView.hasGroups() && !opView.isAllEdges() && !opView.isAllEntities();
+        final boolean addSchemaGroups = opView.isAllEdges() || opView.isAllEntities();
+        if (opView instanceof NamedView || (!mergeGraphView && !addSchemaGroups && !hasGlobalDefinitions(opView))) {
+            // Nothing needs to be copied
+            opView.expandGlobalDefinitions();
+            return opView;
+        }
+
+        if (graphView != this.graphView || schema != this.schema) {
+            expandedViews.clear();
+            this.graphView = graphView;
+            this.schema = schema;
+        }
+
+        final ViewKey key = new ViewKey(opView);
+        View expandedView = expandedViews.get(key);
+        if (null == expandedView) {
+            final View.Builder viewBuilder = new View.Builder();
+            if (mergeGraphView) {
+                viewBuilder.merge(graphView);
+            }
+            viewBuilder.merge(opView);
+            if (opView.isAllEdges()) {
+                viewBuilder.edges(schema.getEdgeGroups());
+            }
+            if (opView.isAllEntities()) {
+                viewBuilder.entities(schema.getEntityGroups());
+            }
+            expandedView = viewBuilder.build();
+            expandedView.expandGlobalDefinitions();
+
+            if (expandedViews.size() >= maxSize) {
+                expandedViews.clear();
+            }
+            expandedViews.put(key, expandedView);
+        }
+
+        return expandedView;
+    }
+
+    int size() {
+        return expandedViews.size();
+    }
+
+    private static boolean hasGlobalDefinitions(final View view) {
+        return (null != view.getGlobalElements() && !view.getGlobalElements().isEmpty())
+                || (null != view.getGlobalEntities() && !view.getGlobalEntities().isEmpty())
+                || (null != view.getGlobalEdges() && !view.getGlobalEdges().isEmpty());
+    }
+
+    /**
+     * The key of a memoised view. The equality of views does not include the
+     * view config or the all edges and all entities flags, so these are added
+     * to the key.
+     */
+    private static final class ViewKey {
+        private final View view;
+        private final int hashCode;
+
+        private ViewKey(final View view) {
+            this.view = view;
+            this.hashCode = new HashCodeBuilder(17, 37)
+                    .append(view)
+                    .append(view.getConfig())
+                    .append(view.isAllEdges())
+                    .append(view.isAllEntities())
+                    .toHashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (null == obj || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final View otherView = ((ViewKey) obj).view;
+            return new EqualsBuilder()
+                    .append(view, otherView)
+                    .append(view.getConfig(), otherView.getConfig())
+                    .append(view.isAllEdges(), otherView.isAllEdges())
+                    .append(view.isAllEntities(), otherView.isAllEntities())
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -26,11 +26,11 @@ import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
-import uk.gov.gchq.gaffer.data.elementdefinition.view.NamedView;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.graph.hook.GraphHook;
 import uk.gov.gchq.gaffer.graph.hook.NamedOperationResolver;
 import uk.gov.gchq.gaffer.graph.hook.NamedViewResolver;
+import uk.gov.gchq.gaffer.graph.hook.ResultCache;
 import uk.gov.gchq.gaffer.graph.hook.UpdateViewHook;
 import uk.gov.gchq.gaffer.jobtracker.Job;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
@@ -100,6 +100,11 @@ public final class Graph {
 
     private GraphConfig config;
 
+    /**
+     * The memoised operation views, expanded using the graph view and schema.
+     */
+    private final ExpandedViewCache expandedViews = new ExpandedViewCache();
+
     /**
      * Constructs a {@code Graph} with the given {@link uk.gov.gchq.gaffer.store.Store}
      * and
@@ -354,27 +359,8 @@ public final class Graph {
             if (operation instanceof Operations) {
                 updateOperationChainView((Operations) operation);
             } else if (operation instanceof OperationView) {
-                View opView = ((OperationView) operation).getView();
-                if (null == opView) {
-                    opView = config.getView();
-                } else if (!(opView instanceof NamedView) && !opView.hasGroups() && !opView.isAllEdges() && !opView.isAllEntities()) {
-                    opView = new View.Builder()
-                            .merge(config.getView())
-                            .merge(opView)
-                            .build();
-                } else if (opView.isAllEdges() || opView.isAllEntities()) {
-                    View.Builder opViewBuilder = new View.Builder()
-                            .merge(opView);
-                    if (opView.isAllEdges()) {
-                        opViewBuilder.edges(getSchema().getEdgeGroups());
-                    }
-                    if (opView.isAllEntities()) {
-                        opViewBuilder.entities(getSchema().getEntityGroups());
-                    }
-                    opView = opViewBuilder.build();
-                }
-                opView.expandGlobalDefinitions();
-                ((OperationView) operation).setView(opView);
+                final View opView = ((OperationView) operation).getView();
+                ((OperationView) operation).setView(expandedViews.expand(opView, config.getView(), getSchema()));
             }
         }
     }
@@ -987,6 +973,9 @@ public final class Graph {
                 if (NamedViewResolver.class.isAssignableFrom(graphHook.getClass())) {
                     hasNamedViewHook = true;
                 }
+                if (graphHook instanceof ResultCache) {
+                    ((ResultCache) graphHook).setGraphId(config.getGraphId());
+                }
             }
             if (!hasNamedViewHook) {
                 config.getHooks().add(0, new NamedViewResolver());
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import uk.gov.gchq.gaffer.commonutil.iterable.PrefetchedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.Operations;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.Map;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
+import uk.gov.gchq.gaffer.operation.impl.output.ToList;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSet;
+import uk.gov.gchq.gaffer.operation.impl.output.ToVertices;
+import uk.gov.gchq.gaffer.operation.io.Input;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.function.Identity;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ResultCache} is a {@link GraphHook} that caches the results of
+ * read only operation chains, so that repeated identical queries do not
+ * need to be executed on the store.
+ * <p>
+ * Results are stored in a cache from the {@link CacheServiceLoader}, keyed
+ * by the operation chain and the data and operation auths of the user. The seeds of each
+ * operation are sorted when creating the key, so the same query with its seeds
+ * in a different order will use the same cached result. Only chains made up
+ * entirely of the cacheable operations are cached and results larger than the
+ * max result size are not cached. Entries expire after the time to live and
+ * once the cache holds the max number of entries the expired, then oldest,
+ * entries are evicted.
+ * </p>
+ * <p>
+ * When an operation chain containing one of the invalidating operations, by
+ * default {@link AddElements}, is executed the whole cache is cleared. When
+ * the hook is added to a {@link uk.gov.gchq.gaffer.graph.Graph} the graph ID
+ * is appended to the cache name, so each graph has its own cache. This hook
+ * should be added after any hooks that authorise or modify the operation
+ * chain.
+ * </p>
+ * <p>
+ * Cached results are shared between users with the same data and operation
+ * auths, so they are copied into unmodifiable collections and the returned
+ * elements should not be modified. If the cache service has not been
+ * initialised this hook does nothing.
+ * </p>
+ */
+@JsonPropertyOrder(alphabetic = true)
+public class ResultCache implements GraphHook {
+    public static final String DEFAULT_CACHE_NAME = "ResultCache";
+    public static final long DEFAULT_TIME_TO_LIVE = 60;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final int DEFAULT_MAX_RESULT_SIZE = 10000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+    private String cacheName = DEFAULT_CACHE_NAME;
+    private String graphId;
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private int maxResultSize = DEFAULT_MAX_RESULT_SIZE;
+    private Set<Class<? extends Operation>> cacheableOperations = Sets.newHashSet(
+            GetElements.class,
+            GetAdjacentIds.class,
+            Limit.class,
+            Count.class,
+            CountGroups.class,
+            ToArray.class,
+            ToList.class,
+            ToSet.class,
+            ToVertices.class
+    );
+    private Set<Class<? extends Operation>> invalidatingOperations = Sets.newHashSet(AddElements.class);
+
+    /**
+     * The cache keys of the operation chains that are being executed and
+     * whose results should be cached, indexed by job ID.
+     */
+    private final java.util.Map<String, String> pendingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Clears the cache if the operation chain contains an invalidating
+     * operation. Otherwise, if the chain is cacheable and a result is cached,
+     * the operations in the chain are replaced with a {@link Map} that just
+     * returns the cached result.
+     *
+     * @param opChain the operation chain being executed.
+     * @param context the Context in which the operation chain was executed.
+     */
+    @Override
+    public void preExecute(final OperationChain<?> opChain, final Context context) {
+        if (!CacheServiceLoader.isEnabled() || null == opChain) {
+            return;
+        }
+
+        if (containsAny(opChain, invalidatingOperations)) {
+            clear();
+            return;
+        }
+
+        if (!isCacheable(opChain)) {
+            return;
+        }
+
+        final String key = createKey(opChain, context.getUser());
+        if (null == key) {
+            return;
+        }
+
+        final CachedResult cachedResult = getCache().get(key);
+        if (null != cachedResult && !isExpired(cachedResult)) {
+            LOGGER.debug("Returning cached result for operation chain {}", key);
+            final List<Operation> operations = new ArrayList<>(1);
+            operations.add(new Map.Builder<>()
+                    .input(cachedResult.getResult())
+                    .first(new Identity())
+                    .build());
+            opChain.updateOperations(operations);
+        } else {
+            pendingKeys.put(context.getJobId(), key);
+        }
+    }
+
+    @Override
+    public <T> T postExecute(final T result, final OperationChain<?> opChain, final Context context) {
+        final String key = pendingKeys.remove(context.getJobId());
+        if (null != opChain && containsAny(opChain, invalidatingOperations)) {
+            clear();
+        }
+
+        if (null == key || null == result) {
+            return result;
+        }
+
+        final CachedResult cachedResult;
+        if (result instanceof Collection || result instanceof Object[]) {
+            final int size = result instanceof Collection ? ((Collection) result).size() : ((Object[]) result).length;
+            if (size > maxResultSize) {
+                return result;
+            }
+            cachedResult = new CachedResult(copy(result));
+        } else if (result instanceof Iterable) {
+            final PrefetchedIterable<?> prefetched = new PrefetchedIterable<>((Iterable<?>) result, maxResultSize);
+            if (!prefetched.isComplete()) {
+                // The result is too large to cache, so return the buffered
+                // items followed by the rest of the result
+                return (T) prefetched;
+            }
+            cachedResult = new CachedResult(new ArrayList<>(prefetched.getItems()), true);
+        } else {
+            cachedResult = new CachedResult(result);
+        }
+
+        put(key, cachedResult);
+        return (T) cachedResult.getResult();
+    }
+
+    @Override
+    public <T> T onFailure(final T result, final OperationChain<?> opChain, final Context context, final Exception e) {
+        pendingKeys.remove(context.getJobId());
+        if (null != opChain && containsAny(opChain, invalidatingOperations)) {
+            // Some of the elements may have been added
+            clear();
+        }
+        return result;
+    }
+
+    /**
+     * Removes all results from the cache.
+     */
+    public void clear() {
+        if (CacheServiceLoader.isEnabled()) {
+            try {
+                getCache().clear();
+            } catch (final CacheOperationException e) {
+                throw new RuntimeException("Failed to clear result cache " + getCacheNameForGraph(), e);
+            }
+        }
+    }
+
+    // Copies a collection or array result, so the cached result cannot be
+    // modified through the result returned to the caller
+    private static Object copy(final Object result) {
+        if (result instanceof Object[]) {
+            return ((Object[]) result).clone();
+        }
+        if (result instanceof Set) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>((Set<?>) result));
+        }
+        return Collections.unmodifiableList(new ArrayList<>((Collection<?>) result));
+    }
+
+    private boolean isCacheable(final OperationChain<?> opChain) {
+        if (opChain.getOperations().isEmpty()) {
+            return false;
+        }
+
+        for (final Operation operation : opChain.getOperations()) {
+            if (null == operation || !isInstance(operation, cacheableOperations)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsAny(final Operations<?> operations, final Set<Class<? extends Operation>> operationClasses) {
+        for (final Operation operation : operations.getOperations()) {
+            if (isInstance(operation, operationClasses)
+                    || (operation instanceof Operations && containsAny((Operations<?>) operation, operationClasses))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isInstance(final Operation operation, final Set<Class<? extends Operation>> operationClasses) {
+        for (final Class<? extends Operation> operationClass : operationClasses) {
+            if (operationClass.isInstance(operation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String createKey(final OperationChain<?> opChain, final User user) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final List<String> dataAuths = new ArrayList<>(user.getDataAuths());
+            Collections.sort(dataAuths);
+            digest.update(dataAuths.toString().getBytes(StandardCharsets.UTF_8));
+            final List<String> opAuths = new ArrayList<>(user.getOpAuths());
+            Collections.sort(opAuths);
+            digest.update(opAuths.toString().getBytes(StandardCharsets.UTF_8));
+            for (final Operation operation : opChain.getOperations()) {
+                final Operation clone = operation.shallowClone();
+                if (clone instanceof Input && ((Input) clone).getInput() instanceof Iterable) {
+                    // Sort the seeds so their order does not change the key
+                    final List<String> seeds = new ArrayList<>();
+                    for (final Object seed : (Iterable<?>) ((Input) clone).getInput()) {
+                        seeds.add(new String(JSONSerialiser.serialise(seed), StandardCharsets.UTF_8));
+                    }
+                    Collections.sort(seeds);
+                    ((Input) clone).setInput(null);
+                    digest.update(seeds.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update(JSONSerialiser.serialise(clone));
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (final NoSuchAlgorithmException | SerialisationException e) {
+            LOGGER.warn("Unable to create a result cache key for operation chain: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isExpired(final CachedResult cachedResult) {
+        return System.currentTimeMillis() - cachedResult.getTimestamp() >= timeUnit.toMillis(timeToLive);
+    }
+
+    private void put(final String key, final CachedResult cachedResult) {
+        final ICache<String, CachedResult> cache = getCache();
+        try {
+            if (cache.size() >= maxEntries) {
+                evict(cache);
+            }
+            cache.put(key, cachedResult);
+        } catch (final CacheOperationException | RuntimeException e) {
+            LOGGER.warn("Unable to add result to the result cache: {}", e.getMessage());
+        }
+    }
+
+    private void evict(final ICache<String, CachedResult> cache) {
+        String oldestKey = null;
+        long oldestTimestamp = Long.MAX_VALUE;
+        for (final String key : new ArrayList<>(cache.getAllKeys())) {
+            final CachedResult cachedResult = cache.get(key);
+            if (null == cachedResult || isExpired(cachedResult)) {
+                cache.remove(key);
+            } else if (cachedResult.getTimestamp() < oldestTimestamp) {
+                oldestKey = key;
+                oldestTimestamp = cachedResult.getTimestamp();
+            }
+        }
+
+        if (null != oldestKey && cache.size() >= maxEntries) {
+            cache.remove(oldestKey);
+        }
+    }
+
+    private ICache<String, CachedResult> getCache() {
+        return CacheServiceLoader.getService().getCache(getCacheNameForGraph());
+    }
+
+    private String getCacheNameForGraph() {
+        return null == graphId ? cacheName : cacheName + "_" + graphId;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(final String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    @JsonIgnore
+    public String getGraphId() {
+        return graphId;
+    }
+
+    /**
+     * Sets the ID of the graph the hook is added to. This is set by the
+     * {@link uk.gov.gchq.gaffer.graph.Graph.Builder} when the graph is built.
+     *
+     * @param graphId the graph ID
+     */
+    public void setGraphId(final String graphId) {
+        this.graphId = graphId;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(final long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    public void setMaxResultSize(final int maxResultSize) {
+        this.maxResultSize = maxResultSize;
+    }
+
+    public Set<Class<? extends Operation>> getCacheableOperations() {
+        return cacheableOperations;
+    }
+
+    public void setCacheableOperations(final Set<Class<? extends Operation>> cacheableOperations) {
+        this.cacheableOperations = cacheableOperations;
+    }
+
+    public Set<Class<? extends Operation>> getInvalidatingOperations() {
+        return invalidatingOperations;
+    }
+
+    public void setInvalidatingOperations(final Set<Class<? extends Operation>> invalidatingOperations) {
+        this.invalidatingOperations = invalidatingOperations;
+    }
+
+    /**
+     * A result held in the cache, with the time it was added. Iterable results
+     * are held as a list so they can be serialised by the cache, and are
+     * wrapped in a new {@link WrappedCloseableIterable} each time they are read.
+     * Array results are copied each time they are read, as they cannot be made
+     * unmodifiable.
+     */
+    public static class CachedResult implements Serializable {
+        private static final long serialVersionUID = -2459781513164370472L;
+        private final Object result;
+        private final boolean iterable;
+        private final long timestamp;
+
+        public CachedResult(final Object result) {
+            this(result, false);
+        }
+
+        public CachedResult(final Object result, final boolean iterable) {
+            this(result, iterable, System.currentTimeMillis());
+        }
+
+        public CachedResult(final Object result, final boolean iterable, final long timestamp) {
+            this.result = result;
+            this.iterable = iterable;
+            this.timestamp = timestamp;
+        }
+
+        public Object getResult() {
+            if (iterable) {
+                return new WrappedCloseableIterable<>(Collections.unmodifiableList((List<?>) result));
+            }
+            if (result instanceof Object[]) {
+                return ((Object[]) result).clone();
+            }
+            return result;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -81,13 +81,19 @@ public class UpdateViewHook implements GraphHook {
     }
 
     private void updateView(final OperationChain<?> opChain) {
+        final View viewToMerge = getViewToMerge();
+        final boolean filterGroups = (null != whiteListElementGroups && !whiteListElementGroups.isEmpty())
+                || (null != blackListElementGroups && !blackListElementGroups.isEmpty());
         for (final Operation operation : opChain.flatten()) {
             if (operation instanceof OperationView) {
                 final OperationView operationView = (OperationView) operation;
+                if (null == viewToMerge && !filterGroups && isExpanded(operationView.getView())) {
+                    // Rebuilding the view would not change it
+                    continue;
+                }
 
-                final View.Builder viewBuilder = mergeView(operationView, getViewToMerge());
-                if ((null != whiteListElementGroups && !whiteListElementGroups.isEmpty())
-                        || (null != blackListElementGroups && !blackListElementGroups.isEmpty())) {
+                final View.Builder viewBuilder = mergeView(operationView, viewToMerge);
+                if (filterGroups) {
                     viewBuilder.removeEntities(this::removeElementGroups);
                     viewBuilder.removeEdges(this::removeElementGroups);
                 }
@@ -106,6 +112,14 @@ public class UpdateViewHook implements GraphHook {
         }
     }
 
+    private boolean isExpanded(final View view) {
+        return null != view
+                && !(view instanceof NamedView)
+                && (null == view.getGlobalElements() || view.getGlobalElements().isEmpty())
+                && (null == view.getGlobalEntities() || view.getGlobalEntities().isEmpty())
+                && (null == view.getGlobalEdges() || view.getGlobalEdges().isEmpty());
+    }
+
     protected final View.Builder mergeView(final OperationView operationView, final View viewToMerge) {
         final View.Builder viewBuilder = new View.Builder();
 
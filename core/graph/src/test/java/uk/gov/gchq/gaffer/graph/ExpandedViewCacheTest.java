@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.GlobalViewElementDefinition;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExpandedViewCacheTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition())
+            .entity(TestGroups.ENTITY_2, new SchemaEntityDefinition())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition())
+            .edge(TestGroups.EDGE_2, new SchemaEdgeDefinition())
+            .build();
+
+    @Test
+    public void shouldReturnGraphViewWhenOperationViewIsNull() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View graphView = createGraphView();
+
+        // When
+        final View expandedView = cache.expand(null, graphView, SCHEMA);
+
+        // Then
+        assertSame(graphView, expandedView);
+    }
+
+    @Test
+    public void shouldMergeGraphViewAndMemoiseExpandedView() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View graphView = createGraphView();
+
+        // When
+        final View expandedView = cache.expand(createViewWithoutGroups(), graphView, SCHEMA);
+        final View expandedView2 = cache.expand(createViewWithoutGroups(), graphView, SCHEMA);
+
+        // Then
+        assertEquals(Sets.newHashSet(TestGroups.ENTITY), expandedView.getEntityGroups());
+        assertEquals(Sets.newHashSet(TestGroups.EDGE), expandedView.getEdgeGroups());
+        assertSame(expandedView, expandedView2);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldAddSchemaGroupsWhenAllEdgesAndAllEntitiesAreSet() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View opView = new View.Builder()
+                .allEdges(true)
+                .allEntities(true)
+                .build();
+
+        // When
+        final View expandedView = cache.expand(opView, createGraphView(), SCHEMA);
+
+        // Then
+        assertEquals(SCHEMA.getEntityGroups(), expandedView.getEntityGroups());
+        assertEquals(SCHEMA.getEdgeGroups(), expandedView.getEdgeGroups());
+    }
+
+    @Test
+    public void shouldNotReturnMemoisedViewForViewWithDifferentFlags() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View graphView = createGraphView();
+        cache.expand(new View(), graphView, SCHEMA);
+
+        // When
+        final View expandedView = cache.expand(new View.Builder()
+                .allEdges(true)
+                .build(), graphView, SCHEMA);
+
+        // Then
+        assertEquals(SCHEMA.getEdgeGroups(), expandedView.getEdgeGroups());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldExpandGlobalDefinitionsWithoutModifyingOperationView() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View opView = new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .globalElements(new GlobalViewElementDefinition.Builder()
+                        .preAggregationFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.PROP_1)
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final View expandedView = cache.expand(opView, createGraphView(), SCHEMA);
+
+        // Then
+        assertNull(expandedView.getGlobalElements());
+        assertTrue(expandedView.getElement(TestGroups.ENTITY).hasPreAggregationFilters());
+        assertEquals(1, opView.getGlobalElements().size());
+    }
+
+    @Test
+    public void shouldReturnExpandedViewsWithoutCopying() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View opView = new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .build();
+
+        // When
+        final View expandedView = cache.expand(opView, createGraphView(), SCHEMA);
+
+        // Then
+        assertSame(opView, expandedView);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldDiscardMemoisedViewsWhenGraphViewChanges() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache();
+        final View expandedView = cache.expand(createViewWithoutGroups(), createGraphView(), SCHEMA);
+        final View newGraphView = new View.Builder()
+                .entity(TestGroups.ENTITY_2)
+                .build();
+
+        // When
+        final View expandedView2 = cache.expand(createViewWithoutGroups(), newGraphView, SCHEMA);
+
+        // Then
+        assertNotSame(expandedView, expandedView2);
+        assertEquals(Sets.newHashSet(TestGroups.ENTITY_2), expandedView2.getEntityGroups());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldLimitNumberOfMemoisedViews() {
+        // Given
+        final ExpandedViewCache cache = new ExpandedViewCache(2);
+        final View graphView = createGraphView();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            cache.expand(new View.Builder()
+                    .config("key", Integer.toString(i))
+                    .build(), graphView, SCHEMA);
+        }
+
+        // Then
+        assertTrue(cache.size() <= 2);
+    }
+
+    private View createGraphView() {
+        return new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .edge(TestGroups.EDGE)
+                .build();
+    }
+
+    private View createViewWithoutGroups() {
+        return new View.Builder()
+                .config("key", "value")
+                .build();
+    }
+}
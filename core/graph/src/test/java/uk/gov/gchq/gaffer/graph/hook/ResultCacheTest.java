@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.impl.HashMapCacheService;
+import uk.gov.gchq.gaffer.cache.util.CacheProperties;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.Map;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResultCacheTest extends GraphHookTest<ResultCache> {
+    private static final User USER = new User.Builder()
+            .userId("user")
+            .dataAuths("auth1", "auth2")
+            .build();
+
+    public ResultCacheTest() {
+        super(ResultCache.class);
+    }
+
+    @Before
+    public void before() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, HashMapCacheService.class.getName());
+        CacheServiceLoader.initialise(properties);
+    }
+
+    @After
+    public void after() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldReturnCachedResultForTheSameOperationChainWithSeedsInADifferentOrder() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        final List<Element> elements = createElements();
+        execute(hook, createOpChain("A", "B"), USER, new WrappedCloseableIterable<>(elements));
+
+        // When
+        final OperationChain<?> opChain = createOpChain("B", "A");
+        hook.preExecute(opChain, new Context(USER));
+
+        // Then
+        assertEquals(1, opChain.getOperations().size());
+        assertTrue(opChain.getOperations().get(0) instanceof Map);
+        final Object cachedResult = ((Map) opChain.getOperations().get(0)).getInput();
+        assertEquals(elements, Lists.newArrayList((Iterable) cachedResult));
+    }
+
+    @Test
+    public void shouldReturnMaterialisedResultWhenResultIsCached() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        final List<Element> elements = createElements();
+
+        // When
+        final Object result = execute(hook, createOpChain("A"), USER, new WrappedCloseableIterable<>(elements));
+
+        // Then
+        assertTrue(result instanceof CloseableIterable);
+        assertEquals(elements, Lists.newArrayList((Iterable) result));
+        assertEquals(1, CacheServiceLoader.getService().sizeOfCache(ResultCache.DEFAULT_CACHE_NAME));
+    }
+
+    @Test
+    public void shouldNotShareCachedResultsBetweenUsersWithDifferentDataAuths() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        execute(hook, createOpChain("A"), USER, createElements());
+        final User otherUser = new User.Builder()
+                .userId("user")
+                .dataAuths("auth1")
+                .build();
+
+        // When
+        final OperationChain<?> opChain = createOpChain("A");
+        hook.preExecute(opChain, new Context(otherUser));
+
+        // Then
+        assertTrue(opChain.getOperations().get(0) instanceof GetElements);
+    }
+
+    @Test
+    public void shouldNotShareCachedResultsBetweenUsersWithDifferentOpAuths() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        execute(hook, createOpChain("A"), USER, createElements());
+        final User otherUser = new User.Builder()
+                .userId("user")
+                .dataAuths("auth1", "auth2")
+                .opAuth("opAuth1")
+                .build();
+
+        // When
+        final OperationChain<?> opChain = createOpChain("A");
+        hook.preExecute(opChain, new Context(otherUser));
+
+        // Then
+        assertTrue(opChain.getOperations().get(0) instanceof GetElements);
+    }
+
+    @Test
+    public void shouldSerialiseCachedIterableResults() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        execute(hook, createOpChain("A"), USER, new WrappedCloseableIterable<>(createElements()));
+        final ResultCache.CachedResult cachedResult = (ResultCache.CachedResult) CacheServiceLoader.getService()
+                .getCache(ResultCache.DEFAULT_CACHE_NAME)
+                .getAllValues()
+                .iterator()
+                .next();
+
+        // When
+        final ResultCache.CachedResult deserialised = SerializationUtils.roundtrip(cachedResult);
+
+        // Then
+        assertTrue(deserialised.getResult() instanceof CloseableIterable);
+        assertEquals(createElements(), Lists.newArrayList((Iterable) deserialised.getResult()));
+    }
+
+    @Test
+    public void shouldClearCacheWhenElementsAreAdded() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        execute(hook, createOpChain("A"), USER, createElements());
+
+        // When
+        final OperationChain<?> addOpChain = new OperationChain.Builder()
+                .first(new AddElements.Builder()
+                        .input(createElements())
+                        .build())
+                .build();
+        execute(hook, addOpChain, USER, null);
+
+        // Then
+        final OperationChain<?> opChain = createOpChain("A");
+        hook.preExecute(opChain, new Context(USER));
+        assertTrue(opChain.getOperations().get(0) instanceof GetElements);
+    }
+
+    @Test
+    public void shouldNotReturnExpiredResults() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        hook.setTimeToLive(0);
+        hook.setTimeUnit(TimeUnit.MILLISECONDS);
+        execute(hook, createOpChain("A"), USER, createElements());
+
+        // When
+        final OperationChain<?> opChain = createOpChain("A");
+        hook.preExecute(opChain, new Context(USER));
+
+        // Then
+        assertTrue(opChain.getOperations().get(0) instanceof GetElements);
+    }
+
+    @Test
+    public void shouldNotCacheResultsLargerThanMaxResultSize() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        hook.setMaxResultSize(1);
+        final CloseableIterable<Element> elements = new WrappedCloseableIterable<>(createElements());
+
+        // When
+        final Object result = execute(hook, createOpChain("A"), USER, elements);
+
+        // Then
+        assertEquals(createElements(), Lists.newArrayList((Iterable) result));
+        assertEquals(0, CacheServiceLoader.getService().sizeOfCache(ResultCache.DEFAULT_CACHE_NAME));
+    }
+
+    @Test
+    public void shouldNotCacheOperationChainsWithOperationsThatAreNotCacheable() {
+        // Given
+        final ResultCache hook = new ResultCache();
+
+        // When
+        execute(hook, new OperationChain<>(new GetAllElements()), USER, createElements());
+
+        // Then
+        assertEquals(0, CacheServiceLoader.getService().sizeOfCache(ResultCache.DEFAULT_CACHE_NAME));
+    }
+
+    @Test
+    public void shouldEvictOldestEntryWhenCacheIsFull() throws InterruptedException {
+        // Given
+        final ResultCache hook = new ResultCache();
+        hook.setMaxEntries(2);
+        execute(hook, createOpChain("A"), USER, createElements());
+        Thread.sleep(5);
+        execute(hook, createOpChain("B"), USER, createElements());
+        Thread.sleep(5);
+
+        // When
+        execute(hook, createOpChain("C"), USER, createElements());
+
+        // Then
+        assertEquals(2, CacheServiceLoader.getService().sizeOfCache(ResultCache.DEFAULT_CACHE_NAME));
+        final OperationChain<?> opChainA = createOpChain("A");
+        hook.preExecute(opChainA, new Context(USER));
+        assertTrue(opChainA.getOperations().get(0) instanceof GetElements);
+        final OperationChain<?> opChainC = createOpChain("C");
+        hook.preExecute(opChainC, new Context(USER));
+        assertFalse(opChainC.getOperations().get(0) instanceof GetElements);
+    }
+
+    @Test
+    public void shouldCacheACopyOfCollectionResults() {
+        // Given
+        final ResultCache hook = new ResultCache();
+        final List<Element> elements = createElements();
+
+        // When
+        final Object result = execute(hook, createOpChain("A"), USER, elements);
+        elements.clear();
+
+        // Then
+        assertEquals(createElements(), result);
+        try {
+            ((List<?>) result).clear();
+            fail("Exception expected");
+        } catch (final UnsupportedOperationException e) {
+            assertNotNull(e);
+        }
+        final OperationChain<?> opChain = createOpChain("A");
+        hook.preExecute(opChain, new Context(USER));
+        assertEquals(createElements(), ((Map) opChain.getOperations().get(0)).getInput());
+    }
+
+    @Test
+    public void shouldUseASeparateCacheForEachGraph() {
+        // Given
+        final ResultCache hook1 = new ResultCache();
+        hook1.setGraphId("graph1");
+        final ResultCache hook2 = new ResultCache();
+        hook2.setGraphId("graph2");
+        execute(hook1, createOpChain("A"), USER, createElements());
+
+        // When
+        final OperationChain<?> opChain = createOpChain("A");
+        hook2.preExecute(opChain, new Context(USER));
+
+        // Then
+        assertTrue(opChain.getOperations().get(0) instanceof GetElements);
+        assertEquals(1, CacheServiceLoader.getService().sizeOfCache(ResultCache.DEFAULT_CACHE_NAME + "_graph1"));
+    }
+
+    @Override
+    public ResultCache getTestObject() {
+        return new ResultCache();
+    }
+
+    private Object execute(final ResultCache hook, final OperationChain<?> opChain, final User user, final Object result) {
+        final Context context = new Context(user);
+        hook.preExecute(opChain, context);
+        return hook.postExecute(result, opChain, context);
+    }
+
+    private OperationChain<?> createOpChain(final String... seeds) {
+        return new OperationChain<>(new GetElements.Builder()
+                .input(seeds)
+                .build());
+    }
+
+    private List<Element> createElements() {
+        return Lists.newArrayList(
+                new Entity(TestGroups.ENTITY, "A"),
+                new Entity(TestGroups.ENTITY, "B"));
+    }
+}
@@ -15,12 +15,14 @@
  */
 package uk.gov.gchq.gaffer.jobtracker;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.user.User;
 
 import java.io.Serializable;
 
@@ -109,6 +111,24 @@ public class JobDetail implements Serializable {
         this.userId = userId;
     }
 
+    /**
+     * Checks whether a user can access this job and its results. Only the
+     * user that submitted the job or a user with the admin auth has access.
+     *
+     * @param user      the user
+     * @param adminAuth the admin auth, may be null or empty
+     * @return true if the user can access the job
+     */
+    public boolean hasAccess(final User user, final String adminAuth) {
+        if (null == user) {
+            return false;
+        }
+        if (StringUtils.isNotBlank(adminAuth) && user.getOpAuths().contains(adminAuth)) {
+            return true;
+        }
+        return null != userId && userId.equals(user.getUserId());
+    }
+
     public JobStatus getStatus() {
         return status;
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.jobtracker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code JobResultsPage} is a single page of the results of a job. If there
+ * are more results then the page contains a token that can be used to get the
+ * next page of results.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobResultsPage {
+    private String jobId;
+    private List<Object> results = new ArrayList<>();
+    private String nextPageToken;
+
+    public JobResultsPage() {
+    }
+
+    public JobResultsPage(final String jobId, final List<Object> results, final String nextPageToken) {
+        this.jobId = jobId;
+        this.results = results;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    public List<Object> getResults() {
+        return results;
+    }
+
+    public void setResults(final List<Object> results) {
+        this.results = results;
+    }
+
+    /**
+     * @return the token of the next page of results, or null if this is the
+     * last page.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(final String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+        final JobResultsPage page = (JobResultsPage) obj;
+        return new EqualsBuilder()
+                .append(jobId, page.jobId)
+                .append(results, page.results)
+                .append(nextPageToken, page.nextPageToken)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(29, 59)
+                .append(jobId)
+                .append(results)
+                .append(nextPageToken)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("jobId", jobId)
+                .append("results", results)
+                .append("nextPageToken", nextPageToken)
+                .toString();
+    }
+}
@@ -22,10 +22,8 @@ import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.user.User;
 
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A {@code JobTracker} is an entry in a Gaffer cache service which is used to store
@@ -62,20 +60,20 @@ public class JobTracker {
     }
 
     /**
-     * Get all jobs from the job tracker cache.
+     * Get all jobs from the job tracker cache. The job details are fetched
+     * from the cache incrementally as the returned iterable is iterated over,
+     * so only the job IDs are held in memory.
      *
      * @param user the user making the request to the job tracker
      * @return a {@link CloseableIterable} containing all of the job details
      */
     public CloseableIterable<JobDetail> getAllJobs(final User user) {
         final Set<String> jobIds = CacheServiceLoader.getService().getAllKeysFromCache(CACHE_NAME);
-        final List<JobDetail> jobs = jobIds.stream()
+        return new WrappedCloseableIterable<>(() -> jobIds.stream()
                 .filter(Objects::nonNull)
                 .map(jobId -> getJob(jobId, user))
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        return new WrappedCloseableIterable<>(jobs);
+                .iterator());
     }
 
     /**
@@ -16,8 +16,11 @@
 
 package uk.gov.gchq.gaffer.operation.impl;
 
+import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.exception.CloneFailedException;
@@ -39,6 +42,12 @@ import java.util.Map;
  * <p>
  * For the given iterable of inputs, it will run the supplied operation for each input one at a time.
  * <p>
+ * If maxConcurrency is greater than 1, the supplied operation is run for up to
+ * maxConcurrency inputs at the same time and the results are returned as the
+ * operations complete. By default the results are returned in the same order
+ * as the inputs; if ordered is set to false they are returned in the order the
+ * operations complete.
+ * <p>
  * For example, a ForEach operation with:
  * <p>
  * input = [
@@ -59,14 +68,19 @@ import java.util.Map;
  * @param <I> the type of items in the input iterable. This is the same type as the input to the supplied Operation.
  * @param <O> the type of items in the output iterable. This is the same type as the output from the supplied Operation.
  */
-@JsonPropertyOrder(value = {"class", "input", "operation"}, alphabetic = true)
+@JsonPropertyOrder(value = {"class", "input", "operation", "maxConcurrency", "ordered"}, alphabetic = true)
 @Since("1.7.0")
 @Summary("Runs supplied operation on Iterable of inputs")
 public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterable<? extends O>>,
         MultiInput<I>,
         Operations<Operation> {
+    private static final int DEFAULT_MAX_CONCURRENCY = 1;
+    private static final boolean DEFAULT_ORDERED = true;
+
     private Iterable<? extends I> input;
     private Operation operation;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private boolean ordered = DEFAULT_ORDERED;
     private Map<String, String> options;
 
     @Override
@@ -87,6 +101,50 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
         this.operation = operation;
     }
 
+    @JsonIgnore
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @param maxConcurrency the maximum number of inputs to run the supplied
+     *                       operation for at the same time. A value of 1 or
+     *                       less runs the operation for each input one at a
+     *                       time.
+     */
+    @JsonSetter("maxConcurrency")
+    public void setMaxConcurrency(final int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @JsonIgnore
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @param ordered true if the results of running the operations in
+     *                parallel should be returned in the same order as the
+     *                inputs, false to return them as the operations complete.
+     */
+    @JsonSetter("ordered")
+    public void setOrdered(final boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    // The defaults are not written to JSON, so existing ForEach JSON is unchanged
+    @JsonGetter("maxConcurrency")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Integer getMaxConcurrencyForJson() {
+        return DEFAULT_MAX_CONCURRENCY == maxConcurrency ? null : maxConcurrency;
+    }
+
+    @JsonGetter("ordered")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Boolean getOrderedForJson() {
+        return DEFAULT_ORDERED == ordered ? null : ordered;
+    }
+
     @Override
     public Map<String, String> getOptions() {
         return options;
@@ -102,6 +160,8 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
         return new ForEach.Builder<I, O>()
                 .input(input)
                 .operation(operation)
+                .maxConcurrency(maxConcurrency)
+                .ordered(ordered)
                 .options(options)
                 .build();
     }
@@ -136,6 +196,16 @@ public class ForEach<I, O> implements InputOutput<Iterable<? extends I>, Iterabl
             _getOp().setOperation(operation);
             return _self();
         }
+
+        public Builder<I, O> maxConcurrency(final int maxConcurrency) {
+            _getOp().setMaxConcurrency(maxConcurrency);
+            return _self();
+        }
+
+        public Builder<I, O> ordered(final boolean ordered) {
+            _getOp().setOrdered(ordered);
+            return _self();
+        }
     }
 }
 
@@ -16,9 +16,13 @@
 
 package uk.gov.gchq.gaffer.operation.impl;
 
+import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
@@ -34,6 +38,7 @@ import uk.gov.gchq.gaffer.operation.io.InputOutput;
 import uk.gov.gchq.gaffer.operation.io.MultiEntityIdInput;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.gaffer.operation.util.OperationUtil;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.ValidationResult;
@@ -51,8 +56,13 @@ import java.util.stream.Collectors;
  * A GetWalks operation is configured using a user-supplied list of {@link
  * GetElements} operations. These are executed sequentially, with the output of
  * one operation providing the input {@link EntityId}s for the next.
+ * <p>
+ * If targets are provided, only the walks which end at one of the targets are
+ * returned. If possible, the walks are then found by searching forwards from
+ * the input and backwards from the targets and joining the two halves, which
+ * requires far fewer elements to be retrieved than searching forwards only.
  */
-@JsonPropertyOrder(value = {"class", "input", "operations"}, alphabetic = true)
+@JsonPropertyOrder(value = {"class", "input", "targets", "operations"}, alphabetic = true)
 @Since("1.1.0")
 @Summary("Walks around the Graph, returning the full walks taken")
 public class GetWalks implements
@@ -65,6 +75,7 @@ public class GetWalks implements
 
     private List<OperationChain<Iterable<Element>>> operations = new ArrayList<>();
     private Iterable<? extends EntityId> input;
+    private Iterable<? extends EntityId> targets;
     private Map<String, String> options;
     private Integer resultsLimit = DEFAULT_RESULTS_LIMIT;
 
@@ -78,6 +89,32 @@ public class GetWalks implements
         this.input = input;
     }
 
+    @JsonIgnore
+    public Iterable<? extends EntityId> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @param targets the vertices that the walks must end at, or null if the
+     *                walks can end at any vertex
+     */
+    @JsonIgnore
+    public void setTargets(final Iterable<? extends EntityId> targets) {
+        this.targets = targets;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    @JsonGetter("targets")
+    Object[] createTargetsArray() {
+        return null != targets ? Iterables.toArray(targets, Object.class) : null;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "class")
+    @JsonSetter("targets")
+    void setTargetsFromVerticesAndIds(final Object[] targets) {
+        this.targets = null != targets ? OperationUtil.toEntityIds(targets) : null;
+    }
+
     @Override
     public List<OperationChain<Iterable<Element>>> getOperations() {
         return operations;
@@ -188,6 +225,7 @@ public class GetWalks implements
         List clonedOps = operations.stream().map(Output::shallowClone).collect(Collectors.toList());
         return new GetWalks.Builder()
                 .input(input)
+                .targetIds(targets)
                 .operations(clonedOps)
                 .options(options)
                 .build();
@@ -260,6 +298,16 @@ public class GetWalks implements
             return _self();
         }
 
+        public Builder targets(final Object... targets) {
+            _getOp().setTargets(null != targets ? OperationUtil.toEntityIds(targets) : null);
+            return _self();
+        }
+
+        public Builder targetIds(final Iterable<? extends EntityId> targets) {
+            _getOp().setTargets(targets);
+            return _self();
+        }
+
         public Builder resultsLimit(final Integer resultLimit) {
             _getOp().setResultsLimit(resultLimit);
             return _self();
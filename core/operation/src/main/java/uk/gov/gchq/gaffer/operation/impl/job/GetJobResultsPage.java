@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.operation.impl.job;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.commons.lang3.exception.CloneFailedException;
+
+import uk.gov.gchq.gaffer.commonutil.Required;
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.ValidationResult;
+
+import java.util.Map;
+
+/**
+ * A {@code GetJobResultsPage} operation is used to retrieve a single page of
+ * the results of executing a job on a Gaffer graph. The first page is returned
+ * if no page token is provided, otherwise the page token should be the next
+ * page token from the previous page of results.
+ */
+@JsonPropertyOrder(value = {"class", "jobId", "pageToken", "pageSize"}, alphabetic = true)
+@Since("1.10.0")
+@Summary("Gets a page of the results of a job")
+public class GetJobResultsPage implements
+        Output<JobResultsPage> {
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    @Required
+    private String jobId;
+    private String pageToken;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private Map<String, String> options;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    public void setPageToken(final String pageToken) {
+        this.pageToken = pageToken;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public ValidationResult validate() {
+        final ValidationResult result = Output.super.validate();
+        if (pageSize < 1) {
+            result.addError("pageSize must be at least 1");
+        }
+        return result;
+    }
+
+    @Override
+    public TypeReference<JobResultsPage> getOutputTypeReference() {
+        return new TypeReferenceImpl.JobResultsPage();
+    }
+
+    @Override
+    public GetJobResultsPage shallowClone() throws CloneFailedException {
+        return new GetJobResultsPage.Builder()
+                .jobId(jobId)
+                .pageToken(pageToken)
+                .pageSize(pageSize)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static class Builder extends Operation.BaseBuilder<GetJobResultsPage, Builder>
+            implements Output.Builder<GetJobResultsPage, JobResultsPage, Builder> {
+        public Builder() {
+            super(new GetJobResultsPage());
+        }
+
+        public Builder jobId(final String jobId) {
+            _getOp().setJobId(jobId);
+            return this;
+        }
+
+        public Builder pageToken(final String pageToken) {
+            _getOp().setPageToken(pageToken);
+            return this;
+        }
+
+        public Builder pageSize(final int pageSize) {
+            _getOp().setPageSize(pageSize);
+            return this;
+        }
+    }
+}
@@ -45,6 +45,8 @@ import java.util.Map;
  * <p>
  * Note: The input iterables are limited by default to 100,000 as these are read into memory as a Collection.
  * This limit can be changed by adding specifying a collectionLimit in the Operation.
+ * Stores may be configured to join large inputs of Elements using a sort merge
+ * join instead, which spills to disk and is not subject to this limit.
  *
  * @param <I> Iterable input type.
  */
@@ -20,37 +20,30 @@ import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * {@code FullJoin} is a join function which returns all values from an iterable, together with
+ * any matching values from the list.
+ */
 public class FullJoin extends JoinFunction {
     @Override
-    protected List<MapTuple> join(final Iterable keys, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
-
-        List<MapTuple> resultList = new ArrayList<>();
-
-        for (final Object keyObj : keys) {
-            MapTuple<String> tuple = new MapTuple<>();
-            tuple.put(keyName, keyObj);
-            List matching = match.matching(keyObj);
+    protected List<MapTuple> join(final Object keyObj, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
+        final List matching = match.matching(keyObj);
 
-            // flattening will output a tuple for each value in the matching list
-            if (flatten) {
-                if (matching.isEmpty()) {
-                    tuple.put(matchingValuesName, null);
-                    resultList.add(tuple);
-                } else {
-                    for (final Object matched : matching) {
-                        tuple.put(matchingValuesName, matched);
-                        resultList.add(tuple);
-                    }
-                }
-            } else {
-                tuple.put(matchingValuesName, matching);
-                resultList.add(tuple);
+        // flattening will output a tuple for each value in the matching list
+        if (flatten) {
+            if (matching.isEmpty()) {
+                return Collections.singletonList(createTuple(keyName, keyObj, matchingValuesName, null));
             }
-
+            final List<MapTuple> resultList = new ArrayList<>(matching.size());
+            for (final Object matched : matching) {
+                resultList.add(createTuple(keyName, keyObj, matchingValuesName, matched));
+            }
+            return resultList;
         }
 
-        return resultList;
+        return Collections.singletonList(createTuple(keyName, keyObj, matchingValuesName, matching));
     }
 }
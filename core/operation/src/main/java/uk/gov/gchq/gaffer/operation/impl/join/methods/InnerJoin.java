@@ -21,6 +21,7 @@ import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -28,29 +29,21 @@ import java.util.List;
  */
 public class InnerJoin extends JoinFunction {
     @Override
-    protected List<MapTuple> join(final Iterable keys, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
-
-        List<MapTuple> resultList = new ArrayList<>();
-
-        for (final Object keyObj : keys) {
-            List matching = match.matching(keyObj);
-
-            MapTuple<String> tuple = new MapTuple<>();
-            tuple.put(keyName, keyObj);
+    protected List<MapTuple> join(final Object keyObj, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
+        final List matching = match.matching(keyObj);
+        if (matching.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-            // flattening will output a tuple for each value in the matching list
-            if (flatten) {
-                for (final Object matched : matching) {
-                    tuple.put(matchingValuesName, matched);
-                    resultList.add(tuple);
-                }
-            } else if (!matching.isEmpty()) {
-                tuple.put(matchingValuesName, matching);
-                resultList.add(tuple);
+        // flattening will output a tuple for each value in the matching list
+        if (flatten) {
+            final List<MapTuple> resultList = new ArrayList<>(matching.size());
+            for (final Object matched : matching) {
+                resultList.add(createTuple(keyName, keyObj, matchingValuesName, matched));
             }
+            return resultList;
         }
 
-
-        return resultList;
+        return Collections.singletonList(createTuple(keyName, keyObj, matchingValuesName, matching));
     }
 }
@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.gaffer.operation.impl.join.methods;
 
+import uk.gov.gchq.gaffer.commonutil.iterable.StreamFlatMapIterable;
 import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
@@ -23,11 +24,16 @@ import uk.gov.gchq.koryphe.tuple.MapTuple;
 import java.util.List;
 
 /**
- * Used by the Join Operation to join two Lists together.
+ * Used by the Join Operation to join two Iterables together.
+ * <p>
+ * The match candidates are passed to {@link Match#init(Iterable)} once, so
+ * they can be indexed, then the keys are streamed through the {@link Match}
+ * lazily as the results are iterated.
  */
 public abstract class JoinFunction {
 
-    public List<MapTuple> join(final Iterable left, final Iterable right, final Match match, final MatchKey matchKey, final Boolean flatten) {
+    @SuppressWarnings("unchecked")
+    public Iterable<MapTuple> join(final Iterable left, final Iterable right, final Match match, final MatchKey matchKey, final Boolean flatten) {
         final String keyName; // For LEFT keyed Joins it's LEFT and vice versa for RIGHT.
         final String matchingValuesName; // the matching values name (opposite of keyName)
         final Iterable keys; // The key iterate over
@@ -43,8 +49,25 @@ public abstract class JoinFunction {
             match.init(left);
         }
 
-        return join(keys, keyName, matchingValuesName, match, flatten);
+        return new StreamFlatMapIterable<Object, MapTuple>(keys, keyObj -> join(keyObj, keyName, matchingValuesName, match, flatten).stream());
     }
 
-    protected abstract List<MapTuple> join(Iterable keys, String keyName, String matchingValuesName, Match match, Boolean flatten);
+    /**
+     * Joins a single key with its matches.
+     *
+     * @param keyObj             the key
+     * @param keyName            the name to store the key against in the tuple
+     * @param matchingValuesName the name to store the matching values against in the tuple
+     * @param match              the initialised match
+     * @param flatten            if true a tuple is returned for each matching value
+     * @return the tuples for the key, which may be empty
+     */
+    protected abstract List<MapTuple> join(final Object keyObj, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten);
+
+    protected MapTuple<String> createTuple(final String keyName, final Object keyObj, final String matchingValuesName, final Object matchingValues) {
+        final MapTuple<String> tuple = new MapTuple<>();
+        tuple.put(keyName, keyObj);
+        tuple.put(matchingValuesName, matchingValues);
+        return tuple;
+    }
 }
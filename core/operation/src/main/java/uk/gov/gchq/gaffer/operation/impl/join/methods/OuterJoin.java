@@ -19,7 +19,7 @@ package uk.gov.gchq.gaffer.operation.impl.join.methods;
 import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -28,27 +28,13 @@ import java.util.List;
  */
 public class OuterJoin extends JoinFunction {
     @Override
-    protected List<MapTuple> join(final Iterable keys, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
-
-        List<MapTuple> resultList = new ArrayList<>();
-
-        for (final Object keyObj : keys) {
-            List matching = match.matching(keyObj);
-            if (matching.isEmpty()) {
-
-                MapTuple<String> tuple = new MapTuple<>();
-                tuple.put(keyName, keyObj);
-
-                // flattening will output a null value instead of an empty list
-                if (flatten) {
-                    tuple.put(matchingValuesName, null);
-                } else {
-                    tuple.put(matchingValuesName, matching);
-                }
-                resultList.add(tuple);
-            }
+    protected List<MapTuple> join(final Object keyObj, final String keyName, final String matchingValuesName, final Match match, final Boolean flatten) {
+        final List matching = match.matching(keyObj);
+        if (!matching.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return resultList;
+        // flattening will output a null value instead of an empty list
+        return Collections.singletonList(createTuple(keyName, keyObj, matchingValuesName, flatten ? null : matching));
     }
 }
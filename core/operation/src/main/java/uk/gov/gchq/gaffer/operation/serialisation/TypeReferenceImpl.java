@@ -124,6 +124,9 @@ public final class TypeReferenceImpl {
     public static class JobDetailIterable extends TypeReference<CloseableIterable<uk.gov.gchq.gaffer.jobtracker.JobDetail>> {
     }
 
+    public static class JobResultsPage extends TypeReference<uk.gov.gchq.gaffer.jobtracker.JobResultsPage> {
+    }
+
     public static class Stream<T> extends TypeReference<java.util.stream.Stream<T>> {
     }
 
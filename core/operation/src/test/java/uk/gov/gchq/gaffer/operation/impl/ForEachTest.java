@@ -16,6 +16,8 @@
 
 package uk.gov.gchq.gaffer.operation.impl;
 
+import org.junit.Test;
+
 import uk.gov.gchq.gaffer.commonutil.JsonAssert;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationTest;
@@ -27,6 +29,7 @@ import java.util.Arrays;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThat;
@@ -42,6 +45,8 @@ public class ForEachTest extends OperationTest<ForEach> {
         final ForEach<Object, Object> forEachOp = new ForEach.Builder<>()
                 .input(inputIterable)
                 .operation(op)
+                .maxConcurrency(4)
+                .ordered(false)
                 .build();
 
 
@@ -49,6 +54,8 @@ public class ForEachTest extends OperationTest<ForEach> {
         assertThat(forEachOp.getInput(), is(notNullValue()));
         assertEquals(inputIterable, forEachOp.getInput());
         assertEquals(op, forEachOp.getOperation());
+        assertEquals(4, forEachOp.getMaxConcurrency());
+        assertFalse(forEachOp.isOrdered());
     }
 
     @Override
@@ -63,6 +70,42 @@ public class ForEachTest extends OperationTest<ForEach> {
         assertNotSame(forEachOp, clone);
         assertEquals(forEachOp.getInput(), clone.getInput());
         assertEquals(forEachOp.getOperation(), clone.getOperation());
+        assertEquals(forEachOp.getMaxConcurrency(), clone.getMaxConcurrency());
+        assertEquals(forEachOp.isOrdered(), clone.isOrdered());
+    }
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseParallelForEach() {
+        // Given
+        final ForEach obj = new ForEach.Builder<>()
+                .input(inputIterable)
+                .operation(op)
+                .maxConcurrency(4)
+                .ordered(false)
+                .build();
+
+        // When
+        final byte[] json = toJson(obj);
+        final ForEach deserialisedObj = fromJson(json);
+
+        // Then
+        JsonAssert.assertEquals(String.format("{%n" +
+                "  \"class\" : \"uk.gov.gchq.gaffer.operation.impl.ForEach\",%n" +
+                "  \"input\" : [ {%n" +
+                "    \"class\" : \"uk.gov.gchq.gaffer.operation.data.EntitySeed\",%n" +
+                "    \"vertex\" : \"1\"%n" +
+                "  }, {%n" +
+                "    \"class\" : \"uk.gov.gchq.gaffer.operation.data.EntitySeed\",%n" +
+                "    \"vertex\" : \"2\"%n" +
+                "  } ],%n" +
+                "  \"operation\" : {%n" +
+                "    \"class\" : \"uk.gov.gchq.gaffer.operation.impl.get.GetElements\"%n" +
+                "  },%n" +
+                "  \"maxConcurrency\" : 4,%n" +
+                "  \"ordered\" : false%n" +
+                "}"), new String(json));
+        assertEquals(4, deserialisedObj.getMaxConcurrency());
+        assertFalse(deserialisedObj.isOrdered());
     }
 
     @Override
@@ -55,12 +55,14 @@ public class GetWalksTest extends OperationTest<GetWalks> {
         // Given
         final GetWalks getWalks = new GetWalks.Builder()
                 .input(new EntitySeed("1"), new EntitySeed("2"))
+                .targets("3", new EntitySeed("4"))
                 .operations(new GetElements())
                 .resultsLimit(100)
                 .build();
 
         // Then
         assertThat(getWalks.getInput(), is(notNullValue()));
+        assertThat(getWalks.getTargets(), containsInAnyOrder(new EntitySeed("3"), new EntitySeed("4")));
         assertThat(getWalks.getInput(), iterableWithSize(2));
         assertThat(getWalks.getResultsLimit(), is(equalTo(100)));
         assertThat(getWalks.getOperations(), iterableWithSize(1));
@@ -234,6 +236,7 @@ public class GetWalksTest extends OperationTest<GetWalks> {
         final GetElements getElements = new GetElements();
         final GetWalks getWalks = new GetWalks.Builder()
                 .input(input)
+                .targets("3")
                 .operations(getElements)
                 .build();
 
@@ -243,6 +246,7 @@ public class GetWalksTest extends OperationTest<GetWalks> {
         // Then
         assertNotSame(getWalks, clone);
         assertEquals(input, Lists.newArrayList(clone.getInput()));
+        assertEquals(Lists.newArrayList(new EntitySeed("3")), Lists.newArrayList(clone.getTargets()));
         int i = 0;
         for (final Output<Iterable<Element>> operation : clone.getOperations()) {
             assertNotSame(getElements, operation);
@@ -251,6 +255,23 @@ public class GetWalksTest extends OperationTest<GetWalks> {
         }
     }
 
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseTargets() {
+        // Given
+        final GetWalks getWalks = new GetWalks.Builder()
+                .input(new EntitySeed("1"))
+                .targets("2", new EntitySeed("3"))
+                .operations(new GetElements())
+                .build();
+
+        // When
+        final GetWalks deserialised = fromJson(toJson(getWalks));
+
+        // Then
+        assertEquals(Lists.newArrayList(new EntitySeed("2"), new EntitySeed("3")), Lists.newArrayList(deserialised.getTargets()));
+        assertEquals(Lists.newArrayList(new EntitySeed("1")), Lists.newArrayList(deserialised.getInput()));
+    }
+
     @Override
     protected GetWalks getTestObject() {
         return new GetWalks();
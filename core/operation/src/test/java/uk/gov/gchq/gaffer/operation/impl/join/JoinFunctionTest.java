@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.gaffer.operation.impl.join;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import uk.gov.gchq.gaffer.commonutil.CollectionUtil;
@@ -50,8 +51,9 @@ public abstract class JoinFunctionTest {
         Iterable result = getJoinFunction().join(leftInput, rightInput, new ElementMatch(), MatchKey.LEFT, false);
         List<MapTuple> expected = getExpectedLeftKeyResults();
 
-        assertEquals(expected.size(), ((List) result).size());
-        assertTupleListsEquality(expected, (List<MapTuple>) result);
+        List<MapTuple> resultList = Lists.newArrayList(result);
+        assertEquals(expected.size(), resultList.size());
+        assertTupleListsEquality(expected, resultList);
     }
 
     @Test
@@ -63,8 +65,9 @@ public abstract class JoinFunctionTest {
         Iterable result = getJoinFunction().join(leftInput, rightInput, new ElementMatch(), MatchKey.RIGHT, false);
         List<MapTuple> expected = getExpectedRightKeyResults();
 
-        assertEquals(expected.size(), ((List) result).size());
-        assertTupleListsEquality(expected, (List<MapTuple>) result);
+        List<MapTuple> resultList = Lists.newArrayList(result);
+        assertEquals(expected.size(), resultList.size());
+        assertTupleListsEquality(expected, resultList);
     }
 
     @Test
@@ -76,8 +79,9 @@ public abstract class JoinFunctionTest {
         Iterable result = getJoinFunction().join(leftInput, rightInput, new ElementMatch(), MatchKey.LEFT, true);
         List<MapTuple> expected = getExpectedLeftKeyResultsFlattened();
 
-        assertEquals(expected.size(), ((List) result).size());
-        assertTupleListsEquality(expected, (List<MapTuple>) result);
+        List<MapTuple> resultList = Lists.newArrayList(result);
+        assertEquals(expected.size(), resultList.size());
+        assertTupleListsEquality(expected, resultList);
     }
 
     @Test
@@ -89,8 +93,9 @@ public abstract class JoinFunctionTest {
         Iterable result = getJoinFunction().join(leftInput, rightInput, new ElementMatch(), MatchKey.RIGHT, true);
         List<MapTuple> expected = getExpectedRightKeyResultsFlattened();
 
-        assertEquals(expected.size(), ((List) result).size());
-        assertTupleListsEquality(expected, (List<MapTuple>) result);
+        List<MapTuple> resultList = Lists.newArrayList(result);
+        assertEquals(expected.size(), resultList.size());
+        assertTupleListsEquality(expected, resultList);
     }
 
     protected Element getElement(final Integer countProperty) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.job;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResultsPage;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+public class GetJobResultsPageTest extends OperationTest<GetJobResultsPage> {
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final GetJobResultsPage operation = new GetJobResultsPage.Builder()
+                .jobId("jobId")
+                .pageToken("1:2")
+                .pageSize(10)
+                .build();
+
+        // When
+        byte[] json = JSONSerialiser.serialise(operation, true);
+        final GetJobResultsPage deserialisedOp = JSONSerialiser.deserialise(json, GetJobResultsPage.class);
+
+        // Then
+        assertEquals("jobId", deserialisedOp.getJobId());
+        assertEquals("1:2", deserialisedOp.getPageToken());
+        assertEquals(10, deserialisedOp.getPageSize());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final GetJobResultsPage op = new GetJobResultsPage.Builder()
+                .jobId("jobId")
+                .pageToken("1:2")
+                .pageSize(10)
+                .build();
+
+        // Then
+        assertEquals("jobId", op.getJobId());
+        assertEquals("1:2", op.getPageToken());
+        assertEquals(10, op.getPageSize());
+    }
+
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final GetJobResultsPage op = new GetJobResultsPage.Builder()
+                .jobId("jobId")
+                .pageToken("1:2")
+                .pageSize(10)
+                .build();
+
+        // When
+        final GetJobResultsPage clone = op.shallowClone();
+
+        // Then
+        assertNotSame(op, clone);
+        assertEquals("jobId", clone.getJobId());
+        assertEquals("1:2", clone.getPageToken());
+        assertEquals(10, clone.getPageSize());
+    }
+
+    @Test
+    public void shouldFailValidationIfPageSizeIsLessThanOne() {
+        // Given
+        final GetJobResultsPage op = new GetJobResultsPage.Builder()
+                .jobId("jobId")
+                .pageSize(0)
+                .build();
+
+        // When / Then
+        assertFalse(op.validate().isValid());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(JobResultsPage.class, outputClass);
+    }
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Sets.newHashSet("jobId");
+    }
+
+    @Override
+    protected GetJobResultsPage getTestObject() {
+        return new GetJobResultsPage();
+    }
+}
@@ -79,6 +79,7 @@ import uk.gov.gchq.gaffer.operation.impl.job.CancelScheduledJob;
 import uk.gov.gchq.gaffer.operation.impl.job.GetAllJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobResults;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResultsPage;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
 import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
 import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
@@ -92,6 +93,8 @@ import uk.gov.gchq.gaffer.operation.impl.output.ToVertices;
 import uk.gov.gchq.gaffer.operation.io.Input;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.store.job.JobResultStore;
+import uk.gov.gchq.gaffer.store.job.JobScheduler;
 import uk.gov.gchq.gaffer.store.library.GraphLibrary;
 import uk.gov.gchq.gaffer.store.library.NoGraphLibrary;
 import uk.gov.gchq.gaffer.store.operation.GetSchema;
@@ -139,6 +142,7 @@ import uk.gov.gchq.gaffer.store.operation.handler.job.CancelScheduledJobHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetAllJobDetailsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetJobDetailsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetJobResultsHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.job.GetJobResultsPageHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.join.JoinHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.named.AddNamedOperationHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.named.AddNamedViewHandler;
@@ -166,6 +170,7 @@ import uk.gov.gchq.gaffer.user.User;
 import uk.gov.gchq.koryphe.ValidationResult;
 import uk.gov.gchq.koryphe.util.ReflectionUtil;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -216,6 +221,8 @@ public abstract class Store {
     private GraphLibrary library;
 
     private JobTracker jobTracker;
+    private JobScheduler jobScheduler;
+    private JobResultStore jobResultStore;
     private String graphId;
 
     public Store() {
@@ -273,11 +280,13 @@ public abstract class Store {
 
         startCacheServiceLoader(properties);
         this.jobTracker = createJobTracker();
+        this.jobResultStore = createJobResultStore();
 
         optimiseSchema();
         validateSchemas();
         addOpHandlers();
         addExecutorService(properties);
+        this.jobScheduler = createJobScheduler();
     }
 
     public static void updateJsonSerialiser(final StoreProperties storeProperties) {
@@ -452,7 +461,7 @@ public abstract class Store {
                         ? (OperationChain) operation.shallowClone()
                         : OperationChain.wrap(operation).shallowClone();
 
-        if (isSupported(ExportToGafferResultCache.class)) {
+        if (null == jobResultStore && isSupported(ExportToGafferResultCache.class)) {
             boolean hasExport = false;
             for (final Operation op : clonedOp.getOperations()) {
                 if (op instanceof ExportToGafferResultCache) {
@@ -466,9 +475,12 @@ public abstract class Store {
             }
         }
 
-        runAsync(() -> {
+        final Runnable job = () -> {
             try {
-                handleOperation(clonedOp, context);
+                final Object result = handleOperation(clonedOp, context);
+                if (null != jobResultStore) {
+                    jobResultStore.write(jobDetail.getJobId(), result);
+                }
                 addOrUpdateJobDetail(clonedOp, context, null, JobStatus.FINISHED);
             } catch (final Error e) {
                 addOrUpdateJobDetail(clonedOp, context, e.getMessage(),
@@ -479,7 +491,13 @@ public abstract class Store {
                 addOrUpdateJobDetail(clonedOp, context, e.getMessage(),
                         JobStatus.FAILED);
             }
-        });
+        };
+
+        if (null != jobScheduler) {
+            jobScheduler.submit(clonedOp, context, job);
+        } else {
+            runAsync(job);
+        }
         return jobDetail;
     }
 
@@ -496,6 +514,14 @@ public abstract class Store {
         return jobTracker;
     }
 
+    public JobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
+
+    public JobResultStore getJobResultStore() {
+        return jobResultStore;
+    }
+
     /**
      * @param operationClass the operation class to check
      * @return true if the provided operation is supported.
@@ -727,6 +753,26 @@ public abstract class Store {
         return null;
     }
 
+    protected JobResultStore createJobResultStore() {
+        if (null != jobTracker && null != properties.getJobResultsDirectory()) {
+            return new JobResultStore(Paths.get(properties.getJobResultsDirectory()),
+                    properties.getJobResultsSegmentSize(), properties.getJobResultsTimeToLive());
+        }
+        return null;
+    }
+
+    protected JobScheduler createJobScheduler() {
+        final String jobSchedulerClass = properties.getJobSchedulerClass();
+        final JobScheduler newJobScheduler;
+        try {
+            newJobScheduler = Class.forName(jobSchedulerClass).asSubclass(JobScheduler.class).newInstance();
+        } catch (final InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Failed to instantiate job scheduler using class " + jobSchedulerClass, e);
+        }
+        newJobScheduler.initialise(this);
+        return newJobScheduler;
+    }
+
     protected SchemaOptimiser createSchemaOptimiser() {
         return new SchemaOptimiser();
     }
@@ -918,6 +964,9 @@ public abstract class Store {
             addOperationHandler(GetJobDetails.class, new GetJobDetailsHandler());
             addOperationHandler(GetAllJobDetails.class, new GetAllJobDetailsHandler());
             addOperationHandler(GetJobResults.class, new GetJobResultsHandler());
+            if (null != jobResultStore) {
+                addOperationHandler(GetJobResultsPage.class, new GetJobResultsPageHandler());
+            }
         }
 
         // Output
@@ -32,6 +32,9 @@ import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiserModules;
+import uk.gov.gchq.gaffer.store.job.ExecutorJobScheduler;
+import uk.gov.gchq.gaffer.store.job.JobResultStore;
+import uk.gov.gchq.gaffer.store.job.JobScheduler;
 import uk.gov.gchq.gaffer.store.operation.declaration.OperationDeclarations;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.koryphe.util.ReflectionUtil;
@@ -71,6 +74,32 @@ public class StoreProperties implements Cloneable {
     public static final String EXECUTOR_SERVICE_THREAD_COUNT = "gaffer.store.job.executor.threads";
     public static final String EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT = "50";
 
+    public static final String JOB_SCHEDULER_CLASS = "gaffer.store.job.scheduler.class";
+    public static final String JOB_SCHEDULER_CLASS_DEFAULT = ExecutorJobScheduler.class.getName();
+
+    /**
+     * The maximum number of jobs each user can run at once when using the
+     * {@link uk.gov.gchq.gaffer.store.job.PriorityJobScheduler}. By default
+     * this is the number of job executor threads.
+     */
+    public static final String JOB_SCHEDULER_MAX_JOBS_PER_USER = "gaffer.store.job.scheduler.user.max.jobs";
+
+    /**
+     * The directory to write the results of jobs to, using a
+     * {@link uk.gov.gchq.gaffer.store.job.JobResultStore}. If this is not set
+     * then job results are exported to the Gaffer result cache.
+     */
+    public static final String JOB_RESULTS_DIRECTORY = "gaffer.store.job.results.directory";
+    public static final String JOB_RESULTS_SEGMENT_SIZE = "gaffer.store.job.results.segment.size";
+    public static final String JOB_RESULTS_SEGMENT_SIZE_DEFAULT = String.valueOf(JobResultStore.DEFAULT_SEGMENT_SIZE);
+
+    /**
+     * The time in milliseconds that job results are kept for in the
+     * {@link uk.gov.gchq.gaffer.store.job.JobResultStore}. Defaults to one day.
+     */
+    public static final String JOB_RESULTS_TIME_TO_LIVE = "gaffer.store.job.results.timeToLive";
+    public static final String JOB_RESULTS_TIME_TO_LIVE_DEFAULT = String.valueOf(JobResultStore.DEFAULT_TIME_TO_LIVE);
+
     public static final String JSON_SERIALISER_CLASS = JSONSerialiser.JSON_SERIALISER_CLASS_KEY;
     public static final String JSON_SERIALISER_MODULES = JSONSerialiser.JSON_SERIALISER_MODULES;
     public static final String STRICT_JSON = JSONSerialiser.STRICT_JSON;
@@ -408,6 +437,52 @@ public class StoreProperties implements Cloneable {
         return Integer.parseInt(get(EXECUTOR_SERVICE_THREAD_COUNT, EXECUTOR_SERVICE_THREAD_COUNT_DEFAULT));
     }
 
+    public String getJobSchedulerClass() {
+        return get(JOB_SCHEDULER_CLASS, JOB_SCHEDULER_CLASS_DEFAULT);
+    }
+
+    @JsonIgnore
+    public void setJobSchedulerClass(final Class<? extends JobScheduler> jobSchedulerClass) {
+        setJobSchedulerClass(jobSchedulerClass.getName());
+    }
+
+    public void setJobSchedulerClass(final String jobSchedulerClass) {
+        set(JOB_SCHEDULER_CLASS, jobSchedulerClass);
+    }
+
+    public Integer getJobSchedulerMaxJobsPerUser() {
+        final String maxJobsPerUser = get(JOB_SCHEDULER_MAX_JOBS_PER_USER);
+        return null != maxJobsPerUser ? Integer.parseInt(maxJobsPerUser) : getJobExecutorThreadCount();
+    }
+
+    public void setJobSchedulerMaxJobsPerUser(final Integer maxJobsPerUser) {
+        set(JOB_SCHEDULER_MAX_JOBS_PER_USER, maxJobsPerUser.toString());
+    }
+
+    public String getJobResultsDirectory() {
+        return get(JOB_RESULTS_DIRECTORY);
+    }
+
+    public void setJobResultsDirectory(final String jobResultsDirectory) {
+        set(JOB_RESULTS_DIRECTORY, jobResultsDirectory);
+    }
+
+    public Integer getJobResultsSegmentSize() {
+        return Integer.parseInt(get(JOB_RESULTS_SEGMENT_SIZE, JOB_RESULTS_SEGMENT_SIZE_DEFAULT));
+    }
+
+    public void setJobResultsSegmentSize(final Integer jobResultsSegmentSize) {
+        set(JOB_RESULTS_SEGMENT_SIZE, jobResultsSegmentSize.toString());
+    }
+
+    public Long getJobResultsTimeToLive() {
+        return Long.parseLong(get(JOB_RESULTS_TIME_TO_LIVE, JOB_RESULTS_TIME_TO_LIVE_DEFAULT));
+    }
+
+    public void setJobResultsTimeToLive(final Long jobResultsTimeToLive) {
+        set(JOB_RESULTS_TIME_TO_LIVE, jobResultsTimeToLive.toString());
+    }
+
     public void addOperationDeclarationPaths(final String... newPaths) {
         final String newPathsCsv = StringUtils.join(newPaths, ",");
         String combinedPaths = getOperationDeclarationPaths();
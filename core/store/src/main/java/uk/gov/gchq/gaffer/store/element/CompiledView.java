@@ -0,0 +1,457 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.element;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.ElementTuple;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.koryphe.tuple.ReferenceArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.function.TupleAdaptedFunction;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@code CompiledView} is an execution plan for applying the filters and
+ * transformers in a {@link View} to {@link Element}s.
+ * <p>
+ * When the view is compiled, the identifiers and property names selected by
+ * each filter and transformer are resolved to slots that read from and write
+ * to the element directly, and the pre aggregation filters, post aggregation
+ * filters, transformers and post transform filters of each group are fused
+ * into a single array of steps. An element is then evaluated by looking up
+ * its group once and running the steps of that group, stopping at the first
+ * filter that fails. Elements in groups that are not in the view are
+ * rejected without running any steps.
+ * <p>
+ * Unlike {@link ElementFilter} and {@link ElementTransformer}, the compiled
+ * steps do not wrap each element in an {@link ElementTuple}, and functions
+ * that select more than one value are given a reusable tuple rather than a
+ * new {@link ReferenceArrayTuple} per element. Filter and transformer components that are not
+ * standard {@link TupleAdaptedPredicate}s or {@link TupleAdaptedFunction}s are
+ * still applied using an {@link ElementTuple}.
+ * <p>
+ * A {@code CompiledView} reuses its tuples and remembers the last group it
+ * looked up, so it is not thread safe and a separate instance should be
+ * compiled for each query or thread. Unlike the compiled view, the filters
+ * and transformers in the view itself can be shared between threads.
+ */
+public final class CompiledView {
+    private final Map<String, GroupEvaluator> evaluators;
+    private GroupEvaluator lastEvaluator;
+
+    private CompiledView(final Map<String, GroupEvaluator> evaluators) {
+        this.evaluators = evaluators;
+    }
+
+    /**
+     * Compiles the filters and transformers in the provided view.
+     *
+     * @param view the view to compile
+     * @return the compiled view
+     */
+    public static CompiledView compile(final View view) {
+        if (null == view) {
+            throw new IllegalArgumentException("View is required");
+        }
+
+        final Map<String, Slot> slots = new HashMap<>();
+        final Map<String, GroupEvaluator> evaluators = new HashMap<>();
+        for (final String group : view.getGroups()) {
+            final ViewElementDefinition elementDef = view.getElement(group);
+            evaluators.put(group, null == elementDef
+                    ? new GroupEvaluator(group, new Step[0], 0, 0, 0)
+                    : compile(group, elementDef, slots));
+        }
+        return new CompiledView(evaluators);
+    }
+
+    /**
+     * Gets the evaluator for a group.
+     *
+     * @param group the group
+     * @return the evaluator, or null if the group is not in the view
+     */
+    public GroupEvaluator getEvaluator(final String group) {
+        // Elements are often returned grouped together, so the last group
+        // is checked first to avoid hashing the group for every element.
+        final GroupEvaluator last = lastEvaluator;
+        if (null != last && group == last.group) {
+            return last;
+        }
+
+        final GroupEvaluator evaluator = evaluators.get(group);
+        if (null != evaluator) {
+            lastEvaluator = evaluator;
+        }
+        return evaluator;
+    }
+
+    /**
+     * Applies the pre aggregation filter, post aggregation filter,
+     * transformer and post transform filter to an element.
+     *
+     * @param element the element, which may be transformed
+     * @return true if the element passed all of the filters
+     */
+    public boolean apply(final Element element) {
+        final GroupEvaluator evaluator = getEvaluator(element.getGroup());
+        return null != evaluator && evaluator.apply(element);
+    }
+
+    public boolean testPreAggregation(final Element element) {
+        final GroupEvaluator evaluator = getEvaluator(element.getGroup());
+        return null != evaluator && evaluator.testPreAggregation(element);
+    }
+
+    public boolean testPostAggregation(final Element element) {
+        final GroupEvaluator evaluator = getEvaluator(element.getGroup());
+        return null != evaluator && evaluator.testPostAggregation(element);
+    }
+
+    /**
+     * Applies the transformer and then the post transform filter to an element.
+     *
+     * @param element the element, which may be transformed
+     * @return true if the element passed the post transform filter
+     */
+    public boolean transform(final Element element) {
+        final GroupEvaluator evaluator = getEvaluator(element.getGroup());
+        return null != evaluator && evaluator.transform(element);
+    }
+
+    private static GroupEvaluator compile(final String group, final ViewElementDefinition elementDef, final Map<String, Slot> slots) {
+        final List<Step> steps = new ArrayList<>();
+        addFilterSteps(elementDef.getPreAggregationFilter(), slots, steps);
+        final int preAggregationEnd = steps.size();
+        addFilterSteps(elementDef.getPostAggregationFilter(), slots, steps);
+        final int postAggregationEnd = steps.size();
+        final ElementTransformer transformer = elementDef.getTransformer();
+        if (null != transformer && null != transformer.getComponents()) {
+            for (final Function<?, ?> component : transformer.getComponents()) {
+                steps.add(compileFunction(component, slots));
+            }
+        }
+        final int transformEnd = steps.size();
+        addFilterSteps(elementDef.getPostTransformFilter(), slots, steps);
+        return new GroupEvaluator(group, steps.toArray(new Step[steps.size()]), preAggregationEnd, postAggregationEnd, transformEnd);
+    }
+
+    private static void addFilterSteps(final ElementFilter filter, final Map<String, Slot> slots, final List<Step> steps) {
+        if (null != filter && null != filter.getComponents()) {
+            for (final TupleAdaptedPredicate<String, ?> component : filter.getComponents()) {
+                steps.add(compilePredicate(component, slots));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Step compilePredicate(final TupleAdaptedPredicate<String, ?> component, final Map<String, Slot> slots) {
+        final Predicate<Object> predicate = (Predicate<Object>) component.getPredicate();
+        if (TupleAdaptedPredicate.class != component.getClass()) {
+            final ElementTuple tuple = new ElementTuple();
+            return element -> {
+                tuple.setElement(element);
+                return component.test(tuple);
+            };
+        }
+        if (null == predicate) {
+            return element -> true;
+        }
+
+        final Slot[] selection = getSlots(component.getSelection(), slots);
+        if (1 == selection.length) {
+            final Slot slot = selection[0];
+            return element -> predicate.test(slot.get(element));
+        }
+
+        final SlotTuple tuple = new SlotTuple(selection);
+        final Tuple<Integer> input = tuple.asReferenceTuple();
+        return element -> {
+            tuple.element = element;
+            return predicate.test(input);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Step compileFunction(final Function<?, ?> component, final Map<String, Slot> slots) {
+        if (TupleAdaptedFunction.class != component.getClass()) {
+            final Function<Tuple<String>, ?> function = (Function<Tuple<String>, ?>) component;
+            final ElementTuple tuple = new ElementTuple();
+            return element -> {
+                tuple.setElement(element);
+                function.apply(tuple);
+                return true;
+            };
+        }
+
+        final TupleAdaptedFunction<String, Object, Object> adaptedFunction = (TupleAdaptedFunction<String, Object, Object>) component;
+        final Function<Object, Object> function = adaptedFunction.getFunction();
+        final Slot[] selection = getSlots(adaptedFunction.getSelection(), slots);
+        final Slot[] projection = getSlots(adaptedFunction.getProjection(), slots);
+        final SlotTuple selectionTuple = new SlotTuple(selection);
+        final Tuple<Integer> tupleInput = selectionTuple.asReferenceTuple();
+        return element -> {
+            final Object input;
+            if (1 == selection.length) {
+                input = selection[0].get(element);
+            } else {
+                selectionTuple.element = element;
+                input = tupleInput;
+            }
+
+            // As in the TupleAdaptedFunction, a null output is still written,
+            // so it removes the projected property
+            final Object output = function.apply(input);
+            if (1 == projection.length) {
+                projection[0].put(element, output);
+            } else {
+                int i = 0;
+                for (final Object value : (Iterable<?>) output) {
+                    projection[i++].put(element, value);
+                }
+            }
+            return true;
+        };
+    }
+
+    private static Slot[] getSlots(final String[] references, final Map<String, Slot> slots) {
+        if (null == references) {
+            return new Slot[0];
+        }
+
+        final Slot[] result = new Slot[references.length];
+        for (int i = 0; i < references.length; i++) {
+            result[i] = slots.computeIfAbsent(references[i], CompiledView::createSlot);
+        }
+        return result;
+    }
+
+    private static Slot createSlot(final String reference) {
+        if (ElementTuple.ELEMENT.equals(reference) || ElementTuple.PROPERTIES.equals(reference)) {
+            return new TupleSlot(reference);
+        }
+
+        final IdentifierType idType = IdentifierType.fromName(reference);
+        if (null != idType) {
+            return new IdentifierSlot(reference, idType);
+        }
+        return new PropertySlot(reference);
+    }
+
+    /**
+     * The compiled filters and transformers for a single group.
+     */
+    public static final class GroupEvaluator {
+        private final String group;
+        private final Step[] steps;
+        private final int preAggregationEnd;
+        private final int postAggregationEnd;
+        private final int transformEnd;
+
+        private GroupEvaluator(final String group,
+                               final Step[] steps,
+                               final int preAggregationEnd,
+                               final int postAggregationEnd,
+                               final int transformEnd) {
+            this.group = group;
+            this.steps = steps;
+            this.preAggregationEnd = preAggregationEnd;
+            this.postAggregationEnd = postAggregationEnd;
+            this.transformEnd = transformEnd;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public boolean apply(final Element element) {
+            return run(element, 0, steps.length);
+        }
+
+        public boolean testPreAggregation(final Element element) {
+            return run(element, 0, preAggregationEnd);
+        }
+
+        public boolean testPostAggregation(final Element element) {
+            return run(element, preAggregationEnd, postAggregationEnd);
+        }
+
+        public boolean transform(final Element element) {
+            return run(element, postAggregationEnd, steps.length);
+        }
+
+        public boolean hasPreAggregationFilter() {
+            return preAggregationEnd > 0;
+        }
+
+        public boolean hasPostAggregationFilter() {
+            return postAggregationEnd > preAggregationEnd;
+        }
+
+        public boolean hasTransform() {
+            return transformEnd > postAggregationEnd;
+        }
+
+        public boolean hasPostTransformFilter() {
+            return steps.length > transformEnd;
+        }
+
+        private boolean run(final Element element, final int start, final int end) {
+            for (int i = start; i < end; i++) {
+                if (!steps[i].apply(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A compiled filter or transformer. Filters return false if the element
+     * should be rejected and transformers always return true.
+     */
+    private interface Step {
+        boolean apply(Element element);
+    }
+
+    private interface Slot {
+        Object get(Element element);
+
+        void put(Element element, Object value);
+    }
+
+    private static final class PropertySlot implements Slot {
+        private final String name;
+
+        private PropertySlot(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object get(final Element element) {
+            return element.getProperty(name);
+        }
+
+        @Override
+        public void put(final Element element, final Object value) {
+            element.putProperty(name, value);
+        }
+    }
+
+    /**
+     * A slot for an identifier. Identifiers can only be set through an
+     * {@link ElementTuple}, but are read directly.
+     */
+    private static final class IdentifierSlot implements Slot {
+        private final String reference;
+        private final IdentifierType idType;
+        private final ElementTuple tuple = new ElementTuple();
+
+        private IdentifierSlot(final String reference, final IdentifierType idType) {
+            this.reference = reference;
+            this.idType = idType;
+        }
+
+        @Override
+        public Object get(final Element element) {
+            return element.getIdentifier(idType);
+        }
+
+        @Override
+        public void put(final Element element, final Object value) {
+            tuple.setElement(element);
+            tuple.put(reference, value);
+        }
+    }
+
+    /**
+     * A slot for the whole element or its properties, which delegates to an
+     * {@link ElementTuple} so the behaviour matches the uncompiled view.
+     */
+    private static final class TupleSlot implements Slot {
+        private final String reference;
+        private final ElementTuple tuple = new ElementTuple();
+
+        private TupleSlot(final String reference) {
+            this.reference = reference;
+        }
+
+        @Override
+        public Object get(final Element element) {
+            tuple.setElement(element);
+            return tuple.get(reference);
+        }
+
+        @Override
+        public void put(final Element element, final Object value) {
+            tuple.setElement(element);
+            tuple.put(reference, value);
+        }
+    }
+
+    /**
+     * A reusable tuple of the values in a number of slots of the current
+     * element. Functions that select more than one value are passed a
+     * {@link ReferenceArrayTuple} of this tuple, as they may expect one of the
+     * fixed size tuples it extends.
+     */
+    private static final class SlotTuple implements Tuple<Integer> {
+        private final Slot[] slots;
+        private Element element;
+
+        private SlotTuple(final Slot[] slots) {
+            this.slots = slots;
+        }
+
+        private Tuple<Integer> asReferenceTuple() {
+            final Integer[] indices = new Integer[slots.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            return new ReferenceArrayTuple<>(this, indices);
+        }
+
+        @Override
+        public void put(final Integer index, final Object value) {
+            slots[index].put(element, value);
+        }
+
+        @Override
+        public Object get(final Integer index) {
+            return slots[index].get(element);
+        }
+
+        @Override
+        public Iterable<Object> values() {
+            final List<Object> values = new ArrayList<>(slots.length);
+            for (final Slot slot : slots) {
+                values.add(slot.get(element));
+            }
+            return values;
+        }
+    }
+}
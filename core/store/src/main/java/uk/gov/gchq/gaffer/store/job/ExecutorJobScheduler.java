@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+/**
+ * An {@code ExecutorJobScheduler} is the default {@link JobScheduler}, which
+ * runs jobs on the store's executor service in the order they are submitted.
+ */
+public class ExecutorJobScheduler implements JobScheduler {
+    private Store store;
+
+    @Override
+    public void initialise(final Store store) {
+        this.store = store;
+    }
+
+    @Override
+    public void submit(final OperationChain<?> opChain, final Context context, final Runnable job) {
+        store.runAsync(job);
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@code JobResultStore} stores the results of jobs on local disk, so that
+ * the results can be streamed or paged through without holding all of them
+ * in memory.
+ * <p>
+ * The results of each job are JSON serialised and written to GZIP compressed
+ * segment files, each containing up to the configured segment size results,
+ * in a directory named after the job ID. The results are written to a temporary
+ * directory which is moved into place once all of the results are written,
+ * so partial results are never read.
+ * </p>
+ * <p>
+ * A page token is the segment number and the offset within the segment of
+ * the first result of the page, so a page can be read by opening a single
+ * segment and skipping over the serialised bytes of the previous results.
+ * </p>
+ * <p>
+ * Results expire once they are older than the time to live, which defaults
+ * to one day as for the Gaffer result cache. Expired results are not
+ * returned, and are deleted whenever the results of another job are written
+ * or {@link #deleteExpired()} is called.
+ * </p>
+ */
+public class JobResultStore {
+    public static final int DEFAULT_SEGMENT_SIZE = 1000;
+    public static final long DEFAULT_TIME_TO_LIVE = 24 * 60 * 60 * 1000L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobResultStore.class);
+    private static final String SEGMENT_FILE_FORMAT = "segment-%06d.gz";
+    private static final String TEMP_DIRECTORY_SUFFIX = ".tmp";
+    private static final String PAGE_TOKEN_DELIMITER = ":";
+    private static final String NULL_CLASS_NAME = "";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long timeToLive;
+
+    public JobResultStore(final Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public JobResultStore(final Path directory, final int segmentSize) {
+        this(directory, segmentSize, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param directory   the directory to write the results to
+     * @param segmentSize the maximum number of results in each segment file
+     * @param timeToLive  the time in milliseconds that results are kept for,
+     *                    or null for the default of one day
+     */
+    public JobResultStore(final Path directory, final int segmentSize, final Long timeToLive) {
+        if (null == directory) {
+            throw new IllegalArgumentException("A directory is required");
+        }
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be at least 1");
+        }
+        if (null != timeToLive && timeToLive < 1) {
+            throw new IllegalArgumentException("Time to live must be at least 1 millisecond");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.timeToLive = null != timeToLive ? timeToLive : DEFAULT_TIME_TO_LIVE;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Writes the results of a job, replacing any existing results for the job.
+     * If the result is an {@link Iterable} then each of its items is written,
+     * otherwise the result is written as a single item. The result is closed
+     * once it has been written.
+     *
+     * @param jobId  the job ID
+     * @param result the result of the job
+     * @throws OperationException if the results could not be written
+     */
+    public void write(final String jobId, final Object result) throws OperationException {
+        final Path jobDirectory = getJobDirectory(jobId);
+        deleteExpired();
+        final Path tempDirectory = jobDirectory.resolveSibling(jobDirectory.getFileName() + TEMP_DIRECTORY_SUFFIX);
+        try {
+            deleteDirectory(tempDirectory);
+            Files.createDirectories(tempDirectory);
+            writeSegments(tempDirectory, toIterable(result));
+            deleteDirectory(jobDirectory);
+            try {
+                Files.move(tempDirectory, jobDirectory, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempDirectory, jobDirectory);
+            }
+        } catch (final IOException e) {
+            try {
+                deleteDirectory(tempDirectory);
+            } catch (final IOException deleteException) {
+                LOGGER.warn("Failed to delete temporary results directory {}", tempDirectory, deleteException);
+            }
+            throw new OperationException("Failed to write the results of job " + jobId, e);
+        } finally {
+            CloseableUtil.close(result);
+        }
+    }
+
+    /**
+     * @param jobId the job ID
+     * @return true if results have been written for the job
+     * @throws OperationException if the job ID is invalid
+     */
+    public boolean hasResults(final String jobId) throws OperationException {
+        final Path jobDirectory = getJobDirectory(jobId);
+        return Files.isDirectory(jobDirectory) && !isExpired(jobDirectory);
+    }
+
+    /**
+     * Gets all of the results of a job. The results are read lazily, so only
+     * a single result is held in memory at a time.
+     *
+     * @param jobId the job ID
+     * @return the results of the job
+     * @throws OperationException if there are no results for the job
+     */
+    public CloseableIterable<Object> getResults(final String jobId) throws OperationException {
+        final Path jobDirectory = getExistingJobDirectory(jobId);
+        return new CloseableIterable<Object>() {
+            @Override
+            public void close() {
+                // The iterators close their own segment files
+            }
+
+            @Override
+            public CloseableIterator<Object> iterator() {
+                return new ResultsIterator(jobDirectory);
+            }
+        };
+    }
+
+    /**
+     * Gets a page of the results of a job.
+     *
+     * @param jobId     the job ID
+     * @param pageToken the page token returned with the previous page, or
+     *                  null for the first page
+     * @param pageSize  the maximum number of results in the page
+     * @return the page of results
+     * @throws OperationException if there are no results for the job or the
+     *                            page token is invalid
+     */
+    public JobResultsPage getPage(final String jobId, final String pageToken, final int pageSize) throws OperationException {
+        if (pageSize < 1) {
+            throw new OperationException("Page size must be at least 1");
+        }
+
+        final Path jobDirectory = getExistingJobDirectory(jobId);
+        int segment = 0;
+        int offset = 0;
+        if (null != pageToken) {
+            final int[] position = parsePageToken(pageToken);
+            segment = position[0];
+            offset = position[1];
+        }
+
+        final List<Object> results = new ArrayList<>(Math.min(pageSize, segmentSize));
+        try {
+            while (results.size() < pageSize) {
+                final Path segmentFile = getSegmentFile(jobDirectory, segment);
+                if (!Files.exists(segmentFile)) {
+                    return new JobResultsPage(jobId, results, null);
+                }
+
+                try (final SegmentReader reader = new SegmentReader(segmentFile)) {
+                    reader.skip(offset);
+                    while (results.size() < pageSize && reader.hasNext()) {
+                        results.add(reader.next());
+                        offset++;
+                    }
+                    if (reader.hasNext()) {
+                        return new JobResultsPage(jobId, results, createPageToken(segment, offset));
+                    }
+                }
+                segment++;
+                offset = 0;
+            }
+        } catch (final IOException e) {
+            throw new OperationException("Failed to read the results of job " + jobId, e);
+        }
+
+        final String nextPageToken = Files.exists(getSegmentFile(jobDirectory, segment))
+                ? createPageToken(segment, offset) : null;
+        return new JobResultsPage(jobId, results, nextPageToken);
+    }
+
+    /**
+     * Deletes the results of a job.
+     *
+     * @param jobId the job ID
+     * @throws OperationException if the results could not be deleted
+     */
+    public void delete(final String jobId) throws OperationException {
+        try {
+            deleteDirectory(getJobDirectory(jobId));
+        } catch (final IOException e) {
+            throw new OperationException("Failed to delete the results of job " + jobId, e);
+        }
+    }
+
+    /**
+     * Deletes the results of all jobs that are older than the time to live,
+     * along with any temporary directories left by failed writes.
+     */
+    public void deleteExpired() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (final Stream<Path> jobDirectories = Files.list(directory)) {
+            jobDirectories.filter(Files::isDirectory)
+                    .filter(this::isExpired)
+                    .forEach(jobDirectory -> {
+                        try {
+                            deleteDirectory(jobDirectory);
+                        } catch (final IOException e) {
+                            LOGGER.warn("Failed to delete expired job results {}", jobDirectory, e);
+                        }
+                    });
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to delete expired job results from {}", directory, e);
+        }
+    }
+
+    private boolean isExpired(final Path jobDirectory) {
+        try {
+            // The directory is last modified when the final segment is written
+            return System.currentTimeMillis() - Files.getLastModifiedTime(jobDirectory).toMillis() >= timeToLive;
+        } catch (final IOException e) {
+            // The directory has been deleted
+            return true;
+        }
+    }
+
+    private void writeSegments(final Path jobDirectory, final Iterable<?> results) throws IOException {
+        final Iterator<?> itr = results.iterator();
+        int segment = 0;
+        final List<byte[]> records = new ArrayList<>();
+        final List<String> classNames = new ArrayList<>();
+        while (itr.hasNext()) {
+            records.clear();
+            classNames.clear();
+            while (records.size() < segmentSize && itr.hasNext()) {
+                final Object value = itr.next();
+                classNames.add(null == value ? NULL_CLASS_NAME : value.getClass().getName());
+                records.add(null == value ? new byte[0] : JSONSerialiser.serialise(value));
+            }
+
+            try (final DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(getSegmentFile(jobDirectory, segment++)))))) {
+                out.writeInt(records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    out.writeUTF(classNames.get(i));
+                    out.writeInt(records.get(i).length);
+                    out.write(records.get(i));
+                }
+            }
+        }
+    }
+
+    private Path getJobDirectory(final String jobId) throws OperationException {
+        if (null == jobId || jobId.isEmpty()) {
+            throw new OperationException("A job ID is required");
+        }
+        final Path jobDirectory = directory.resolve(jobId).normalize();
+        if (!directory.normalize().equals(jobDirectory.getParent()) || jobId.endsWith(TEMP_DIRECTORY_SUFFIX)) {
+            throw new OperationException("Invalid job ID: " + jobId);
+        }
+        return jobDirectory;
+    }
+
+    private Path getExistingJobDirectory(final String jobId) throws OperationException {
+        final Path jobDirectory = getJobDirectory(jobId);
+        if (!Files.isDirectory(jobDirectory)) {
+            throw new OperationException("No results were found for job " + jobId
+                    + ". The job may not have finished yet.");
+        }
+        if (isExpired(jobDirectory)) {
+            delete(jobId);
+            throw new OperationException("The results of job " + jobId + " have expired");
+        }
+        return jobDirectory;
+    }
+
+    private static Path getSegmentFile(final Path jobDirectory, final int segment) {
+        return jobDirectory.resolve(String.format(SEGMENT_FILE_FORMAT, segment));
+    }
+
+    private static String createPageToken(final int segment, final int offset) {
+        return segment + PAGE_TOKEN_DELIMITER + offset;
+    }
+
+    private static int[] parsePageToken(final String pageToken) throws OperationException {
+        final String[] parts = pageToken.split(PAGE_TOKEN_DELIMITER);
+        if (2 == parts.length) {
+            try {
+                final int[] position = {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+                if (position[0] >= 0 && position[1] >= 0) {
+                    return position;
+                }
+            } catch (final NumberFormatException e) {
+                // Fall through to the exception below
+            }
+        }
+        throw new OperationException("Invalid page token: " + pageToken);
+    }
+
+    private static Iterable<?> toIterable(final Object result) {
+        if (null == result) {
+            return Collections.emptyList();
+        }
+        if (result instanceof Iterable) {
+            return (Iterable<?>) result;
+        }
+        if (result instanceof Object[]) {
+            return Arrays.asList((Object[]) result);
+        }
+        return Collections.singletonList(result);
+    }
+
+    private static void deleteDirectory(final Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (final Stream<Path> paths = Files.walk(dir)) {
+            final List<Path> sortedPaths = new ArrayList<>();
+            paths.forEach(sortedPaths::add);
+            sortedPaths.sort(Comparator.reverseOrder());
+            for (final Path path : sortedPaths) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Reads the results from a single segment file.
+     */
+    private static final class SegmentReader implements Closeable {
+        private final DataInputStream in;
+        private final int size;
+        private final Map<String, Class<?>> classes = new HashMap<>();
+        private int position;
+
+        private SegmentReader(final Path segmentFile) throws IOException {
+            this.in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(segmentFile))));
+            try {
+                this.size = in.readInt();
+            } catch (final IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        private boolean hasNext() {
+            return position < size;
+        }
+
+        private Object next() throws IOException {
+            final String className = in.readUTF();
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            position++;
+            if (NULL_CLASS_NAME.equals(className)) {
+                return null;
+            }
+
+            Class<?> clazz = classes.get(className);
+            if (null == clazz) {
+                try {
+                    clazz = Class.forName(className);
+                } catch (final ClassNotFoundException e) {
+                    throw new IOException("Unable to find result class " + className, e);
+                }
+                classes.put(className, clazz);
+            }
+            return JSONSerialiser.deserialise(bytes, clazz);
+        }
+
+        private void skip(final int count) throws IOException {
+            for (int i = 0; i < count && hasNext(); i++) {
+                in.readUTF();
+                int remaining = in.readInt();
+                while (remaining > 0) {
+                    final int skipped = in.skipBytes(remaining);
+                    if (skipped <= 0) {
+                        throw new EOFException("Unexpected end of segment file");
+                    }
+                    remaining -= skipped;
+                }
+                position++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Iterates over the results in each segment file of a job in turn.
+     */
+    private static final class ResultsIterator implements CloseableIterator<Object> {
+        private final Path jobDirectory;
+        private int segment;
+        private SegmentReader reader;
+
+        private ResultsIterator(final Path jobDirectory) {
+            this.jobDirectory = jobDirectory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (null == reader || !reader.hasNext()) {
+                    close();
+                    final Path segmentFile = getSegmentFile(jobDirectory, segment);
+                    if (!Files.exists(segmentFile)) {
+                        return false;
+                    }
+                    reader = new SegmentReader(segmentFile);
+                    segment++;
+                }
+                return true;
+            } catch (final IOException e) {
+                throw new RuntimeException("Failed to read job results from " + jobDirectory, e);
+            }
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return reader.next();
+            } catch (final IOException e) {
+                throw new RuntimeException("Failed to read job results from " + jobDirectory, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (null != reader) {
+                CloseableUtil.close(reader);
+                reader = null;
+            }
+        }
+    }
+}
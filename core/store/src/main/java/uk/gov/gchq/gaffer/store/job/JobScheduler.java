@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+/**
+ * A {@code JobScheduler} decides when the jobs submitted to a {@link Store},
+ * including each run of a repeated job, are run on the store's executor
+ * service.
+ * <p>
+ * The scheduler is set using the
+ * {@link uk.gov.gchq.gaffer.store.StoreProperties#JOB_SCHEDULER_CLASS} store
+ * property.
+ * </p>
+ */
+public interface JobScheduler {
+    /**
+     * Initialises the scheduler for a store. This is called once the store's
+     * operation handlers have been added.
+     *
+     * @param store the store the jobs will run on
+     */
+    void initialise(final Store store);
+
+    /**
+     * Submits a job to be run.
+     *
+     * @param opChain the operation chain the job will execute
+     * @param context the context of the job, containing the user
+     * @param job     the job to run
+     */
+    void submit(final OperationChain<?> opChain, final Context context, final Runnable job);
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.ScoreOperationChain;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.ScoreOperationChainHandler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A {@code PriorityJobScheduler} is a {@link JobScheduler} that queues jobs
+ * and runs them in priority order, whilst sharing the executor service fairly
+ * between users.
+ * <p>
+ * The priority of a job is the score of its operation chain, calculated using
+ * the store's {@link ScoreOperationChainHandler}, with lower scoring jobs
+ * run first. Each user's jobs are queued separately and the next job to run
+ * is chosen from the users' next jobs by a weighted score:
+ * </p>
+ * <pre>
+ * score * (1 + running jobs + recent jobs) / (1 + jobs started whilst queued)
+ * </pre>
+ * <p>
+ * The number of recent jobs a user has started decays by
+ * {@value #USAGE_DECAY} each time any job is started, so a user who has been
+ * running a lot of jobs gives way to other users. The weighted score of a
+ * queued job also falls as other jobs are started, so an expensive job is
+ * not starved by a stream of cheaper jobs. Users may not run more than
+ * {@link uk.gov.gchq.gaffer.store.StoreProperties#JOB_SCHEDULER_MAX_JOBS_PER_USER}
+ * jobs at once and no more than
+ * {@link uk.gov.gchq.gaffer.store.StoreProperties#EXECUTOR_SERVICE_THREAD_COUNT}
+ * jobs are run at once in total.
+ * </p>
+ */
+public class PriorityJobScheduler implements JobScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriorityJobScheduler.class);
+    private static final double USAGE_DECAY = 0.9;
+    private static final double MIN_USAGE = 0.01;
+    private static final Comparator<QueuedJob> JOB_ORDER = Comparator
+            .comparingInt((QueuedJob job) -> job.score)
+            .thenComparingLong(job -> job.sequence);
+
+    private final Map<String, UserJobs> userJobs = new HashMap<>();
+    private Store store;
+    private ScoreOperationChainHandler scorer;
+    private int maxJobs;
+    private int maxJobsPerUser;
+    private int runningJobs;
+    private long sequence;
+    private long startedJobs;
+
+    @Override
+    public void initialise(final Store store) {
+        this.store = store;
+        this.maxJobs = store.getProperties().getJobExecutorThreadCount();
+        this.maxJobsPerUser = store.getProperties().getJobSchedulerMaxJobsPerUser();
+        final OperationHandler<?> handler = store.getOperationHandler(ScoreOperationChain.class);
+        if (handler instanceof ScoreOperationChainHandler) {
+            scorer = (ScoreOperationChainHandler) handler;
+        } else {
+            scorer = new ScoreOperationChainHandler();
+        }
+    }
+
+    @Override
+    public void submit(final OperationChain<?> opChain, final Context context, final Runnable job) {
+        final int score = scorer.getChainScore(opChain, context.getUser());
+        final String userId = context.getUser().getUserId();
+        synchronized (this) {
+            userJobs.computeIfAbsent(userId, key -> new UserJobs())
+                    .queue.add(new QueuedJob(job, score, sequence++, startedJobs));
+        }
+        dispatch();
+    }
+
+    /**
+     * @return the number of jobs that are waiting to be run.
+     */
+    public synchronized int getQueuedJobs() {
+        int queuedJobs = 0;
+        for (final UserJobs jobs : userJobs.values()) {
+            queuedJobs += jobs.queue.size();
+        }
+        return queuedJobs;
+    }
+
+    /**
+     * @return the number of jobs that are running.
+     */
+    public synchronized int getRunningJobs() {
+        return runningJobs;
+    }
+
+    private void dispatch() {
+        final List<UserJobs> usersToRun = new ArrayList<>();
+        final List<QueuedJob> jobsToRun = new ArrayList<>();
+        synchronized (this) {
+            while (runningJobs < maxJobs) {
+                final UserJobs next = getNextUser();
+                if (null == next) {
+                    break;
+                }
+                start(next);
+                usersToRun.add(next);
+                jobsToRun.add(next.queue.poll());
+            }
+        }
+
+        for (int i = 0; i < jobsToRun.size(); i++) {
+            final UserJobs jobs = usersToRun.get(i);
+            final QueuedJob job = jobsToRun.get(i);
+            try {
+                store.runAsync(() -> {
+                    try {
+                        job.job.run();
+                    } finally {
+                        release(jobs);
+                        dispatchQuietly();
+                    }
+                });
+            } catch (final RuntimeException e) {
+                // Return this job and the jobs that have not been run to the queue
+                synchronized (this) {
+                    for (int j = i; j < jobsToRun.size(); j++) {
+                        usersToRun.get(j).queue.add(jobsToRun.get(j));
+                        usersToRun.get(j).running--;
+                        runningJobs--;
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to run queued jobs", e);
+        }
+    }
+
+    private UserJobs getNextUser() {
+        UserJobs next = null;
+        for (final UserJobs jobs : userJobs.values()) {
+            if (!jobs.queue.isEmpty() && jobs.running < maxJobsPerUser
+                    && (null == next || isBefore(jobs, next))) {
+                next = jobs;
+            }
+        }
+        return next;
+    }
+
+    private boolean isBefore(final UserJobs jobs, final UserJobs otherJobs) {
+        final double weightedScore = getWeightedScore(jobs);
+        final double otherWeightedScore = getWeightedScore(otherJobs);
+        if (weightedScore != otherWeightedScore) {
+            return weightedScore < otherWeightedScore;
+        }
+        return jobs.queue.peek().sequence < otherJobs.queue.peek().sequence;
+    }
+
+    private double getWeightedScore(final UserJobs jobs) {
+        final QueuedJob job = jobs.queue.peek();
+        return job.score * (1 + jobs.running + jobs.usage) / (1 + startedJobs - job.queuedAt);
+    }
+
+    private void start(final UserJobs jobs) {
+        final Iterator<UserJobs> itr = userJobs.values().iterator();
+        while (itr.hasNext()) {
+            final UserJobs otherJobs = itr.next();
+            otherJobs.usage *= USAGE_DECAY;
+            if (otherJobs.isIdle()) {
+                itr.remove();
+            }
+        }
+        jobs.usage++;
+        jobs.running++;
+        runningJobs++;
+        startedJobs++;
+    }
+
+    private synchronized void release(final UserJobs jobs) {
+        jobs.running--;
+        runningJobs--;
+    }
+
+    private static final class UserJobs {
+        private final PriorityQueue<QueuedJob> queue = new PriorityQueue<>(JOB_ORDER);
+        private int running;
+        private double usage;
+
+        // Users are kept until their recent usage has decayed, so they
+        // cannot clear it by waiting for their jobs to finish.
+        private boolean isIdle() {
+            return 0 == running && queue.isEmpty() && usage < MIN_USAGE;
+        }
+    }
+
+    private static final class QueuedJob {
+        private final Runnable job;
+        private final int score;
+        private final long sequence;
+        private final long queuedAt;
+
+        private QueuedJob(final Runnable job, final int score, final long sequence, final long queuedAt) {
+            this.job = job;
+            this.score = score;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -16,6 +16,12 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.ExecutorService;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.PrefetchedIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
@@ -25,15 +31,37 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
 
 /**
  * An {@code OperationHandler} for the {@link ForEach} Operation.
+ * <p>
+ * If the maxConcurrency of the ForEach is greater than 1 and the store's
+ * {@link ExecutorService} is enabled, the operations are run on the executor
+ * and the results are returned as they complete. Otherwise the operations are
+ * run one at a time before the results are returned.
+ * <p>
+ * When run in parallel, each worker also reads up to maxPrefetchSize items
+ * from an iterable result before handing it over, so results that are only
+ * produced when they are iterated over, such as a scan of a store, are
+ * fetched in parallel too. The maxPrefetchSize can be configured in the
+ * operation declarations.
  *
  * @param <I> input type
  * @param <O> output type
  */
 public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O>, Iterable<? extends O>> {
+    public static final int DEFAULT_MAX_PREFETCH_SIZE = 10000;
+
+    private int maxPrefetchSize = DEFAULT_MAX_PREFETCH_SIZE;
 
     @Override
     public Iterable<? extends O> doOperation(final ForEach<I, O> forEach, final Context context, final Store store) throws OperationException {
@@ -44,6 +72,10 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
             throw new OperationException("Inputs cannot be null");
         }
 
+        if (forEach.getMaxConcurrency() > 1 && ExecutorService.isEnabled()) {
+            return new ParallelResults<>(forEach, context, store, maxPrefetchSize);
+        }
+
         final List<O> results = new ArrayList<>();
         for (final I input : forEach.getInput()) {
             final Operation clonedOperation = forEach.getOperation().shallowClone();
@@ -53,7 +85,15 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
         return results;
     }
 
-    private O executeOperation(final Operation operation, final Context context, final Store store) throws OperationException {
+    public int getMaxPrefetchSize() {
+        return maxPrefetchSize;
+    }
+
+    public void setMaxPrefetchSize(final int maxPrefetchSize) {
+        this.maxPrefetchSize = maxPrefetchSize;
+    }
+
+    private static <O> O executeOperation(final Operation operation, final Context context, final Store store) throws OperationException {
         final O result;
         if (operation instanceof Output) {
             result = store.execute((Output<O>) operation, context);
@@ -63,4 +103,220 @@ public class ForEachHandler<I, O> implements OutputOperationHandler<ForEach<I, O
         }
         return result;
     }
+
+    /**
+     * The results of running a {@link ForEach} in parallel. Up to
+     * maxConcurrency workers are submitted to the {@link ExecutorService} and
+     * each worker runs the operation for the next input, each with its own
+     * shallow clone of the {@link Context}. At most twice maxConcurrency
+     * results are running or waiting to be read at any time, so a worker stops
+     * when the window is full and new workers are submitted as the results are
+     * read. A thread waiting for a result will run the operation for the next
+     * input itself if fewer than maxConcurrency operations are running, so the
+     * results are always produced even if the executor is busy. An iterable
+     * result that is not a {@link Collection} is wrapped in a
+     * {@link PrefetchedIterable} by the thread that ran the operation.
+     * <p>
+     * The results can only be iterated over once. Closing the results stops
+     * any more operations from being started and cancels the pending workers.
+     *
+     * @param <I> input type
+     * @param <O> output type
+     */
+    private static final class ParallelResults<I, O> implements CloseableIterable<O> {
+        private final Operation operation;
+        private final Context context;
+        private final Store store;
+        private final int maxConcurrency;
+        private final int windowSize;
+        private final boolean ordered;
+        private final int maxPrefetchSize;
+        private final Iterator<? extends I> inputs;
+
+        private final Deque<O> results = new LinkedList<>();
+        private final Map<Integer, O> pendingResults = new HashMap<>();
+        private final List<Future<?>> workers = new ArrayList<>();
+        private int nextIndex;
+        private int nextResultIndex;
+        private int running;
+        private int activeWorkers;
+        private boolean inputsRemaining;
+        private boolean iterated;
+        private boolean closed;
+        private Exception error;
+
+        private ParallelResults(final ForEach<I, O> forEach, final Context context, final Store store, final int maxPrefetchSize) {
+            this.operation = forEach.getOperation();
+            this.context = context;
+            this.store = store;
+            this.maxConcurrency = forEach.getMaxConcurrency();
+            this.windowSize = 2 * maxConcurrency;
+            this.ordered = forEach.isOrdered();
+            this.maxPrefetchSize = maxPrefetchSize;
+            this.inputs = forEach.getInput().iterator();
+            this.inputsRemaining = inputs.hasNext();
+
+            synchronized (this) {
+                submitWorkers();
+            }
+        }
+
+        @Override
+        public synchronized CloseableIterator<O> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("The results of a parallel ForEach can only be iterated over once");
+            }
+            iterated = true;
+            return new CloseableIterator<O>() {
+                @Override
+                public boolean hasNext() {
+                    while (true) {
+                        synchronized (ParallelResults.this) {
+                            if (null != error) {
+                                throw new GafferRuntimeException("Failed to execute ForEach operation: " + error.getMessage(), error);
+                            }
+                            if (!results.isEmpty()) {
+                                return true;
+                            }
+                            if (closed || (!inputsRemaining && 0 == running)) {
+                                return false;
+                            }
+                            if (!canStart() || running >= maxConcurrency) {
+                                try {
+                                    ParallelResults.this.wait();
+                                } catch (final InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    throw new GafferRuntimeException("Interrupted waiting for ForEach results", e);
+                                }
+                                continue;
+                            }
+                        }
+                        runNext();
+                    }
+                }
+
+                @Override
+                public O next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    synchronized (ParallelResults.this) {
+                        final O result = results.poll();
+                        submitWorkers();
+                        return result;
+                    }
+                }
+
+                @Override
+                public void close() {
+                    ParallelResults.this.close();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                results.clear();
+                pendingResults.clear();
+                notifyAll();
+            }
+            for (final Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        /**
+         * Submits workers to the executor until there are maxConcurrency
+         * workers or no more operations can be started. Must be called while
+         * holding the lock.
+         */
+        private void submitWorkers() {
+            workers.removeIf(Future::isDone);
+            while (activeWorkers < maxConcurrency && canStart()) {
+                activeWorkers++;
+                workers.add(ExecutorService.getService().submit(() -> {
+                    try {
+                        while (runNext()) {
+                            // Keep running operations until the window is full or there are no inputs left
+                        }
+                    } finally {
+                        synchronized (this) {
+                            activeWorkers--;
+                        }
+                    }
+                }));
+            }
+        }
+
+        private boolean canStart() {
+            return inputsRemaining && null == error && !closed
+                    && running + results.size() + pendingResults.size() < windowSize;
+        }
+
+        /**
+         * Runs the operation for the next input.
+         *
+         * @return false if no operation could be started
+         */
+        private boolean runNext() {
+            final int index;
+            final Operation clonedOperation;
+            synchronized (this) {
+                if (!canStart()) {
+                    return false;
+                }
+                try {
+                    clonedOperation = operation.shallowClone();
+                    OperationHandlerUtil.updateOperationInput(clonedOperation, inputs.next());
+                    inputsRemaining = inputs.hasNext();
+                } catch (final RuntimeException e) {
+                    error = e;
+                    notifyAll();
+                    return false;
+                }
+                index = nextIndex++;
+                running++;
+            }
+
+            O result = null;
+            Exception failure = null;
+            try {
+                result = prefetch(executeOperation(clonedOperation, context.shallowClone(), store));
+            } catch (final OperationException | RuntimeException e) {
+                failure = e;
+            }
+
+            synchronized (this) {
+                running--;
+                if (closed) {
+                    CloseableUtil.close(result);
+                } else if (null != failure) {
+                    if (null == error) {
+                        error = failure;
+                    }
+                } else if (ordered) {
+                    pendingResults.put(index, result);
+                    while (pendingResults.containsKey(nextResultIndex)) {
+                        results.add(pendingResults.remove(nextResultIndex++));
+                    }
+                } else {
+                    results.add(result);
+                }
+                notifyAll();
+            }
+            return true;
+        }
+
+        private O prefetch(final O result) {
+            if (result instanceof Iterable && !(result instanceof Collection) && maxPrefetchSize > 0) {
+                return (O) new PrefetchedIterable<>((Iterable<?>) result, maxPrefetchSize);
+            }
+            return result;
+        }
+    }
 }
@@ -25,21 +25,24 @@ import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.function.UnwrapEntityId;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
-import uk.gov.gchq.gaffer.data.graph.GraphWindow;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.graph.Walk;
-import uk.gov.gchq.gaffer.data.graph.adjacency.AdjacencyMap;
-import uk.gov.gchq.gaffer.data.graph.adjacency.AdjacencyMaps;
-import uk.gov.gchq.gaffer.data.graph.adjacency.PrunedAdjacencyMaps;
-import uk.gov.gchq.gaffer.data.graph.adjacency.SimpleAdjacencyMaps;
+import uk.gov.gchq.gaffer.data.graph.adjacency.CompactAdjacencyMap;
+import uk.gov.gchq.gaffer.data.graph.adjacency.CompactAdjacencyMaps;
 import uk.gov.gchq.gaffer.data.graph.entity.EntityMap;
 import uk.gov.gchq.gaffer.data.graph.entity.EntityMaps;
 import uk.gov.gchq.gaffer.data.graph.entity.SimpleEntityMaps;
+import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.Operations;
+import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters.IncludeIncomingOutgoingType;
 import uk.gov.gchq.gaffer.operation.impl.GetWalks;
 import uk.gov.gchq.gaffer.operation.impl.Map;
 import uk.gov.gchq.gaffer.operation.impl.While;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
@@ -47,9 +50,11 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.koryphe.impl.function.IterableFunction;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -58,10 +63,11 @@ import java.util.stream.Collectors;
  * <p>
  * The handler executes each {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements}
  * operation in the parent GetWalks operation in turn and incrementally creates
- * an in-memory representation of the resulting graph. Once all GetElements
- * operations have been executed, a recursive depth-first search algorithm is
- * used to construct all of the {@link Walk}s that exist in the temporary
- * graph.
+ * an in-memory representation of the resulting graph, using
+ * {@link CompactAdjacencyMaps} to hold the edges. Once all GetElements
+ * operations have been executed, the {@link Walk}s that exist in the temporary
+ * graph are returned lazily, using an iterative depth-first search from each
+ * seed as the results are iterated over.
  * <p>
  * The default handler has two settings which can be overridden by system
  * administrators: <ul> <li>maxHops - prevent users from executing GetWalks
@@ -78,9 +84,23 @@ import java.util.stream.Collectors;
  * (for applications where performance is paramount and any issues arising from
  * excessive memory usage can be mitigated, this flag can be disabled).
  * <p>
+ * The deduplicateFrontier flag can be enabled so that each vertex is only used
+ * once as a seed for each hop, however many edges lead to it. It is disabled
+ * by default, as the conditional of a While operation may depend on the
+ * number of seeds.
+ * <p>
+ * If the GetWalks operation has targets, only walks ending at a target are
+ * returned. If the operation contains a single hop per operation chain, no
+ * While operations and no entities, the first half of the hops are executed
+ * forwards from the input and the remaining hops are executed backwards from
+ * the targets, with the incoming and outgoing directions swapped, and the two
+ * halves are joined when the walks are created. Otherwise the hops are all
+ * executed forwards and the edges in the last hop are filtered by the targets.
+ * <p>
  * This operation handler can be modified by supplying an
  * operationDeclarations.json file in order to limit the maximum number of hops
- * permitted or to enable/disable the pruning feature.
+ * permitted or to enable/disable the pruning and frontier deduplication
+ * features.
  * <p>
  * Currently the handler only supports creating {@link Walk}s which contain
  * {@link Edge}s.
@@ -88,6 +108,7 @@ import java.util.stream.Collectors;
 public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterable<Walk>> {
     private Integer maxHops = null;
     private boolean prune = true;
+    private boolean deduplicateFrontier = false;
 
     @Override
     public Iterable<Walk> doOperation(final GetWalks getWalks, final Context context, final Store store) throws OperationException {
@@ -115,23 +136,32 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
             throw new OperationException("GetWalks operation contains " + hops + " hops. The maximum number of hops is: " + maxHops);
         }
 
-        final AdjacencyMaps adjacencyMaps = prune ? new PrunedAdjacencyMaps() : new SimpleAdjacencyMaps();
+        final CompactAdjacencyMaps adjacencyMaps = new CompactAdjacencyMaps(prune);
         final EntityMaps entityMaps = new SimpleEntityMaps();
 
-        List<?> seeds = originalInput;
+        final Set<Object> targets = null != getWalks.getTargets()
+                ? Streams.toStream(getWalks.getTargets()).map(EntityId::getVertex).collect(Collectors.toSet())
+                : null;
 
-        // Execute the operations
-        for (final OperationChain<Iterable<Element>> operation : getWalks.getOperations()) {
-            if (isWhileOperation(operation)) {
-                seeds = executeWhileOperation(
-                        operation, seeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
-                );
-            } else {
-                seeds = executeOperation(
-                        operation, seeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
-                );
+        if (null != targets && isBidirectional(getWalks, hops)) {
+            executeBidirectional(getWalks.getOperations(), originalInput, targets, resultLimit,
+                    context, store, hops, adjacencyMaps, entityMaps);
+        } else {
+            List<?> seeds = originalInput;
+
+            // Execute the operations
+            for (final OperationChain<Iterable<Element>> operation : getWalks.getOperations()) {
+                if (isWhileOperation(operation)) {
+                    seeds = executeWhileOperation(
+                            operation, seeds, resultLimit,
+                            context, store, hops, adjacencyMaps, entityMaps, targets
+                    );
+                } else {
+                    seeds = executeOperation(
+                            operation, seeds, resultLimit,
+                            context, store, hops, adjacencyMaps, entityMaps, targets, deduplicateFrontier
+                    );
+                }
             }
         }
 
@@ -141,12 +171,8 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
             entityMaps.add(new EntityMap());
         }
 
-        final GraphWindow graphWindow = new GraphWindow(adjacencyMaps, entityMaps);
-
         // Track/recombine the edge objects and convert to return type
-        return Streams.toStream(originalInput)
-                .flatMap(seed -> walk(seed.getVertex(), null, graphWindow, new LinkedList<>(), new LinkedList<>(), hops).stream())
-                .collect(Collectors.toList());
+        return () -> new WalkIterator(originalInput, adjacencyMaps, entityMaps, hops);
     }
 
     public Integer getMaxHops() {
@@ -165,6 +191,14 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         this.prune = prune;
     }
 
+    public Boolean getDeduplicateFrontier() {
+        return deduplicateFrontier;
+    }
+
+    public void setDeduplicateFrontier(final Boolean deduplicateFrontier) {
+        this.deduplicateFrontier = deduplicateFrontier;
+    }
+
     private boolean isWhileOperation(final OperationChain<Iterable<Element>> operation) {
         return 1 == operation.getOperations().size()
                 && operation.getOperations().get(0) instanceof While;
@@ -176,8 +210,9 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                                           final Context context,
                                           final Store store,
                                           final int hops,
-                                          final AdjacencyMaps adjacencyMaps,
-                                          final EntityMaps entityMaps) throws OperationException {
+                                          final CompactAdjacencyMaps adjacencyMaps,
+                                          final EntityMaps entityMaps,
+                                          final Set<Object> targets) throws OperationException {
         List<?> resultSeeds = seeds;
         final While whileOp = (While) operation.getOperations().get(0);
         if (null != whileOp.getOperation()) {
@@ -212,7 +247,7 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                 resultSeeds = executeOperation(
                         (Output) whileOpClone.getOperation(),
                         resultSeeds, resultLimit,
-                        context, store, hops, adjacencyMaps, entityMaps
+                        context, store, hops, adjacencyMaps, entityMaps, targets, deduplicateFrontier
                 );
             }
         }
@@ -226,20 +261,26 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
                                      final Context context,
                                      final Store store,
                                      final int hops,
-                                     final AdjacencyMaps adjacencyMaps,
-                                     final EntityMaps entityMaps) throws OperationException {
+                                     final CompactAdjacencyMaps adjacencyMaps,
+                                     final EntityMaps entityMaps,
+                                     final Set<Object> targets,
+                                     final boolean deduplicate) throws OperationException {
         final Iterable<Element> results = executeOperation(operation, seeds, resultLimit, context, store);
 
-        final AdjacencyMap adjacencyMap = new AdjacencyMap();
+        final CompactAdjacencyMap.Builder adjacencyMap = adjacencyMaps.newAdjacencyMap();
         final EntityMap entityMap = new EntityMap();
+        final boolean isLastHop = hops - 1 == adjacencyMaps.size();
 
-        final List<Object> nextSeeds = new ArrayList<>();
+        final Collection<Object> nextSeeds = deduplicate ? new LinkedHashSet<>() : new ArrayList<>();
         for (final Element e : results) {
             if (e instanceof Edge) {
                 final Edge edge = (Edge) e;
                 final Object nextSeed = edge.getAdjacentMatchedVertexValue();
+                if (isLastHop && null != targets && !targets.contains(nextSeed)) {
+                    continue;
+                }
                 nextSeeds.add(nextSeed);
-                adjacencyMap.putEdge(edge.getMatchedVertexValue(), nextSeed, edge);
+                adjacencyMap.edge(edge.getMatchedVertexValue(), nextSeed, edge);
             } else {
                 final Entity entity = (Entity) e;
                 entityMap.putEntity(entity.getVertex(), entity);
@@ -247,11 +288,135 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         }
 
         if (hops > adjacencyMaps.size()) {
-            adjacencyMaps.add(adjacencyMap);
+            adjacencyMaps.add(adjacencyMap.build());
         }
         entityMaps.add(entityMap);
 
-        return nextSeeds;
+        return deduplicate ? new ArrayList<>(nextSeeds) : (List<Object>) nextSeeds;
+    }
+
+    /**
+     * Checks whether the hops can be executed backwards from the targets.
+     * This requires each operation chain to be a single hop, with no While
+     * operations or nested operation chains, and no entities, as entities
+     * would be retrieved for the wrong end of a hop executed backwards.
+     *
+     * @param getWalks the GetWalks operation
+     * @param hops     the number of hops
+     * @return true if the walks can be found from both ends
+     */
+    private boolean isBidirectional(final GetWalks getWalks, final int hops) {
+        if (hops < 2 || getWalks.getOperations().size() != hops) {
+            return false;
+        }
+        for (final OperationChain<Iterable<Element>> operation : getWalks.getOperations()) {
+            for (final Operation op : operation.getOperations()) {
+                if (op instanceof Operations) {
+                    return false;
+                }
+                if (op instanceof GetElements) {
+                    final View view = ((GetElements) op).getView();
+                    if (null == view || view.hasEntities()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes the first half of the hops forwards from the seeds and the
+     * remaining hops backwards from the targets. Both frontiers are
+     * deduplicated, as there are no While operations.
+     *
+     * @param operations    the hops
+     * @param seeds         the seeds to start the walks from
+     * @param targets       the vertices the walks must end at
+     * @param resultLimit   the maximum number of elements for each hop
+     * @param context       the context
+     * @param store         the store
+     * @param hops          the number of hops
+     * @param adjacencyMaps the adjacency maps to add the hops to
+     * @param entityMaps    the entity maps to add the hops to
+     * @throws OperationException if a hop fails
+     */
+    private void executeBidirectional(final List<OperationChain<Iterable<Element>>> operations,
+                                      final List<?> seeds,
+                                      final Set<Object> targets,
+                                      final Integer resultLimit,
+                                      final Context context,
+                                      final Store store,
+                                      final int hops,
+                                      final CompactAdjacencyMaps adjacencyMaps,
+                                      final EntityMaps entityMaps) throws OperationException {
+        final int forwardHops = (hops + 1) / 2;
+
+        List<?> forwardSeeds = seeds;
+        for (int hop = 0; hop < forwardHops; hop++) {
+            forwardSeeds = executeOperation(
+                    operations.get(hop), forwardSeeds, resultLimit,
+                    context, store, hops, adjacencyMaps, entityMaps, null, true
+            );
+        }
+
+        final CompactAdjacencyMap[] backwardMaps = new CompactAdjacencyMap[hops];
+        List<?> backwardSeeds = new ArrayList<>(targets);
+        for (int hop = hops - 1; hop >= forwardHops; hop--) {
+            final CompactAdjacencyMap.Builder adjacencyMap = adjacencyMaps.newAdjacencyMap();
+            final Set<Object> nextSeeds = new LinkedHashSet<>();
+            for (final Element e : executeOperation(reverse(operations.get(hop)), backwardSeeds, resultLimit, context, store)) {
+                if (e instanceof Edge) {
+                    final Edge edge = (Edge) e;
+                    final Object prevSeed = edge.getAdjacentMatchedVertexValue();
+                    nextSeeds.add(prevSeed);
+                    adjacencyMap.edge(prevSeed, edge.getMatchedVertexValue(), reverseMatchedVertex(edge));
+                }
+            }
+            backwardMaps[hop] = adjacencyMap.build();
+            backwardSeeds = new ArrayList<>(nextSeeds);
+        }
+
+        for (int hop = forwardHops; hop < hops; hop++) {
+            adjacencyMaps.add(backwardMaps[hop]);
+            entityMaps.add(new EntityMap());
+        }
+    }
+
+    /**
+     * Creates a copy of a hop with the incoming and outgoing directions of
+     * its GetElements operations swapped.
+     *
+     * @param operation the hop
+     * @return the reversed hop
+     */
+    private OperationChain<Iterable<Element>> reverse(final OperationChain<Iterable<Element>> operation) {
+        final OperationChain<Iterable<Element>> reversed = operation.shallowClone();
+        for (final Operation op : reversed.getOperations()) {
+            if (op instanceof GetElements) {
+                final GetElements getElements = (GetElements) op;
+                if (IncludeIncomingOutgoingType.INCOMING == getElements.getIncludeIncomingOutGoing()) {
+                    getElements.setIncludeIncomingOutGoing(IncludeIncomingOutgoingType.OUTGOING);
+                } else if (IncludeIncomingOutgoingType.OUTGOING == getElements.getIncludeIncomingOutGoing()) {
+                    getElements.setIncludeIncomingOutGoing(IncludeIncomingOutgoingType.INCOMING);
+                }
+            }
+        }
+        return reversed;
+    }
+
+    /**
+     * Edges retrieved backwards are matched on the vertex at the end of the
+     * hop, so the matched vertex is swapped for the edges to continue a walk.
+     *
+     * @param edge the edge retrieved backwards
+     * @return a copy of the edge matched on the vertex at the start of the hop
+     */
+    private Edge reverseMatchedVertex(final Edge edge) {
+        final EdgeId.MatchedVertex matchedVertex = EdgeId.MatchedVertex.DESTINATION == edge.getMatchedVertex()
+                ? EdgeId.MatchedVertex.SOURCE
+                : EdgeId.MatchedVertex.DESTINATION;
+        return new Edge(edge.getGroup(), edge.getSource(), edge.getDestination(), edge.isDirected(), matchedVertex, edge.getProperties());
     }
 
     private Iterable<Element> executeOperation(final Output<Iterable<Element>> operation,
@@ -272,60 +437,116 @@ public class GetWalksHandler implements OutputOperationHandler<GetWalks, Iterabl
         return new LimitedCloseableIterable<>(store.execute(convertedOp, context), 0, resultLimit, false);
     }
 
-    private List<Walk> walk(final Object curr, final Object prev, final GraphWindow graphWindow, final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue, final int hops) {
-        final List<Walk> walks = new ArrayList<>();
-
-        if (null != prev && hops != edgeQueue.size()) {
-            edgeQueue.offer(graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getEdges(prev, curr));
+    private void validateWhileOperation(final While whileOp) {
+        if (!(whileOp.getOperation() instanceof Output)
+                || !Iterable.class.isAssignableFrom(((Output) whileOp.getOperation()).getOutputClass())) {
+            throw new IllegalArgumentException(
+                    "The While Operation delegate must be an operation that returns an Iterable of Elements. "
+                            + whileOp.getOperation().getClass().getName() + " does not satisfy this."
+            );
         }
+    }
 
-        entityQueue.offer(graphWindow.getEntityMaps().get(entityQueue.size()).get(curr));
-
-        if (hops == edgeQueue.size()) {
-            final Walk walk = buildWalk(edgeQueue, entityQueue);
-            walks.add(walk);
-        } else {
-            for (final Object obj : graphWindow.getAdjacencyMaps().get(edgeQueue.size()).getDestinations(curr)) {
-                walks.addAll(walk(obj, curr, graphWindow, edgeQueue, entityQueue, hops));
-            }
+    /**
+     * An iterator over the {@link Walk}s from each seed. For each seed, the
+     * walks are found with a depth-first search which tracks the current
+     * source and destination pair at each hop, so only one walk is held in
+     * memory at a time.
+     */
+    private static final class WalkIterator implements Iterator<Walk> {
+        private final Iterator<EntityId> seeds;
+        private final CompactAdjacencyMaps adjacencyMaps;
+        private final EntityMaps entityMaps;
+        private final int hops;
+
+        private final int[] vertices;
+        private final int[] pairs;
+        private final int[] endPairs;
+        private int depth = -1;
+        private Walk next;
+
+        private WalkIterator(final List<EntityId> seeds, final CompactAdjacencyMaps adjacencyMaps, final EntityMaps entityMaps, final int hops) {
+            this.seeds = seeds.iterator();
+            this.adjacencyMaps = adjacencyMaps;
+            this.entityMaps = entityMaps;
+            this.hops = hops;
+            this.vertices = new int[hops + 1];
+            this.pairs = new int[hops];
+            this.endPairs = new int[hops];
         }
 
-        if (!edgeQueue.isEmpty()) {
-            edgeQueue.pollLast();
+        @Override
+        public boolean hasNext() {
+            if (null == next) {
+                next = findNext();
+            }
+            return null != next;
         }
 
-        if (!entityQueue.isEmpty()) {
-            entityQueue.pollLast();
+        @Override
+        public Walk next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Walk walk = next;
+            next = null;
+            return walk;
         }
 
-        return walks;
-    }
-
-    private Walk buildWalk(final LinkedList<Set<Edge>> edgeQueue, final LinkedList<Set<Entity>> entityQueue) {
-        final Walk.Builder builder = new Walk.Builder();
-
-        final Iterator<Set<Edge>> edgeIterator = edgeQueue.iterator();
-        final Iterator<Set<Entity>> entityIterator = entityQueue.iterator();
+        private Walk findNext() {
+            while (true) {
+                if (depth < 0) {
+                    if (!seeds.hasNext()) {
+                        return null;
+                    }
+                    vertices[0] = adjacencyMaps.getVertexId(seeds.next().getVertex());
+                    if (vertices[0] < 0) {
+                        continue;
+                    }
+                    startHop(0);
+                }
 
-        while (edgeIterator.hasNext() || entityIterator.hasNext()) {
-            if (entityIterator.hasNext()) {
-                builder.entities(entityIterator.next());
-            }
-            if (edgeIterator.hasNext()) {
-                builder.edges(edgeIterator.next());
+                if (pairs[depth] < endPairs[depth]) {
+                    vertices[depth + 1] = adjacencyMaps.getCompact(depth).getDestination(pairs[depth]);
+                    if (depth + 1 == hops) {
+                        final Walk walk = buildWalk();
+                        pairs[depth]++;
+                        return walk;
+                    }
+                    startHop(depth + 1);
+                } else {
+                    depth--;
+                    if (depth > -1) {
+                        pairs[depth]++;
+                    }
+                }
             }
         }
 
-        return builder.build();
-    }
+        private void startHop(final int hop) {
+            depth = hop;
+            if (hop < adjacencyMaps.size()) {
+                final CompactAdjacencyMap adjacencyMap = adjacencyMaps.getCompact(hop);
+                pairs[hop] = adjacencyMap.getFirstPair(vertices[hop]);
+                endPairs[hop] = adjacencyMap.getEndPair(vertices[hop]);
+            } else {
+                pairs[hop] = 0;
+                endPairs[hop] = 0;
+            }
+        }
 
-    private void validateWhileOperation(final While whileOp) {
-        if (!(whileOp.getOperation() instanceof Output)
-                || !Iterable.class.isAssignableFrom(((Output) whileOp.getOperation()).getOutputClass())) {
-            throw new IllegalArgumentException(
-                    "The While Operation delegate must be an operation that returns an Iterable of Elements. "
-                            + whileOp.getOperation().getClass().getName() + " does not satisfy this."
-            );
+        private Walk buildWalk() {
+            final Walk.Builder builder = new Walk.Builder();
+            for (int hop = 0; hop <= hops; hop++) {
+                final Set<Entity> entities = entityMaps.get(hop).get(adjacencyMaps.getVertex(vertices[hop]));
+                if (null != entities) {
+                    builder.entities(entities);
+                }
+                if (hop < hops) {
+                    builder.edges(adjacencyMaps.getCompact(hop).getEdges(pairs[hop]));
+                }
+            }
+            return builder.build();
         }
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.compare;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.gaffer.store.util.ExternalSorter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An {@code ExternalSortedIterable} sorts {@link Element}s that may not fit
+ * in memory, using an {@link ExternalSorter} that writes the sorted runs to a
+ * temporary directory using an {@link ElementSerialiser}. The result limit
+ * and deduplication are applied as the runs are merged.
+ * <p>
+ * The run files are kept until the iterable is closed, so it can be iterated
+ * more than once.
+ */
+final class ExternalSortedIterable implements CloseableIterable<Element> {
+    private final Comparator<Element> comparator;
+    private final Integer limit;
+    private final boolean deduplicate;
+    private final ExternalSorter<Element> sorter;
+
+    ExternalSortedIterable(final Comparator<Element> comparator,
+                           final Integer limit,
+                           final boolean deduplicate,
+                           final ElementSerialiser serialiser,
+                           final Path directory) {
+        this.comparator = comparator;
+        this.limit = limit;
+        this.deduplicate = deduplicate;
+        this.sorter = new ExternalSorter<>(comparator, new ExternalSorter.RunSerialiser<Element>() {
+            @Override
+            public void write(final Element element, final DataOutputStream out) throws IOException {
+                final byte[] bytes = serialiser.serialise(element);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public Element read(final DataInputStream in) throws IOException {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return serialiser.deserialise(bytes);
+            }
+        }, directory.toFile(), "run-", true);
+    }
+
+    /**
+     * Sorts a batch of elements and writes it to a new run file.
+     *
+     * @param elements the elements to write, which are sorted in place
+     * @throws IOException if the run file cannot be written or an element
+     *                     cannot be serialised
+     */
+    void addRun(final List<Element> elements) throws IOException {
+        sorter.addRun(elements);
+    }
+
+    /**
+     * Sorts the final batch of elements and keeps it in memory.
+     *
+     * @param elements the elements, which are sorted in place
+     */
+    void setLastRun(final List<Element> elements) {
+        sorter.setLastRun(elements);
+    }
+
+    int getRunCount() {
+        return sorter.getRunCount();
+    }
+
+    @Override
+    public CloseableIterator<Element> iterator() {
+        return new LimitedIterator(sorter.iterator());
+    }
+
+    /**
+     * Deletes the run files and the temporary directory.
+     */
+    @Override
+    public void close() {
+        sorter.close();
+    }
+
+    private final class LimitedIterator implements CloseableIterator<Element> {
+        private final CloseableIterator<Element> merged;
+        private final Set<Element> group = new HashSet<>();
+        private Element groupKey;
+        private Element next;
+        private long count;
+
+        private LimitedIterator(final CloseableIterator<Element> merged) {
+            this.merged = merged;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == next) {
+                next = computeNext();
+            }
+            return null != next;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Element result = next;
+            next = null;
+            count++;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            merged.close();
+        }
+
+        private Element computeNext() {
+            while ((null == limit || count < limit) && merged.hasNext()) {
+                final Element element = merged.next();
+                if (!deduplicate || isNew(element)) {
+                    return element;
+                }
+            }
+            close();
+            return null;
+        }
+
+        // Elements that compare as equal are merged next to each other, so
+        // duplicates only need to be checked against the current group.
+        private boolean isNew(final Element element) {
+            if (null == groupKey || 0 != comparator.compare(groupKey, element)) {
+                groupKey = element;
+                group.clear();
+            }
+            return group.add(element);
+        }
+    }
+}
@@ -25,8 +25,15 @@ import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -35,10 +42,24 @@ import java.util.stream.Stream;
  * in memory using the {@link uk.gov.gchq.gaffer.commonutil.iterable.LimitedInMemorySortedIterable}.
  * If the resultLimit is set to one that it just deletes the operation to the
  * {@link MaxHandler}.
+ * <p>
+ * To sort inputs that are too large to hold in memory, the maxInMemorySize
+ * setting can be configured in the operation declarations. If the input
+ * contains more elements than this (and the result limit is not smaller), the
+ * input is split into sorted runs of maxInMemorySize elements, which are
+ * written to temporary files using the serialisers in the store schema. The
+ * runs are then merged as the result is iterated. The result is a
+ * {@link uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable}, which
+ * deletes the temporary files when it is closed. The files are written to
+ * the tempDirectory setting, or the default temporary directory if it is not
+ * set.
  */
 public class SortHandler implements OutputOperationHandler<Sort, Iterable<? extends Element>> {
     private static final MaxHandler MAX_HANDLER = new MaxHandler();
 
+    private Integer maxInMemorySize;
+    private String tempDirectory;
+
     @Override
     public Iterable<? extends Element> doOperation(final Sort operation, final Context context, final Store store) throws OperationException {
         // If there is no input or there are no comparators, we return null
@@ -60,6 +81,11 @@ public class SortHandler implements OutputOperationHandler<Sort, Iterable<? exte
             return Collections.singletonList(max);
         }
 
+        if (null != maxInMemorySize
+                && (null == operation.getResultLimit() || operation.getResultLimit() > maxInMemorySize)) {
+            return externalSort(operation, store);
+        }
+
         try (final Stream<? extends Element> stream =
                      Streams.toStream(operation.getInput())
                              .filter(Objects::nonNull)) {
@@ -74,4 +100,78 @@ public class SortHandler implements OutputOperationHandler<Sort, Iterable<? exte
             CloseableUtil.close(operation);
         }
     }
+
+    public Integer getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    public void setMaxInMemorySize(final Integer maxInMemorySize) {
+        if (null != maxInMemorySize && 1 > maxInMemorySize) {
+            throw new IllegalArgumentException("maxInMemorySize must be greater than 0");
+        }
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    public void setTempDirectory(final String tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    private Iterable<? extends Element> externalSort(final Sort operation, final Store store) throws OperationException {
+        ExternalSortedIterable sorted = null;
+        List<Element> batch = new ArrayList<>();
+        try {
+            for (final Element element : operation.getInput()) {
+                if (null == element) {
+                    continue;
+                }
+                if (batch.size() == maxInMemorySize) {
+                    if (null == sorted) {
+                        sorted = createExternalSortedIterable(operation, store);
+                    }
+                    sorted.addRun(batch);
+                    batch = new ArrayList<>();
+                }
+                batch.add(element);
+            }
+        } catch (final IOException | RuntimeException e) {
+            CloseableUtil.close(sorted);
+            throw new OperationException("Unable to write sorted run for Sort operation", e);
+        } finally {
+            CloseableUtil.close(operation);
+        }
+
+        // If the input fitted in memory there is no need to merge any runs
+        if (null == sorted) {
+            return batch.stream().collect(
+                    GafferCollectors.toLimitedInMemorySortedIterable(
+                            operation.getCombinedComparator(),
+                            operation.getResultLimit(),
+                            operation.isDeduplicate()
+                    )
+            );
+        }
+
+        sorted.setLastRun(batch);
+        return sorted;
+    }
+
+    private ExternalSortedIterable createExternalSortedIterable(final Sort operation, final Store store) throws IOException {
+        if (null == store || null == store.getSchema()) {
+            throw new IllegalArgumentException("A store schema is required to sort elements that do not fit in memory");
+        }
+
+        final Path directory = null != tempDirectory
+                ? Files.createTempDirectory(Files.createDirectories(Paths.get(tempDirectory)), "gaffer-sort")
+                : Files.createTempDirectory("gaffer-sort");
+        return new ExternalSortedIterable(
+                operation.getCombinedComparator(),
+                operation.getResultLimit(),
+                operation.isDeduplicate(),
+                new ElementSerialiser(store.getSchema()),
+                directory);
+    }
 }
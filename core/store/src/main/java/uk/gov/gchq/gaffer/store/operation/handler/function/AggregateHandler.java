@@ -27,15 +27,27 @@ import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 import uk.gov.gchq.gaffer.store.operation.validator.function.AggregateValidator;
 import uk.gov.gchq.gaffer.store.operation.validator.function.FunctionValidator;
 import uk.gov.gchq.gaffer.store.schema.Schema;
-import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+import uk.gov.gchq.gaffer.store.util.PartitionedAggregator;
 import uk.gov.gchq.koryphe.ValidationResult;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * A {@code AggregateHandler} handles the {@link Aggregate} operation using a
+ * {@link PartitionedAggregator}. By default the elements are aggregated in
+ * memory on a single thread. The partitions, maxGroups and tempDirectory
+ * settings can be configured in the operation declarations to aggregate the
+ * partitions in parallel and to spill partial aggregates to disk, see
+ * {@link PartitionedAggregator}.
+ */
 public class AggregateHandler implements OutputOperationHandler<Aggregate, Iterable<? extends Element>> {
     private final FunctionValidator<Aggregate> validator = new AggregateValidator();
 
+    private int partitions = 1;
+    private Integer maxGroups;
+    private String tempDirectory;
+
     @Override
     public Iterable<? extends Element> doOperation(final Aggregate operation, final Context context, final Store store) throws OperationException {
         return doOperation(operation, store.getSchema());
@@ -63,7 +75,44 @@ public class AggregateHandler implements OutputOperationHandler<Aggregate, Itera
             throw new OperationException("Aggregate operation is invalid. " + result.getErrorString());
         }
 
-        return AggregatorUtil.queryAggregate(operation.getInput(), schema, buildView(operation));
+        return new PartitionedAggregator.Builder()
+                .schema(schema)
+                .view(buildView(operation))
+                .partitions(partitions)
+                .maxGroups(maxGroups)
+                .tempDirectory(tempDirectory)
+                .build()
+                .aggregate(operation.getInput());
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(final int partitions) {
+        if (1 > partitions) {
+            throw new IllegalArgumentException("Partitions must be greater than 0");
+        }
+        this.partitions = partitions;
+    }
+
+    public Integer getMaxGroups() {
+        return maxGroups;
+    }
+
+    public void setMaxGroups(final Integer maxGroups) {
+        if (null != maxGroups && 1 > maxGroups) {
+            throw new IllegalArgumentException("maxGroups must be greater than 0");
+        }
+        this.maxGroups = maxGroups;
+    }
+
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    public void setTempDirectory(final String tempDirectory) {
+        this.tempDirectory = tempDirectory;
     }
 
     private View buildView(final Aggregate operation) {
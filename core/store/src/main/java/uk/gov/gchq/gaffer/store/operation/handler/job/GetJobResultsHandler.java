@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.store.operation.handler.job;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.export.resultcache.GetGafferResultCacheExport;
@@ -25,13 +26,24 @@ import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
+import static uk.gov.gchq.gaffer.core.exception.Status.FORBIDDEN;
+import static uk.gov.gchq.gaffer.core.exception.Status.NOT_FOUND;
+
 /**
  * A {@code GetJobResultsHandler} handles {@link GetJobResults} operations by querying
- * the configured store's job tracker for the required job results.
+ * the configured store's job tracker for the required job results. If the store
+ * has a {@link uk.gov.gchq.gaffer.store.job.JobResultStore} then the results are
+ * read from there instead.
  */
 public class GetJobResultsHandler implements OutputOperationHandler<GetJobResults, CloseableIterable<?>> {
     @Override
     public CloseableIterable<?> doOperation(final GetJobResults operation, final Context context, final Store store) throws OperationException {
+        if (null != store.getJobResultStore()) {
+            // The results are streamed from the job result store
+            checkAccess(operation.getJobId(), context, store);
+            return store.getJobResultStore().getResults(operation.getJobId());
+        }
+
         if (!store.isSupported(GetGafferResultCacheExport.class)) {
             throw new OperationException("Getting job results is not supported as the " + GetGafferResultCacheExport.class.getSimpleName() + " operation has not been configured for this Gaffer graph.");
         }
@@ -42,4 +54,25 @@ public class GetJobResultsHandler implements OutputOperationHandler<GetJobResult
                 .key(operation.getKeyOrDefault())
                 .build()), context);
     }
+
+    /**
+     * Checks the user in the context can access the results of a job in the
+     * {@link uk.gov.gchq.gaffer.store.job.JobResultStore}. Only the user that
+     * submitted the job or a user with the admin auth can access its results.
+     *
+     * @param jobId   the job ID
+     * @param context the context containing the user
+     * @param store   the store
+     * @throws OperationException if the job is not found or the user does not have access
+     */
+    static void checkAccess(final String jobId, final Context context, final Store store) throws OperationException {
+        final JobDetail jobDetail = null != jobId ? store.getJobTracker().getJob(jobId, context.getUser()) : null;
+        if (null == jobDetail) {
+            throw new OperationException("No results were found for job " + jobId, NOT_FOUND);
+        }
+        if (!jobDetail.hasAccess(context.getUser(), store.getProperties().getAdminAuth())) {
+            throw new OperationException("User " + context.getUser().getUserId()
+                    + " does not have permission to access the results of job " + jobId, FORBIDDEN);
+        }
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.job;
+
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResultsPage;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+
+import static uk.gov.gchq.gaffer.core.exception.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * A {@code GetJobResultsPageHandler} handles {@link GetJobResultsPage} operations
+ * by reading a page of results from the configured store's
+ * {@link uk.gov.gchq.gaffer.store.job.JobResultStore}. Only the user that
+ * submitted the job or a user with the admin auth can read its results.
+ */
+public class GetJobResultsPageHandler implements OutputOperationHandler<GetJobResultsPage, JobResultsPage> {
+    @Override
+    public JobResultsPage doOperation(final GetJobResultsPage operation, final Context context, final Store store) throws OperationException {
+        if (null == store.getJobResultStore()) {
+            throw new OperationException("The Job Result Store has not been configured", SERVICE_UNAVAILABLE);
+        }
+
+        GetJobResultsHandler.checkAccess(operation.getJobId(), context, store);
+        return store.getJobResultStore().getPage(operation.getJobId(), operation.getPageToken(), operation.getPageSize());
+    }
+}
@@ -20,6 +20,7 @@ package uk.gov.gchq.gaffer.store.operation.handler.join;
 
 import uk.gov.gchq.gaffer.commonutil.exception.LimitExceededException;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedCloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.PrefetchedIterable;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
@@ -28,14 +29,53 @@ import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.join.match.ElementMatch;
+import uk.gov.gchq.gaffer.store.operation.handler.join.merge.SortMergeJoin;
 import uk.gov.gchq.koryphe.tuple.MapTuple;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.getResultsOrNull;
 import static uk.gov.gchq.gaffer.store.operation.handler.util.OperationHandlerUtil.updateOperationInput;
 
+/**
+ * <p>
+ * An operation handler for {@link Join} operations.
+ * </p>
+ * By default both inputs are limited by the collectionLimit of the Join, as
+ * the matched side is indexed in memory. The key side is also read into
+ * memory before any results are returned, so the limit is always checked up
+ * front. For joins using an {@link ElementMatch}
+ * the handler can instead be configured to use a sort merge join, which sorts
+ * both inputs by join key and spills them to disk using the schema serialisers
+ * when they contain more than maxInMemoryElements. The collectionLimit is not
+ * applied to sort merge joins and results are returned in join key order. To
+ * enable it, create an operation declarations JSON file containing the Join
+ * operation and your configured JoinHandler. E.g:
+ * <pre>
+ * {
+ *     "operations": [
+ *         {
+ *             "operation": "uk.gov.gchq.gaffer.operation.impl.join.Join",
+ *             "handler": {
+ *                 "class": "uk.gov.gchq.gaffer.store.operation.handler.join.JoinHandler",
+ *                 "maxInMemoryElements": 100000,
+ *                 "spillDirectory": "/tmp/gaffer-join"
+ *             }
+ *         }
+ *     ]
+ * }
+ * </pre>
+ * and then register a path to the json file in your store properties
+ * using the key gaffer.store.operation.declarations.
+ */
 public class JoinHandler<I> implements OutputOperationHandler<Join<I>, Iterable<? extends MapTuple>> {
+    private Integer maxInMemoryElements;
+    private String spillDirectory;
+
     @Override
     public Iterable<? extends MapTuple> doOperation(final Join<I> operation, final Context context, final Store store) throws OperationException {
         final int limit = operation.getCollectionLimit() != null ? operation.getCollectionLimit() : 100000;
@@ -71,16 +111,69 @@ public class JoinHandler<I> implements OutputOperationHandler<Join<I>, Iterable<
                         context,
                         store);
 
-        final Iterable limitedLeftIterable;
-        final Iterable limitedRightIterable;
+        if (null != maxInMemoryElements && operation.getMatchMethod() instanceof ElementMatch) {
+            return sortMergeJoin(operation.getInput(), rightIterable, joinFunction, operation, matchKey, store);
+        }
 
+        final Iterable<?> left = operation.getInput();
+        final Iterable<?> right = null != rightIterable ? rightIterable : new ArrayList<>();
         try {
-            limitedLeftIterable = new LimitedCloseableIterable(operation.getInput(), 0, limit, false);
-            limitedRightIterable = new LimitedCloseableIterable(rightIterable, 0, limit, false);
-            return joinFunction.join(limitedLeftIterable, limitedRightIterable, operation.getMatchMethod(), matchKey, operation.isFlatten());
+            // The key side is read up front, so the limit is checked before
+            // any results are returned. The matched side is checked as the
+            // match method indexes it.
+            if (MatchKey.LEFT.equals(matchKey)) {
+                return joinFunction.join(readKeys(left, limit), new LimitedCloseableIterable(right, 0, limit, false),
+                        operation.getMatchMethod(), matchKey, operation.isFlatten());
+            }
+            return joinFunction.join(new LimitedCloseableIterable(left, 0, limit, false), readKeys(right, limit),
+                    operation.getMatchMethod(), matchKey, operation.isFlatten());
         } catch (final LimitExceededException e) {
             throw new OperationException(e);
         }
+    }
+
+    private Iterable<? extends MapTuple> sortMergeJoin(final Iterable<? extends I> left, final Iterable<I> right, final JoinFunction joinFunction,
+                                                       final Join<I> operation, final MatchKey matchKey, final Store store) throws OperationException {
+        final SortMergeJoin sortMergeJoin = new SortMergeJoin(store.getSchema(),
+                ((ElementMatch) operation.getMatchMethod()).getElementGroupByProperties(),
+                maxInMemoryElements,
+                null != spillDirectory ? new File(spillDirectory) : null);
+        try {
+            return sortMergeJoin.join(left, null != right ? right : new ArrayList<>(), joinFunction, matchKey, operation.isFlatten());
+        } catch (final IOException | IllegalArgumentException e) {
+            throw new OperationException("Unable to sort the Join inputs: " + e.getMessage(), e);
+        }
+    }
+
+    private Iterable<?> readKeys(final Iterable<?> keys, final int limit) {
+        if (keys instanceof Collection) {
+            if (((Collection) keys).size() > limit) {
+                throw new LimitExceededException("Limit of " + limit + " exceeded.");
+            }
+            return keys;
+        }
+
+        final PrefetchedIterable<?> prefetched = new PrefetchedIterable<>(keys, limit);
+        if (!prefetched.isComplete()) {
+            prefetched.close();
+            throw new LimitExceededException("Limit of " + limit + " exceeded.");
+        }
+        return prefetched;
+    }
+
+    public Integer getMaxInMemoryElements() {
+        return maxInMemoryElements;
+    }
+
+    public void setMaxInMemoryElements(final Integer maxInMemoryElements) {
+        this.maxInMemoryElements = maxInMemoryElements;
+    }
+
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
 
+    public void setSpillDirectory(final String spillDirectory) {
+        this.spillDirectory = spillDirectory;
     }
 }
@@ -16,20 +16,32 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler.join.match;
 
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.comparison.ElementJoinComparator;
 import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Tests for matches for Elements within a Join Operation, groupBy properties can be optionally specified.
+ * <p>
+ * The match candidates are indexed by their identifiers and groupBy property
+ * values when the match is initialised, so each call to {@link #matching(Object)}
+ * is a hash lookup rather than a scan of all the candidates. Matches are
+ * returned in the order the candidates were provided.
  */
 public class ElementMatch implements Match {
     private ElementJoinComparator elementJoinComparator;
     private Iterable matchCandidates;
+    private List<String> indexedGroupByProperties;
+    private Map<List<Object>, List<Element>> index;
 
     private static final String NULL_MATCH_CANDIDATES_ERROR_MESSAGE = "ElementMatch must be initialised with non-null match candidates";
 
@@ -45,8 +57,15 @@ public class ElementMatch implements Match {
         elementJoinComparator = new ElementJoinComparator(groupByProperties);
     }
 
+    public Set<String> getElementGroupByProperties() {
+        return elementJoinComparator.getGroupByProperties();
+    }
+
     public void setElementGroupByProperties(final Set<String> groupByProperties) {
         elementJoinComparator.setGroupByProperties(groupByProperties);
+        if (null != matchCandidates) {
+            createIndex();
+        }
     }
 
     @Override
@@ -55,6 +74,7 @@ public class ElementMatch implements Match {
             throw new IllegalArgumentException(NULL_MATCH_CANDIDATES_ERROR_MESSAGE);
         }
         this.matchCandidates = matchCandidates;
+        createIndex();
     }
 
     @Override
@@ -65,12 +85,55 @@ public class ElementMatch implements Match {
 
         List matches = new ArrayList<>();
 
+        if (null != testObject) {
+            final List<Element> indexed = index.get(createKey((Element) testObject));
+            if (null != indexed) {
+                for (final Element entry : indexed) {
+                    matches.add(entry.shallowClone());
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void createIndex() {
+        indexedGroupByProperties = new ArrayList<>();
+        if (null != elementJoinComparator.getGroupByProperties()) {
+            indexedGroupByProperties.addAll(elementJoinComparator.getGroupByProperties());
+            Collections.sort(indexedGroupByProperties);
+        }
 
+        index = new HashMap<>();
         for (final Object entry : matchCandidates) {
-            if (elementJoinComparator.test((Element) entry, (Element) testObject)) {
-                matches.add(((Element) entry).shallowClone());
+            if (null != entry) {
+                index.computeIfAbsent(createKey((Element) entry), k -> new ArrayList<>())
+                        .add((Element) entry);
             }
         }
-        return matches;
+    }
+
+    /**
+     * Creates a key containing everything the {@link ElementJoinComparator}
+     * compares, so two elements have equal keys if and only if the comparator
+     * would consider them a match.
+     *
+     * @param element the element to create the key for
+     * @return the key
+     */
+    private List<Object> createKey(final Element element) {
+        final List<Object> key = new ArrayList<>(5 + indexedGroupByProperties.size());
+        key.add(element.getClass());
+        key.add(element.getGroup());
+        if (element instanceof Entity) {
+            key.add(((Entity) element).getVertex());
+        } else {
+            key.add(((Edge) element).getSource());
+            key.add(((Edge) element).getDestination());
+            key.add(((Edge) element).getDirectedType());
+        }
+        for (final String property : indexedGroupByProperties) {
+            key.add(element.getProperty(property));
+        }
+        return key;
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.merge;
+
+import com.google.common.primitives.UnsignedBytes;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.util.LengthValueBytesSerialiserUtil;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serialises the parts of an {@link Element} that are compared by an
+ * {@link uk.gov.gchq.gaffer.data.element.comparison.ElementJoinComparator}
+ * into a byte array, using the serialisers in the {@link Schema}. Two elements
+ * have equal keys if and only if they would be matched by the comparator, so
+ * the keys can be used to sort elements for a sort merge join.
+ */
+public class ElementJoinKeySerialiser {
+    public static final Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+    private static final byte ENTITY = 0;
+    private static final byte EDGE = 1;
+    private static final byte NULL_PROPERTY = 0;
+    private static final byte NON_NULL_PROPERTY = 1;
+
+    private final StringSerialiser stringSerialiser = new StringSerialiser();
+    private final Schema schema;
+    private final ToBytesSerialiser<Object> vertexSerialiser;
+    private final List<String> groupByProperties;
+
+    public ElementJoinKeySerialiser(final Schema schema, final Set<String> groupByProperties) {
+        if (null == schema) {
+            throw new IllegalArgumentException("Schema is required");
+        }
+        if (!(schema.getVertexSerialiser() instanceof ToBytesSerialiser)) {
+            throw new IllegalArgumentException("Vertex serialiser must be a " + ToBytesSerialiser.class.getSimpleName());
+        }
+        this.schema = schema;
+        this.vertexSerialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+        this.groupByProperties = new ArrayList<>();
+        if (null != groupByProperties) {
+            this.groupByProperties.addAll(groupByProperties);
+            Collections.sort(this.groupByProperties);
+        }
+    }
+
+    public byte[] serialise(final Element element) throws SerialisationException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (element instanceof Entity) {
+            out.write(ENTITY);
+            LengthValueBytesSerialiserUtil.serialise(stringSerialiser, element.getGroup(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, ((Entity) element).getVertex(), out);
+        } else {
+            final Edge edge = (Edge) element;
+            out.write(EDGE);
+            LengthValueBytesSerialiserUtil.serialise(stringSerialiser, edge.getGroup(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, edge.getSource(), out);
+            LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, edge.getDestination(), out);
+            out.write(edge.getDirectedType().ordinal());
+        }
+
+        if (!groupByProperties.isEmpty()) {
+            final SchemaElementDefinition elementDefinition = schema.getElement(element.getGroup());
+            if (null == elementDefinition) {
+                throw new SerialisationException("No SchemaElementDefinition found for group " + element.getGroup() + ", is this group in your schema?");
+            }
+            for (final String propertyName : groupByProperties) {
+                final Object value = element.getProperty(propertyName);
+                if (null == value) {
+                    out.write(NULL_PROPERTY);
+                } else {
+                    out.write(NON_NULL_PROPERTY);
+                    LengthValueBytesSerialiserUtil.serialise(getPropertySerialiser(elementDefinition, propertyName), value, out);
+                }
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private ToBytesSerialiser<Object> getPropertySerialiser(final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
+        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+        if (null == typeDefinition || !(typeDefinition.getSerialiser() instanceof ToBytesSerialiser)) {
+            throw new SerialisationException("No " + ToBytesSerialiser.class.getSimpleName() + " found for property " + propertyName);
+        }
+        return (ToBytesSerialiser) typeDefinition.getSerialiser();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.merge;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
+import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinFunction;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * A {@code SortMergeJoin} joins two iterables of {@link Element}s by sorting
+ * both of them by join key, spilling to disk if either is larger than the
+ * in-memory limit, and then merging them.
+ * <p>
+ * The results are returned in join key order and are read lazily. Only the
+ * elements sharing a single join key on the matched side need to fit in
+ * memory. The results must be closed to delete any temporary files.
+ */
+public class SortMergeJoin {
+    private final ElementJoinKeySerialiser keySerialiser;
+    private final ElementSerialiser elementSerialiser;
+    private final int maxInMemoryElements;
+    private final File directory;
+
+    /**
+     * @param schema              the schema containing the serialisers for the elements
+     * @param groupByProperties   the groupBy properties to match on, as well as the element identifiers
+     * @param maxInMemoryElements the maximum number of elements from each input to hold in memory
+     * @param directory           the directory to write temporary files to, or null to use the default temporary directory
+     */
+    public SortMergeJoin(final Schema schema, final Set<String> groupByProperties, final int maxInMemoryElements, final File directory) {
+        this.keySerialiser = new ElementJoinKeySerialiser(schema, groupByProperties);
+        this.elementSerialiser = new ElementSerialiser(schema);
+        this.maxInMemoryElements = maxInMemoryElements;
+        this.directory = directory;
+    }
+
+    public CloseableIterable<MapTuple> join(final Iterable<?> left, final Iterable<?> right, final JoinFunction joinFunction, final MatchKey matchKey, final Boolean flatten) throws IOException {
+        final SortedElements sortedLeft = new SortedElements(left, keySerialiser, elementSerialiser, maxInMemoryElements, directory);
+        final SortedElements sortedRight;
+        try {
+            sortedRight = new SortedElements(right, keySerialiser, elementSerialiser, maxInMemoryElements, directory);
+        } catch (final IOException | RuntimeException e) {
+            sortedLeft.close();
+            throw e;
+        }
+
+        final SortMergeMatch match = new SortMergeMatch(keySerialiser);
+        // The keys are passed as a plain Iterable so they are not closed by
+        // the join function once the first iteration completes.
+        final Iterable<MapTuple> results;
+        if (MatchKey.LEFT.equals(matchKey)) {
+            results = joinFunction.join((Iterable<Element>) sortedLeft::iterator, sortedRight, match, matchKey, flatten);
+        } else {
+            results = joinFunction.join(sortedLeft, (Iterable<Element>) sortedRight::iterator, match, matchKey, flatten);
+        }
+
+        return new CloseableIterable<MapTuple>() {
+            @Override
+            public void close() {
+                match.close();
+                sortedLeft.close();
+                sortedRight.close();
+            }
+
+            @Override
+            public CloseableIterator<MapTuple> iterator() {
+                return new WrappedCloseableIterator<>(results.iterator());
+            }
+        };
+    }
+}
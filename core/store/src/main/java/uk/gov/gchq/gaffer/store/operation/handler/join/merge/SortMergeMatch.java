@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.merge;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.operation.impl.join.match.Match;
+import uk.gov.gchq.gaffer.store.operation.handler.join.merge.SortedElements.KeyedElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link Match} for {@link SortedElements}, which finds matches by moving a
+ * cursor forwards through the sorted match candidates rather than holding
+ * them all in memory.
+ * <p>
+ * The elements to be matched must be provided in join key order, as they are
+ * when iterating another {@link SortedElements}. If an element with a lower
+ * key is provided the cursor is restarted from the beginning. Only the match
+ * candidates for the current key are held in memory.
+ */
+public class SortMergeMatch implements Match {
+    private static final String NOT_INITIALISED_ERROR_MESSAGE = "SortMergeMatch must be initialised with non-null SortedElements";
+
+    private final ElementJoinKeySerialiser keySerialiser;
+    private SortedElements matchCandidates;
+    private CloseableIterator<KeyedElement> cursor;
+    private KeyedElement next;
+    private byte[] currentKey;
+    private List<Element> currentMatches = Collections.emptyList();
+
+    public SortMergeMatch(final ElementJoinKeySerialiser keySerialiser) {
+        this.keySerialiser = keySerialiser;
+    }
+
+    @Override
+    public void init(final Iterable matchCandidates) {
+        if (!(matchCandidates instanceof SortedElements)) {
+            throw new IllegalArgumentException(NOT_INITIALISED_ERROR_MESSAGE);
+        }
+        close();
+        this.matchCandidates = (SortedElements) matchCandidates;
+    }
+
+    @Override
+    public List matching(final Object testObject) {
+        if (null == matchCandidates) {
+            throw new IllegalArgumentException(NOT_INITIALISED_ERROR_MESSAGE);
+        }
+
+        if (null == testObject) {
+            return new ArrayList<>();
+        }
+
+        final byte[] key;
+        try {
+            key = keySerialiser.serialise((Element) testObject);
+        } catch (final SerialisationException e) {
+            throw new IllegalArgumentException("Unable to create join key for element: " + testObject, e);
+        }
+
+        if (null == currentKey || 0 != ElementJoinKeySerialiser.KEY_COMPARATOR.compare(key, currentKey)) {
+            if (null == cursor || ElementJoinKeySerialiser.KEY_COMPARATOR.compare(key, currentKey) < 0) {
+                restart();
+            }
+            currentKey = key;
+            currentMatches = advanceTo(key);
+        }
+
+        final List matches = new ArrayList<>(currentMatches.size());
+        for (final Element match : currentMatches) {
+            matches.add(match.shallowClone());
+        }
+        return matches;
+    }
+
+    /**
+     * Closes the cursor over the match candidates.
+     */
+    public void close() {
+        CloseableUtil.close(cursor);
+        cursor = null;
+        next = null;
+        currentKey = null;
+        currentMatches = Collections.emptyList();
+    }
+
+    private void restart() {
+        close();
+        cursor = matchCandidates.keyedIterator();
+        next = cursor.hasNext() ? cursor.next() : null;
+    }
+
+    private List<Element> advanceTo(final byte[] key) {
+        while (null != next && ElementJoinKeySerialiser.KEY_COMPARATOR.compare(next.getKey(), key) < 0) {
+            next = cursor.hasNext() ? cursor.next() : null;
+        }
+
+        final List<Element> matches = new ArrayList<>();
+        while (null != next && 0 == ElementJoinKeySerialiser.KEY_COMPARATOR.compare(next.getKey(), key)) {
+            matches.add(next.getElement());
+            next = cursor.hasNext() ? cursor.next() : null;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.merge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.gaffer.store.util.ExternalSorter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@code SortedElements} is a {@link CloseableIterable} of {@link Element}s
+ * sorted by their join key.
+ * <p>
+ * The input is read in batches of up to the in-memory limit and each batch is
+ * sorted. If the input is larger than a single batch, the sorted batches are
+ * written to temporary files by an {@link ExternalSorter}, using an
+ * {@link ElementSerialiser}, and merged back together as the elements are
+ * iterated. Closing this iterable deletes the temporary files.
+ */
+public class SortedElements implements CloseableIterable<Element> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortedElements.class);
+    private static final Comparator<KeyedElement> COMPARATOR = (first, second) -> ElementJoinKeySerialiser.KEY_COMPARATOR.compare(first.getKey(), second.getKey());
+
+    private final ExternalSorter<KeyedElement> sorter;
+
+    /**
+     * Reads and sorts all the input elements. Any null items in the input are skipped.
+     *
+     * @param input               the input elements
+     * @param keySerialiser       the serialiser for creating the join keys to sort by
+     * @param elementSerialiser   the serialiser for writing elements to disk
+     * @param maxInMemoryElements the maximum number of elements to hold in memory
+     * @param directory           the directory to write temporary files to, or null to use the default temporary directory
+     * @throws IOException if the elements could not be serialised or written to disk
+     */
+    public SortedElements(final Iterable<?> input,
+                          final ElementJoinKeySerialiser keySerialiser,
+                          final ElementSerialiser elementSerialiser,
+                          final int maxInMemoryElements,
+                          final File directory) throws IOException {
+        if (maxInMemoryElements < 1) {
+            throw new IllegalArgumentException("The maximum number of in memory elements must be at least 1");
+        }
+        sorter = new ExternalSorter<>(COMPARATOR, new KeyedElementSerialiser(elementSerialiser), directory, "gaffer-join-");
+
+        try {
+            List<KeyedElement> batch = new ArrayList<>();
+            for (final Object item : input) {
+                if (null == item) {
+                    continue;
+                }
+                if (!(item instanceof Element)) {
+                    throw new IllegalArgumentException("Only Elements can be sorted, but found: " + item.getClass().getName());
+                }
+                if (batch.size() >= maxInMemoryElements) {
+                    sorter.addRun(batch);
+                    batch = new ArrayList<>();
+                }
+                batch.add(new KeyedElement(keySerialiser.serialise((Element) item), (Element) item));
+            }
+            sorter.setLastRun(batch);
+        } catch (final IOException | RuntimeException e) {
+            close();
+            throw e;
+        } finally {
+            CloseableUtil.close(input);
+        }
+
+        if (0 < sorter.getRunCount()) {
+            LOGGER.debug("Spilled {} sorted runs of up to {} elements to disk", sorter.getRunCount(), maxInMemoryElements);
+        }
+    }
+
+    /**
+     * @return an iterator of the elements, with their join keys, in key order
+     */
+    public CloseableIterator<KeyedElement> keyedIterator() {
+        return sorter.iterator();
+    }
+
+    @Override
+    public CloseableIterator<Element> iterator() {
+        final CloseableIterator<KeyedElement> keyedIterator = keyedIterator();
+        return new CloseableIterator<Element>() {
+            @Override
+            public void close() {
+                keyedIterator.close();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return keyedIterator.hasNext();
+            }
+
+            @Override
+            public Element next() {
+                return keyedIterator.next().getElement();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        sorter.close();
+    }
+
+    /**
+     * An {@link Element} and its join key.
+     */
+    public static class KeyedElement {
+        private final byte[] key;
+        private final Element element;
+
+        public KeyedElement(final byte[] key, final Element element) {
+            this.key = key;
+            this.element = element;
+        }
+
+        public byte[] getKey() {
+            return key;
+        }
+
+        public Element getElement() {
+            return element;
+        }
+    }
+
+    private static final class KeyedElementSerialiser implements ExternalSorter.RunSerialiser<KeyedElement> {
+        private final ElementSerialiser elementSerialiser;
+
+        private KeyedElementSerialiser(final ElementSerialiser elementSerialiser) {
+            this.elementSerialiser = elementSerialiser;
+        }
+
+        @Override
+        public void write(final KeyedElement keyedElement, final DataOutputStream out) throws IOException {
+            final byte[] elementBytes = elementSerialiser.serialise(keyedElement.getElement());
+            out.writeInt(keyedElement.getKey().length);
+            out.write(keyedElement.getKey());
+            out.writeInt(elementBytes.length);
+            out.write(elementBytes);
+        }
+
+        @Override
+        public KeyedElement read(final DataInputStream in) throws IOException {
+            final byte[] key = new byte[in.readInt()];
+            in.readFully(key);
+            final byte[] elementBytes = new byte[in.readInt()];
+            in.readFully(elementBytes);
+            return new KeyedElement(key, elementSerialiser.deserialise(elementBytes));
+        }
+    }
+}
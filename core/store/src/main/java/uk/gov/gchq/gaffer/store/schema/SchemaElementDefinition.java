@@ -81,19 +81,19 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
 
     protected ElementFilter validator;
 
-    protected ElementFilter fullValidatorCache;
+    protected volatile ElementFilter fullValidatorCache;
 
-    protected ElementFilter fullValidatorWithIsACache;
+    protected volatile ElementFilter fullValidatorWithIsACache;
 
     protected ElementAggregator aggregator;
 
-    protected Set<String> propertiesInAggregatorCache;
+    protected volatile Set<String> propertiesInAggregatorCache;
 
-    protected ElementAggregator fullAggregatorCache;
+    protected volatile ElementAggregator fullAggregatorCache;
 
-    protected ElementAggregator ingestAggregatorCache;
+    protected volatile ElementAggregator ingestAggregatorCache;
 
-    protected final Map<Set<String>, ElementAggregator> queryAggregatorCacheMap = new HashMap<>();
+    protected final Map<Set<String>, ElementAggregator> queryAggregatorCacheMap = Collections.synchronizedMap(new HashMap<>());
 
     protected Schema schemaReference;
 
@@ -197,53 +197,58 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
 
     @JsonIgnore
     public ElementAggregator getFullAggregator() {
-        if (null == fullAggregatorCache) {
-            fullAggregatorCache = new ElementAggregator();
+        ElementAggregator fullAggregator = fullAggregatorCache;
+        if (null == fullAggregator) {
+            // The aggregator is only cached once it is complete, so it can be shared between threads
+            fullAggregator = new ElementAggregator();
             if (aggregate) {
                 if (null != aggregator) {
-                    fullAggregatorCache.getComponents().addAll(aggregator.getComponents());
+                    fullAggregator.getComponents().addAll(aggregator.getComponents());
                 }
                 final Set<String> aggregatorProperties = getAggregatorProperties();
                 for (final Entry<String, String> entry : getPropertyMap().entrySet()) {
                     if (!aggregatorProperties.contains(entry.getKey())) {
-                        addTypeAggregateFunction(fullAggregatorCache, entry.getKey(), entry.getValue());
+                        addTypeAggregateFunction(fullAggregator, entry.getKey(), entry.getValue());
                     }
                 }
             }
-            fullAggregatorCache.lock();
+            fullAggregator.lock();
+            fullAggregatorCache = fullAggregator;
         }
 
-        return fullAggregatorCache;
+        return fullAggregator;
     }
 
     @JsonIgnore
     public ElementAggregator getIngestAggregator() {
-        if (null == ingestAggregatorCache) {
-            ingestAggregatorCache = new ElementAggregator();
+        ElementAggregator ingestAggregator = ingestAggregatorCache;
+        if (null == ingestAggregator) {
+            ingestAggregator = new ElementAggregator();
             if (aggregate) {
                 final Set<String> aggregatorProperties = getAggregatorProperties();
                 if (null != aggregator) {
                     for (final TupleAdaptedBinaryOperator<String, ?> component : aggregator.getComponents()) {
                         final String[] selection = component.getSelection();
                         if (selection.length == 1 && !groupBy.contains(selection[0]) && !selection[0].equals(schemaReference.getVisibilityProperty())) {
-                            ingestAggregatorCache.getComponents().add(component);
+                            ingestAggregator.getComponents().add(component);
                         } else if (!CollectionUtil.containsAny(groupBy, selection)) {
-                            ingestAggregatorCache.getComponents().add(component);
+                            ingestAggregator.getComponents().add(component);
                         }
                     }
                 }
                 for (final Entry<String, String> entry : getPropertyMap().entrySet()) {
                     if (!aggregatorProperties.contains(entry.getKey())) {
                         if (!groupBy.contains(entry.getKey()) && !entry.getKey().equals(schemaReference.getVisibilityProperty())) {
-                            addTypeAggregateFunction(ingestAggregatorCache, entry.getKey(), entry.getValue());
+                            addTypeAggregateFunction(ingestAggregator, entry.getKey(), entry.getValue());
                         }
                     }
                 }
             }
-            ingestAggregatorCache.lock();
+            ingestAggregator.lock();
+            ingestAggregatorCache = ingestAggregator;
         }
 
-        return ingestAggregatorCache;
+        return ingestAggregator;
     }
 
     @JsonIgnore
@@ -545,17 +550,19 @@ public abstract class SchemaElementDefinition implements ElementDefinition {
     }
 
     private Set<String> getAggregatorProperties() {
-        if (null == propertiesInAggregatorCache) {
+        Set<String> propertiesInAggregator = propertiesInAggregatorCache;
+        if (null == propertiesInAggregator) {
             if (null == aggregator) {
-                propertiesInAggregatorCache = Collections.emptySet();
+                propertiesInAggregator = Collections.emptySet();
             } else {
-                propertiesInAggregatorCache = new HashSet<>();
+                propertiesInAggregator = new HashSet<>();
                 for (final TupleAdaptedBinaryOperator<String, ?> component : aggregator.getComponents()) {
-                    Collections.addAll(propertiesInAggregatorCache, component.getSelection());
+                    Collections.addAll(propertiesInAggregator, component.getSelection());
                 }
             }
+            propertiesInAggregatorCache = propertiesInAggregator;
         }
-        return propertiesInAggregatorCache;
+        return propertiesInAggregator;
     }
 
     protected abstract static class BaseBuilder<ELEMENT_DEF extends SchemaElementDefinition,
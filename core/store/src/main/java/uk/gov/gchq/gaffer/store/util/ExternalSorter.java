@@ -0,0 +1,304 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@code ExternalSorter} sorts items that may not fit in memory. Items are
+ * added in batches, each of which is sorted and written to a temporary run
+ * file using a {@link RunSerialiser}. The final batch is kept in memory.
+ * Iterating merges the runs with a k-way heap merge, so only one item per run
+ * is held in memory at a time.
+ * <p>
+ * The run files are kept until the sorter is closed, so it can be iterated
+ * more than once. The sorter can also own its directory, in which case the
+ * directory is deleted when the sorter is closed. Sorters that have written
+ * runs but are still open when the JVM exits are closed by a single shutdown
+ * hook, in case they are never closed.
+ *
+ * @param <T> the type of items to sort
+ */
+public class ExternalSorter<T> implements CloseableIterable<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSorter.class);
+    private static final Set<ExternalSorter<?>> OPEN_SORTERS = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (final ExternalSorter<?> sorter : OPEN_SORTERS) {
+                sorter.close();
+            }
+        }, "external-sorter-cleanup"));
+    }
+
+    private final Comparator<T> comparator;
+    private final RunSerialiser<T> serialiser;
+    private final File directory;
+    private final String prefix;
+    private final boolean ownsDirectory;
+    private final List<File> runs = new ArrayList<>();
+    private List<T> lastRun = Collections.emptyList();
+    private boolean closed;
+
+    /**
+     * @param comparator the comparator to sort the items by
+     * @param serialiser the serialiser for writing items to the run files
+     * @param directory  the directory to write the run files to, or null to
+     *                   use the default temporary directory
+     * @param prefix     the prefix for the run file names
+     */
+    public ExternalSorter(final Comparator<T> comparator,
+                          final RunSerialiser<T> serialiser,
+                          final File directory,
+                          final String prefix) {
+        this(comparator, serialiser, directory, prefix, false);
+    }
+
+    /**
+     * @param comparator    the comparator to sort the items by
+     * @param serialiser    the serialiser for writing items to the run files
+     * @param directory     the directory to write the run files to, or null
+     *                      to use the default temporary directory
+     * @param prefix        the prefix for the run file names
+     * @param ownsDirectory true if the directory should be deleted when the
+     *                      sorter is closed
+     */
+    public ExternalSorter(final Comparator<T> comparator,
+                          final RunSerialiser<T> serialiser,
+                          final File directory,
+                          final String prefix,
+                          final boolean ownsDirectory) {
+        this.comparator = comparator;
+        this.serialiser = serialiser;
+        this.directory = directory;
+        this.prefix = prefix;
+        this.ownsDirectory = ownsDirectory && null != directory;
+        if (this.ownsDirectory) {
+            OPEN_SORTERS.add(this);
+        }
+    }
+
+    /**
+     * Sorts a batch of items and writes it to a new run file.
+     *
+     * @param items the items to write, which are sorted in place
+     * @throws IOException if the run file cannot be written or an item
+     *                     cannot be serialised
+     */
+    public void addRun(final List<T> items) throws IOException {
+        items.sort(comparator);
+        if (closed) {
+            throw new IllegalStateException("The external sorter has been closed");
+        }
+        final File run = File.createTempFile(prefix, ".run", directory);
+        OPEN_SORTERS.add(this);
+        runs.add(run);
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+            out.writeInt(items.size());
+            for (final T item : items) {
+                serialiser.write(item, out);
+            }
+        }
+    }
+
+    /**
+     * Sorts the final batch of items and keeps it in memory.
+     *
+     * @param items the items, which are sorted in place
+     */
+    public void setLastRun(final List<T> items) {
+        items.sort(comparator);
+        lastRun = items;
+    }
+
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * @return an iterator of all the items, in sorted order
+     */
+    @Override
+    public CloseableIterator<T> iterator() {
+        if (closed) {
+            throw new IllegalStateException("The external sorter has been closed");
+        }
+        return new MergeIterator();
+    }
+
+    /**
+     * Deletes the run files, and the directory if the sorter owns it.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        lastRun = Collections.emptyList();
+        for (final File run : runs) {
+            delete(run);
+        }
+        runs.clear();
+        if (ownsDirectory) {
+            delete(directory);
+        }
+        OPEN_SORTERS.remove(this);
+    }
+
+    private static void delete(final File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Unable to delete temporary file {}", file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Writes and reads the items in a run file.
+     *
+     * @param <T> the type of items to serialise
+     */
+    public interface RunSerialiser<T> {
+        void write(final T item, final DataOutputStream out) throws IOException;
+
+        T read(final DataInputStream in) throws IOException;
+    }
+
+    private final class MergeIterator implements CloseableIterator<T> {
+        private final List<RunReader> readers = new ArrayList<>(runs.size());
+        private final PriorityQueue<Source> heap;
+
+        private MergeIterator() {
+            heap = new PriorityQueue<>(runs.size() + 1, (a, b) -> comparator.compare(a.head, b.head));
+            try {
+                for (final File run : runs) {
+                    final RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    addSource(reader);
+                }
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+            addSource(lastRun.iterator());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heap.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            final Source source = heap.poll();
+            if (null == source) {
+                throw new NoSuchElementException();
+            }
+            addSource(source.iterator);
+            return source.head;
+        }
+
+        @Override
+        public void close() {
+            heap.clear();
+            for (final RunReader reader : readers) {
+                CloseableUtil.close(reader.in);
+            }
+        }
+
+        private void addSource(final Iterator<T> iterator) {
+            if (iterator.hasNext()) {
+                heap.add(new Source(iterator.next(), iterator));
+            }
+        }
+    }
+
+    private final class Source {
+        private final T head;
+        private final Iterator<T> iterator;
+
+        private Source(final T head, final Iterator<T> iterator) {
+            this.head = head;
+            this.iterator = iterator;
+        }
+    }
+
+    private final class RunReader implements Iterator<T> {
+        private final File run;
+        private final DataInputStream in;
+        private int remaining;
+
+        private RunReader(final File run) {
+            this.run = run;
+            DataInputStream input = null;
+            try {
+                input = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+                remaining = input.readInt();
+            } catch (final IOException e) {
+                CloseableUtil.close(input);
+                throw new GafferRuntimeException("Unable to read sorted run " + run.getAbsolutePath(), e);
+            }
+            in = input;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                final T item = serialiser.read(in);
+                remaining--;
+                if (0 == remaining) {
+                    in.close();
+                }
+                return item;
+            } catch (final IOException e) {
+                CloseableUtil.close(in);
+                throw new GafferRuntimeException("Unable to read sorted run " + run.getAbsolutePath(), e);
+            }
+        }
+    }
+}
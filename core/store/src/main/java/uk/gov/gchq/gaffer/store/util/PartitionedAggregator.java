@@ -0,0 +1,579 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.ExecutorService;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@code PartitionedAggregator} aggregates {@link Element}s using either the
+ * ingest aggregators in a {@link Schema} or the query time aggregators in a
+ * {@link View}.
+ * <p>
+ * Elements are grouped using a lightweight key holding the group, the
+ * identifiers and the groupBy property values, rather than an element clone.
+ * The keys are hashed into a number of partitions. If there is more than one
+ * partition and the {@link ExecutorService} is enabled, each partition is
+ * aggregated on a separate thread while the input is being read. The
+ * partitions share the {@link ElementAggregator}s from the schema or view,
+ * which hold their tuples per thread. If a batch has not been started by the
+ * executor when the reading thread needs to wait for it, the reading thread
+ * runs the batch itself, so aggregation cannot deadlock when the shared
+ * executor is busy.
+ * <p>
+ * If maxGroups is set, a partition holding more than its share of maxGroups
+ * aggregated elements spills its partial aggregates to a temporary file using
+ * the serialisers in the schema. The spilled partitions are then aggregated
+ * again, one partition at a time, as the result is iterated, so each
+ * partition must fit in memory once it has been aggregated. The result
+ * deletes the temporary files when it is closed. Transient properties in the
+ * view have no serialisers in the schema, so spilling is turned off if the
+ * view adds transient properties to an aggregated group.
+ * <p>
+ * Elements in groups that are not aggregated are returned unchanged after
+ * the aggregated elements. As with the aggregators themselves, the first
+ * element in each group of elements is used to hold the aggregated
+ * properties.
+ */
+public final class PartitionedAggregator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedAggregator.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final Schema schema;
+    private final Map<String, GroupAggregator> groupAggregators;
+    private final int partitions;
+    private final Integer maxGroups;
+    private final String tempDirectory;
+
+    private PartitionedAggregator(final Schema schema,
+                                  final View view,
+                                  final int partitions,
+                                  final Integer maxGroups,
+                                  final String tempDirectory) {
+        if (null == schema) {
+            throw new IllegalArgumentException("Schema is required");
+        }
+        if (1 > partitions) {
+            throw new IllegalArgumentException("Partitions must be greater than 0");
+        }
+        if (null != maxGroups && 1 > maxGroups) {
+            throw new IllegalArgumentException("maxGroups must be greater than 0");
+        }
+
+        this.schema = schema;
+        this.partitions = partitions;
+        this.tempDirectory = tempDirectory;
+        this.groupAggregators = new HashMap<>();
+        String transientGroup = null;
+        for (final String group : schema.getAggregatedGroups()) {
+            groupAggregators.put(group, new GroupAggregator(group, schema, view));
+            if (null != view && null != view.getElement(group)
+                    && !view.getElement(group).getTransientProperties().isEmpty()) {
+                transientGroup = group;
+            }
+        }
+
+        if (null != maxGroups && null != transientGroup) {
+            LOGGER.warn("Aggregated elements will not be spilled to disk as the view contains transient properties for group {}, which cannot be serialised", transientGroup);
+            this.maxGroups = null;
+        } else {
+            this.maxGroups = maxGroups;
+        }
+    }
+
+    /**
+     * Aggregates the provided elements. The input is fully consumed before
+     * this method returns.
+     *
+     * @param elements the elements to aggregate
+     * @return the aggregated elements
+     */
+    public CloseableIterable<Element> aggregate(final Iterable<? extends Element> elements) {
+        final Aggregation aggregation = new Aggregation();
+        try {
+            aggregation.addAll(elements);
+        } catch (final RuntimeException e) {
+            aggregation.close();
+            throw e;
+        }
+        return aggregation;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public Integer getMaxGroups() {
+        return maxGroups;
+    }
+
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    private static int hash(final Object obj) {
+        final int h = Objects.hashCode(obj);
+        return h ^ (h >>> 16);
+    }
+
+    public static class Builder {
+        private Schema schema;
+        private View view;
+        private int partitions = 1;
+        private Integer maxGroups;
+        private String tempDirectory;
+
+        public Builder schema(final Schema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Sets the view to use for query time aggregation. If the view is
+         * not set, ingest aggregation is applied.
+         *
+         * @param view the view containing the groupBy properties and aggregators
+         * @return this Builder
+         */
+        public Builder view(final View view) {
+            this.view = view;
+            return this;
+        }
+
+        public Builder partitions(final int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        public Builder maxGroups(final Integer maxGroups) {
+            this.maxGroups = maxGroups;
+            return this;
+        }
+
+        public Builder tempDirectory(final String tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        public PartitionedAggregator build() {
+            return new PartitionedAggregator(schema, view, partitions, maxGroups, tempDirectory);
+        }
+    }
+
+    /**
+     * The groupBy properties and aggregator for a single group, which are
+     * resolved once rather than for every element.
+     */
+    private static final class GroupAggregator {
+        private final String[] groupBy;
+        private final ElementAggregator aggregator;
+
+        private GroupAggregator(final String group, final Schema schema, final View view) {
+            final SchemaElementDefinition elementDef = schema.getElement(group);
+            final Set<String> groupBySet;
+            if (null == view) {
+                groupBySet = AggregatorUtil.getIngestGroupBy(group, schema);
+                aggregator = elementDef.getIngestAggregator();
+            } else {
+                groupBySet = AggregatorUtil.getQueryGroupBy(group, schema, view);
+                final ViewElementDefinition viewElementDef = view.getElement(group);
+                aggregator = null == viewElementDef
+                        ? elementDef.getQueryAggregator(null, null)
+                        : elementDef.getQueryAggregator(viewElementDef.getGroupBy(), viewElementDef.getAggregator());
+            }
+            groupBy = groupBySet.toArray(new String[groupBySet.size()]);
+        }
+
+        private Key createKey(final Element element) {
+            final Object[] groupByValues = new Object[groupBy.length];
+            for (int i = 0; i < groupBy.length; i++) {
+                groupByValues[i] = element.getProperty(groupBy[i]);
+            }
+            if (element instanceof Edge) {
+                final Edge edge = (Edge) element;
+                return new Key(this, edge.getSource(), edge.getDestination(), edge.isDirected(), groupByValues);
+            }
+            return new Key(this, ((Entity) element).getVertex(), null, false, groupByValues);
+        }
+    }
+
+    private static final class Key {
+        private final GroupAggregator groupAggregator;
+        private final Object source;
+        private final Object destination;
+        private final boolean directed;
+        private final Object[] groupByValues;
+        private final int hash;
+
+        private Key(final GroupAggregator groupAggregator,
+                    final Object source,
+                    final Object destination,
+                    final boolean directed,
+                    final Object[] groupByValues) {
+            this.groupAggregator = groupAggregator;
+            this.source = source;
+            this.destination = destination;
+            this.directed = directed;
+            this.groupByValues = groupByValues;
+
+            int h = System.identityHashCode(groupAggregator);
+            h = 31 * h + Objects.hashCode(source);
+            h = 31 * h + Objects.hashCode(destination);
+            h = 31 * h + (directed ? 1 : 0);
+            h = 31 * h + Arrays.hashCode(groupByValues);
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) obj;
+            return hash == key.hash
+                    && groupAggregator == key.groupAggregator
+                    && directed == key.directed
+                    && Objects.equals(source, key.source)
+                    && Objects.equals(destination, key.destination)
+                    && Arrays.equals(groupByValues, key.groupByValues);
+        }
+    }
+
+    /**
+     * The result of aggregating an input. It holds the partitions and any
+     * spill files until it is closed.
+     */
+    private final class Aggregation implements CloseableIterable<Element> {
+        private final Partition[] partitionArray = new Partition[partitions];
+        private final List<Element> nonAggregatedElements = new ArrayList<>();
+        private final boolean parallel = partitions > 1 && ExecutorService.isEnabled();
+        private final Integer maxPartitionGroups = null == maxGroups ? null : Math.max(1, maxGroups / partitions);
+        private ElementSerialiser serialiser;
+        private Path spillDirectory;
+
+        private Aggregation() {
+            for (int i = 0; i < partitions; i++) {
+                partitionArray[i] = new Partition(i);
+            }
+        }
+
+        private void addAll(final Iterable<? extends Element> elements) {
+            for (final Element element : elements) {
+                if (null == element) {
+                    continue;
+                }
+
+                final GroupAggregator groupAggregator = groupAggregators.get(element.getGroup());
+                if (null == groupAggregator) {
+                    nonAggregatedElements.add(element);
+                    continue;
+                }
+
+                final Key key = groupAggregator.createKey(element);
+                final Partition partition = partitionArray[Math.floorMod(hash(key.hash), partitions)];
+                if (parallel) {
+                    partition.buffer(key, element);
+                } else {
+                    partition.add(key, element);
+                }
+            }
+
+            for (final Partition partition : partitionArray) {
+                partition.flush();
+            }
+            for (final Partition partition : partitionArray) {
+                partition.finishInput();
+            }
+        }
+
+        @Override
+        public CloseableIterator<Element> iterator() {
+            return new WrappedCloseableIterator<>(new Iterator<Element>() {
+                private int partitionIndex;
+                private Iterator<Element> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (partitionIndex < partitions) {
+                            current = partitionArray[partitionIndex++].iterator();
+                        } else if (partitionIndex == partitions) {
+                            partitionIndex++;
+                            current = nonAggregatedElements.iterator();
+                        } else {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public Element next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            });
+        }
+
+        /**
+         * Deletes any spill files.
+         */
+        @Override
+        public void close() {
+            for (final Partition partition : partitionArray) {
+                partition.waitForPending();
+                partition.deleteSpillFile();
+            }
+            if (null != spillDirectory) {
+                try {
+                    Files.deleteIfExists(spillDirectory);
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to delete aggregation directory " + spillDirectory, e);
+                }
+            }
+        }
+
+        private synchronized Path createSpillFile(final int partitionIndex) throws IOException {
+            if (null == spillDirectory) {
+                spillDirectory = null != tempDirectory
+                        ? Files.createTempDirectory(Files.createDirectories(Paths.get(tempDirectory)), "gaffer-aggregate")
+                        : Files.createTempDirectory("gaffer-aggregate");
+                serialiser = new ElementSerialiser(schema);
+            }
+            return spillDirectory.resolve("partition-" + partitionIndex);
+        }
+
+        private final class Partition {
+            private final int index;
+            private Map<Key, Element> aggregated = new HashMap<>();
+            private List<Key> bufferedKeys = new ArrayList<>();
+            private List<Element> bufferedElements = new ArrayList<>();
+            private Future<?> pending;
+            private Batch pendingBatch;
+            private Path spillFile;
+            private DataOutputStream spillOutput;
+            private int spillCount;
+
+            private Partition(final int index) {
+                this.index = index;
+            }
+
+            private void buffer(final Key key, final Element element) {
+                bufferedKeys.add(key);
+                bufferedElements.add(element);
+                if (bufferedKeys.size() >= BATCH_SIZE) {
+                    flush();
+                }
+            }
+
+            // Submits the buffered elements to the executor. Only one batch
+            // per partition is aggregated at a time, which also limits the
+            // number of batches held in memory.
+            private void flush() {
+                if (bufferedKeys.isEmpty()) {
+                    return;
+                }
+
+                waitForPending();
+                final List<Key> keys = bufferedKeys;
+                final List<Element> batch = bufferedElements;
+                bufferedKeys = new ArrayList<>();
+                bufferedElements = new ArrayList<>();
+                pendingBatch = new Batch(keys, batch);
+                pending = ExecutorService.getService().submit(pendingBatch);
+            }
+
+            private void waitForPending() {
+                if (null != pending) {
+                    try {
+                        if (pendingBatch.claim()) {
+                            // The executor has not started the batch, so run it in this thread
+                            pending.cancel(false);
+                            pendingBatch.aggregate();
+                        } else {
+                            pending.get();
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new GafferRuntimeException("Interrupted waiting for aggregation", e);
+                    } catch (final ExecutionException e) {
+                        throw new GafferRuntimeException("Failed to aggregate elements: " + e.getCause().getMessage(), e.getCause());
+                    } finally {
+                        pending = null;
+                        pendingBatch = null;
+                    }
+                }
+            }
+
+            /**
+             * A batch of elements to add to the partition, which is run by
+             * whichever of the executor and the reading thread claims it first.
+             */
+            private final class Batch implements Runnable {
+                private final List<Key> keys;
+                private final List<Element> elements;
+                private final AtomicBoolean claimed = new AtomicBoolean();
+
+                private Batch(final List<Key> keys, final List<Element> elements) {
+                    this.keys = keys;
+                    this.elements = elements;
+                }
+
+                private boolean claim() {
+                    return claimed.compareAndSet(false, true);
+                }
+
+                @Override
+                public void run() {
+                    if (claim()) {
+                        aggregate();
+                    }
+                }
+
+                private void aggregate() {
+                    for (int i = 0; i < keys.size(); i++) {
+                        add(keys.get(i), elements.get(i));
+                    }
+                }
+            }
+
+            private void add(final Key key, final Element element) {
+                aggregated.merge(key, element, key.groupAggregator.aggregator::apply);
+                if (null != maxPartitionGroups && aggregated.size() > maxPartitionGroups) {
+                    spill();
+                }
+            }
+
+            private void spill() {
+                try {
+                    if (null == spillOutput) {
+                        spillFile = createSpillFile(index);
+                        spillOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)));
+                    }
+                    for (final Element element : aggregated.values()) {
+                        final byte[] bytes = serialiser.serialise(element);
+                        spillOutput.writeInt(bytes.length);
+                        spillOutput.write(bytes);
+                        spillCount++;
+                    }
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to spill aggregated elements to " + spillFile, e);
+                }
+                aggregated = new HashMap<>();
+            }
+
+            // Once a partition has spilled, the rest of its partial
+            // aggregates are spilled too, so the partition can be
+            // aggregated from its file each time it is iterated.
+            private void finishInput() {
+                waitForPending();
+                if (null != spillOutput) {
+                    if (!aggregated.isEmpty()) {
+                        spill();
+                    }
+                    try {
+                        spillOutput.close();
+                    } catch (final IOException e) {
+                        throw new GafferRuntimeException("Unable to write aggregated elements to " + spillFile, e);
+                    }
+                }
+            }
+
+            private Iterator<Element> iterator() {
+                if (null == spillFile) {
+                    return aggregated.values().iterator();
+                }
+
+                final Map<Key, Element> result = new HashMap<>();
+                DataInputStream input = null;
+                try {
+                    input = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile)));
+                    for (int i = 0; i < spillCount; i++) {
+                        final byte[] bytes = new byte[input.readInt()];
+                        input.readFully(bytes);
+                        final Element element = serialiser.deserialise(bytes);
+                        final Key key = groupAggregators.get(element.getGroup()).createKey(element);
+                        result.merge(key, element, key.groupAggregator.aggregator::apply);
+                    }
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to read aggregated elements from " + spillFile, e);
+                } finally {
+                    CloseableUtil.close(input);
+                }
+                return result.values().iterator();
+            }
+
+            private void deleteSpillFile() {
+                CloseableUtil.close(spillOutput);
+                if (null != spillFile) {
+                    try {
+                        Files.deleteIfExists(spillFile);
+                    } catch (final IOException e) {
+                        throw new GafferRuntimeException("Unable to delete aggregation file " + spillFile, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -21,7 +21,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
@@ -90,6 +92,7 @@ import uk.gov.gchq.gaffer.operation.impl.job.CancelScheduledJob;
 import uk.gov.gchq.gaffer.operation.impl.job.GetAllJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobResults;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResultsPage;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
 import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
 import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
@@ -104,6 +107,8 @@ import uk.gov.gchq.gaffer.serialisation.Serialiser;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.tostring.StringToStringSerialiser;
+import uk.gov.gchq.gaffer.store.job.JobResultStore;
+import uk.gov.gchq.gaffer.store.job.PriorityJobScheduler;
 import uk.gov.gchq.gaffer.store.library.GraphLibrary;
 import uk.gov.gchq.gaffer.store.operation.GetSchema;
 import uk.gov.gchq.gaffer.store.operation.GetTraits;
@@ -151,6 +156,7 @@ import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.gov.gchq.gaffer.store.StoreTrait.INGEST_AGGREGATION;
@@ -159,6 +165,9 @@ import static uk.gov.gchq.gaffer.store.StoreTrait.PRE_AGGREGATION_FILTERING;
 import static uk.gov.gchq.gaffer.store.StoreTrait.TRANSFORMATION;
 
 public class StoreTest {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
     private final User user = new User("user01");
     private final Context context = new Context(user);
 
@@ -237,7 +246,7 @@ public class StoreTest {
 
     @Test
     public void shouldThrowExceptionIfGraphIdIsNull() throws Exception {
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         try {
             store.initialise(null, schema, properties);
@@ -259,7 +268,7 @@ public class StoreTest {
                         .serialiser(new StringSerialiser())
                         .build())
                 .build();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
 
         // When
@@ -274,7 +283,7 @@ public class StoreTest {
     @Test
     public void shouldCreateStoreWithValidSchemasAndRegisterOperations() throws StoreException {
         // Given
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         final OperationHandler<AddElements> addElementsHandlerOverridden = mock(OperationHandler.class);
         final OperationDeclarations opDeclarations = new OperationDeclarations.Builder()
                 .declaration(new OperationDeclaration.Builder()
@@ -313,7 +322,7 @@ public class StoreTest {
     public void shouldDelegateDoOperationToOperationHandler() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         final AddElements addElements = new AddElements();
         store.initialise("graphId", schema, properties);
@@ -329,7 +338,7 @@ public class StoreTest {
     public void shouldCloseOperationIfResultIsNotCloseable() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         final Operation operation = mock(Operation.class);
         final StoreImpl store = new StoreImpl();
@@ -346,7 +355,7 @@ public class StoreTest {
     public void shouldCloseOperationIfExceptionThrown() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         final Operation operation = mock(Operation.class);
         final StoreImpl store = new StoreImpl();
@@ -369,7 +378,7 @@ public class StoreTest {
         // Given
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         final OperationChain opChain = new OperationChain();
         final StoreImpl store = new StoreImpl();
 
@@ -394,7 +403,7 @@ public class StoreTest {
     public void shouldCallDoUnhandledOperationWhenDoOperationWithUnknownOperationClass() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         final Operation operation = new SetVariable.Builder().variableName("aVariable").input("inputString").build();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
 
@@ -411,7 +420,7 @@ public class StoreTest {
     @Test
     public void shouldFullyLoadLazyElement() throws StoreException {
         // Given
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         final LazyEntity lazyElement = mock(LazyEntity.class);
         final Entity entity = mock(Entity.class);
         final Store store = new StoreImpl();
@@ -435,7 +444,7 @@ public class StoreTest {
     public void shouldHandleMultiStepOperations() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         final CloseableIterable getElementsResult = mock(CloseableIterable.class);
         given(properties.getJobExecutorThreadCount()).willReturn(1);
 
@@ -468,7 +477,7 @@ public class StoreTest {
         CacheServiceLoader.initialise(cacheProperties);
 
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(true);
         store.initialise("graphId", schema, properties);
@@ -580,7 +589,7 @@ public class StoreTest {
         CacheServiceLoader.initialise(cacheProperties);
 
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(false);
         store.initialise("graphId", schema, properties);
@@ -685,7 +694,7 @@ public class StoreTest {
     public void shouldReturnTrueWhenOperationSupported() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         store.initialise("graphId", schema, properties);
 
@@ -704,7 +713,7 @@ public class StoreTest {
             Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         store.initialise("graphId", schema, properties);
 
@@ -719,7 +728,7 @@ public class StoreTest {
     public void shouldHandleNullOperationSupportRequest() throws Exception {
         // Given
         final Schema schema = createSchemaMock();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         store.initialise("graphId", schema, properties);
 
@@ -738,7 +747,7 @@ public class StoreTest {
                 .first(operation)
                 .then(new ExportToGafferResultCache())
                 .build();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(true);
         final Store store = new StoreImpl();
@@ -764,7 +773,7 @@ public class StoreTest {
     public void shouldExecuteOperationJobAndWrapJobOperationInChain() throws OperationException, InterruptedException, StoreException {
         // Given
         final Operation operation = new GetVariables.Builder().variableNames(Lists.newArrayList()).build();
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(true);
         final Store store = new StoreImpl();
@@ -792,7 +801,7 @@ public class StoreTest {
         // Given
         final Operation operation = new GetVariables.Builder().variableNames(Lists.newArrayList()).build();
         final OperationChain<?> opChain = new OperationChain<>(operation);
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(true);
         final Store store = new StoreImpl();
@@ -814,10 +823,64 @@ public class StoreTest {
         assertSame(user, contextCaptor.getValue().getUser());
     }
 
+    @Test
+    public void shouldExecuteOperationChainJobUsingConfiguredJobScheduler() throws OperationException, InterruptedException, StoreException {
+        // Given
+        final Operation operation = new GetVariables.Builder().variableNames(Lists.newArrayList()).build();
+        final OperationChain<?> opChain = new OperationChain<>(operation);
+        final StoreProperties properties = createMockProperties();
+        given(properties.getJobExecutorThreadCount()).willReturn(1);
+        given(properties.getJobTrackerEnabled()).willReturn(true);
+        given(properties.getJobSchedulerClass()).willReturn(PriorityJobScheduler.class.getName());
+        given(properties.getJobSchedulerMaxJobsPerUser()).willReturn(1);
+        final Store store = new StoreImpl();
+        final Schema schema = new Schema();
+        store.initialise("graphId", schema, properties);
+
+        // When
+        final JobDetail resultJobDetail = store.executeJob(opChain, context);
+
+        // Then
+        assertTrue(store.getJobScheduler() instanceof PriorityJobScheduler);
+        Thread.sleep(1000);
+        final ArgumentCaptor<JobDetail> jobDetail = ArgumentCaptor.forClass(JobDetail.class);
+        verify(jobTracker, times(2)).addOrUpdateJob(jobDetail.capture(), eq(user));
+        assertEquals(jobDetail.getAllValues().get(0), resultJobDetail);
+        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(1).getStatus());
+    }
+
+    @Test
+    public void shouldWriteJobResultsToJobResultStoreWhenConfigured() throws OperationException, InterruptedException, StoreException {
+        // Given
+        final Operation operation = new GetVariables.Builder().variableNames(Lists.newArrayList()).build();
+        final OperationChain<?> opChain = new OperationChain<>(operation);
+        final StoreProperties properties = createMockProperties();
+        given(properties.getJobExecutorThreadCount()).willReturn(1);
+        given(properties.getJobTrackerEnabled()).willReturn(true);
+        given(properties.getJobResultsDirectory()).willReturn(tempFolder.getRoot().getAbsolutePath());
+        given(properties.getJobResultsSegmentSize()).willReturn(10);
+        given(properties.getJobResultsTimeToLive()).willReturn(JobResultStore.DEFAULT_TIME_TO_LIVE);
+        final Store store = new StoreImpl();
+        final Schema schema = new Schema();
+        store.initialise("graphId", schema, properties);
+
+        // When
+        final JobDetail resultJobDetail = store.executeJob(opChain, context);
+
+        // Then
+        Thread.sleep(1000);
+        final ArgumentCaptor<JobDetail> jobDetail = ArgumentCaptor.forClass(JobDetail.class);
+        verify(jobTracker, times(2)).addOrUpdateJob(jobDetail.capture(), eq(user));
+        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(1).getStatus());
+        assertTrue(store.getJobResultStore().hasResults(resultJobDetail.getJobId()));
+        assertTrue(store.isSupported(GetJobResultsPage.class));
+        verify(exportToGafferResultCacheHandler, never()).doOperation(Mockito.any(ExportToGafferResultCache.class), Mockito.any(Context.class), eq(store));
+    }
+
     @Test
     public void shouldGetJobTracker() throws StoreException {
         // Given
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
         given(properties.getJobTrackerEnabled()).willReturn(true);
         final Store store = new StoreImpl();
@@ -833,7 +896,7 @@ public class StoreTest {
     @Test
     public void shouldUpdateJsonSerialiser() throws StoreException {
         // Given
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJsonSerialiserClass()).willReturn(TestCustomJsonSerialiser1.class.getName());
         given(properties.getJsonSerialiserModules()).willReturn(StorePropertiesTest.TestCustomJsonModules1.class.getName());
         given(properties.getJobExecutorThreadCount()).willReturn(1);
@@ -871,6 +934,12 @@ public class StoreTest {
         assertSame(graphLibrary, result);
     }
 
+    private StoreProperties createMockProperties() {
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getJobSchedulerClass()).willReturn(StoreProperties.JOB_SCHEDULER_CLASS_DEFAULT);
+        return properties;
+    }
+
     private Schema createSchemaMock() {
         final Schema schema = mock(Schema.class);
         given(schema.validate()).willReturn(new ValidationResult());
@@ -901,7 +970,7 @@ public class StoreTest {
                 .type("true", Boolean.class)
                 .build();
 
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobExecutorThreadCount()).willReturn(1);
 
         final Class<ToBytesSerialiser> validSerialiserInterface = ToBytesSerialiser.class;
@@ -922,7 +991,7 @@ public class StoreTest {
     @Test
     public void shouldCorrectlySetUpScheduledJobDetail() throws Exception {
         // Given
-        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreProperties properties = createMockProperties();
         given(properties.getJobTrackerEnabled()).willReturn(true);
         given(properties.getJobExecutorThreadCount()).willReturn(1);
 
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.element;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.ElementValidator;
+import uk.gov.gchq.koryphe.impl.function.Concat;
+import uk.gov.gchq.koryphe.impl.function.Divide;
+import uk.gov.gchq.koryphe.impl.function.ToNull;
+import uk.gov.gchq.koryphe.impl.predicate.AreEqual;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledViewTest {
+    private static final String CONCAT = "concat";
+    private static final String QUOTIENT = "quotient";
+    private static final String REMAINDER = "remainder";
+
+    @Test
+    public void shouldApplyViewInTheSameWayAsTheViewFiltersAndTransformers() {
+        // Given
+        final View view = createView();
+        final CompiledView compiledView = CompiledView.compile(view);
+
+        for (final Element expected : createElements()) {
+            final Element actual = expected.shallowClone();
+
+            // When
+            final boolean expectedResult = applyView(view, expected);
+            final boolean actualResult = compiledView.apply(actual);
+
+            // Then
+            assertEquals("Unexpected result for " + expected, expectedResult, actualResult);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldApplyEachStageOfTheView() {
+        // Given
+        final CompiledView compiledView = CompiledView.compile(createView());
+        final Entity entity = createEntity("vertex", 7, 7);
+
+        // When / Then
+        assertTrue(compiledView.testPreAggregation(entity));
+        assertTrue(compiledView.testPostAggregation(entity));
+        assertTrue(compiledView.transform(entity));
+        assertEquals("vertex,7", entity.getProperty(CONCAT));
+        assertEquals(1, entity.getProperty(QUOTIENT));
+        assertEquals(0, entity.getProperty(REMAINDER));
+
+        assertFalse(compiledView.testPreAggregation(createEntity("vertex", 1, 1)));
+        assertFalse(compiledView.testPostAggregation(createEntity("vertex", 7, 3)));
+    }
+
+    @Test
+    public void shouldDescribeTheStagesOfEachGroup() {
+        // Given
+        final CompiledView compiledView = CompiledView.compile(createView());
+
+        // When
+        final CompiledView.GroupEvaluator entityEvaluator = compiledView.getEvaluator(TestGroups.ENTITY);
+        final CompiledView.GroupEvaluator edgeEvaluator = compiledView.getEvaluator(TestGroups.EDGE);
+
+        // Then
+        assertTrue(entityEvaluator.hasPreAggregationFilter());
+        assertTrue(entityEvaluator.hasPostAggregationFilter());
+        assertTrue(entityEvaluator.hasTransform());
+        assertTrue(entityEvaluator.hasPostTransformFilter());
+        assertEquals(TestGroups.EDGE, edgeEvaluator.getGroup());
+        assertTrue(edgeEvaluator.hasPreAggregationFilter());
+        assertFalse(edgeEvaluator.hasPostAggregationFilter());
+        assertFalse(edgeEvaluator.hasTransform());
+        assertFalse(edgeEvaluator.hasPostTransformFilter());
+    }
+
+    @Test
+    public void shouldRejectElementsInGroupsThatAreNotInTheView() {
+        // Given
+        final CompiledView compiledView = CompiledView.compile(createView());
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY_2)
+                .vertex("vertex")
+                .property(TestPropertyNames.PROP_1, 7)
+                .build();
+
+        // When / Then
+        assertNull(compiledView.getEvaluator(TestGroups.ENTITY_2));
+        assertFalse(compiledView.apply(entity));
+        assertFalse(compiledView.testPreAggregation(entity));
+        assertTrue(compiledView.apply(createEntity("vertex", 7, 7)));
+        assertFalse(compiledView.apply(entity));
+    }
+
+    @Test
+    public void shouldRemoveProjectedPropertyWhenTransformReturnsNull() {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .transformer(new ElementTransformer.Builder()
+                                .select(TestPropertyNames.PROP_2)
+                                .execute(new ToNull())
+                                .project(TestPropertyNames.PROP_1)
+                                .build())
+                        .build())
+                .build();
+        final Entity expected = createEntity("vertex", 7, 3);
+        final Entity actual = expected.shallowClone();
+
+        // When
+        applyView(view, expected);
+        final boolean result = CompiledView.compile(view).apply(actual);
+
+        // Then
+        assertTrue(result);
+        assertNull(actual.getProperty(TestPropertyNames.PROP_1));
+        assertEquals(expected, actual);
+    }
+
+    private boolean applyView(final View view, final Element element) {
+        final ElementValidator validator = new ElementValidator(view);
+        if (!validator.validateInput(element) || !validator.validateAggregation(element)) {
+            return false;
+        }
+
+        final ViewElementDefinition elementDef = view.getElement(element.getGroup());
+        if (null != elementDef.getTransformer()) {
+            elementDef.getTransformer().apply(element);
+        }
+        return validator.validateTransform(element);
+    }
+
+    private View createView() {
+        return new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .preAggregationFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.PROP_1)
+                                .execute(new IsMoreThan(5))
+                                .build())
+                        .postAggregationFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                                .execute(new AreEqual())
+                                .build())
+                        .transformer(new ElementTransformer.Builder()
+                                .select(IdentifierType.VERTEX.name(), TestPropertyNames.PROP_1)
+                                .execute(new Concat())
+                                .project(CONCAT)
+                                .select(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                                .execute(new Divide())
+                                .project(QUOTIENT, REMAINDER)
+                                .build())
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(CONCAT)
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .preAggregationFilter(new ElementFilter.Builder()
+                                .select(IdentifierType.SOURCE.name())
+                                .execute(new IsEqual("A"))
+                                .build())
+                        .build())
+                .build();
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(createEntity("vertex" + i, i, i));
+            elements.add(createEntity("vertex" + i, i, 3));
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source(0 == i % 2 ? "A" : "B")
+                    .dest("vertex" + i)
+                    .directed(true)
+                    .property(TestPropertyNames.PROP_1, i)
+                    .build());
+        }
+        return elements;
+    }
+
+    private Entity createEntity(final String vertex, final int prop1, final int prop2) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .property(TestPropertyNames.PROP_1, prop1)
+                .property(TestPropertyNames.PROP_2, prop2)
+                .build();
+    }
+}
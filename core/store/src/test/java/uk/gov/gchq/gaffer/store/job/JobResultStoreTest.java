@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.operation.OperationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JobResultStoreTest {
+    private static final String JOB_ID = "jobId";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private JobResultStore resultStore;
+
+    @Before
+    public void before() {
+        resultStore = new JobResultStore(tempFolder.getRoot().toPath(), 3);
+    }
+
+    @Test
+    public void shouldWriteAndReadAllResults() throws OperationException {
+        // Given
+        final List<Element> elements = createElements(10);
+
+        // When
+        resultStore.write(JOB_ID, new WrappedCloseableIterable<>(elements));
+        final CloseableIterable<Object> results = resultStore.getResults(JOB_ID);
+
+        // Then
+        assertTrue(resultStore.hasResults(JOB_ID));
+        assertEquals(elements, Lists.newArrayList(results));
+        assertEquals(elements, Lists.newArrayList(results));
+    }
+
+    @Test
+    public void shouldPageThroughResultsAcrossSegments() throws OperationException {
+        // Given
+        final List<Element> elements = createElements(10);
+        resultStore.write(JOB_ID, elements);
+
+        // When
+        final List<Object> results = new ArrayList<>();
+        final List<Integer> pageSizes = new ArrayList<>();
+        String pageToken = null;
+        do {
+            final JobResultsPage page = resultStore.getPage(JOB_ID, pageToken, 4);
+            results.addAll(page.getResults());
+            pageSizes.add(page.getResults().size());
+            pageToken = page.getNextPageToken();
+        } while (null != pageToken);
+
+        // Then
+        assertEquals(elements, results);
+        assertEquals(Lists.newArrayList(4, 4, 2), pageSizes);
+    }
+
+    @Test
+    public void shouldNotReturnNextPageTokenWhenPageEndsAtLastResult() throws OperationException {
+        // Given
+        resultStore.write(JOB_ID, createElements(6));
+
+        // When
+        final JobResultsPage page = resultStore.getPage(JOB_ID, null, 6);
+
+        // Then
+        assertEquals(6, page.getResults().size());
+        assertNull(page.getNextPageToken());
+    }
+
+    @Test
+    public void shouldWriteSingleResultsAndNulls() throws OperationException {
+        // When
+        resultStore.write(JOB_ID, 5L);
+        resultStore.write("nullsJob", Lists.newArrayList("a", null, "b"));
+        resultStore.write("emptyJob", Collections.emptyList());
+
+        // Then
+        assertEquals(Collections.singletonList(5L), Lists.newArrayList(resultStore.getResults(JOB_ID)));
+        assertEquals(Lists.newArrayList("a", null, "b"), Lists.newArrayList(resultStore.getResults("nullsJob")));
+        final JobResultsPage emptyPage = resultStore.getPage("emptyJob", null, 10);
+        assertTrue(emptyPage.getResults().isEmpty());
+        assertNull(emptyPage.getNextPageToken());
+    }
+
+    @Test
+    public void shouldReplaceExistingResults() throws OperationException {
+        // Given
+        resultStore.write(JOB_ID, createElements(10));
+
+        // When
+        resultStore.write(JOB_ID, createElements(1));
+
+        // Then
+        assertEquals(createElements(1), Lists.newArrayList(resultStore.getResults(JOB_ID)));
+    }
+
+    @Test
+    public void shouldDeleteResults() throws OperationException {
+        // Given
+        resultStore.write(JOB_ID, createElements(4));
+
+        // When
+        resultStore.delete(JOB_ID);
+
+        // Then
+        assertFalse(resultStore.hasResults(JOB_ID));
+        try {
+            resultStore.getResults(JOB_ID);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains(JOB_ID));
+        }
+    }
+
+    @Test
+    public void shouldNotReturnExpiredResults() throws OperationException, IOException {
+        // Given
+        resultStore = new JobResultStore(tempFolder.getRoot().toPath(), 3, 60000L);
+        resultStore.write(JOB_ID, createElements(4));
+        expire(JOB_ID);
+
+        // When / Then
+        assertFalse(resultStore.hasResults(JOB_ID));
+        try {
+            resultStore.getPage(JOB_ID, null, 2);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("expired"));
+        }
+        assertFalse(Files.exists(tempFolder.getRoot().toPath().resolve(JOB_ID)));
+    }
+
+    @Test
+    public void shouldDeleteExpiredResultsWhenWritingOtherResults() throws OperationException, IOException {
+        // Given
+        resultStore = new JobResultStore(tempFolder.getRoot().toPath(), 3, 60000L);
+        resultStore.write(JOB_ID, createElements(4));
+        resultStore.write("otherJobId", createElements(4));
+        expire(JOB_ID);
+
+        // When
+        resultStore.write("newJobId", createElements(4));
+
+        // Then
+        assertFalse(Files.exists(tempFolder.getRoot().toPath().resolve(JOB_ID)));
+        assertTrue(resultStore.hasResults("otherJobId"));
+        assertTrue(resultStore.hasResults("newJobId"));
+    }
+
+    @Test
+    public void shouldRejectInvalidPageTokensAndJobIds() throws OperationException {
+        // Given
+        resultStore.write(JOB_ID, createElements(4));
+
+        // When / Then
+        for (final String pageToken : new String[]{"invalid", "1:-1", "1:2:3"}) {
+            try {
+                resultStore.getPage(JOB_ID, pageToken, 2);
+                fail("Exception expected");
+            } catch (final OperationException e) {
+                assertTrue(e.getMessage().contains(pageToken));
+            }
+        }
+        try {
+            resultStore.write("../" + JOB_ID, createElements(1));
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("Invalid job ID"));
+        }
+    }
+
+    private void expire(final String jobId) throws IOException {
+        final Path jobDirectory = tempFolder.getRoot().toPath().resolve(jobId);
+        Files.setLastModifiedTime(jobDirectory, FileTime.fromMillis(System.currentTimeMillis() - 120000L));
+    }
+
+    private List<Element> createElements(final int count) {
+        final List<Element> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (0 == i % 2) {
+                elements.add(new Entity.Builder()
+                        .group(TestGroups.ENTITY)
+                        .vertex("vertex" + i)
+                        .property(TestPropertyNames.COUNT, (long) i)
+                        .build());
+            } else {
+                elements.add(new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("vertex" + i)
+                        .dest("vertex" + (i + 1))
+                        .directed(true)
+                        .build());
+            }
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.job;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.ScoreOperationChain;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.ScoreOperationChainHandler;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class PriorityJobSchedulerTest {
+    private final List<Runnable> runningJobs = new ArrayList<>();
+    private final List<String> completedJobs = new ArrayList<>();
+    private Store store;
+    private StoreProperties properties;
+
+    @Before
+    public void before() {
+        store = mock(Store.class);
+        properties = new StoreProperties();
+        given(store.getProperties()).willReturn(properties);
+
+        final ScoreOperationChainHandler scorer = new ScoreOperationChainHandler();
+        scorer.setOpScores(ImmutableMap.<Class<? extends Operation>, Integer>of(
+                Operation.class, 1,
+                GetAllElements.class, 10));
+        given(store.getOperationHandler(ScoreOperationChain.class)).willReturn((OperationHandler) scorer);
+
+        // Jobs are run by calling runNext, so the order they are run in can be checked
+        doAnswer(invocation -> {
+            runningJobs.add((Runnable) invocation.getArguments()[0]);
+            return null;
+        }).when(store).runAsync(any(Runnable.class));
+    }
+
+    @Test
+    public void shouldNotRunMoreJobsThanTheNumberOfExecutorThreads() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(2, 2);
+
+        // When
+        submit(scheduler, "user1", "job1", new GetElements());
+        submit(scheduler, "user2", "job2", new GetElements());
+        submit(scheduler, "user3", "job3", new GetElements());
+
+        // Then
+        assertEquals(2, scheduler.getRunningJobs());
+        assertEquals(1, scheduler.getQueuedJobs());
+
+        runNext();
+        assertEquals(2, scheduler.getRunningJobs());
+        assertEquals(0, scheduler.getQueuedJobs());
+    }
+
+    @Test
+    public void shouldRunLowerScoringJobsFirst() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(1, 1);
+        submit(scheduler, "user1", "job1", new GetElements());
+
+        // When
+        submit(scheduler, "user2", "expensiveJob", new GetAllElements());
+        submit(scheduler, "user3", "cheapJob", new GetElements());
+        runAll();
+
+        // Then
+        assertEquals(Arrays.asList("job1", "cheapJob", "expensiveJob"), completedJobs);
+    }
+
+    @Test
+    public void shouldShareExecutorBetweenUsers() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(2, 2);
+        submit(scheduler, "user1", "user1Job1", new GetElements());
+        submit(scheduler, "user1", "user1Job2", new GetElements());
+        submit(scheduler, "user1", "user1Job3", new GetElements());
+
+        // When
+        submit(scheduler, "user2", "user2Job1", new GetElements());
+        runAll();
+
+        // Then
+        assertEquals(Arrays.asList("user1Job1", "user1Job2", "user2Job1", "user1Job3"), completedJobs);
+    }
+
+    @Test
+    public void shouldLimitTheNumberOfJobsEachUserCanRun() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(3, 1);
+
+        // When
+        submit(scheduler, "user1", "user1Job1", new GetElements());
+        submit(scheduler, "user1", "user1Job2", new GetElements());
+        submit(scheduler, "user2", "user2Job1", new GetElements());
+
+        // Then
+        assertEquals(2, scheduler.getRunningJobs());
+        assertEquals(1, scheduler.getQueuedJobs());
+        runAll();
+        assertEquals(Arrays.asList("user1Job1", "user2Job1", "user1Job2"), completedJobs);
+        assertEquals(0, scheduler.getRunningJobs());
+    }
+
+    @Test
+    public void shouldNotStarveExpensiveJobsOfOtherUsers() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(1, 1);
+        submit(scheduler, "user1", "user1Job0", new GetElements());
+        submit(scheduler, "user2", "expensiveJob", new GetAllElements());
+
+        // When - user1 always has a cheaper job queued
+        for (int i = 1; i <= 10; i++) {
+            submit(scheduler, "user1", "user1Job" + i, new GetElements());
+            runNext();
+        }
+
+        // Then
+        assertTrue(completedJobs.contains("expensiveJob"));
+        assertEquals("user1Job0", completedJobs.get(0));
+    }
+
+    @Test
+    public void shouldPreferUsersWithLessRecentUsage() {
+        // Given
+        final PriorityJobScheduler scheduler = createScheduler(1, 1);
+        submit(scheduler, "user1", "user1Job1", new GetElements());
+        runAll();
+        submit(scheduler, "user1", "user1Job2", new GetElements());
+        runAll();
+
+        // When
+        submit(scheduler, "user2", "user2Job1", new GetElements());
+        submit(scheduler, "user1", "user1Job3", new GetElements());
+        submit(scheduler, "user3", "user3Job1", new GetElements());
+        runAll();
+
+        // Then - user2 started first, but user3 has not run any jobs recently
+        assertEquals(Arrays.asList("user1Job1", "user1Job2", "user2Job1", "user3Job1", "user1Job3"), completedJobs);
+    }
+
+    private PriorityJobScheduler createScheduler(final int maxJobs, final int maxJobsPerUser) {
+        properties.set(StoreProperties.EXECUTOR_SERVICE_THREAD_COUNT, Integer.toString(maxJobs));
+        properties.setJobSchedulerMaxJobsPerUser(maxJobsPerUser);
+        final PriorityJobScheduler scheduler = new PriorityJobScheduler();
+        scheduler.initialise(store);
+        return scheduler;
+    }
+
+    private void submit(final PriorityJobScheduler scheduler, final String userId, final String jobName, final Operation operation) {
+        final Context context = new Context(new User(userId));
+        scheduler.submit(new OperationChain<>(operation), context, () -> completedJobs.add(jobName));
+    }
+
+    private void runNext() {
+        runningJobs.remove(0).run();
+    }
+
+    private void runAll() {
+        while (!runningJobs.isEmpty()) {
+            runNext();
+        }
+    }
+}
@@ -16,29 +16,57 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import uk.gov.gchq.gaffer.commonutil.ExecutorService;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
 import uk.gov.gchq.gaffer.operation.impl.ForEach;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.operation.io.InputOutput;
+import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 public class ForEachHandlerTest {
 
+    @Before
+    public void before() {
+        ExecutorService.initialise(4);
+    }
+
+    @After
+    public void after() {
+        ExecutorService.shutdown();
+    }
+
     @Test
     public void shouldThrowExceptionWithNullOperation() {
         // Given
@@ -108,4 +136,175 @@ public class ForEachHandlerTest {
         assertEquals(1, result.size());
         assertSame(output, result.get(0));
     }
+
+    @Test
+    public void shouldExecuteInParallelAndReturnResultsInInputOrder() throws OperationException {
+        // Given
+        final Store store = createCountingStore();
+        final Context context = new Context(new User());
+        final ForEach<Iterable<Integer>, Long> forEach = new ForEach.Builder<Iterable<Integer>, Long>()
+                .input(createInputs(10))
+                .operation(new Count<>())
+                .maxConcurrency(4)
+                .build();
+
+        // When
+        final Iterable<? extends Long> results = new ForEachHandler<Iterable<Integer>, Long>().doOperation(forEach, context, store);
+
+        // Then
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), Lists.newArrayList(results));
+    }
+
+    @Test
+    public void shouldNotRunMoreThanTheWindowOfOperationsAheadOfTheConsumer() throws OperationException, InterruptedException {
+        // Given
+        final AtomicInteger executed = new AtomicInteger();
+        final Set<Context> contexts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            contexts.add((Context) invocation.getArguments()[1]);
+            return (long) executed.incrementAndGet();
+        });
+        final Context context = new Context(new User());
+        final ForEach<Iterable<Integer>, Long> forEach = new ForEach.Builder<Iterable<Integer>, Long>()
+                .input(createInputs(20))
+                .operation(new Count<>())
+                .maxConcurrency(2)
+                .build();
+
+        // When
+        final Iterable<? extends Long> results = new ForEachHandler<Iterable<Integer>, Long>().doOperation(forEach, context, store);
+        Thread.sleep(200);
+
+        // Then
+        assertEquals(4, executed.get());
+        assertEquals(20, Lists.newArrayList(results).size());
+        assertEquals(20, executed.get());
+        assertEquals(20, contexts.size());
+        assertFalse(contexts.contains(context));
+    }
+
+    @Test
+    public void shouldStopRunningOperationsWhenClosed() throws OperationException, InterruptedException, IOException {
+        // Given
+        final AtomicInteger executed = new AtomicInteger();
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> (long) executed.incrementAndGet());
+        final ForEach<Iterable<Integer>, Long> forEach = new ForEach.Builder<Iterable<Integer>, Long>()
+                .input(createInputs(20))
+                .operation(new Count<>())
+                .maxConcurrency(2)
+                .build();
+        final Iterable<? extends Long> results = new ForEachHandler<Iterable<Integer>, Long>().doOperation(forEach, new Context(new User()), store);
+        final Iterator<? extends Long> itr = results.iterator();
+        itr.next();
+
+        // When
+        ((Closeable) results).close();
+        Thread.sleep(200);
+
+        // Then
+        assertFalse(itr.hasNext());
+        assertTrue(executed.get() <= 5);
+    }
+
+    @Test
+    public void shouldExecuteInParallelAndReturnResultsAsTheyComplete() throws OperationException {
+        // Given
+        final Store store = createCountingStore();
+        final Context context = new Context(new User());
+        final ForEach<Iterable<Integer>, Long> forEach = new ForEach.Builder<Iterable<Integer>, Long>()
+                .input(createInputs(10))
+                .operation(new Count<>())
+                .maxConcurrency(4)
+                .ordered(false)
+                .build();
+
+        // When
+        final Iterable<? extends Long> results = new ForEachHandler<Iterable<Integer>, Long>().doOperation(forEach, context, store);
+
+        // Then
+        final List<Long> resultList = Lists.newArrayList(results);
+        assertEquals(10, resultList.size());
+        assertEquals(Sets.newHashSet(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), Sets.newHashSet(resultList));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenParallelOperationFails() throws OperationException {
+        // Given
+        final Store store = mock(Store.class);
+        final Context context = new Context(new User());
+        given(store.execute(any(Output.class), any(Context.class))).willThrow(new OperationException("Operation failed"));
+        final ForEach<Iterable<Integer>, Long> forEach = new ForEach.Builder<Iterable<Integer>, Long>()
+                .input(createInputs(3))
+                .operation(new Count<>())
+                .maxConcurrency(2)
+                .build();
+        final Iterable<? extends Long> results = new ForEachHandler<Iterable<Integer>, Long>().doOperation(forEach, context, store);
+
+        // When / Then
+        try {
+            Lists.newArrayList(results);
+            fail("Exception expected");
+        } catch (final GafferRuntimeException e) {
+            assertTrue(e.getMessage().contains("Operation failed"));
+        }
+    }
+
+    @Test
+    public void shouldPrefetchLazyResultsInTheWorkers() throws OperationException {
+        // Given
+        final AtomicInteger read = new AtomicInteger();
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> (Iterable<Integer>) () -> new Iterator<Integer>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 3;
+            }
+
+            @Override
+            public Integer next() {
+                read.incrementAndGet();
+                return next++;
+            }
+        });
+        final ForEach<Iterable<Integer>, Iterable<Integer>> forEach = new ForEach.Builder<Iterable<Integer>, Iterable<Integer>>()
+                .input(createInputs(5))
+                .operation(new GetElements())
+                .maxConcurrency(2)
+                .build();
+        final ForEachHandler<Iterable<Integer>, Iterable<Integer>> handler = new ForEachHandler<>();
+        handler.setMaxPrefetchSize(2);
+
+        // When
+        final List<Iterable<Integer>> results = Lists.newArrayList(handler.doOperation(forEach, new Context(new User()), store));
+
+        // Then
+        assertEquals(10, read.get());
+        for (final Iterable<Integer> result : results) {
+            assertEquals(Arrays.asList(0, 1, 2), Lists.newArrayList(result));
+        }
+        assertEquals(15, read.get());
+    }
+
+    private Store createCountingStore() throws OperationException {
+        final Store store = mock(Store.class);
+        given(store.execute(any(Output.class), any(Context.class))).willAnswer(invocation -> {
+            final List<Integer> input = Lists.newArrayList(((Count<Integer>) invocation.getArguments()[0]).getInput());
+            // The smallest inputs take the longest, so they complete out of order
+            Thread.sleep((10 - input.size()) * 5L);
+            return (long) input.size();
+        });
+        return store;
+    }
+
+    private List<Iterable<Integer>> createInputs(final int count) {
+        final List<Iterable<Integer>> inputs = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            inputs.add(Collections.nCopies(i, i));
+        }
+        return inputs;
+    }
 }
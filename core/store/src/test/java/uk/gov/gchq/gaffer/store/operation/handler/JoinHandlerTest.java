@@ -16,18 +16,26 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.join.Join;
 import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
 import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.join.JoinHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.ElementMatch;
 import uk.gov.gchq.gaffer.store.operation.handler.join.match.KeyFunctionMatch;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
 import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,6 +44,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 public class JoinHandlerTest {
@@ -84,6 +93,29 @@ public class JoinHandlerTest {
         }
     }
 
+    @Test
+    public void shouldThrowExceptionBeforeReturningResultsWhenLazyInputIsMoreThanLimit() {
+        // Given
+        final JoinHandler handler = new JoinHandler();
+        final Iterable<Integer> lazyInput = () -> Arrays.asList(1, 2, 3).iterator();
+
+        final Join<Integer> joinOp = new Join.Builder<Integer>()
+                .input(lazyInput)
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new KeyFunctionMatch())
+                .collectionLimit(2)
+                .build();
+
+        // When / Then
+        try {
+            handler.doOperation(joinOp, context, store);
+            fail("exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getCause().getMessage().contains("exceeded"));
+        }
+    }
+
     @Test
     public void shouldThrowExceptionWhenNoMatchMethodIsSpecified() {
         // Given
@@ -104,4 +136,35 @@ public class JoinHandlerTest {
             assertEquals("A match method must be supplied", e.getMessage());
         }
     }
+
+    @Test
+    public void shouldNotApplyCollectionLimitWhenSortMergeJoinConfigured() throws OperationException {
+        // Given
+        final JoinHandler handler = new JoinHandler();
+        handler.setMaxInMemoryElements(1);
+        given(store.getSchema()).willReturn(new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .build())
+                .type("string", String.class)
+                .vertexSerialiser(new StringSerialiser())
+                .build());
+
+        final Join<Element> joinOp = new Join.Builder<Element>()
+                .input(Arrays.asList(new Entity(TestGroups.ENTITY, "c"), new Entity(TestGroups.ENTITY, "a"), new Entity(TestGroups.ENTITY, "b")))
+                .joinType(JoinType.FULL)
+                .matchKey(MatchKey.LEFT)
+                .matchMethod(new ElementMatch())
+                .collectionLimit(1)
+                .build();
+
+        // When
+        final List<MapTuple> results = Lists.newArrayList(handler.doOperation(joinOp, context, store));
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals(new Entity(TestGroups.ENTITY, "a"), results.get(0).get(MatchKey.LEFT.name()));
+        assertEquals(new Entity(TestGroups.ENTITY, "b"), results.get(1).get(MatchKey.LEFT.name()));
+        assertEquals(new Entity(TestGroups.ENTITY, "c"), results.get(2).get(MatchKey.LEFT.name()));
+    }
 }
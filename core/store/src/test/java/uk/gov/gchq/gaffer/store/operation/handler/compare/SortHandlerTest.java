@@ -18,18 +18,30 @@ package uk.gov.gchq.gaffer.store.operation.handler.compare;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.io.File;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
@@ -40,8 +52,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 public class SortHandlerTest {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
 
     @Test
     public void shouldSortBasedOnProperty() throws OperationException, JsonProcessingException {
@@ -386,6 +402,129 @@ public class SortHandlerTest {
         assertEquals(resultLimit, Iterables.size(result));
     }
 
+    @Test
+    public void shouldSortElementsThatDoNotFitInMemory() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(1000);
+        final List<Element> expected = new ArrayList<>(input);
+        input.addAll(createEntities(200));
+        Collections.shuffle(input, new Random(1));
+
+        final Sort sort = new Sort.Builder()
+                .input(input)
+                .comparators(new ElementPropertyComparator.Builder()
+                        .groups(TestGroups.ENTITY)
+                        .property("property")
+                        .build())
+                .deduplicate(true)
+                .build();
+
+        final File directory = tempFolder.getRoot();
+        final SortHandler handler = new SortHandler();
+        handler.setMaxInMemorySize(100);
+        handler.setTempDirectory(directory.getAbsolutePath());
+
+        // When
+        final Iterable<? extends Element> result = handler.doOperation(sort, null, createStore());
+
+        // Then
+        assertTrue(result instanceof CloseableIterable);
+        assertEquals(1, directory.list().length);
+        assertEquals(expected, Lists.newArrayList(result));
+        assertEquals(expected, Lists.newArrayList(result));
+        ((CloseableIterable) result).close();
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void shouldApplyResultLimitWhenSortingElementsThatDoNotFitInMemory() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(1000);
+        final List<Element> expected = new ArrayList<>(Lists.reverse(input).subList(0, 250));
+        Collections.shuffle(input, new Random(1));
+
+        final Sort sort = new Sort.Builder()
+                .input(input)
+                .comparators(new ElementPropertyComparator.Builder()
+                        .groups(TestGroups.ENTITY)
+                        .property("property")
+                        .reverse(true)
+                        .build())
+                .resultLimit(250)
+                .build();
+
+        final SortHandler handler = new SortHandler();
+        handler.setMaxInMemorySize(100);
+        handler.setTempDirectory(tempFolder.getRoot().getAbsolutePath());
+
+        // When
+        final Iterable<? extends Element> result = handler.doOperation(sort, null, createStore());
+
+        // Then
+        assertEquals(expected, Lists.newArrayList(result));
+        ((CloseableIterable) result).close();
+    }
+
+    @Test
+    public void shouldSortInMemoryIfElementsFitInMemory() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(100);
+        final List<Element> expected = new ArrayList<>(input);
+        Collections.shuffle(input, new Random(1));
+
+        final Sort sort = new Sort.Builder()
+                .input(input)
+                .comparators(new ElementPropertyComparator.Builder()
+                        .groups(TestGroups.ENTITY)
+                        .property("property")
+                        .build())
+                .build();
+
+        final SortHandler handler = new SortHandler();
+        handler.setMaxInMemorySize(100);
+        handler.setTempDirectory(tempFolder.getRoot().getAbsolutePath());
+
+        // When
+        final Iterable<? extends Element> result = handler.doOperation(sort, null, null);
+
+        // Then
+        assertEquals(expected, Lists.newArrayList(result));
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    private List<Element> createEntities(final int count) {
+        final List<Element> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entities.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property("property", i)
+                    .build());
+        }
+        return entities;
+    }
+
+    private Store createStore() {
+        final Schema schema = new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property("property", "int")
+                        .build())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("int", new TypeDefinition.Builder()
+                        .clazz(Integer.class)
+                        .serialiser(new CompactRawIntegerSerialiser())
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+        final Store store = mock(Store.class);
+        given(store.getSchema()).willReturn(schema);
+        return store;
+    }
+
     private static class ElementComparatorImpl implements Comparator<Element> {
         @Override
         public int compare(final Element o1, final Element o2) {
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.job;
+
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
+import uk.gov.gchq.gaffer.jobtracker.JobResultsPage;
+import uk.gov.gchq.gaffer.jobtracker.JobTracker;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResultsPage;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.job.JobResultStore;
+import uk.gov.gchq.gaffer.user.User;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static uk.gov.gchq.gaffer.core.exception.Status.FORBIDDEN;
+import static uk.gov.gchq.gaffer.core.exception.Status.NOT_FOUND;
+
+public class GetJobResultsPageHandlerTest {
+    private static final String ADMIN_AUTH = "adminAuth";
+
+    @Test
+    public void shouldThrowExceptionIfJobResultStoreIsNotConfigured() {
+        // Given
+        final GetJobResultsPageHandler handler = new GetJobResultsPageHandler();
+        final GetJobResultsPage operation = mock(GetJobResultsPage.class);
+        final Store store = mock(Store.class);
+
+        given(store.getJobResultStore()).willReturn(null);
+
+        // When / Then
+        try {
+            handler.doOperation(operation, new Context(new User()), store);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldGetPageByDelegatingToJobResultStore() throws OperationException {
+        // Given
+        final User user = new User("user01");
+        final Store store = createStore("user01");
+        final JobResultsPage page = mock(JobResultsPage.class);
+        given(store.getJobResultStore().getPage("jobId", "1:2", 10)).willReturn(page);
+
+        // When
+        final JobResultsPage result = new GetJobResultsPageHandler().doOperation(createOperation(), new Context(user), store);
+
+        // Then
+        assertSame(page, result);
+    }
+
+    @Test
+    public void shouldGetPageForAdminUser() throws OperationException {
+        // Given
+        final User user = new User.Builder().userId("admin").opAuth(ADMIN_AUTH).build();
+        final Store store = createStore("user01");
+        final JobResultsPage page = mock(JobResultsPage.class);
+        given(store.getJobResultStore().getPage("jobId", "1:2", 10)).willReturn(page);
+
+        // When
+        final JobResultsPage result = new GetJobResultsPageHandler().doOperation(createOperation(), new Context(user), store);
+
+        // Then
+        assertSame(page, result);
+    }
+
+    @Test
+    public void shouldNotGetPageForOtherUser() throws OperationException {
+        // Given
+        final User user = new User("user02");
+        final Store store = createStore("user01");
+
+        // When / Then
+        try {
+            new GetJobResultsPageHandler().doOperation(createOperation(), new Context(user), store);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals(FORBIDDEN, e.getStatus());
+        }
+        verify(store.getJobResultStore(), never()).getPage("jobId", "1:2", 10);
+    }
+
+    @Test
+    public void shouldNotGetPageForUnknownJob() throws OperationException {
+        // Given
+        final User user = new User("user01");
+        final Store store = createStore("user01");
+        given(store.getJobTracker().getJob("jobId", user)).willReturn(null);
+
+        // When / Then
+        try {
+            new GetJobResultsPageHandler().doOperation(createOperation(), new Context(user), store);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals(NOT_FOUND, e.getStatus());
+        }
+    }
+
+    private GetJobResultsPage createOperation() {
+        return new GetJobResultsPage.Builder()
+                .jobId("jobId")
+                .pageToken("1:2")
+                .pageSize(10)
+                .build();
+    }
+
+    private Store createStore(final String ownerId) {
+        final Store store = mock(Store.class);
+        final JobResultStore resultStore = mock(JobResultStore.class);
+        final JobTracker jobTracker = mock(JobTracker.class);
+        final StoreProperties properties = new StoreProperties();
+        properties.setAdminAuth(ADMIN_AUTH);
+        final JobDetail jobDetail = new JobDetail();
+        jobDetail.setJobId("jobId");
+        jobDetail.setUserId(ownerId);
+
+        given(store.getJobResultStore()).willReturn(resultStore);
+        given(store.getJobTracker()).willReturn(jobTracker);
+        given(store.getProperties()).willReturn(properties);
+        given(jobTracker.getJob(eq("jobId"), any(User.class))).willReturn(jobDetail);
+        return store;
+    }
+}
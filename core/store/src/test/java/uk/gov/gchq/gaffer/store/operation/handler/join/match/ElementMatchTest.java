@@ -16,11 +16,13 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler.join.match;
 
+import com.google.common.collect.Sets;
 import org.junit.Test;
 
 import uk.gov.gchq.gaffer.commonutil.CollectionUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 
@@ -237,4 +239,90 @@ public class ElementMatchTest {
         // Then
         assertEquals(0, matchingElements.size());
     }
+
+    @Test
+    public void shouldMatchEqualEdgesOnly() {
+        // Given
+        Edge testEdge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("a")
+                .dest("b")
+                .directed(true)
+                .property(TestPropertyNames.COUNT, 3L)
+                .build();
+
+        Edge reversedEdge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("b")
+                .dest("a")
+                .directed(true)
+                .property(TestPropertyNames.COUNT, 3L)
+                .build();
+
+        Edge undirectedEdge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("a")
+                .dest("b")
+                .directed(false)
+                .property(TestPropertyNames.COUNT, 3L)
+                .build();
+
+        List<Edge> comparisonEdgeList = Arrays.asList(reversedEdge, testEdge.shallowClone(), undirectedEdge);
+
+        ElementMatch elementMatch = new ElementMatch();
+        elementMatch.init(comparisonEdgeList);
+
+        // When
+        List<Element> matchingElements = elementMatch.matching(testEdge);
+
+        // Then
+        assertEquals(1, matchingElements.size());
+        assertTrue(matchingElements.get(0).equals(testEdge));
+    }
+
+    @Test
+    public void shouldUseUpdatedGroupByPropertiesAfterInitialisation() {
+        // Given
+        Entity testEntity = new Entity.Builder()
+                .group(TestGroups.ENTITY_3)
+                .vertex("vertex")
+                .property(TestPropertyNames.COUNT, 3L)
+                .build();
+
+        Entity testEntity2 = new Entity.Builder()
+                .group(TestGroups.ENTITY_3)
+                .vertex("vertex")
+                .property(TestPropertyNames.COUNT, 5L)
+                .build();
+
+        ElementMatch elementMatch = new ElementMatch();
+        elementMatch.init(Arrays.asList(testEntity.shallowClone(), testEntity2.shallowClone()));
+
+        // When
+        elementMatch.setElementGroupByProperties(Sets.newHashSet(TestPropertyNames.COUNT));
+        List<Element> matchingElements = elementMatch.matching(testEntity);
+
+        // Then
+        assertEquals(1, matchingElements.size());
+        assertTrue(matchingElements.get(0).equals(testEntity));
+    }
+
+    @Test
+    public void shouldReplaceMatchCandidatesWhenReinitialised() {
+        // Given
+        Entity testEntity = new Entity.Builder()
+                .group(TestGroups.ENTITY_3)
+                .vertex("vertex")
+                .build();
+
+        ElementMatch elementMatch = new ElementMatch();
+        elementMatch.init(Arrays.asList(testEntity.shallowClone()));
+
+        // When
+        elementMatch.init(Arrays.asList(new Entity(TestGroups.ENTITY_3, "other")));
+        List<Element> matchingElements = elementMatch.matching(testEntity);
+
+        // Then
+        assertEquals(0, matchingElements.size());
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.join.merge;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.impl.join.match.MatchKey;
+import uk.gov.gchq.gaffer.operation.impl.join.methods.JoinType;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.operation.handler.join.match.ElementMatch;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortMergeJoinTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .property(TestPropertyNames.COUNT, "long")
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .property(TestPropertyNames.COUNT, "long")
+                    .build())
+            .type("string", new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .serialiser(new StringSerialiser())
+                    .build())
+            .type("long", new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .serialiser(new CompactRawLongSerialiser())
+                    .build())
+            .type("true", Boolean.class)
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final List<Element> left = createElements(0, 30);
+    private final List<Element> right = createElements(10, 50);
+
+    @Test
+    public void shouldMatchHashJoinResultsWhenSpillingToDisk() throws IOException {
+        for (final JoinType joinType : JoinType.values()) {
+            for (final MatchKey matchKey : MatchKey.values()) {
+                for (final boolean flatten : Arrays.asList(true, false)) {
+                    assertSameResultsAsHashJoin(joinType, matchKey, flatten, Collections.emptySet(), 3);
+                    assertSameResultsAsHashJoin(joinType, matchKey, flatten, Sets.newHashSet(TestPropertyNames.COUNT), 3);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchHashJoinResultsInMemory() throws IOException {
+        for (final JoinType joinType : JoinType.values()) {
+            for (final MatchKey matchKey : MatchKey.values()) {
+                assertSameResultsAsHashJoin(joinType, matchKey, true, Collections.emptySet(), 1000);
+            }
+        }
+    }
+
+    @Test
+    public void shouldReturnSameResultsWhenIteratedTwice() throws IOException {
+        // Given
+        final SortMergeJoin sortMergeJoin = new SortMergeJoin(SCHEMA, Collections.emptySet(), 3, tempFolder.getRoot());
+
+        // When
+        try (final CloseableIterable<MapTuple> results = sortMergeJoin.join(left, right, JoinType.FULL.createInstance(), MatchKey.LEFT, true)) {
+            final List<Map> first = getValues(results);
+            final List<Map> second = getValues(results);
+
+            // Then
+            assertEquals(first, second);
+        }
+    }
+
+    @Test
+    public void shouldDeleteTemporaryFilesWhenClosed() throws IOException {
+        // Given
+        final SortMergeJoin sortMergeJoin = new SortMergeJoin(SCHEMA, Collections.emptySet(), 3, tempFolder.getRoot());
+
+        // When
+        final CloseableIterable<MapTuple> results = sortMergeJoin.join(left, right, JoinType.INNER.createInstance(), MatchKey.LEFT, true);
+
+        // Then
+        assertTrue(tempFolder.getRoot().list().length > 0);
+
+        // When
+        results.close();
+
+        // Then
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    private void assertSameResultsAsHashJoin(final JoinType joinType, final MatchKey matchKey, final boolean flatten,
+                                             final Set<String> groupBy, final int maxInMemoryElements) throws IOException {
+        final Iterable<MapTuple> expected = joinType.createInstance().join(left, right, new ElementMatch(groupBy), matchKey, flatten);
+
+        final SortMergeJoin sortMergeJoin = new SortMergeJoin(SCHEMA, groupBy, maxInMemoryElements, tempFolder.getRoot());
+        try (final CloseableIterable<MapTuple> results = sortMergeJoin.join(left, right, joinType.createInstance(), matchKey, flatten)) {
+            final List<Map> expectedValues = getValues(expected);
+            final List<Map> actualValues = getValues(results);
+            final String message = joinType + " " + matchKey + " flatten=" + flatten + " groupBy=" + groupBy;
+            assertEquals(message, expectedValues.size(), actualValues.size());
+            assertTrue(message, actualValues.containsAll(expectedValues));
+            assertTrue(message, expectedValues.containsAll(actualValues));
+        }
+    }
+
+    private List<Map> getValues(final Iterable<MapTuple> tuples) {
+        final List<Map> values = new ArrayList<>();
+        for (final MapTuple tuple : Lists.newArrayList(tuples)) {
+            final Map<Object, Object> value = tuple.getValues();
+            if (value.get(MatchKey.LEFT.name()) instanceof List) {
+                // Sort merge joins can return matches in a different order
+                value.put(MatchKey.LEFT.name(), Sets.newHashSet((List) value.get(MatchKey.LEFT.name())));
+            }
+            if (value.get(MatchKey.RIGHT.name()) instanceof List) {
+                value.put(MatchKey.RIGHT.name(), Sets.newHashSet((List) value.get(MatchKey.RIGHT.name())));
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static List<Element> createElements(final int start, final int end) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + (i % 7))
+                    .property(TestPropertyNames.COUNT, (long) (i % 3))
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + (i % 5))
+                    .dest("vertex" + (i % 4))
+                    .directed(true)
+                    .property(TestPropertyNames.COUNT, (long) (i % 2))
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExternalSorterTest {
+    private static final ExternalSorter.RunSerialiser<Integer> SERIALISER = new ExternalSorter.RunSerialiser<Integer>() {
+        @Override
+        public void write(final Integer item, final DataOutputStream out) throws IOException {
+            out.writeInt(item);
+        }
+
+        @Override
+        public Integer read(final DataInputStream in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldMergeRunsInSortedOrder() throws IOException {
+        // Given
+        final File directory = tempFolder.newFolder();
+        final ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), SERIALISER, directory, "run-");
+
+        // When
+        sorter.addRun(new ArrayList<>(Arrays.asList(5, 1, 9)));
+        sorter.addRun(new ArrayList<>(Arrays.asList(8, 2, 2)));
+        sorter.setLastRun(new ArrayList<>(Arrays.asList(7, 3)));
+
+        // Then - the runs can be iterated more than once
+        final List<Integer> expected = Arrays.asList(1, 2, 2, 3, 5, 7, 8, 9);
+        assertEquals(2, sorter.getRunCount());
+        assertEquals(expected, Lists.newArrayList(sorter));
+        assertEquals(expected, Lists.newArrayList(sorter));
+    }
+
+    @Test
+    public void shouldDeleteRunFilesWhenClosed() throws IOException {
+        // Given
+        final File directory = tempFolder.newFolder();
+        final ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), SERIALISER, directory, "run-");
+        sorter.addRun(new ArrayList<>(Arrays.asList(2, 1)));
+        assertEquals(1, directory.listFiles().length);
+
+        // When
+        sorter.close();
+
+        // Then
+        assertEquals(0, directory.listFiles().length);
+        try {
+            sorter.iterator();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldDeleteOwnedDirectoryWhenClosed() throws IOException {
+        // Given
+        final File directory = tempFolder.newFolder();
+        final ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), SERIALISER, directory, "run-", true);
+        sorter.addRun(new ArrayList<>(Arrays.asList(2, 1)));
+
+        // When
+        sorter.close();
+
+        // Then
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenRunFileIsTruncated() throws IOException {
+        // Given
+        final File directory = tempFolder.newFolder();
+        final ExternalSorter<Integer> sorter = new ExternalSorter<>(Comparator.naturalOrder(), SERIALISER, directory, "run-");
+        sorter.addRun(new ArrayList<>(Arrays.asList(2, 1)));
+        new FileOutputStream(directory.listFiles()[0]).close();
+
+        // When / Then
+        try {
+            sorter.iterator();
+            fail("Exception expected");
+        } catch (final GafferRuntimeException e) {
+            assertTrue(e.getMessage().contains("Unable to read sorted run"));
+        } finally {
+            sorter.close();
+        }
+    }
+}
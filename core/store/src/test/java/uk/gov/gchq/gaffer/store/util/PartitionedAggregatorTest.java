@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.commonutil.ExecutorService;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.serialisation.implementation.BooleanSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedAggregatorTest {
+    private static final String COUNT = "count";
+    private static final String PROPERTY = "property";
+    private static final String TRANSIENT = "transient";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Before
+    public void before() {
+        ExecutorService.initialise(4);
+    }
+
+    @After
+    public void after() {
+        ExecutorService.shutdown();
+    }
+
+    @Test
+    public void shouldIngestAggregateElements() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .build();
+
+        // When
+        final CloseableIterable<Element> results = aggregator.aggregate(createElements(100, 3));
+
+        // Then
+        assertEquals(Sets.newHashSet(createAggregatedElements(100, 3)), Sets.newHashSet(results));
+    }
+
+    @Test
+    public void shouldIngestAggregateElementsInParallelPartitions() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .partitions(4)
+                .build();
+
+        // When
+        final CloseableIterable<Element> results = aggregator.aggregate(createElements(5000, 3));
+
+        // Then
+        final List<Element> resultList = Lists.newArrayList(results);
+        assertEquals(10000, resultList.size());
+        assertEquals(Sets.newHashSet(createAggregatedElements(5000, 3)), Sets.newHashSet(resultList));
+    }
+
+    @Test
+    public void shouldAggregateInTheCallingThreadWhenTheExecutorIsBusy() throws InterruptedException {
+        // Given
+        ExecutorService.shutdown();
+        ExecutorService.initialise(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService.getService().submit(() -> {
+            release.await();
+            return null;
+        });
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .partitions(4)
+                .build();
+
+        // When
+        final CloseableIterable<Element> results;
+        try {
+            results = aggregator.aggregate(createElements(5000, 3));
+        } finally {
+            release.countDown();
+        }
+
+        // Then
+        assertEquals(Sets.newHashSet(createAggregatedElements(5000, 3)), Sets.newHashSet(results));
+    }
+
+    @Test
+    public void shouldSpillPartialAggregatesWhenMaxGroupsIsExceeded() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .partitions(2)
+                .maxGroups(20)
+                .tempDirectory(tempFolder.getRoot().getAbsolutePath())
+                .build();
+
+        // When
+        final CloseableIterable<Element> results = aggregator.aggregate(createElements(200, 3));
+
+        // Then
+        assertEquals(1, tempFolder.getRoot().list().length);
+        final List<Element> expected = createAggregatedElements(200, 3);
+        final List<Element> resultList = Lists.newArrayList(results);
+        assertEquals(expected.size(), resultList.size());
+        assertEquals(Sets.newHashSet(expected), Sets.newHashSet(resultList));
+        assertEquals(Sets.newHashSet(expected), Sets.newHashSet(results));
+        results.close();
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldNotSpillWhenViewContainsTransientProperties() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                                .transientProperty(TRANSIENT, String.class)
+                                .build())
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .partitions(2)
+                .maxGroups(20)
+                .tempDirectory(tempFolder.getRoot().getAbsolutePath())
+                .build();
+        final List<Element> input = createElements(200, 3);
+        for (final Element element : input) {
+            if (TestGroups.ENTITY.equals(element.getGroup())) {
+                element.putProperty(TRANSIENT, "transient");
+            }
+        }
+
+        // When
+        final List<Element> results = Lists.newArrayList(aggregator.aggregate(input));
+
+        // Then
+        assertNull(aggregator.getMaxGroups());
+        assertEquals(0, tempFolder.getRoot().list().length);
+        final List<Element> expected = createAggregatedElements(200, 3);
+        for (final Element element : expected) {
+            if (TestGroups.ENTITY.equals(element.getGroup())) {
+                element.putProperty(TRANSIENT, "transient");
+            }
+        }
+        assertEquals(Sets.newHashSet(expected), Sets.newHashSet(results));
+    }
+
+    @Test
+    public void shouldReturnNonAggregatedElementsUnchanged() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .partitions(2)
+                .build();
+        final Entity nonAggEntity = new Entity.Builder()
+                .group(TestGroups.NON_AGG_ENTITY)
+                .vertex("vertex")
+                .property(COUNT, 1L)
+                .build();
+        final List<Element> input = new ArrayList<>(createElements(1, 2));
+        input.add(nonAggEntity);
+        input.add(nonAggEntity);
+
+        // When
+        final List<Element> results = Lists.newArrayList(aggregator.aggregate(input));
+
+        // Then
+        final List<Element> expected = new ArrayList<>(createAggregatedElements(1, 2));
+        expected.add(nonAggEntity);
+        expected.add(nonAggEntity);
+        assertEquals(expected.size(), results.size());
+        assertTrue(results.containsAll(expected));
+        assertEquals(Collections.nCopies(2, nonAggEntity), results.subList(results.size() - 2, results.size()));
+    }
+
+    @Test
+    public void shouldQueryAggregateElementsUsingViewGroupBy() {
+        // Given
+        final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                .schema(createSchema())
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                                .groupBy()
+                                .build())
+                        .build())
+                .partitions(4)
+                .build();
+        final List<Element> input = Lists.newArrayList(
+                createEntity("vertex", "a", 1L),
+                createEntity("vertex", "b", 2L),
+                createEntity("vertex", "c", 3L));
+
+        // When
+        final List<Element> results = Lists.newArrayList(aggregator.aggregate(input));
+
+        // Then
+        assertEquals(1, results.size());
+        assertEquals(6L, results.get(0).getProperty(COUNT));
+    }
+
+    private List<Element> createElements(final int vertices, final int duplicates) {
+        final List<Element> elements = new ArrayList<>();
+        for (int d = 0; d < duplicates; d++) {
+            for (int i = 0; i < vertices; i++) {
+                elements.add(createEntity("vertex" + i, "a", 1L));
+                elements.add(new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("vertex" + i)
+                        .dest("vertex" + (i + 1))
+                        .directed(true)
+                        .property(PROPERTY, "a")
+                        .property(COUNT, 1L)
+                        .build());
+            }
+        }
+        Collections.shuffle(elements, new Random(1));
+        return elements;
+    }
+
+    private List<Element> createAggregatedElements(final int vertices, final long count) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < vertices; i++) {
+            elements.add(createEntity("vertex" + i, "a", count));
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + (i + 1))
+                    .directed(true)
+                    .property(PROPERTY, "a")
+                    .property(COUNT, count)
+                    .build());
+        }
+        return elements;
+    }
+
+    private Entity createEntity(final String vertex, final String property, final long count) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .property(PROPERTY, property)
+                .property(COUNT, count)
+                .build();
+    }
+
+    private Schema createSchema() {
+        return new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(PROPERTY, "string")
+                        .property(COUNT, "long")
+                        .groupBy(PROPERTY)
+                        .build())
+                .entity(TestGroups.NON_AGG_ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(COUNT, "long")
+                        .aggregate(false)
+                        .build())
+                .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                        .source("string")
+                        .destination("string")
+                        .directed("true")
+                        .property(PROPERTY, "string")
+                        .property(COUNT, "long")
+                        .groupBy(PROPERTY)
+                        .build())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("long", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .aggregateFunction(new Sum())
+                        .build())
+                .type("true", new TypeDefinition.Builder()
+                        .clazz(Boolean.class)
+                        .serialiser(new BooleanSerialiser())
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.stream.Streams;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
@@ -107,7 +108,85 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
+    }
+
+    @Test
+    public void shouldGetPathsWithTargets() throws Exception {
+        // Given
+        final GetElements operation = new GetElements.Builder()
+                .directedType(DirectedType.DIRECTED)
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .properties(TestPropertyNames.COUNT)
+                                .build())
+                        .build()).inOutType(SeededGraphFilters.IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+
+        final GetWalks op = new GetWalks.Builder()
+                .input(seedA)
+                .targets("C")
+                .operations(operation, operation)
+                .build();
+
+        // When
+        final Iterable<Walk> results = graph.execute(op, getUser());
+
+        // Then
+        assertThat(getPaths(results), is(equalTo("ABC")));
+    }
+
+    @Test
+    public void shouldGetLongPathsWithTargets() throws Exception {
+        // Given
+        final GetElements operation = new GetElements.Builder()
+                .directedType(DirectedType.DIRECTED)
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .properties(TestPropertyNames.COUNT)
+                                .build())
+                        .build()).inOutType(SeededGraphFilters.IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+
+        final GetWalks op = new GetWalks.Builder()
+                .input(seedA)
+                .targets("B", "E")
+                .operations(operation, operation, operation, operation)
+                .build();
+
+        // When
+        final Iterable<Walk> results = graph.execute(op, getUser());
+
+        // Then
+        assertThat(getPaths(results), is(equalTo("AEDAB,AEDAE")));
+    }
+
+    @Test
+    public void shouldGetPathsWithTargetsAndWhileRepeat() throws Exception {
+        // Given
+        final GetElements operation = new GetElements.Builder()
+                .directedType(DirectedType.DIRECTED)
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .properties(TestPropertyNames.COUNT)
+                                .build())
+                        .build()).inOutType(SeededGraphFilters.IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+
+        final GetWalks op = new GetWalks.Builder()
+                .input(seedA)
+                .targets("D")
+                .operations(new While.Builder<>()
+                        .operation(operation)
+                        .maxRepeats(2)
+                        .build())
+                .build();
+
+        // When
+        final Iterable<Walk> results = graph.execute(op, getUser());
+
+        // Then
+        assertThat(getPaths(results), is(equalTo("AED")));
     }
 
     @Test
@@ -134,7 +213,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
     }
 
     @Test
@@ -170,7 +249,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
     }
 
     @Test
@@ -199,7 +278,39 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
+    }
+
+    @Test
+    public void shouldGetPathsWithFrontierDeduplication() throws Exception {
+        // Given
+        final StoreProperties properties = getStoreProperties();
+        properties.setOperationDeclarationPaths("getWalksWithFrontierDeduplicationDeclaration.json");
+        createGraph(properties);
+        addDefaultElements();
+
+        final GetElements operation = new GetElements.Builder()
+                .directedType(DirectedType.DIRECTED)
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .properties(TestPropertyNames.COUNT)
+                                .build())
+                        .edge(TestGroups.EDGE_2, new ViewElementDefinition.Builder()
+                                .properties(TestPropertyNames.COUNT)
+                                .build())
+                        .build()).inOutType(SeededGraphFilters.IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+
+        final GetWalks op = new GetWalks.Builder()
+                .input(seedA)
+                .operations(operation, operation, operation, operation)
+                .build();
+
+        // When
+        final Iterable<Walk> results = graph.execute(op, getUser());
+
+        // Then
+        assertThat(getPaths(results), is(equalTo("AEDAB,AEDAE")));
     }
 
     @Test
@@ -263,7 +374,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final List<Walk> results = Lists.newArrayList(graph.execute(op, getUser()));
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
         results.forEach(r -> r.getEntities().forEach(l -> {
             assertThat(l, is(not(empty())));
         }));
@@ -322,7 +433,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC,EDA")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED,EDA")));
     }
 
     @Test
@@ -349,7 +460,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,AEF,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED,AEF")));
     }
 
     @Test
@@ -376,7 +487,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,AEF,ABC,EDA,EFC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED,AEF,EDA,EFC")));
     }
 
     @Test
@@ -430,7 +541,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AEDAE,AEDAB")));
+        assertThat(getPaths(results), is(equalTo("AEDAB,AEDAE")));
     }
 
     @Test
@@ -566,7 +677,7 @@ public class GetWalksIT extends AbstractStoreIT {
         final Iterable<Walk> results = graph.execute(op, getUser());
 
         // Then
-        assertThat(getPaths(results), is(equalTo("AED,ABC")));
+        assertThat(getPaths(results), is(equalTo("ABC,AED")));
     }
 
     @Test
@@ -863,14 +974,11 @@ public class GetWalksIT extends AbstractStoreIT {
     }
 
     private String getPaths(final Iterable<Walk> walks) {
-        final StringBuilder sb = new StringBuilder();
-        for (final Walk walk : walks) {
-            sb.append(walk.getVerticesOrdered().stream().map(Object::toString).collect(Collectors.joining("")));
-            sb.append(',');
-        }
-        if (sb.length() > 0) {
-            sb.setLength(sb.length() - 1);
-        }
-        return sb.toString();
+        // The order of the walks depends on the order the store returns the
+        // edges in, so the paths are sorted
+        return Streams.toStream(walks)
+                .map(walk -> walk.getVerticesOrdered().stream().map(Object::toString).collect(Collectors.joining("")))
+                .sorted()
+                .collect(Collectors.joining(","));
     }
 }
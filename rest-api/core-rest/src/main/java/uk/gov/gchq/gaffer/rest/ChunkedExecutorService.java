@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded {@link ExecutorService} for executing chunked operations and
+ * writing their results. The number of threads and the size of the queue
+ * are configured using the {@link SystemProperty#CHUNKED_THREADS} and
+ * {@link SystemProperty#CHUNKED_QUEUE_SIZE} system properties. When both the
+ * threads and the queue are full, further chunked operations are rejected
+ * with a {@link java.util.concurrent.RejectedExecutionException}.
+ */
+public final class ChunkedExecutorService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedExecutorService.class);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static ThreadPoolExecutor service;
+
+    private ChunkedExecutorService() {
+        // private constructor to prevent instantiation
+    }
+
+    public static synchronized void initialise(final int threadCount, final int queueSize) {
+        shutdown();
+        LOGGER.debug("Initialising ChunkedExecutorService with {} threads and a queue size of {}", threadCount, queueSize);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        service = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "gaffer-chunked-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        service.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the executor service, initialising it from the system properties
+     * if it has not already been initialised.
+     *
+     * @return the executor service
+     */
+    public static synchronized ExecutorService getService() {
+        if (null == service) {
+            initialise(
+                    Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_THREADS, SystemProperty.CHUNKED_THREADS_DEFAULT)),
+                    Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_QUEUE_SIZE, SystemProperty.CHUNKED_QUEUE_SIZE_DEFAULT)));
+        }
+        return service;
+    }
+
+    public static synchronized void shutdown() {
+        if (null != service) {
+            service.shutdownNow();
+        }
+        service = null;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.core.exception.Error;
+import uk.gov.gchq.gaffer.core.exception.Status;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Writes the results of chunked operations to a {@link ChunkedOutput}. If the
+ * result is an {@link Iterable}, the items are serialised using a single
+ * streaming JSON generator and are written in batches of up to
+ * {@link SystemProperty#CHUNKED_BATCH_SIZE} items per chunk, separated by the
+ * {@link #CHUNK_DELIMITER}. If the client disconnects, no more items are read
+ * and the result is closed.
+ * <p>
+ * The response status has already been sent by the time the items are
+ * written, so if the result fails part way through, an {@link Error} is
+ * written as the final chunk so that clients can tell that the results are
+ * incomplete.
+ */
+public final class ChunkedResultWriter {
+    public static final String CHUNK_DELIMITER = "\r\n";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedResultWriter.class);
+
+    private ChunkedResultWriter() {
+        // private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes the result to the chunked output.
+     *
+     * @param mapper the object mapper used to serialise the result
+     * @param result the result to write
+     * @param output the chunked output to write to
+     */
+    public static void write(final ObjectMapper mapper, final Object result, final ChunkedOutput<String> output) {
+        final int batchSize = Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_BATCH_SIZE, SystemProperty.CHUNKED_BATCH_SIZE_DEFAULT));
+        final StringWriter buffer = new StringWriter();
+        try (final JsonGenerator generator = mapper.getFactory().createGenerator(buffer)) {
+            generator.setRootValueSeparator(null);
+            if (result instanceof Iterable) {
+                final Iterable itr = (Iterable) result;
+                try {
+                    int batchCount = 0;
+                    for (final Object item : itr) {
+                        if (output.isClosed()) {
+                            LOGGER.info("Chunked output was closed before all the results were written");
+                            break;
+                        }
+                        if (batchCount > 0) {
+                            generator.writeRaw(CHUNK_DELIMITER);
+                        }
+                        generator.writeObject(item);
+                        batchCount++;
+                        if (batchCount >= batchSize) {
+                            writeChunk(generator, buffer, output);
+                            batchCount = 0;
+                        }
+                    }
+                    if (batchCount > 0) {
+                        writeChunk(generator, buffer, output);
+                    }
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Failed to write chunked results", e);
+                    // Discard any partially written batch and report the error
+                    generator.flush();
+                    buffer.getBuffer().setLength(0);
+                    writeError(mapper, e, output);
+                } finally {
+                    CloseableUtil.close(itr);
+                }
+            } else {
+                generator.writeObject(result);
+                writeChunk(generator, buffer, output);
+            }
+        } catch (final IOException ioe) {
+            LOGGER.warn("IOException (chunks)", ioe);
+        }
+    }
+
+    /**
+     * Writes an {@link Error} to the chunked output, to report a failure after
+     * the response status has been sent.
+     *
+     * @param mapper the object mapper used to serialise the error
+     * @param e      the exception that caused the failure
+     * @param output the chunked output to write to
+     */
+    public static void writeError(final ObjectMapper mapper, final Exception e, final ChunkedOutput<String> output) {
+        if (output.isClosed()) {
+            return;
+        }
+        final Error error = new Error.ErrorBuilder()
+                .status(Status.INTERNAL_SERVER_ERROR)
+                .statusCode(500)
+                .simpleMessage(e.getMessage())
+                .build();
+        try {
+            output.write(mapper.writeValueAsString(error));
+        } catch (final IOException ioe) {
+            LOGGER.warn("Unable to write error to chunked output", ioe);
+        }
+    }
+
+    private static void writeChunk(final JsonGenerator generator, final StringWriter buffer, final ChunkedOutput<String> output) throws IOException {
+        generator.flush();
+        output.write(buffer.toString());
+        buffer.getBuffer().setLength(0);
+    }
+}
@@ -65,5 +65,6 @@ public class ServletLifecycleListener implements ServletContextListener {
         LOGGER.info("Server shutting down - releasing resources");
         CacheServiceLoader.shutdown();
         ExecutorService.shutdown();
+        ChunkedExecutorService.shutdown();
     }
 }
@@ -46,6 +46,29 @@ public abstract class SystemProperty {
     public static final String JSON_SERIALISER_MODULES = JSONSerialiser.JSON_SERIALISER_MODULES;
     public static final String REST_DEBUG = DebugUtil.DEBUG;
 
+    /**
+     * The maximum number of chunked operations that can be executed concurrently.
+     */
+    public static final String CHUNKED_THREADS = "gaffer.rest-api.chunked.threads";
+
+    /**
+     * The maximum number of chunked operations that can be waiting for a thread.
+     * Any further chunked operations will be rejected.
+     */
+    public static final String CHUNKED_QUEUE_SIZE = "gaffer.rest-api.chunked.queueSize";
+
+    /**
+     * The maximum number of results written to each chunk of a chunked response.
+     */
+    public static final String CHUNKED_BATCH_SIZE = "gaffer.rest-api.chunked.batchSize";
+
+    /**
+     * The maximum number of seconds a chunked request waits for its operation
+     * chain to be executed, so execution errors can be returned. After this
+     * the results are streamed once the operation chain has been executed.
+     */
+    public static final String CHUNKED_EXECUTION_TIMEOUT = "gaffer.rest-api.chunked.executionTimeout";
+
     // Exposed Property Keys
     /**
      * A CSV of properties to expose via the properties endpoint.
@@ -98,6 +121,10 @@ public abstract class SystemProperty {
     public static final String GRAPH_FACTORY_CLASS_DEFAULT = DefaultGraphFactory.class.getName();
     public static final String USER_FACTORY_CLASS_DEFAULT = UnknownUserFactory.class.getName();
     public static final String REST_DEBUG_DEFAULT = DebugUtil.DEBUG_DEFAULT;
+    public static final String CHUNKED_THREADS_DEFAULT = "20";
+    public static final String CHUNKED_QUEUE_SIZE_DEFAULT = "100";
+    public static final String CHUNKED_BATCH_SIZE_DEFAULT = "100";
+    public static final String CHUNKED_EXECUTION_TIMEOUT_DEFAULT = "30";
     public static final String APP_TITLE_DEFAULT = "Gaffer REST";
     public static final String APP_DESCRIPTION_DEFAULT = "The Gaffer REST service.";
     public static final String APP_DOCUMENTATION_URL_DEFAULT = "https://gchq.github.io/gaffer-doc/";
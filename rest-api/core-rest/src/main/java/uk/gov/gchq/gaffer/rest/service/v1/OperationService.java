@@ -36,13 +36,16 @@ import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.rest.ChunkedExecutorService;
+import uk.gov.gchq.gaffer.rest.ChunkedResultWriter;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.store.Context;
 
 import javax.inject.Inject;
+import javax.ws.rs.ServiceUnavailableException;
 
-import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 
@@ -77,18 +80,29 @@ public class OperationService implements IOperationService {
     @Override
     public ChunkedOutput<String> executeChunkedChain(final OperationChainDAO opChain) {
         // Create chunked output instance
-        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
+        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, ChunkedResultWriter.CHUNK_DELIMITER);
 
-        // write chunks to the chunked output object
-        new Thread(() -> {
-            try {
-                final Object result = _execute(opChain);
-                chunkResult(result, output);
-            } finally {
-                CloseableUtil.close(output);
-                CloseableUtil.close(opChain);
-            }
-        }).start();
+        // write chunks to the chunked output object using the bounded chunked executor service
+        try {
+            ChunkedExecutorService.getService().execute(() -> {
+                try {
+                    final Object result = _execute(opChain);
+                    chunkResult(result, output);
+                } catch (final Exception e) {
+                    LOGGER.warn("Failed to execute chunked operation chain", e);
+                    // The response has already been returned, so report the error in the output
+                    ChunkedResultWriter.writeError(mapper, e, output);
+                } finally {
+                    CloseableUtil.close(output);
+                    CloseableUtil.close(opChain);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Unable to execute chunked operation chain as the maximum number of chunked operations are already running");
+            CloseableUtil.close(output);
+            CloseableUtil.close(opChain);
+            throw new ServiceUnavailableException("Too many chunked operations are currently running, please try again later");
+        }
 
         return output;
     }
@@ -171,23 +185,6 @@ public class OperationService implements IOperationService {
     }
 
     protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
-        if (result instanceof Iterable) {
-            final Iterable itr = (Iterable) result;
-            try {
-                for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
-                }
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            } finally {
-                CloseableUtil.close(itr);
-            }
-        } else {
-            try {
-                output.write(mapper.writeValueAsString(result));
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            }
-        }
+        ChunkedResultWriter.write(mapper, result, output);
     }
 }
@@ -17,7 +17,6 @@
 package uk.gov.gchq.gaffer.rest.service.v2;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.glassfish.jersey.server.ChunkedOutput;
@@ -38,6 +37,9 @@ import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.rest.ChunkedExecutorService;
+import uk.gov.gchq.gaffer.rest.ChunkedResultWriter;
+import uk.gov.gchq.gaffer.rest.SystemProperty;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.rest.service.v2.example.ExamplesFactory;
@@ -49,17 +51,22 @@ import uk.gov.gchq.koryphe.serialisation.json.SimpleClassNameIdResolver;
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 
-import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.GAFFER_MEDIA_TYPE;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.GAFFER_MEDIA_TYPE_HEADER;
@@ -122,36 +129,67 @@ public class OperationServiceV2 implements IOperationServiceV2 {
         return executeChunkedChain(OperationChain.wrap(operation));
     }
 
-    @SuppressFBWarnings
     @Override
     public Response executeChunkedChain(final OperationChain opChain) {
         // Create chunked output instance
-        final Throwable[] threadException = new Throwable[1];
-        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
+        final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, ChunkedResultWriter.CHUNK_DELIMITER);
         final Context context = userFactory.createContext();
+        final CompletableFuture<Object> executed = new CompletableFuture<>();
 
-        // create thread to write chunks to the chunked output object
-        Thread thread = new Thread(() -> {
-            try {
-                final Object result = _execute(opChain, context).getFirst();
-                chunkResult(result, output);
-            } catch (final Exception e) {
-                throw new RuntimeException(e);
-            } finally {
-                CloseableUtil.close(output);
-                CloseableUtil.close(opChain);
-            }
-        });
-
-        // By default threads throw nothing, so set the ExceptionHandler
-        thread.setUncaughtExceptionHandler((thread1, exception) -> threadException[0] = exception.getCause());
-
-        thread.start();
+        // execute the operation and write chunks to the chunked output object
+        // using the bounded chunked executor service
+        try {
+            ChunkedExecutorService.getService().execute(() -> {
+                try {
+                    final Object result;
+                    try {
+                        result = _execute(opChain, context).getFirst();
+                    } catch (final Exception e) {
+                        LOGGER.warn("Failed to execute chunked operation chain", e);
+                        if (!executed.completeExceptionally(e)) {
+                            // The request has stopped waiting and returned the output, so report the error in the output
+                            ChunkedResultWriter.writeError(mapper, e, output);
+                        }
+                        return;
+                    }
+                    executed.complete(result);
+                    chunkResult(result, output);
+                } finally {
+                    CloseableUtil.close(output);
+                    CloseableUtil.close(opChain);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Unable to execute chunked operation chain as the maximum number of chunked operations are already running");
+            CloseableUtil.close(opChain);
+            return Response.status(SERVICE_UNAVAILABLE)
+                    .entity(new Error.ErrorBuilder()
+                            .status(Status.SERVICE_UNAVAILABLE)
+                            .statusCode(503)
+                            .simpleMessage("Too many chunked operations are currently running, please try again later")
+                            .build())
+                    .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
+                    .build();
+        }
 
-        // Sleep to check exception will be caught
+        // Wait for the operation chain to be executed so any exception can be returned.
+        // If it takes longer than the timeout, stop waiting and stream the results when they are ready.
+        final long timeout = Long.parseLong(System.getProperty(SystemProperty.CHUNKED_EXECUTION_TIMEOUT, SystemProperty.CHUNKED_EXECUTION_TIMEOUT_DEFAULT));
         try {
-            Thread.sleep(1000);
+            try {
+                executed.get(timeout, TimeUnit.SECONDS);
+            } catch (final TimeoutException e) {
+                // Completing the future tells the executing thread that the output has been returned.
+                // If the chain has completed in the meantime, its outcome is handled as normal.
+                if (executed.complete(null)) {
+                    LOGGER.info("Chunked operation chain is still executing after {} seconds, results will be streamed once it completes", timeout);
+                } else {
+                    executed.get();
+                }
+            }
         } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CloseableUtil.close(output);
             return Response.status(INTERNAL_SERVER_ERROR)
                     .entity(new Error.ErrorBuilder()
                             .status(Status.INTERNAL_SERVER_ERROR)
@@ -160,16 +198,15 @@ public class OperationServiceV2 implements IOperationServiceV2 {
                             .build())
                     .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
                     .build();
-        }
-
-        // If there was an UnauthorisedException thrown return 403, else return a 500
-        if (null != threadException[0]) {
-            if (threadException.getClass().equals(UnauthorisedException.class)) {
+        } catch (final ExecutionException e) {
+            // If there was an UnauthorisedException thrown return 403, else return a 500
+            final Throwable cause = e.getCause();
+            if (cause instanceof UnauthorisedException) {
                 return Response.status(INTERNAL_SERVER_ERROR)
                         .entity(new Error.ErrorBuilder()
                                 .status(Status.FORBIDDEN)
                                 .statusCode(403)
-                                .simpleMessage(threadException[0].getMessage())
+                                .simpleMessage(cause.getMessage())
                                 .build())
                         .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
                         .build();
@@ -178,7 +215,7 @@ public class OperationServiceV2 implements IOperationServiceV2 {
                         .entity(new Error.ErrorBuilder()
                                 .status(Status.INTERNAL_SERVER_ERROR)
                                 .statusCode(500)
-                                .simpleMessage(threadException[0].getMessage())
+                                .simpleMessage(cause.getMessage())
                                 .build())
                         .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
                         .build();
@@ -296,25 +333,14 @@ public class OperationServiceV2 implements IOperationServiceV2 {
         return new Pair<>(result.getResult(), result.getContext().getJobId());
     }
 
+    /**
+     * Writes the result to the chunked output using the {@link ChunkedResultWriter}.
+     *
+     * @param result the result to write
+     * @param output the chunked output to write to
+     */
     protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
-        if (result instanceof Iterable) {
-            final Iterable itr = (Iterable) result;
-            try {
-                for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
-                }
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            } finally {
-                CloseableUtil.close(itr);
-            }
-        } else {
-            try {
-                output.write(mapper.writeValueAsString(result));
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            }
-        }
+        ChunkedResultWriter.write(mapper, result, output);
     }
 
     private Operation generateExampleJson(final Class<? extends Operation> opClass) throws IllegalAccessException, InstantiationException {
@@ -38,6 +38,7 @@ public class JsonSerialisationUtilTest {
         expectedValues.put("operations", "java.util.List<uk.gov.gchq.gaffer.operation.io.Output<java.lang.Iterable<uk.gov.gchq.gaffer.data.element.Element>>>");
         expectedValues.put("options", "java.util.Map<java.lang.String,java.lang.String>");
         expectedValues.put("input", "java.lang.Object[]");
+        expectedValues.put("targets", "java.lang.Object[]");
 
         // When
         final Map<String, String> result = JsonSerialisationUtil.getSerialisedFieldClasses(className);
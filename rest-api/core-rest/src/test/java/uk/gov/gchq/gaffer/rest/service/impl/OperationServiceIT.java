@@ -27,6 +27,7 @@ import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToList;
 import uk.gov.gchq.gaffer.rest.AbstractRestApiIT;
 
 import javax.ws.rs.core.GenericType;
@@ -35,6 +36,8 @@ import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -119,6 +122,22 @@ public abstract class OperationServiceIT extends AbstractRestApiIT {
         verifyGroupCounts(groupCounts);
     }
 
+    @Test
+    public void shouldReturnAllChunkedResultsWhenMoreResultsThanBatchSize() throws IOException {
+        // Given
+        final List<Integer> input = IntStream.range(0, 250).boxed().collect(Collectors.toList());
+
+        // When
+        final Response response = client.executeOperationChunked(new ToList.Builder<Integer>()
+                .input(input)
+                .build());
+
+        // Then
+        final List<Integer> results = readChunkedResults(response, new GenericType<ChunkedInput<Integer>>() {
+        });
+        assertEquals(input, results);
+    }
+
     @Test
     public void shouldReturnNoChunkedOperationChainElementsWhenNoElementsInGraph() throws IOException {
         // When
@@ -44,19 +44,25 @@ public class AccumuloProperties extends StoreProperties {
     public static final String PASSWORD = "accumulo.password";
     public static final String THREADS_FOR_BATCH_SCANNER = "accumulo.batchScannerThreads";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "accumulo.entriesForBatchScanner";
+    public static final String PREFETCH_BATCHES_FOR_BATCH_SCANNER = "accumulo.prefetchBatchesForBatchScanner";
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
+    public static final String NUM_THREADS_FOR_INGEST = "accumulo.numThreadsForIngest";
+    public static final String ELEMENTS_PER_INGEST_BATCH = "accumulo.elementsPerIngestBatch";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
     public static final String HDFS_SKIP_PERMISSIONS = "accumulostore.operation.hdfs.skip_permissions";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
+    private static final String NUM_THREADS_FOR_INGEST_DEFAULT = "1";
+    private static final String ELEMENTS_PER_INGEST_BATCH_DEFAULT = "1000";
     private static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    private static final String PREFETCH_BATCHES_FOR_BATCH_SCANNER_DEFAULT = "0";
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
@@ -130,6 +136,48 @@ public class AccumuloProperties extends StoreProperties {
         return Integer.parseInt(get(NUM_THREADS_FOR_BATCH_WRITER, NUM_THREADS_FOR_BATCH_WRITER_DEFAULT));
     }
 
+    /**
+     * Gets the number of threads used to convert elements into mutations when
+     * adding elements. The threads are in a single pool, created when the
+     * store is initialised and shared by all the AddElements operations on
+     * the store. If this is 1 then the elements are converted on the thread
+     * adding the elements.
+     *
+     * @return An integer representing the number of threads to use to convert elements.
+     */
+    public int getNumThreadsForIngest() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST, NUM_THREADS_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Sets the number of threads used to convert elements into mutations when
+     * adding elements.
+     *
+     * @param numThreadsForIngest the number of threads to use to convert elements.
+     */
+    public void setNumThreadsForIngest(final String numThreadsForIngest) {
+        set(NUM_THREADS_FOR_INGEST, numThreadsForIngest);
+    }
+
+    /**
+     * Gets the number of elements converted by each ingest thread at a time,
+     * when the number of threads for ingest is more than 1.
+     *
+     * @return An integer representing the number of elements in each ingest batch.
+     */
+    public int getElementsPerIngestBatch() {
+        return Integer.parseInt(get(ELEMENTS_PER_INGEST_BATCH, ELEMENTS_PER_INGEST_BATCH_DEFAULT));
+    }
+
+    /**
+     * Sets the number of elements converted by each ingest thread at a time.
+     *
+     * @param elementsPerIngestBatch the number of elements in each ingest batch.
+     */
+    public void setElementsPerIngestBatch(final String elementsPerIngestBatch) {
+        set(ELEMENTS_PER_INGEST_BATCH, elementsPerIngestBatch);
+    }
+
     /**
      * Gets the time out/latency that should be used for the Accumulo batch
      * writers.
@@ -284,6 +332,28 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Gets the number of batches of seeds that should be opened in batch
+     * scanners ahead of the batch currently being read. If this is 0 then the
+     * next batch is only opened once the current batch has been read.
+     *
+     * @return An integer representing the number of batches to prefetch.
+     */
+    public int getPrefetchBatchesForBatchScanner() {
+        return Integer.parseInt(get(PREFETCH_BATCHES_FOR_BATCH_SCANNER, PREFETCH_BATCHES_FOR_BATCH_SCANNER_DEFAULT));
+    }
+
+    /**
+     * Sets the number of batches of seeds that should be opened in batch
+     * scanners ahead of the batch currently being read. Each prefetched batch
+     * uses its own batch scanner threads and buffers.
+     *
+     * @param prefetchBatchesForBatchScanner the number of batches to prefetch.
+     */
+    public void setPrefetchBatchesForBatchScanner(final String prefetchBatchesForBatchScanner) {
+        set(PREFETCH_BATCHES_FOR_BATCH_SCANNER, prefetchBatchesForBatchScanner);
+    }
+
     /**
      * Gets the size that should be used for the creation of bloom filters on the
      * client side.
@@ -84,6 +84,23 @@ public interface AccumuloElementConverter {
      */
     Value getValueFromElement(final Element element);
 
+    /**
+     * Converts an {@link Element} into the entries that represent it and adds
+     * them to the {@link MutationBuffer}. Nothing is added to the buffer if
+     * the element cannot be converted.
+     *
+     * @param element the element to be converted
+     * @param buffer  the buffer to add the entries to
+     */
+    default void addMutations(final Element element, final MutationBuffer buffer) {
+        final Pair<Key, Key> keys = getKeysFromElement(element);
+        final Value value = getValueFromElement(element);
+        buffer.put(keys.getFirst(), value);
+        if (null != keys.getSecond()) {
+            buffer.put(keys.getSecond(), value);
+        }
+    }
+
     /**
      * Converts an Accumulo {@link org.apache.accumulo.core.data.Value} to a
      * {@link uk.gov.gchq.gaffer.data.element.Properties} object.
@@ -95,6 +112,20 @@ public interface AccumuloElementConverter {
      */
     Properties getPropertiesFromValue(final String group, final Value value);
 
+    /**
+     * Gets a single property from an Accumulo {@link org.apache.accumulo.core.data.Value}.
+     * Implementations should avoid deserialising the other properties in the
+     * value, so filters that only use one property are cheaper to apply.
+     *
+     * @param group        the element group
+     * @param propertyName the name of the property
+     * @param value        the Value containing the serialised properties
+     * @return the property, or null if the property is not stored in the {@link Value}
+     */
+    default Object getPropertyFromValue(final String group, final String propertyName, final Value value) {
+        return getPropertiesFromValue(group, value).get(propertyName);
+    }
+
     /**
      * Gets a new {@link ElementId} from an Accumulo {@link Key}.
      *
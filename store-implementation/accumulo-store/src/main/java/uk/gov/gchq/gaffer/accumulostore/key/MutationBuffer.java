@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparator;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@code MutationBuffer} collects the Accumulo {@link Mutation}s created from
+ * {@link uk.gov.gchq.gaffer.data.element.Element}s by an
+ * {@link AccumuloElementConverter} and adds them to a {@link BatchWriter}.
+ * <p>
+ * The entries for the same row are put into a single {@link Mutation}, so
+ * edges and entities that share a vertex are written as one mutation. Entries
+ * with the same key, for example two edges that will be aggregated, are always
+ * put in separate mutations, as Accumulo does not guarantee that both updates
+ * are kept if they are in the same mutation. The mutations are held in the
+ * buffer until it contains {@code maxEntries} entries, and then added to the
+ * {@link BatchWriter} by {@link #flushIfFull()} or {@link #flush()}.
+ * </p>
+ * <p>
+ * The buffer also provides a reusable byte stream and column qualifier, and
+ * caches the column families and {@link ColumnVisibility}s, so converters can
+ * avoid creating these objects for every element. A {@code MutationBuffer} is
+ * not thread safe, a separate buffer should be used for each writer.
+ * </p>
+ */
+public class MutationBuffer {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final int MAX_CACHED_VISIBILITIES = 1000;
+
+    private static final ColumnVisibility EMPTY_VISIBILITY = new ColumnVisibility();
+
+    private final BatchWriter writer;
+    private final int maxEntries;
+    private final Map<ArrayByteSequence, RowMutation> mutations = new LinkedHashMap<>();
+    private final List<Mutation> completeMutations = new ArrayList<>();
+    private final Map<String, Text> columnFamilies = new HashMap<>();
+    private final Map<ArrayByteSequence, ColumnVisibility> visibilities = new LinkedHashMap<ArrayByteSequence, ColumnVisibility>(16, 0.75f, true) {
+        private static final long serialVersionUID = 4391402795185738151L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<ArrayByteSequence, ColumnVisibility> eldest) {
+            return size() > MAX_CACHED_VISIBILITIES;
+        }
+    };
+    private final ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream();
+    private final Text columnQualifier = new Text();
+    private byte[] lastVisibilityBytes;
+    private ColumnVisibility lastVisibility;
+    private int numEntries;
+
+    public MutationBuffer(final BatchWriter writer) {
+        this(writer, DEFAULT_MAX_ENTRIES);
+    }
+
+    public MutationBuffer(final BatchWriter writer, final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.writer = writer;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Adds an entry to the mutation for the given row, creating the mutation
+     * if there is no mutation for the row in the buffer. The column family,
+     * column qualifier and value bytes are copied into the mutation, so they
+     * can be reused once this method returns.
+     *
+     * @param row              the row, this must not be modified after it has been added to the buffer
+     * @param columnFamily     the column family
+     * @param columnQualifier  the column qualifier
+     * @param columnVisibility the column visibility
+     * @param timestamp        the timestamp
+     * @param value            the value
+     */
+    public void put(final byte[] row, final Text columnFamily, final Text columnQualifier,
+                    final ColumnVisibility columnVisibility, final long timestamp, final Value value) {
+        final ArrayByteSequence rowKey = new ArrayByteSequence(row);
+        final long columnHash = hashColumn(columnFamily, columnQualifier, columnVisibility, timestamp);
+        RowMutation rowMutation = mutations.get(rowKey);
+        if (null == rowMutation || !rowMutation.columnHashes.add(columnHash)) {
+            if (null != rowMutation) {
+                // The row already has an entry with this key (or a hash collision), so start a new mutation
+                completeMutations.add(rowMutation.mutation);
+            }
+            rowMutation = new RowMutation(row);
+            rowMutation.columnHashes.add(columnHash);
+            mutations.put(rowKey, rowMutation);
+        }
+        rowMutation.mutation.put(columnFamily, columnQualifier, columnVisibility, timestamp, value);
+        numEntries++;
+    }
+
+    /**
+     * Adds an entry for the given {@link Key} and {@link Value}.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(final Key key, final Value value) {
+        put(key.getRowData().toArray(), key.getColumnFamily(), key.getColumnQualifier(),
+                getColumnVisibility(key.getColumnVisibilityData().toArray()), key.getTimestamp(), value);
+    }
+
+    /**
+     * @return the reusable byte stream, reset so it is empty
+     */
+    public ByteArrayOutputStream getStream() {
+        stream.reset();
+        return stream;
+    }
+
+    /**
+     * Copies the current contents of the stream returned by
+     * {@link #getStream()} into the reusable column qualifier.
+     *
+     * @return the reusable column qualifier
+     */
+    public Text getColumnQualifierFromStream() {
+        columnQualifier.set(stream.getBuffer(), 0, stream.size());
+        return columnQualifier;
+    }
+
+    /**
+     * @param group              the element group
+     * @param buildColumnFamily  the function to create the column family bytes if they are not cached
+     * @return the cached column family for the group
+     */
+    public Text getColumnFamily(final String group, final Function<String, byte[]> buildColumnFamily) {
+        Text columnFamily = columnFamilies.get(group);
+        if (null == columnFamily) {
+            columnFamily = new Text(buildColumnFamily.apply(group));
+            columnFamilies.put(group, columnFamily);
+        }
+        return columnFamily;
+    }
+
+    /**
+     * @param columnVisibility the column visibility bytes
+     * @return the cached {@link ColumnVisibility} for the bytes
+     */
+    public ColumnVisibility getColumnVisibility(final byte[] columnVisibility) {
+        if (null == columnVisibility || 0 == columnVisibility.length) {
+            return EMPTY_VISIBILITY;
+        }
+        if (Arrays.equals(lastVisibilityBytes, columnVisibility)) {
+            return lastVisibility;
+        }
+
+        final ArrayByteSequence key = new ArrayByteSequence(columnVisibility);
+        ColumnVisibility visibility = visibilities.get(key);
+        if (null == visibility) {
+            visibility = new ColumnVisibility(columnVisibility);
+            visibilities.put(key, visibility);
+        }
+        lastVisibilityBytes = columnVisibility;
+        lastVisibility = visibility;
+        return visibility;
+    }
+
+    /**
+     * @return the number of entries in the buffered mutations
+     */
+    public int getNumEntries() {
+        return numEntries;
+    }
+
+    /**
+     * Adds the buffered mutations to the {@link BatchWriter} if the buffer
+     * contains at least {@code maxEntries} entries.
+     *
+     * @throws MutationsRejectedException if the batch writer rejects the mutations
+     */
+    public void flushIfFull() throws MutationsRejectedException {
+        if (numEntries >= maxEntries) {
+            flush();
+        }
+    }
+
+    /**
+     * Adds all the buffered mutations to the {@link BatchWriter}. The buffer
+     * is always emptied, even if the mutations are rejected.
+     *
+     * @throws MutationsRejectedException if the batch writer rejects the mutations
+     */
+    public void flush() throws MutationsRejectedException {
+        if (mutations.isEmpty()) {
+            return;
+        }
+        for (final RowMutation rowMutation : mutations.values()) {
+            completeMutations.add(rowMutation.mutation);
+        }
+        try {
+            writer.addMutations(new ArrayList<>(completeMutations));
+        } finally {
+            mutations.clear();
+            completeMutations.clear();
+            numEntries = 0;
+        }
+    }
+
+    private static long hashColumn(final Text columnFamily, final Text columnQualifier,
+                                   final ColumnVisibility columnVisibility, final long timestamp) {
+        long hash = Long.hashCode(timestamp);
+        hash = 31 * hash + WritableComparator.hashBytes(columnFamily.getBytes(), columnFamily.getLength());
+        hash = 31 * hash + WritableComparator.hashBytes(columnQualifier.getBytes(), columnQualifier.getLength());
+        return 31 * hash + Arrays.hashCode(columnVisibility.getExpression());
+    }
+
+    private static final class RowMutation {
+        private final Mutation mutation;
+        private final Set<Long> columnHashes = new HashSet<>();
+
+        private RowMutation(final byte[] row) {
+            this.mutation = new Mutation(row);
+        }
+    }
+
+    private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        private byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
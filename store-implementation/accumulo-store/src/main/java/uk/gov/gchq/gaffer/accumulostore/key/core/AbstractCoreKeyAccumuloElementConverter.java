@@ -19,14 +19,18 @@ import com.google.common.collect.Sets;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
 
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.MutationBuffer;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.BytesAndRange;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.LongUtil;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.EdgeDirection;
@@ -47,6 +51,7 @@ import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
@@ -56,11 +61,18 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     protected final Schema schema;
     private final String timestampProperty;
     private final Set<String> aggregatedGroups;
+    private final String[] groups;
+    private final byte[][] groupColumnFamilies;
 
     public AbstractCoreKeyAccumuloElementConverter(final Schema schema) {
         this.schema = schema;
         this.timestampProperty = null != schema ? schema.getConfig(AccumuloStoreConstants.TIMESTAMP_PROPERTY) : null;
         this.aggregatedGroups = null != schema ? Sets.newHashSet(schema.getAggregatedGroups()) : Collections.emptySet();
+        this.groups = null != schema ? schema.getGroups().toArray(new String[0]) : new String[0];
+        this.groupColumnFamilies = new byte[groups.length][];
+        for (int i = 0; i < groups.length; i++) {
+            groupColumnFamilies[i] = StringUtil.toBytes(groups[i]);
+        }
     }
 
     @Override
@@ -117,18 +129,52 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return new Key(rowKey, columnFamily, columnQualifier, columnVisibility, timeStamp);
     }
 
-    @SuppressWarnings("Convert2streamapi")
+    /**
+     * Converts an {@link Element} into the entries that represent it and adds
+     * them to the {@link MutationBuffer}. The row keys, column qualifier,
+     * column visibility and value are each built once, using the buffer's
+     * reusable stream, and written straight into the buffer's mutations
+     * without creating intermediate {@link Key}s.
+     *
+     * @param element the element to be converted
+     * @param buffer  the buffer to add the entries to
+     */
+    @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "If an element is not an Entity it must be an Edge")
     @Override
-    public Value getValueFromProperties(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+    public void addMutations(final Element element, final MutationBuffer buffer) {
+        final String group = element.getGroup();
+        final Properties properties = element.getProperties();
+        final byte[] row;
+        final byte[] secondRow;
+        if (element instanceof Entity) {
+            row = getRowKeyFromEntity((Entity) element);
+            secondRow = null;
+        } else {
+            final Pair<byte[], byte[]> rowKeys = getRowKeysFromEdge((Edge) element);
+            row = rowKeys.getFirst();
+            secondRow = rowKeys.getSecond();
+        }
 
-        for (final String propertyName : elementDefinition.getProperties()) {
-            if (isStoredInValue(propertyName, elementDefinition)) {
-                serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
-            }
+        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        final ColumnVisibility columnVisibility = buffer.getColumnVisibility(buildColumnVisibility(group, properties));
+        final long timestamp = buildTimestamp(group, properties);
+        final ByteArrayOutputStream valueStream = buffer.getStream();
+        writeValue(elementDefinition, properties, valueStream);
+        final Value value = new Value(valueStream.toByteArray());
+        writeColumnQualifier(elementDefinition, properties, buffer.getStream());
+        final Text columnQualifier = buffer.getColumnQualifierFromStream();
+        final Text columnFamily = buffer.getColumnFamily(group, this::buildColumnFamily);
+
+        buffer.put(row, columnFamily, columnQualifier, columnVisibility, timestamp, value);
+        if (null != secondRow) {
+            buffer.put(secondRow, columnFamily, columnQualifier, columnVisibility, timestamp, value);
         }
+    }
 
+    @Override
+    public Value getValueFromProperties(final String group, final Properties properties) {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeValue(getSchemaElementDefinition(group), properties, stream);
         return new Value(stream.toByteArray());
     }
 
@@ -160,6 +206,45 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return properties;
     }
 
+    @Override
+    public Object getPropertyFromValue(final String group, final String propertyName, final Value value) {
+        if (!isNotEmpty(value)) {
+            return null;
+        }
+        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        if (!isStoredInValue(propertyName, elementDefinition)) {
+            return null;
+        }
+
+        // Skip over the preceding properties using their lengths, so only the requested property is deserialised
+        final byte[] bytes = value.get();
+        int delimiterPosition = 0;
+        final Iterator<String> propertyNames = elementDefinition.getProperties().iterator();
+        while (propertyNames.hasNext() && delimiterPosition < bytes.length) {
+            final String name = propertyNames.next();
+            if (isStoredInValue(name, elementDefinition)) {
+                final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(name);
+                final ToBytesSerialiser serialiser = (null != typeDefinition) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
+                final boolean isRequestedProperty = name.equals(propertyName);
+                if (null != serialiser) {
+                    final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[delimiterPosition]);
+                    final int currentPropLength = getCurrentPropLength(bytes, delimiterPosition);
+                    if (isRequestedProperty) {
+                        try {
+                            return getDeserialisedObject(serialiser, bytes, delimiterPosition + numBytesForLength, currentPropLength);
+                        } catch (final SerialisationException e) {
+                            throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
+                        }
+                    }
+                    delimiterPosition += numBytesForLength + currentPropLength;
+                } else if (isRequestedProperty) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public Element getElementFromKey(final Key key, final boolean includeMatchedVertex) {
         final byte[] row = key.getRowData().getBackingArray();
@@ -198,6 +283,12 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public String getGroupFromColumnFamily(final byte[] columnFamily) {
+        // Return the schema's group String, rather than creating a new String for every key
+        for (int i = 0; i < groups.length; i++) {
+            if (Arrays.equals(groupColumnFamilies[i], columnFamily)) {
+                return groups[i];
+            }
+        }
         try {
             return new String(columnFamily, CommonConstants.UTF_8);
         } catch (final UnsupportedEncodingException e) {
@@ -259,13 +350,23 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public byte[] buildColumnQualifier(final String group, final Properties properties) {
         final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        writeColumnQualifier(getSchemaElementDefinition(group), properties, stream);
+        return stream.toByteArray();
+    }
 
+    @SuppressWarnings("Convert2streamapi")
+    protected void writeValue(final SchemaElementDefinition elementDefinition, final Properties properties, final ByteArrayOutputStream stream) {
+        for (final String propertyName : elementDefinition.getProperties()) {
+            if (isStoredInValue(propertyName, elementDefinition)) {
+                serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
+            }
+        }
+    }
+
+    protected void writeColumnQualifier(final SchemaElementDefinition elementDefinition, final Properties properties, final ByteArrayOutputStream stream) {
         for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
             serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
         }
-
-        return stream.toByteArray();
     }
 
     private SchemaElementDefinition getSchemaElementDefinition(final String group) {
@@ -492,11 +593,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     }
 
     protected String getGroupFromKey(final Key key) {
-        try {
-            return new String(key.getColumnFamilyData().getBackingArray(), CommonConstants.UTF_8);
-        } catch (final UnsupportedEncodingException e) {
-            throw new AccumuloElementConversionException("Failed to get element group from key", e);
-        }
+        return getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
     }
 
     protected boolean isStoredInValue(final String propertyName, final SchemaElementDefinition elementDef) {
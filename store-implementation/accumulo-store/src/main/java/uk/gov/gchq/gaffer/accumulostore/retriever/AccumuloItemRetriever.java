@@ -40,7 +40,9 @@ import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -88,36 +90,40 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
 
     protected abstract void addToRanges(final I_ITEM seed, final Set<Range> ranges) throws RangeFactoryException;
 
+    /**
+     * An {@code ElementIterator} splits the seeds into batches of up to
+     * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#MAX_ENTRIES_FOR_BATCH_SCANNER}
+     * seeds and reads the elements for each batch using a {@link BatchScanner}.
+     * <p>
+     * If {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#PREFETCH_BATCHES_FOR_BATCH_SCANNER}
+     * is set then, whilst a batch is being read, up to that many of the following
+     * batches have their ranges created and their batch scanners opened, so the
+     * tablet servers are queried for the next batches in the background. The
+     * results buffered for each prefetched batch are bounded by its batch scanner.
+     * </p>
+     */
     protected class ElementIterator implements CloseableIterator<Element> {
         private final Iterator<? extends I_ITEM> idsIterator;
-        private int count;
-        private BatchScanner scanner;
-        private Iterator<Entry<Key, Value>> scannerIterator;
+        private final int prefetchBatches;
+        private final Deque<Batch> prefetchedBatches = new ArrayDeque<>();
+        private Batch batch;
         private Element nextElm;
 
         public ElementIterator(final Iterator<? extends I_ITEM> idIterator) throws RetrieverException {
             idsIterator = idIterator;
-            count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                count++;
-                try {
-                    addToRanges(idsIterator.next(), ranges);
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed pair", e);
-                }
-            }
+            prefetchBatches = Math.max(0, store.getProperties().getPrefetchBatchesForBatchScanner());
 
             // Create BatchScanner, appropriately configured (i.e. ranges,
             // iterators, etc).
             try {
-                scanner = getScanner(ranges);
+                batch = openBatch();
+                prefetch();
             } catch (final Exception e) {
+                close();
                 CloseableUtil.close(idsIterator);
                 CloseableUtil.close(ids);
                 throw new RetrieverException(e);
             }
-            scannerIterator = scanner.iterator();
         }
 
         @Override
@@ -126,56 +132,45 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
             if (null != nextElm) {
                 return true;
             }
-            while (scannerIterator.hasNext()) {
-                final Entry<Key, Value> entry = scannerIterator.next();
-                try {
-                    nextElm = elementConverter.getFullElement(
-                            entry.getKey(),
-                            entry.getValue(),
-                            includeMatchedVertex);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
-                            e);
-                    continue;
-                }
-                doTransformation(nextElm);
-                if (doPostFilter(nextElm)) {
-                    ViewUtil.removeProperties(operation.getView(), nextElm);
-                    return true;
-                } else {
-                    nextElm = null;
-                }
-            }
-            // If current scanner is spent then go back to the iterator
-            // through the provided entities, and see if there are more.
-            // If so create the next scanner, if there are no more entities
-            // then return false.
-            while (idsIterator.hasNext() && !scannerIterator.hasNext()) {
-                count = 0;
-                final Set<Range> ranges = new HashSet<>();
-                while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                    count++;
+            while (null != batch) {
+                while (batch.iterator.hasNext()) {
+                    final Entry<Key, Value> entry = batch.iterator.next();
                     try {
-                        addToRanges(idsIterator.next(), ranges);
-                    } catch (final RangeFactoryException e) {
-                        LOGGER.error("Failed to create a range from given seed", e);
+                        nextElm = elementConverter.getFullElement(
+                                entry.getKey(),
+                                entry.getValue(),
+                                includeMatchedVertex);
+                    } catch (final AccumuloElementConversionException e) {
+                        LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
+                                e);
+                        continue;
+                    }
+                    doTransformation(nextElm);
+                    if (doPostFilter(nextElm)) {
+                        ViewUtil.removeProperties(operation.getView(), nextElm);
+                        return true;
+                    } else {
+                        nextElm = null;
                     }
                 }
-                scanner.close();
+
+                // If current scanner is spent then move on to the next batch,
+                // either a prefetched batch or a new batch created from the
+                // remaining seeds. If there are no more seeds then return false.
+                batch.scanner.close();
+                batch = prefetchedBatches.poll();
                 try {
-                    scanner = getScanner(ranges);
+                    if (null == batch) {
+                        batch = openBatch();
+                    }
+                    prefetch();
                 } catch (final TableNotFoundException | StoreException e) {
                     LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
+                    close();
                     return false;
                 }
-                scannerIterator = scanner.iterator();
-            }
-            if (!scannerIterator.hasNext()) {
-                scanner.close();
-                return false;
-            } else {
-                return hasNext();
             }
+            return false;
         }
 
         @Override
@@ -197,9 +192,55 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
 
         @Override
         public void close() {
-            if (null != scanner) {
-                scanner.close();
+            if (null != batch) {
+                batch.scanner.close();
+                batch = null;
+            }
+            for (final Batch prefetchedBatch : prefetchedBatches) {
+                prefetchedBatch.scanner.close();
+            }
+            prefetchedBatches.clear();
+        }
+
+        private void prefetch() throws TableNotFoundException, StoreException {
+            while (prefetchedBatches.size() < prefetchBatches) {
+                final Batch nextBatch = openBatch();
+                if (null == nextBatch) {
+                    break;
+                }
+                prefetchedBatches.add(nextBatch);
+            }
+        }
+
+        private Batch openBatch() throws TableNotFoundException, StoreException {
+            if (!idsIterator.hasNext()) {
+                return null;
+            }
+
+            int count = 0;
+            final Set<Range> ranges = new HashSet<>();
+            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
+                count++;
+                try {
+                    addToRanges(idsIterator.next(), ranges);
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
             }
+
+            // Creating the scanner iterator starts the lookups on the tablet servers
+            final BatchScanner scanner = getScanner(ranges);
+            return new Batch(scanner, scanner.iterator());
+        }
+    }
+
+    private static final class Batch {
+        private final BatchScanner scanner;
+        private final Iterator<Entry<Key, Value>> iterator;
+
+        private Batch(final BatchScanner scanner, final Iterator<Entry<Key, Value>> iterator) {
+            this.scanner = scanner;
+            this.iterator = iterator;
         }
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An {@code IteratorOptionsCache} caches the {@link Schema}s, {@link View}s and
+ * {@link AccumuloElementConverter}s created from the options of the Gaffer
+ * Accumulo iterators.
+ * <p>
+ * Iterators are initialised by the tablet servers for every scan and compaction
+ * on every tablet, so parsing the schema and view JSON each time adds a
+ * significant overhead to small scans. Instead the parsed objects are cached,
+ * keyed by a SHA-256 hash of their JSON, so they are created once per JVM for
+ * each schema and view. Each cache holds up to {@value #MAX_SIZE} entries, with
+ * the least recently used entries removed first.
+ * </p>
+ * <p>
+ * The cached objects are shared by all the iterators using the same schema or
+ * view, so they must not be modified.
+ * </p>
+ */
+public final class IteratorOptionsCache {
+    public static final int MAX_SIZE = 100;
+
+    private static final Map<String, Schema> SCHEMAS = createCache();
+    private static final Map<String, View> VIEWS = createCache();
+    private static final Map<String, AccumuloElementConverter> ELEMENT_CONVERTERS = createCache();
+
+    private IteratorOptionsCache() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * @param schemaJson the schema JSON
+     * @return the schema created from the schema JSON
+     */
+    public static Schema getSchema(final String schemaJson) {
+        return get(SCHEMAS, hash(schemaJson), key -> Schema.fromJson(StringUtil.toBytes(schemaJson)));
+    }
+
+    /**
+     * @param viewJson the view JSON
+     * @return the view created from the view JSON
+     */
+    public static View getView(final String viewJson) {
+        return get(VIEWS, hash(viewJson), key -> View.fromJson(StringUtil.toBytes(viewJson)));
+    }
+
+    /**
+     * Gets an element converter of the given class, created using the schema
+     * from {@link #getSchema(String)}.
+     *
+     * @param elementConverterClass the name of the element converter class
+     * @param schemaJson            the schema JSON
+     * @return the element converter
+     * @throws ReflectiveOperationException if the element converter could not be created
+     */
+    public static AccumuloElementConverter getElementConverter(final String elementConverterClass, final String schemaJson)
+            throws ReflectiveOperationException {
+        final String key = elementConverterClass + ":" + hash(schemaJson);
+        AccumuloElementConverter elementConverter = ELEMENT_CONVERTERS.get(key);
+        if (null == elementConverter) {
+            elementConverter = Class
+                    .forName(elementConverterClass)
+                    .asSubclass(AccumuloElementConverter.class)
+                    .getConstructor(Schema.class)
+                    .newInstance(getSchema(schemaJson));
+            elementConverter = putIfAbsent(ELEMENT_CONVERTERS, key, elementConverter);
+        }
+        return elementConverter;
+    }
+
+    /**
+     * Removes all the cached objects.
+     */
+    public static void clear() {
+        SCHEMAS.clear();
+        VIEWS.clear();
+        ELEMENT_CONVERTERS.clear();
+    }
+
+    private static <T> T get(final Map<String, T> cache, final String key, final Function<String, T> create) {
+        final T value = cache.get(key);
+        if (null != value) {
+            return value;
+        }
+
+        // The value is created outside of the lock, so other iterators are not blocked
+        return putIfAbsent(cache, key, create.apply(key));
+    }
+
+    private static <T> T putIfAbsent(final Map<String, T> cache, final String key, final T value) {
+        final T existingValue = cache.putIfAbsent(key, value);
+        return null != existingValue ? existingValue : value;
+    }
+
+    private static String hash(final String json) {
+        if (null == json) {
+            throw new IllegalArgumentException("Iterator option JSON is required");
+        }
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(StringUtil.toBytes(json)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash iterator options", e);
+        }
+    }
+
+    private static <T> Map<String, T> createCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, T>(16, 0.75f, true) {
+            private static final long serialVersionUID = -3839460532385006235L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, T> eldest) {
+                return size() > MAX_SIZE;
+            }
+        });
+    }
+}
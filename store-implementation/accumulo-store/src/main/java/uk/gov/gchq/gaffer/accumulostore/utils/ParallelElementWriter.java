@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.MutationBuffer;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Element;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A {@code ParallelElementWriter} converts {@link Element}s into Accumulo
+ * mutations using a pool of worker threads and adds them to a single
+ * {@link BatchWriter}.
+ * <p>
+ * The elements are read on the calling thread and split into batches. Each
+ * batch is converted by a worker using its own {@link MutationBuffer}, and the
+ * resulting mutations are added to the shared, thread safe, batch writer. The
+ * number of batches waiting to be converted is limited to twice the number of
+ * threads, so the elements are not all read into memory at once.
+ * </p>
+ * <p>
+ * The results of the batches are checked in the order the batches were
+ * created, so any elements that fail to be converted are reported in the same
+ * order as the input, as they are when elements are written on a single
+ * thread.
+ * </p>
+ * <p>
+ * The static {@link #write(AccumuloElementConverter, BatchWriter, Iterable)}
+ * method converts the elements in the same way, on the calling thread, for
+ * when only one ingest thread is configured.
+ * </p>
+ */
+public class ParallelElementWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelElementWriter.class);
+
+    private final AccumuloElementConverter converter;
+    private final BatchWriter writer;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxPendingBatches;
+
+    public ParallelElementWriter(final AccumuloElementConverter converter, final BatchWriter writer,
+                                 final ExecutorService executor, final int numThreads, final int batchSize) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.converter = converter;
+        this.writer = writer;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = 2 * numThreads;
+    }
+
+    /**
+     * Converts the elements and adds them to the batch writer, returning once
+     * all the elements have been added. Elements that cannot be converted and
+     * mutations that are rejected are logged and skipped.
+     *
+     * @param elements the elements to write
+     */
+    public void write(final Iterable<? extends Element> elements) {
+        final Deque<Future<BatchResult>> pendingBatches = new ArrayDeque<>();
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : elements) {
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    submit(batch, pendingBatches);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, pendingBatches);
+            }
+            while (!pendingBatches.isEmpty()) {
+                report(pendingBatches.removeFirst());
+            }
+        } finally {
+            for (final Future<BatchResult> pendingBatch : pendingBatches) {
+                pendingBatch.cancel(true);
+            }
+        }
+    }
+
+    private void submit(final List<Element> batch, final Deque<Future<BatchResult>> pendingBatches) {
+        while (pendingBatches.size() >= maxPendingBatches) {
+            report(pendingBatches.removeFirst());
+        }
+        pendingBatches.addLast(executor.submit(() -> convert(batch)));
+    }
+
+    /**
+     * Converts the elements on the calling thread and adds them to the batch
+     * writer. Elements that cannot be converted and mutations that are
+     * rejected are logged and skipped.
+     *
+     * @param converter the converter to create the mutations with
+     * @param writer    the batch writer to add the mutations to
+     * @param elements  the elements to write
+     */
+    public static void write(final AccumuloElementConverter converter, final BatchWriter writer,
+                             final Iterable<? extends Element> elements) {
+        convert(converter, writer, elements, ParallelElementWriter::logFailedConversion, ParallelElementWriter::logRejectedMutation);
+    }
+
+    private BatchResult convert(final List<Element> batch) {
+        final BatchResult result = new BatchResult();
+        convert(converter, writer, batch, result.failedGroups::add, () -> result.numRejected++);
+        return result;
+    }
+
+    private static void convert(final AccumuloElementConverter converter, final BatchWriter writer,
+                                final Iterable<? extends Element> elements,
+                                final Consumer<String> onFailedConversion, final Runnable onRejectedMutation) {
+        final MutationBuffer buffer = new MutationBuffer(writer);
+        for (final Element element : elements) {
+            try {
+                converter.addMutations(element, buffer);
+            } catch (final AccumuloElementConversionException e) {
+                onFailedConversion.accept(element.getGroup());
+                continue;
+            }
+            try {
+                buffer.flushIfFull();
+            } catch (final MutationsRejectedException e) {
+                onRejectedMutation.run();
+            }
+        }
+        try {
+            buffer.flush();
+        } catch (final MutationsRejectedException e) {
+            onRejectedMutation.run();
+        }
+    }
+
+    private void report(final Future<BatchResult> pendingBatch) {
+        final BatchResult result;
+        try {
+            result = pendingBatch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GafferRuntimeException("Interrupted whilst adding elements", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GafferRuntimeException("Failed to add elements: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        for (final String group : result.failedGroups) {
+            logFailedConversion(group);
+        }
+        for (int i = 0; i < result.numRejected; i++) {
+            logRejectedMutation();
+        }
+    }
+
+    private static void logFailedConversion(final String group) {
+        LOGGER.error(AccumuloStore.FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "mutation", group);
+    }
+
+    private static void logRejectedMutation() {
+        LOGGER.error("Failed to create an accumulo key mutation");
+    }
+
+    private static final class BatchResult {
+        private final List<String> failedGroups = new ArrayList<>();
+        private int numRejected;
+    }
+}
@@ -59,6 +59,7 @@ import uk.gov.gchq.gaffer.operation.impl.Validate;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.serialisation.Serialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
@@ -82,7 +83,9 @@ import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
 import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -276,6 +279,55 @@ public class AccumuloStoreTest {
         testAbleToInsertAndRetrieveEntityQueryingEqualAndRelated(byteEntityStore);
     }
 
+    @Test
+    public void shouldAddElementsUsingMultipleIngestThreadsByteEntity() throws Exception {
+        shouldAddElementsUsingMultipleIngestThreads(AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AccumuloStoreTest.class)));
+    }
+
+    @Test
+    public void shouldAddElementsUsingMultipleIngestThreadsGaffer1() throws Exception {
+        shouldAddElementsUsingMultipleIngestThreads(AccumuloProperties.loadStoreProperties(StreamUtil.openStream(AccumuloStoreTest.class, "/accumuloStoreClassicKeys.properties")));
+    }
+
+    private void shouldAddElementsUsingMultipleIngestThreads(final AccumuloProperties properties) throws Exception {
+        // Given
+        properties.setNumThreadsForIngest("4");
+        properties.setElementsPerIngestBatch("3");
+        final SingleUseMockAccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("parallelIngestGraph", SCHEMA, properties);
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Entity entity = new Entity(TestGroups.ENTITY, "" + (i % 50));
+            entity.putProperty(TestPropertyNames.COUNT, 1);
+            elements.add(entity);
+        }
+        final User user = new User();
+
+        // When - the ingest pool is shared by both operations, and elements
+        // are converted on the calling thread once it has been shut down
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(user));
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(user));
+        store.shutdown();
+        store.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), new Context(user));
+        final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .build(), new Context(user));
+
+        // Then
+        assertEquals(50, Iterables.size(results));
+        for (final Element result : results) {
+            assertEquals(6, result.getProperty(TestPropertyNames.COUNT));
+        }
+    }
+
     public void testAbleToInsertAndRetrieveEntityQueryingEqualAndRelated(final AccumuloStore store) throws OperationException {
         final Entity e = new Entity(TestGroups.ENTITY, "1");
         e.putProperty(TestPropertyNames.PROP_1, 1);
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key;
+
+import com.google.common.collect.Lists;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MutationBufferTest {
+    private static final Text COLUMN_FAMILY = new Text("cf");
+    private static final ColumnVisibility VISIBILITY = new ColumnVisibility();
+
+    private BatchWriter writer;
+
+    @Before
+    public void before() {
+        writer = mock(BatchWriter.class);
+    }
+
+    @Test
+    public void shouldGroupEntriesForTheSameRowIntoOneMutation() throws MutationsRejectedException {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer);
+
+        // When
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq1"), VISIBILITY, 1L, new Value(new byte[]{1}));
+        buffer.put(StringUtil.toBytes("row2"), COLUMN_FAMILY, new Text("cq1"), VISIBILITY, 1L, new Value(new byte[]{2}));
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq2"), VISIBILITY, 1L, new Value(new byte[]{3}));
+        buffer.flush();
+
+        // Then
+        final List<Mutation> mutations = getAddedMutations();
+        assertEquals(2, mutations.size());
+        assertArrayEquals(StringUtil.toBytes("row1"), mutations.get(0).getRow());
+        assertEquals(2, mutations.get(0).size());
+        assertArrayEquals(StringUtil.toBytes("row2"), mutations.get(1).getRow());
+        assertEquals(1, mutations.get(1).size());
+        assertEquals(0, buffer.getNumEntries());
+    }
+
+    @Test
+    public void shouldPutEntriesWithTheSameKeyInSeparateMutations() throws MutationsRejectedException {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer);
+
+        // When
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq"), VISIBILITY, 1L, new Value(new byte[]{1}));
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq"), VISIBILITY, 1L, new Value(new byte[]{2}));
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq"), VISIBILITY, 2L, new Value(new byte[]{3}));
+        buffer.flush();
+
+        // Then
+        final List<Mutation> mutations = getAddedMutations();
+        assertEquals(2, mutations.size());
+        assertEquals(1, mutations.get(0).size());
+        assertArrayEquals(new byte[]{1}, mutations.get(0).getUpdates().get(0).getValue());
+        assertEquals(2, mutations.get(1).size());
+        assertArrayEquals(new byte[]{2}, mutations.get(1).getUpdates().get(0).getValue());
+        assertArrayEquals(new byte[]{3}, mutations.get(1).getUpdates().get(1).getValue());
+    }
+
+    @Test
+    public void shouldOnlyFlushWhenFull() throws MutationsRejectedException {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer, 2);
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq"), VISIBILITY, 1L, new Value());
+
+        // When
+        buffer.flushIfFull();
+
+        // Then
+        verify(writer, never()).addMutations(any(Iterable.class));
+
+        // When
+        buffer.put(StringUtil.toBytes("row1"), COLUMN_FAMILY, new Text("cq2"), VISIBILITY, 1L, new Value());
+        buffer.flushIfFull();
+
+        // Then
+        assertEquals(1, getAddedMutations().size());
+    }
+
+    @Test
+    public void shouldCopyReusedColumnQualifierIntoMutation() throws MutationsRejectedException {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer);
+
+        // When
+        buffer.getStream().write(1);
+        buffer.put(StringUtil.toBytes("row"), COLUMN_FAMILY, buffer.getColumnQualifierFromStream(), VISIBILITY, 1L, new Value());
+        buffer.getStream().write(2);
+        buffer.put(StringUtil.toBytes("row"), COLUMN_FAMILY, buffer.getColumnQualifierFromStream(), VISIBILITY, 1L, new Value());
+        buffer.flush();
+
+        // Then
+        final Mutation mutation = getAddedMutations().get(0);
+        assertArrayEquals(new byte[]{1}, mutation.getUpdates().get(0).getColumnQualifier());
+        assertArrayEquals(new byte[]{2}, mutation.getUpdates().get(1).getColumnQualifier());
+    }
+
+    @Test
+    public void shouldCacheColumnVisibilitiesAndFamilies() {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer);
+
+        // When
+        final ColumnVisibility visibility = buffer.getColumnVisibility(StringUtil.toBytes("public"));
+        buffer.getColumnVisibility(StringUtil.toBytes("private"));
+
+        // Then
+        assertEquals(new ColumnVisibility("public"), visibility);
+        assertSame(visibility, buffer.getColumnVisibility(StringUtil.toBytes("public")));
+        assertSame(buffer.getColumnVisibility(new byte[0]), buffer.getColumnVisibility(null));
+        assertSame(buffer.getColumnFamily("group", StringUtil::toBytes), buffer.getColumnFamily("group", StringUtil::toBytes));
+    }
+
+    @Test
+    public void shouldEmptyBufferWhenMutationsAreRejected() throws MutationsRejectedException {
+        // Given
+        final MutationBuffer buffer = new MutationBuffer(writer);
+        buffer.put(StringUtil.toBytes("row"), COLUMN_FAMILY, new Text("cq"), VISIBILITY, 1L, new Value());
+        final MutationsRejectedException exception = mock(MutationsRejectedException.class);
+        doThrow(exception).when(writer).addMutations(any(Iterable.class));
+
+        // When
+        try {
+            buffer.flush();
+            fail("Exception expected");
+        } catch (final MutationsRejectedException e) {
+            assertSame(exception, e);
+        }
+
+        // Then
+        assertEquals(0, buffer.getNumEntries());
+    }
+
+    private List<Mutation> getAddedMutations() throws MutationsRejectedException {
+        final ArgumentCaptor<Iterable> mutationsCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(writer).addMutations(mutationsCaptor.capture());
+        return Lists.newArrayList((Iterable<Mutation>) mutationsCaptor.getValue());
+    }
+}
@@ -16,12 +16,23 @@
 package uk.gov.gchq.gaffer.accumulostore.key.core;
 
 import com.google.common.primitives.Bytes;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import uk.gov.gchq.gaffer.accumulostore.key.AbstractAccumuloElementConverterTest;
+import uk.gov.gchq.gaffer.accumulostore.key.MutationBuffer;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.EdgeDirection;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
@@ -29,9 +40,17 @@ import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
 import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public abstract class AbstractCoreKeyAccumuloElementConverterTest extends AbstractAccumuloElementConverterTest<AbstractCoreKeyAccumuloElementConverter> {
 
@@ -127,6 +146,117 @@ public abstract class AbstractCoreKeyAccumuloElementConverterTest extends Abstra
         assertEquals(EdgeDirection.UNDIRECTED, direction);
     }
 
+    @Test
+    public void shouldAddSameEntriesToMutationBufferAsKeysAndValues() throws Exception {
+        // Given
+        final List<Element> elements = Arrays.asList(
+                new Entity.Builder()
+                        .group(TestGroups.ENTITY)
+                        .vertex("1")
+                        .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                        .property(AccumuloPropertyNames.PROP_1, 2)
+                        .build(),
+                new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("1")
+                        .dest("2")
+                        .directed(true)
+                        .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                        .property(AccumuloPropertyNames.PROP_1, 3)
+                        .build(),
+                new Edge.Builder()
+                        .group(TestGroups.EDGE)
+                        .source("1")
+                        .dest("2")
+                        .directed(true)
+                        .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 2)
+                        .property(AccumuloPropertyNames.PROP_1, 4)
+                        .build());
+        final List<Pair<Key, Value>> expected = new ArrayList<>();
+        for (final Element element : elements) {
+            final Pair<Key, Key> keys = converter.getKeysFromElement(element);
+            final Value value = converter.getValueFromElement(element);
+            expected.add(new Pair<>(withoutTimestamp(keys.getFirst()), value));
+            if (null != keys.getSecond()) {
+                expected.add(new Pair<>(withoutTimestamp(keys.getSecond()), value));
+            }
+        }
+        final BatchWriter writer = mock(BatchWriter.class);
+        final MutationBuffer buffer = new MutationBuffer(writer);
+
+        // When
+        for (final Element element : elements) {
+            converter.addMutations(element, buffer);
+        }
+        buffer.flush();
+
+        // Then
+        final ArgumentCaptor<Iterable> mutationsCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(writer).addMutations(mutationsCaptor.capture());
+        final List<Pair<Key, Value>> actual = new ArrayList<>();
+        int numMutations = 0;
+        for (final Object mutation : mutationsCaptor.getValue()) {
+            numMutations++;
+            final byte[] row = ((Mutation) mutation).getRow();
+            for (final ColumnUpdate update : ((Mutation) mutation).getUpdates()) {
+                actual.add(new Pair<>(new Key(row, update.getColumnFamily(), update.getColumnQualifier(),
+                        update.getColumnVisibility(), 0L), new Value(update.getValue())));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        assertEquals(0, buffer.getNumEntries());
+        for (final Pair<Key, Value> keyValue : expected) {
+            assertTrue(actual.contains(keyValue));
+        }
+        // The entity and the source and destination rows of the two edges
+        assertEquals(3, numMutations);
+    }
+
+    @Test
+    public void shouldGetSamePropertyFromValueAsWhenAllPropertiesAreDeserialised() {
+        // Given
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("1")
+                .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                .property(AccumuloPropertyNames.PROP_1, 2)
+                .property(AccumuloPropertyNames.PROP_3, 3)
+                .property(AccumuloPropertyNames.COUNT, 4)
+                .build();
+        final Value value = converter.getValueFromElement(entity);
+        final Properties allProperties = converter.getPropertiesFromValue(TestGroups.ENTITY, value);
+
+        // When / Then
+        for (final String propertyName : Arrays.asList(AccumuloPropertyNames.COLUMN_QUALIFIER,
+                AccumuloPropertyNames.PROP_1, AccumuloPropertyNames.PROP_2, AccumuloPropertyNames.PROP_3,
+                AccumuloPropertyNames.PROP_4, AccumuloPropertyNames.COUNT, "unknownProperty")) {
+            assertEquals(allProperties.get(propertyName), converter.getPropertyFromValue(TestGroups.ENTITY, propertyName, value));
+        }
+        assertEquals(4, converter.getPropertyFromValue(TestGroups.ENTITY, AccumuloPropertyNames.COUNT, value));
+        assertNull(converter.getPropertyFromValue(TestGroups.ENTITY, AccumuloPropertyNames.COUNT, new Value()));
+    }
+
+    @Test
+    public void shouldReuseGroupFromSchemaWhenGettingGroupFromColumnFamily() {
+        // Given
+        final byte[] columnFamily = converter.buildColumnFamily(TestGroups.ENTITY);
+
+        // When
+        final String group = converter.getGroupFromColumnFamily(columnFamily);
+
+        // Then
+        assertEquals(TestGroups.ENTITY, group);
+        assertSame(group, converter.getGroupFromColumnFamily(converter.buildColumnFamily(TestGroups.ENTITY)));
+        assertEquals("unknownGroup", converter.getGroupFromColumnFamily(converter.buildColumnFamily("unknownGroup")));
+    }
+
+    private Key withoutTimestamp(final Key key) {
+        final Key keyWithoutTimestamp = new Key(key);
+        // Non aggregated groups have a random timestamp
+        keyWithoutTimestamp.setTimestamp(0L);
+        return keyWithoutTimestamp;
+    }
+
     private class UnusualTestSerialiser extends StringSerialiser {
         @Override
         public byte[] serialiseNull() {
@@ -93,6 +93,50 @@ public class AccumuloSingleIDRetrieverTest {
         testEntityIdQueryEdgesAndEntities(gaffer1KeyStore);
     }
 
+    @Test
+    public void testEntityIdQueryWithPrefetchedBatchesByteEntityStore() throws StoreException {
+        testEntityIdQueryWithPrefetchedBatches(byteEntityStore);
+    }
+
+    @Test
+    public void testEntityIdQueryWithPrefetchedBatchesGaffer1Store() throws StoreException {
+        testEntityIdQueryWithPrefetchedBatches(gaffer1KeyStore);
+    }
+
+    private void testEntityIdQueryWithPrefetchedBatches(final AccumuloStore store) throws StoreException {
+        // Create set to query for
+        final Set<ElementId> ids = new HashSet<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+        final GetElements operation = new GetElements.Builder().view(view).input(ids).build();
+
+        final String maxEntries = store.getProperties().get(AccumuloProperties.MAX_ENTRIES_FOR_BATCH_SCANNER);
+        try {
+            final Set<Element> expectedElements = new HashSet<>();
+            Iterables.addAll(expectedElements, new AccumuloSingleIDRetriever(store, operation, new User()));
+
+            // Split the seeds into many small batches and read them with 3 batches prefetched
+            store.getProperties().setMaxEntriesForBatchScanner("7");
+            store.getProperties().setPrefetchBatchesForBatchScanner("3");
+            final List<Element> results = new ArrayList<>();
+            Iterables.addAll(results, new AccumuloSingleIDRetriever(store, operation, new User()));
+
+            assertEquals(NUM_ENTRIES * 3, results.size());
+            assertEquals(expectedElements, new HashSet<>(results));
+        } catch (final IteratorSettingException e) {
+            fail("Unable to construct SingleID Retriever");
+        } finally {
+            if (null != maxEntries) {
+                store.getProperties().setMaxEntriesForBatchScanner(maxEntries);
+            } else {
+                store.getProperties().getProperties().remove(AccumuloProperties.MAX_ENTRIES_FOR_BATCH_SCANNER);
+            }
+            store.getProperties().getProperties().remove(AccumuloProperties.PREFETCH_BATCHES_FOR_BATCH_SCANNER);
+        }
+    }
+
     private void testEntityIdQueryEdgesAndEntities(final AccumuloStore store) throws AccumuloException, StoreException {
         setupGraph(store, NUM_ENTRIES);
         final User user = new User();
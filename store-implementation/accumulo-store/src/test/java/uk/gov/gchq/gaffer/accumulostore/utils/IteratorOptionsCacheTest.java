@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IteratorOptionsCacheTest {
+    private String schemaJson;
+    private String viewJson;
+
+    @Before
+    public void before() {
+        IteratorOptionsCache.clear();
+        schemaJson = StringUtil.toString(Schema.fromJson(StreamUtil.schemas(IteratorOptionsCacheTest.class)).toCompactJson());
+        viewJson = StringUtil.toString(new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .edge(TestGroups.EDGE)
+                .build()
+                .toCompactJson());
+    }
+
+    @After
+    public void after() {
+        IteratorOptionsCache.clear();
+    }
+
+    @Test
+    public void shouldReturnSameSchemaForSameJson() {
+        // When
+        final Schema schema1 = IteratorOptionsCache.getSchema(schemaJson);
+        final Schema schema2 = IteratorOptionsCache.getSchema(new String(schemaJson));
+
+        // Then
+        assertSame(schema1, schema2);
+        assertEquals(Schema.fromJson(StringUtil.toBytes(schemaJson)).getGroups(), schema1.getGroups());
+    }
+
+    @Test
+    public void shouldReturnSameViewForSameJson() {
+        // When
+        final View view1 = IteratorOptionsCache.getView(viewJson);
+        final View view2 = IteratorOptionsCache.getView(new String(viewJson));
+
+        // Then
+        assertSame(view1, view2);
+        assertEquals(View.fromJson(StringUtil.toBytes(viewJson)), view1);
+    }
+
+    @Test
+    public void shouldCacheElementConvertersPerClassAndSchema() throws ReflectiveOperationException {
+        // When
+        final AccumuloElementConverter byteEntityConverter1 = IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter byteEntityConverter2 = IteratorOptionsCache.getElementConverter(ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter classicConverter = IteratorOptionsCache.getElementConverter(ClassicAccumuloElementConverter.class.getName(), schemaJson);
+
+        // Then
+        assertTrue(byteEntityConverter1 instanceof ByteEntityAccumuloElementConverter);
+        assertSame(byteEntityConverter1, byteEntityConverter2);
+        assertTrue(classicConverter instanceof ClassicAccumuloElementConverter);
+    }
+
+    @Test
+    public void shouldCreateNewObjectsAfterClear() {
+        // Given
+        final Schema schema = IteratorOptionsCache.getSchema(schemaJson);
+        final View view = IteratorOptionsCache.getView(viewJson);
+
+        // When
+        IteratorOptionsCache.clear();
+
+        // Then
+        assertNotSame(schema, IteratorOptionsCache.getSchema(schemaJson));
+        assertNotSame(view, IteratorOptionsCache.getView(viewJson));
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnknownElementConverterClass() {
+        try {
+            IteratorOptionsCache.getElementConverter("unknown.Converter", schemaJson);
+            fail("Exception expected");
+        } catch (final ReflectiveOperationException e) {
+            assertTrue(e instanceof ClassNotFoundException);
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForMissingJson() {
+        try {
+            IteratorOptionsCache.getSchema(null);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("required"));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.Mutation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.MutationBuffer;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ParallelElementWriterTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(ParallelElementWriterTest.class));
+    private static final int NUM_THREADS = 4;
+
+    private ExecutorService executor;
+    private BatchWriter writer;
+    private List<Mutation> mutations;
+
+    @Before
+    public void before() throws MutationsRejectedException {
+        executor = Executors.newFixedThreadPool(NUM_THREADS);
+        writer = mock(BatchWriter.class);
+        mutations = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            for (final Object mutation : (Iterable<?>) invocation.getArguments()[0]) {
+                mutations.add((Mutation) mutation);
+            }
+            return null;
+        }).when(writer).addMutations(any(Iterable.class));
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldWriteAllElementsUsingMultipleThreads() {
+        // Given
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + (i + 1))
+                    .directed(true)
+                    .build());
+        }
+        final ParallelElementWriter parallelWriter = new ParallelElementWriter(
+                new ByteEntityAccumuloElementConverter(SCHEMA), writer, executor, NUM_THREADS, 3);
+
+        // When
+        parallelWriter.write(elements);
+
+        // Then - each entity is one entry and each directed edge is two entries
+        int numEntries = 0;
+        for (final Mutation mutation : mutations) {
+            numEntries += mutation.size();
+        }
+        assertEquals(300, numEntries);
+    }
+
+    @Test
+    public void shouldSkipElementsThatCannotBeConverted() {
+        // Given
+        final Entity invalidEntity = new Entity(TestGroups.ENTITY, "invalid");
+        final Entity validEntity = new Entity(TestGroups.ENTITY, "valid");
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        doThrow(new AccumuloElementConversionException("Invalid element"))
+                .when(converter).addMutations(eq(invalidEntity), any(MutationBuffer.class));
+        final ParallelElementWriter parallelWriter = new ParallelElementWriter(converter, writer, executor, NUM_THREADS, 1);
+
+        // When
+        parallelWriter.write(Arrays.asList(invalidEntity, validEntity, invalidEntity));
+
+        // Then
+        verify(converter, times(2)).addMutations(eq(invalidEntity), any(MutationBuffer.class));
+        verify(converter).addMutations(eq(validEntity), any(MutationBuffer.class));
+    }
+
+    @Test
+    public void shouldRethrowRuntimeExceptionsFromWorkers() {
+        // Given
+        final IllegalStateException exception = new IllegalStateException("Conversion failed");
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        doThrow(exception).when(converter).addMutations(any(Element.class), any(MutationBuffer.class));
+        final ParallelElementWriter parallelWriter = new ParallelElementWriter(converter, writer, executor, NUM_THREADS, 1);
+
+        // When / Then
+        try {
+            parallelWriter.write(Collections.singletonList(new Entity(TestGroups.ENTITY, "vertex")));
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertSame(exception, e);
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidNumberOfThreadsAndBatchSize() {
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        try {
+            new ParallelElementWriter(converter, writer, executor, 0, 1);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("numThreads must be at least 1", e.getMessage());
+        }
+        try {
+            new ParallelElementWriter(converter, writer, executor, 1, 0);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("batchSize must be at least 1", e.getMessage());
+        }
+    }
+}
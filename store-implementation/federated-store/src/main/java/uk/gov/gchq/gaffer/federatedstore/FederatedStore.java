@@ -45,6 +45,7 @@ import uk.gov.gchq.gaffer.federatedstore.operation.handler.impl.FederatedGetTrai
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.impl.FederatedOperationChainHandler;
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.impl.FederatedRemoveGraphHandler;
 import uk.gov.gchq.gaffer.federatedstore.schema.FederatedViewValidator;
+import uk.gov.gchq.gaffer.federatedstore.util.FederatedGraphExecutor;
 import uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.graph.GraphSerialisable;
@@ -79,6 +80,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreProperties.IS_PUBLIC_ACCESS_ALLOWED_DEFAULT;
 import static uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil.getCleanStrings;
@@ -97,9 +102,11 @@ import static uk.gov.gchq.gaffer.federatedstore.util.FederatedStoreUtil.getClean
  * @see Graph
  */
 public class FederatedStore extends Store {
+    private static final long GRAPH_EXECUTOR_KEEP_ALIVE_SECONDS = 60;
     private FederatedGraphStorage graphStorage = new FederatedGraphStorage();
     private Set<String> customPropertiesAuths;
     private Boolean isPublicAccessAllowed = Boolean.valueOf(IS_PUBLIC_ACCESS_ALLOWED_DEFAULT);
+    private FederatedGraphExecutor graphExecutor = new FederatedGraphExecutor();
 
     /**
      * Initialise this FederatedStore with any sub-graphs defined within the
@@ -116,6 +123,7 @@ public class FederatedStore extends Store {
         super.initialise(graphId, new Schema(), properties);
         customPropertiesAuths = getCustomPropertiesAuths();
         isPublicAccessAllowed = Boolean.valueOf(getProperties().getIsPublicAccessAllowed());
+        graphExecutor = createGraphExecutor(graphId);
     }
 
     @Override
@@ -305,6 +313,13 @@ public class FederatedStore extends Store {
         return graphStorage.get(user, getCleanStrings(graphIdsCsv));
     }
 
+    /**
+     * @return the executor for running operations on the sub-graphs
+     */
+    public FederatedGraphExecutor getGraphExecutor() {
+        return graphExecutor;
+    }
+
     /**
      * The FederatedStore at time of initialisation, can set the auths required
      * to allow users to use custom {@link StoreProperties} outside the
@@ -396,6 +411,29 @@ public class FederatedStore extends Store {
         }
     }
 
+    private FederatedGraphExecutor createGraphExecutor(final String graphId) {
+        if (null != graphExecutor.getExecutorService()) {
+            graphExecutor.getExecutorService().shutdown();
+        }
+
+        final int threads = getProperties().getGraphExecutorThreads();
+        if (threads <= 1) {
+            return new FederatedGraphExecutor();
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executorService = new ThreadPoolExecutor(threads, threads,
+                GRAPH_EXECUTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "federated-" + graphId + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executorService.allowCoreThreadTimeOut(true);
+        return new FederatedGraphExecutor(executorService, getProperties().getGraphExecutionTimeout(),
+                getProperties().getGraphExecutorPrefetchSize());
+    }
+
     private Set<String> getCustomPropertiesAuths() {
         final String value = getProperties().getCustomPropsValue();
         return (Strings.isNullOrEmpty(value)) ? null : Sets.newHashSet(getCleanStrings(value));
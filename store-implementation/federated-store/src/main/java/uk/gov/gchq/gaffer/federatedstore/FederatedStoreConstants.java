@@ -23,6 +23,8 @@ public final class FederatedStoreConstants {
     public static final String KEY_OPERATION_OPTIONS_GRAPH_IDS = "gaffer.federatedstore.operation.graphIds";
     public static final String KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE = "gaffer.federatedstore.operation.skipFailedFederatedStoreExecute";
     public static final String DEFAULT_VALUE_KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE = String.valueOf(false);
+    public static final String KEY_AGGREGATE_FEDERATED_RESULTS = "gaffer.federatedstore.operation.aggregateResults";
+    public static final String DEFAULT_VALUE_KEY_AGGREGATE_FEDERATED_RESULTS = String.valueOf(false);
     public static final String DEFAULT_VALUE_IS_PUBLIC = String.valueOf(false);
 
     private FederatedStoreConstants() {
@@ -33,4 +35,8 @@ public final class FederatedStoreConstants {
     public static String getSkipFailedFederatedStoreExecute(final Operation op) {
         return op.getOption(KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE, DEFAULT_VALUE_KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE);
     }
+
+    public static String getAggregateFederatedResults(final Operation op) {
+        return op.getOption(KEY_AGGREGATE_FEDERATED_RESULTS, DEFAULT_VALUE_KEY_AGGREGATE_FEDERATED_RESULTS);
+    }
 }
@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.federatedstore;
 
 import uk.gov.gchq.gaffer.cache.util.CacheProperties;
+import uk.gov.gchq.gaffer.federatedstore.util.FederatedGraphExecutor;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 
 import java.io.InputStream;
@@ -47,6 +48,31 @@ public class FederatedStoreProperties extends StoreProperties {
     public static final String CACHE_SERVICE_CLASS = CacheProperties.CACHE_SERVICE_CLASS;
     public static final String CACHE_SERVICE_CLASS_DEFAULT = null;
 
+    /**
+     * The number of threads used to execute operations on the sub-graphs
+     * concurrently. If set to 1 or less, which is the default, sub-graphs are
+     * executed one after another in the calling thread.
+     * e.g gaffer.federatedstore.graphExecutorThreads=10
+     */
+    public static final String GRAPH_EXECUTOR_THREADS = "gaffer.federatedstore.graphExecutorThreads";
+    public static final String GRAPH_EXECUTOR_THREADS_DEFAULT = String.valueOf(1);
+
+    /**
+     * The maximum number of items each sub-graph reads from a lazy iterable
+     * result when the sub-graphs are executed concurrently.
+     * e.g gaffer.federatedstore.graphExecutorPrefetchSize=10000
+     */
+    public static final String GRAPH_EXECUTOR_PREFETCH_SIZE = "gaffer.federatedstore.graphExecutorPrefetchSize";
+    public static final String GRAPH_EXECUTOR_PREFETCH_SIZE_DEFAULT = String.valueOf(FederatedGraphExecutor.DEFAULT_PREFETCH_SIZE);
+
+    /**
+     * The maximum time in milliseconds a sub-graph can take to execute an
+     * operation. This requires the sub-graphs to be executed concurrently.
+     * e.g gaffer.federatedstore.graphExecutionTimeout=60000
+     */
+    public static final String GRAPH_EXECUTION_TIMEOUT = "gaffer.federatedstore.graphExecutionTimeout";
+    public static final String GRAPH_EXECUTION_TIMEOUT_DEFAULT = null;
+
     public FederatedStoreProperties() {
         super(FederatedStore.class);
     }
@@ -79,6 +105,31 @@ public class FederatedStoreProperties extends StoreProperties {
         return this.get(CUSTOM_PROPERTIES_AUTHS, CUSTOM_PROPERTIES_AUTHS_DEFAULT);
     }
 
+    public int getGraphExecutorThreads() {
+        return Integer.parseInt(get(GRAPH_EXECUTOR_THREADS, GRAPH_EXECUTOR_THREADS_DEFAULT));
+    }
+
+    public void setGraphExecutorThreads(final int threads) {
+        set(GRAPH_EXECUTOR_THREADS, String.valueOf(threads));
+    }
+
+    public int getGraphExecutorPrefetchSize() {
+        return Integer.parseInt(get(GRAPH_EXECUTOR_PREFETCH_SIZE, GRAPH_EXECUTOR_PREFETCH_SIZE_DEFAULT));
+    }
+
+    public void setGraphExecutorPrefetchSize(final int prefetchSize) {
+        set(GRAPH_EXECUTOR_PREFETCH_SIZE, String.valueOf(prefetchSize));
+    }
+
+    public Long getGraphExecutionTimeout() {
+        final String timeout = get(GRAPH_EXECUTION_TIMEOUT, GRAPH_EXECUTION_TIMEOUT_DEFAULT);
+        return null != timeout ? Long.valueOf(timeout) : null;
+    }
+
+    public void setGraphExecutionTimeout(final Long timeout) {
+        set(GRAPH_EXECUTION_TIMEOUT, null != timeout ? String.valueOf(timeout) : null);
+    }
+
     public String getIsPublicAccessAllowed() {
         return get(IS_PUBLIC_ACCESS_ALLOWED, IS_PUBLIC_ACCESS_ALLOWED_DEFAULT);
     }
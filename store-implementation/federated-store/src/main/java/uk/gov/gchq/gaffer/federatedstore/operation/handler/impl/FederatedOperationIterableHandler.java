@@ -19,28 +19,48 @@ package uk.gov.gchq.gaffer.federatedstore.operation.handler.impl;
 import uk.gov.gchq.gaffer.commonutil.CollectionUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.federatedstore.operation.handler.FederatedAggregateHandler;
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.FederatedOperationOutputHandler;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.function.Aggregate;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 
 import java.util.List;
 
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getAggregateFederatedResults;
+
 /**
  * A generic handler for Operations with CloseableIterable of elements for FederatedStore.
  * Simply executes the operation on each delegate graph then chains the results together
  * using a {@link ChainedIterable}.
+ * <p>
+ * For operations that output Elements, the option
+ * {@value uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants#KEY_AGGREGATE_FEDERATED_RESULTS}
+ * can be set to true to aggregate the elements returned by the different graphs
+ * using the merged schema, in the same way as the {@link FederatedAggregateHandler}.
+ * The aggregated results are held in memory.
  *
  * @see FederatedOperationOutputHandler
  */
 public class FederatedOperationIterableHandler<OP extends Output<O>, O extends Iterable> extends FederatedOperationOutputHandler<OP, O> {
     @Override
-    protected O mergeResults(final List<O> results, final OP operation, final Context context, final Store store) {
+    protected O mergeResults(final List<O> results, final OP operation, final Context context, final Store store) throws OperationException {
         if (results.isEmpty()) {
             return (O) new EmptyClosableIterable<>();
         }
 
         // Concatenate all the results into 1 iterable
-        return (O) new ChainedIterable<>(CollectionUtil.toIterableArray(results));
+        final ChainedIterable merged = new ChainedIterable<>(CollectionUtil.toIterableArray(results));
+        if (results.size() > 1 && Boolean.valueOf(getAggregateFederatedResults(operation))) {
+            return (O) new FederatedAggregateHandler().doOperation(
+                    new Aggregate.Builder()
+                            .input((Iterable<? extends Element>) merged)
+                            .build(),
+                    context, store);
+        }
+        return (O) merged;
     }
 }
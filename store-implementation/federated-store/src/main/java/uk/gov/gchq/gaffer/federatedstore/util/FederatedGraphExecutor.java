@@ -0,0 +1,280 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.federatedstore.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.PrefetchedIterable;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.getSkipFailedFederatedStoreExecute;
+
+/**
+ * Executes an {@link Operation} against each of the sub-graphs of a
+ * {@link uk.gov.gchq.gaffer.federatedstore.FederatedStore}.
+ * <p>
+ * If an {@link ExecutorService} is provided the sub-graphs are executed
+ * concurrently. The results are still returned in the order of the graphs,
+ * so federated results remain deterministic, which means the results are only
+ * returned once the slowest graph has completed. To make use of that wait,
+ * each task also reads up to prefetchSize items from an iterable result that
+ * is not a {@link Collection}, so lazy results such as scans are read from the
+ * sub-graphs concurrently rather than one after another as they are merged.
+ * Each sub-graph can optionally be given a timeout in milliseconds, measured
+ * from when it starts executing, which includes reading the prefetched items.
+ * Without an {@link ExecutorService} the sub-graphs are executed one after
+ * another in the calling thread and no timeout is applied.
+ * <p>
+ * If the operation is executed from within a sub-graph operation, for example
+ * by a nested federated store, the sub-graphs are executed in the calling
+ * thread as well. This stops nested federated stores from using up the threads
+ * they are waiting on.
+ * <p>
+ * If a sub-graph fails or times out an {@link OperationException} is thrown,
+ * unless the operation has the skip failed execute option set.
+ */
+public class FederatedGraphExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FederatedGraphExecutor.class);
+
+    /**
+     * Whether the current thread is executing an operation on a sub-graph.
+     */
+    private static final ThreadLocal<Boolean> EXECUTING_ON_GRAPH = ThreadLocal.withInitial(() -> false);
+
+    public static final int DEFAULT_PREFETCH_SIZE = 10000;
+
+    private final ExecutorService executorService;
+    private final Long timeout;
+    private final int prefetchSize;
+
+    public FederatedGraphExecutor() {
+        this(null, null);
+    }
+
+    public FederatedGraphExecutor(final ExecutorService executorService, final Long timeout) {
+        this(executorService, timeout, DEFAULT_PREFETCH_SIZE);
+    }
+
+    public FederatedGraphExecutor(final ExecutorService executorService, final Long timeout, final int prefetchSize) {
+        this.executorService = executorService;
+        this.timeout = timeout;
+        this.prefetchSize = prefetchSize;
+    }
+
+    /**
+     * Executes the operation on each of the graphs, skipping any graphs the
+     * operation is not valid for.
+     *
+     * @param operation the operation to execute
+     * @param graphs    the graphs to execute the operation on
+     * @param context   the context
+     * @param <O>       the output type of the operation
+     * @return the non null results from each graph
+     * @throws OperationException if a graph fails and failures are not skipped
+     */
+    public <O> List<O> execute(final Operation operation, final Collection<Graph> graphs, final Context context) throws OperationException {
+        if (null == executorService || EXECUTING_ON_GRAPH.get()) {
+            return executeSequentially(operation, graphs, context);
+        }
+        return executeConcurrently(operation, graphs, context);
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    private <O> List<O> executeSequentially(final Operation operation, final Collection<Graph> graphs, final Context context) throws OperationException {
+        final List<O> results = new ArrayList<>(graphs.size());
+        for (final Graph graph : graphs) {
+            final Operation updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
+            if (null != updatedOp) {
+                O result = null;
+                try {
+                    result = executeOnGraph(updatedOp, graph, context);
+                } catch (final Exception e) {
+                    handleFailure(operation, updatedOp, graph, e);
+                }
+                if (null != result) {
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    private <O> List<O> executeConcurrently(final Operation operation, final Collection<Graph> graphs, final Context context) throws OperationException {
+        final CompletionService<O> completionService = new ExecutorCompletionService<>(executorService);
+        final Map<Future<O>, GraphTask<O>> pending = new LinkedHashMap<>();
+        for (final Graph graph : graphs) {
+            final Operation updatedOp = FederatedStoreUtil.updateOperationForGraph(operation, graph);
+            if (null != updatedOp) {
+                final GraphTask<O> task = new GraphTask<>(updatedOp, graph, context.shallowClone(), prefetchSize);
+                pending.put(completionService.submit(task), task);
+            }
+        }
+
+        final Map<GraphTask<O>, O> results = new LinkedHashMap<>(pending.size());
+        for (final GraphTask<O> task : pending.values()) {
+            results.put(task, null);
+        }
+        try {
+            while (!pending.isEmpty()) {
+                final Future<O> future = null == timeout
+                        ? completionService.take()
+                        : completionService.poll(getWaitTime(pending.values()), TimeUnit.MILLISECONDS);
+                if (null == future) {
+                    cancelTimedOut(operation, pending);
+                } else {
+                    final GraphTask<O> task = pending.remove(future);
+                    if (null != task) {
+                        results.put(task, getResult(operation, future, task));
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted whilst executing " + operation.getClass().getSimpleName() + " on the federated graphs", e);
+        } finally {
+            for (final Future<O> future : pending.keySet()) {
+                future.cancel(true);
+            }
+        }
+
+        final List<O> orderedResults = new ArrayList<>(results.size());
+        for (final O result : results.values()) {
+            if (null != result) {
+                orderedResults.add(result);
+            }
+        }
+        return orderedResults;
+    }
+
+    private <O> O getResult(final Operation operation, final Future<O> future, final GraphTask<O> task) throws OperationException, InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            final Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            handleFailure(operation, task.operation, task.graph, cause);
+            return null;
+        }
+    }
+
+    private <O> void cancelTimedOut(final Operation operation, final Map<Future<O>, GraphTask<O>> pending) throws OperationException {
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<Future<O>, GraphTask<O>>> itr = pending.entrySet().iterator();
+        while (itr.hasNext()) {
+            final Map.Entry<Future<O>, GraphTask<O>> entry = itr.next();
+            final GraphTask<O> task = entry.getValue();
+            if (task.isStarted() && now - task.startTime >= timeout) {
+                entry.getKey().cancel(true);
+                itr.remove();
+                LOGGER.warn("Execution of {} on graph {} timed out after {}ms", operation.getClass().getSimpleName(), task.graph.getGraphId(), timeout);
+                handleFailure(operation, task.operation, task.graph,
+                        new TimeoutException("Timed out after " + timeout + "ms"));
+            }
+        }
+    }
+
+    private long getWaitTime(final Collection<? extends GraphTask<?>> tasks) {
+        final long now = System.currentTimeMillis();
+        long waitTime = timeout;
+        for (final GraphTask<?> task : tasks) {
+            if (task.isStarted()) {
+                waitTime = Math.min(waitTime, task.startTime + timeout - now);
+            }
+        }
+        return Math.max(1, waitTime);
+    }
+
+    private void handleFailure(final Operation operation, final Operation updatedOp, final Graph graph, final Exception e) throws OperationException {
+        if (!Boolean.valueOf(getSkipFailedFederatedStoreExecute(updatedOp))) {
+            throw new OperationException(FederatedStoreUtil.createOperationErrorMsg(operation, graph.getGraphId(), e), e);
+        }
+    }
+
+    private static <O> O executeOnGraph(final Operation operation, final Graph graph, final Context context) throws OperationException {
+        if (operation instanceof Output) {
+            return graph.execute((Output<O>) operation, context);
+        }
+        graph.execute(operation, context);
+        return null;
+    }
+
+    private static final class GraphTask<O> implements Callable<O> {
+        private final Operation operation;
+        private final Graph graph;
+        private final Context context;
+        private final int prefetchSize;
+        private volatile long startTime;
+
+        private GraphTask(final Operation operation, final Graph graph, final Context context, final int prefetchSize) {
+            this.operation = operation;
+            this.graph = graph;
+            this.context = context;
+            this.prefetchSize = prefetchSize;
+        }
+
+        @Override
+        public O call() throws OperationException {
+            startTime = System.currentTimeMillis();
+            EXECUTING_ON_GRAPH.set(true);
+            try {
+                return prefetch(executeOnGraph(operation, graph, context));
+            } finally {
+                EXECUTING_ON_GRAPH.remove();
+            }
+        }
+
+        private O prefetch(final O result) {
+            if (result instanceof Iterable && !(result instanceof Collection) && prefetchSize > 0) {
+                return (O) new PrefetchedIterable<>((Iterable<?>) result, prefetchSize);
+            }
+            return result;
+        }
+
+        private boolean isStarted() {
+            return 0 != startTime;
+        }
+    }
+}
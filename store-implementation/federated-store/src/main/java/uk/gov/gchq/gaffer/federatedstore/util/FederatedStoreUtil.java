@@ -23,11 +23,13 @@ import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
 import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.Operations;
 import uk.gov.gchq.gaffer.operation.graph.OperationView;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.util.ArrayList;
@@ -51,6 +53,18 @@ public final class FederatedStoreUtil {
     private FederatedStoreUtil() {
     }
 
+    /**
+     * Gets the {@link FederatedGraphExecutor} for the store, or a sequential
+     * executor if the store does not have one.
+     *
+     * @param store the federated store
+     * @return the graph executor
+     */
+    public static FederatedGraphExecutor getGraphExecutor(final Store store) {
+        final FederatedGraphExecutor graphExecutor = ((FederatedStore) store).getGraphExecutor();
+        return null != graphExecutor ? graphExecutor : new FederatedGraphExecutor();
+    }
+
     public static String createOperationErrorMsg(final Operation operation, final String graphId, final Exception e) {
         final String additionalInfo = String.format("Set the skip and continue flag: %s for operation: %s",
                 KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE,
@@ -17,23 +17,43 @@
 package uk.gov.gchq.gaffer.federatedstore.operation.handler.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.federatedstore.FederatedStore;
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.FederatedOperationOutputHandler;
 import uk.gov.gchq.gaffer.federatedstore.operation.handler.FederatedOperationOutputHandlerTest;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_AGGREGATE_FEDERATED_RESULTS;
 
 public class FederatedGetElementsHandlerTest extends FederatedOperationOutputHandlerTest<GetElements, CloseableIterable<? extends Element>> {
 
@@ -80,4 +100,59 @@ public class FederatedGetElementsHandlerTest extends FederatedOperationOutputHan
         assertEquals(elements.size(), i);
         return true;
     }
+
+    @Test
+    public void shouldAggregateResultsFromGraphsWhenOptionSet() throws Exception {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .entity(TEST_ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(PROPERTY_TYPE, "int")
+                        .build())
+                .type("string", String.class)
+                .type("int", new TypeDefinition.Builder()
+                        .clazz(Integer.class)
+                        .aggregateFunction(new Sum())
+                        .build())
+                .build();
+
+        final FederatedStore mockStore = Mockito.mock(FederatedStore.class);
+        final LinkedHashSet<Graph> graphs = Sets.newLinkedHashSet();
+        graphs.add(getGraphWithEntity("graph1", 1));
+        graphs.add(getGraphWithEntity("graph2", 2));
+        given(mockStore.getGraphs(user, null)).willReturn(graphs);
+        given(mockStore.getSchema(any(Operation.class), any(Context.class))).willReturn(schema);
+
+        final GetElements op = new GetElements.Builder()
+                .option(KEY_AGGREGATE_FEDERATED_RESULTS, "true")
+                .build();
+
+        // When
+        final CloseableIterable<? extends Element> result = getFederatedHandler().doOperation(op, context, mockStore);
+
+        // Then
+        assertEquals(Collections.singletonList(createEntity(3)), Lists.newArrayList(result));
+    }
+
+    private Graph getGraphWithEntity(final String graphId, final int count) throws Exception {
+        final Store store = Mockito.mock(Store.class);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        given(store.execute(any(OperationChain.class), any(Context.class)))
+                .willReturn(new WrappedCloseableIterable<>(Collections.singletonList(createEntity(count))));
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(graphId)
+                        .build())
+                .store(store)
+                .build();
+    }
+
+    private Entity createEntity(final int count) {
+        return new Entity.Builder()
+                .group(TEST_ENTITY)
+                .vertex("vertex")
+                .property(PROPERTY_TYPE, count)
+                .build();
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.federatedstore.util;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.graph.GraphConfig;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static uk.gov.gchq.gaffer.federatedstore.FederatedStoreConstants.KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE;
+
+public class FederatedGraphExecutorTest {
+    private final Context context = new Context(new User());
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void after() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldExecuteOnGraphsSequentiallyWithoutExecutorService() throws Exception {
+        // Given
+        final Graph graph1 = createGraph("graph1", context -> "result1");
+        final Graph graph2 = createGraph("graph2", context -> "result2");
+
+        // When
+        final List<Object> results = new FederatedGraphExecutor().execute(new GetAllElements(), Arrays.asList(graph1, graph2), context);
+
+        // Then
+        assertEquals(Arrays.asList("result1", "result2"), results);
+    }
+
+    @Test
+    public void shouldExecuteOnGraphsConcurrently() throws Exception {
+        // Given
+        final CountDownLatch latch = new CountDownLatch(2);
+        final GraphAction waitForOtherGraph = context -> {
+            latch.countDown();
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Graphs were not executed concurrently");
+            }
+            return "result";
+        };
+        final Graph graph1 = createGraph("graph1", waitForOtherGraph);
+        final Graph graph2 = createGraph("graph2", waitForOtherGraph);
+
+        // When
+        final List<Object> results = new FederatedGraphExecutor(executorService, null).execute(new GetAllElements(), Arrays.asList(graph1, graph2), context);
+
+        // Then
+        assertEquals(Arrays.asList("result", "result"), results);
+    }
+
+    @Test
+    public void shouldReturnResultsInGraphOrder() throws Exception {
+        // Given
+        final CountDownLatch fastGraphComplete = new CountDownLatch(1);
+        final Graph slowGraph = createGraph("slowGraph", context -> {
+            fastGraphComplete.await(10, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            return "slow";
+        });
+        final Graph fastGraph = createGraph("fastGraph", context -> {
+            fastGraphComplete.countDown();
+            return "fast";
+        });
+
+        // When
+        final List<Object> results = new FederatedGraphExecutor(executorService, null).execute(new GetAllElements(), Arrays.asList(slowGraph, fastGraph), context);
+
+        // Then
+        assertEquals(Arrays.asList("slow", "fast"), results);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenGraphTimesOut() throws Exception {
+        // Given
+        final Graph slowGraph = createGraph("slowGraph", context -> {
+            Thread.sleep(10000);
+            return "slow";
+        });
+        final Graph fastGraph = createGraph("fastGraph", context -> "fast");
+
+        // When / Then
+        try {
+            new FederatedGraphExecutor(executorService, 1000L).execute(new GetAllElements(), Arrays.asList(slowGraph, fastGraph), context);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("slowGraph"));
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void shouldSkipGraphThatTimesOutWhenSkipFailedOptionSet() throws Exception {
+        // Given
+        final Graph slowGraph = createGraph("slowGraph", context -> {
+            Thread.sleep(10000);
+            return "slow";
+        });
+        final Graph fastGraph = createGraph("fastGraph", context -> "fast");
+        final GetAllElements operation = new GetAllElements.Builder()
+                .option(KEY_SKIP_FAILED_FEDERATED_STORE_EXECUTE, "true")
+                .build();
+
+        // When
+        final List<Object> results = new FederatedGraphExecutor(executorService, 1000L).execute(operation, Arrays.asList(slowGraph, fastGraph), context);
+
+        // Then
+        assertEquals(Arrays.asList("fast"), results);
+    }
+
+    @Test
+    public void shouldReadLazyResultsInTheExecutorThreads() throws Exception {
+        // Given
+        final Set<Thread> readingThreads = ConcurrentHashMap.newKeySet();
+        final GraphAction lazyResult = context -> (Iterable<String>) () -> {
+            readingThreads.add(Thread.currentThread());
+            return Arrays.asList("a", "b").iterator();
+        };
+        final Graph graph1 = createGraph("graph1", lazyResult);
+        final Graph graph2 = createGraph("graph2", lazyResult);
+
+        // When
+        final List<Object> results = new FederatedGraphExecutor(executorService, null, 1).execute(new GetAllElements(), Arrays.asList(graph1, graph2), context);
+
+        // Then
+        assertFalse(readingThreads.isEmpty());
+        assertFalse(readingThreads.contains(Thread.currentThread()));
+        for (final Object result : results) {
+            assertEquals(Arrays.asList("a", "b"), Lists.newArrayList((Iterable<?>) result));
+        }
+    }
+
+    @Test
+    public void shouldExecuteNestedOperationsInTheCallingThread() throws Exception {
+        // Given
+        final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+        final FederatedGraphExecutor graphExecutor = new FederatedGraphExecutor(singleThreadExecutor, null);
+        final Graph nestedGraph1 = createGraph("nestedGraph1", context -> "nested1");
+        final Graph nestedGraph2 = createGraph("nestedGraph2", context -> "nested2");
+        final Graph graph = createGraph("graph", context ->
+                graphExecutor.execute(new GetAllElements(), Arrays.asList(nestedGraph1, nestedGraph2), context));
+
+        // When
+        final List<Object> results;
+        try {
+            results = graphExecutor.execute(new GetAllElements(), Collections.singletonList(graph), context);
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(Collections.singletonList(Arrays.asList("nested1", "nested2")), results);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenGraphFailsConcurrently() throws Exception {
+        // Given
+        final Graph failingGraph = createGraph("failingGraph", context -> {
+            throw new RuntimeException("Test Exception");
+        });
+        final Graph graph = createGraph("graph", context -> "result");
+
+        // When / Then
+        try {
+            new FederatedGraphExecutor(executorService, null).execute(new GetAllElements(), Arrays.asList(failingGraph, graph), context);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertEquals("Test Exception", e.getCause().getMessage());
+        }
+    }
+
+    private Graph createGraph(final String graphId, final GraphAction action) throws OperationException {
+        final Store store = Mockito.mock(Store.class);
+        given(store.getGraphId()).willReturn(graphId);
+        given(store.getSchema()).willReturn(new Schema());
+        given(store.getProperties()).willReturn(new StoreProperties());
+        given(store.execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> action.execute((Context) invocation.getArguments()[1]));
+        return new Graph.Builder()
+                .config(new GraphConfig.Builder()
+                        .graphId(graphId)
+                        .build())
+                .store(store)
+                .build();
+    }
+
+    private interface GraphAction {
+        Object execute(final Context context) throws Exception;
+    }
+}
@@ -15,12 +15,16 @@
  */
 package uk.gov.gchq.gaffer.mapstore;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import uk.gov.gchq.gaffer.mapstore.factory.MapFactory;
 import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Additional {@link StoreProperties} for the {@link MapStore}.
@@ -38,6 +42,14 @@ public class MapStoreProperties extends StoreProperties {
     public static final String STATIC_MAP = "gaffer.store.mapstore.static";
     public static final String STATIC_MAP_DEFAULT = "false";
 
+    /**
+     * Property name for enabling concurrent ingest. If set to true then
+     * elements can be added to the store from multiple threads at the same
+     * time and the default map and multi map classes are thread-safe.
+     */
+    public static final String CONCURRENT = "gaffer.store.mapstore.concurrent";
+    public static final String CONCURRENT_DEFAULT = "false";
+
     /**
      * Property name for the ingest buffer size. If the value is set to less
      * than 1 then
@@ -47,6 +59,22 @@ public class MapStoreProperties extends StoreProperties {
     public static final String INGEST_BUFFER_SIZE = "gaffer.store.mapstore.map.ingest.buffer.size";
     public static final int INGEST_BUFFER_SIZE_DEFAULT = 0;
 
+    /**
+     * Property name for the number of partitions used to aggregate each
+     * ingest buffer. If set to more than 1 and the executor service is
+     * enabled, the partitions are aggregated in parallel.
+     */
+    public static final String INGEST_AGGREGATION_PARTITIONS = "gaffer.store.mapstore.map.ingest.aggregation.partitions";
+    public static final int INGEST_AGGREGATION_PARTITIONS_DEFAULT = 1;
+
+    /**
+     * Property name for a comma separated list of additional property classes
+     * that are immutable, so property values of these classes are shared
+     * rather than cloned when elements are cloned. These are added to the
+     * {@link uk.gov.gchq.gaffer.mapstore.utils.ElementCloner#DEFAULT_IMMUTABLE_CLASSES}.
+     */
+    public static final String IMMUTABLE_CLASSES = "gaffer.store.mapstore.clone.immutable.classes";
+
     public MapStoreProperties() {
         super(MapStore.class);
     }
@@ -113,6 +141,19 @@ public class MapStoreProperties extends StoreProperties {
         set(INGEST_BUFFER_SIZE, String.valueOf(ingestBufferSize));
     }
 
+    public int getIngestAggregationPartitions() {
+        final String partitions = get(INGEST_AGGREGATION_PARTITIONS, null);
+        if (null == partitions) {
+            return INGEST_AGGREGATION_PARTITIONS_DEFAULT;
+        }
+
+        return Integer.parseInt(partitions);
+    }
+
+    public void setIngestAggregationPartitions(final int ingestAggregationPartitions) {
+        set(INGEST_AGGREGATION_PARTITIONS, String.valueOf(ingestAggregationPartitions));
+    }
+
     public boolean isStaticMap() {
         return Boolean.parseBoolean(get(STATIC_MAP, STATIC_MAP_DEFAULT));
     }
@@ -120,4 +161,27 @@ public class MapStoreProperties extends StoreProperties {
     public void setStaticMap(final boolean staticMap) {
         set(STATIC_MAP, Boolean.toString(staticMap));
     }
+
+    public String getImmutableClasses() {
+        return get(IMMUTABLE_CLASSES, "");
+    }
+
+    @JsonIgnore
+    public void setImmutableClasses(final Set<Class<?>> immutableClasses) {
+        setImmutableClasses(immutableClasses.stream()
+                .map(Class::getName)
+                .collect(Collectors.joining(",")));
+    }
+
+    public void setImmutableClasses(final String immutableClasses) {
+        set(IMMUTABLE_CLASSES, immutableClasses);
+    }
+
+    public boolean isConcurrent() {
+        return Boolean.parseBoolean(get(CONCURRENT, CONCURRENT_DEFAULT));
+    }
+
+    public void setConcurrent(final boolean concurrent) {
+        set(CONCURRENT, Boolean.toString(concurrent));
+    }
 }
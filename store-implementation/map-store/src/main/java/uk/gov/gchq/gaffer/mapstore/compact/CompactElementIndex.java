@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@code CompactElementIndex} is a {@link MultiMap} from an {@link EntityId}
+ * or {@link EdgeId} to the {@link Element}s held in the
+ * {@link CompactElementMap}s of a {@link CompactElementStore}.
+ * <p>
+ * The index is held as an array of long references for each interned vertex,
+ * each reference containing the id of the map, the index of the element
+ * within the map and whether the destination of an edge was matched. An
+ * {@link EdgeId} index holds the edges against their source vertex and
+ * filters them on their destination and directed flag when they are looked up.
+ * <p>
+ * Elements must be added to a map in the store before they are indexed, any
+ * other elements are ignored. Elements must be indexed against their own
+ * vertices, as the index records which elements have already been indexed
+ * rather than checking the references held for each vertex.
+ *
+ * @param <K> the type of the keys, either {@link EntityId} or {@link EdgeId}
+ */
+public class CompactElementIndex<K> implements MultiMap<K, Element> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_REFERENCES = 2;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    private static final long DESTINATION_MATCHED = 1L << 32;
+    private static final int MAP_ID_SHIFT = 33;
+
+    private final CompactElementStore store;
+    private final VertexDictionary vertices;
+    private final boolean isEdgeIdIndex;
+    private final List<BitSet> indexed = new ArrayList<>();
+
+    private long[][] references;
+    private int[] counts;
+
+    CompactElementIndex(final CompactElementStore store, final boolean isEdgeIdIndex) {
+        this.store = store;
+        this.vertices = store.getVertices();
+        this.isEdgeIdIndex = isEdgeIdIndex;
+        reset();
+    }
+
+    @Override
+    public boolean put(final K key, final Element value) {
+        CompactElementMap<?> map = null;
+        int index = -1;
+        for (final CompactElementMap<?> groupMap : store.getMaps(value.getGroup())) {
+            index = groupMap.isEmpty() ? -1 : groupMap.indexOf(value);
+            if (index > -1) {
+                map = groupMap;
+                break;
+            }
+        }
+        if (null == map) {
+            // Only elements held in the store can be indexed
+            return false;
+        }
+
+        final boolean destinationMatched = !isEdgeIdIndex && value instanceof Edge
+                && EdgeId.MatchedVertex.DESTINATION == ((Edge) value).getMatchedVertex();
+        if (destinationMatched && map.getSourceId(index) == map.getDestinationId(index)) {
+            // A self loop is only indexed once against its vertex
+            return false;
+        }
+
+        final int bitSetId = map.getId() * 2 + (destinationMatched ? 1 : 0);
+        while (indexed.size() <= bitSetId) {
+            indexed.add(new BitSet());
+        }
+        final BitSet indexedElements = indexed.get(bitSetId);
+        if (indexedElements.get(index)) {
+            return false;
+        }
+        indexedElements.set(index);
+
+        final long reference = ((long) map.getId() << MAP_ID_SHIFT)
+                | (destinationMatched ? DESTINATION_MATCHED : 0L)
+                | (index & INDEX_MASK);
+        addReference(vertices.intern(getVertex(key)), reference);
+        return true;
+    }
+
+    @Override
+    public void put(final K key, final Collection<Element> values) {
+        for (final Element value : values) {
+            put(key, value);
+        }
+    }
+
+    @Override
+    public Collection<Element> get(final K key) {
+        final int vertexId = vertices.getId(getVertex(key));
+        if (VertexDictionary.NOT_FOUND == vertexId || vertexId >= counts.length || 0 == counts[vertexId]) {
+            return null;
+        }
+
+        final List<Element> elements = new ArrayList<>(counts[vertexId]);
+        if (isEdgeIdIndex) {
+            final EdgeId edgeId = (EdgeId) key;
+            final int destinationId = vertices.getId(edgeId.getDestination());
+            if (VertexDictionary.NOT_FOUND == destinationId) {
+                return null;
+            }
+            for (int i = 0; i < counts[vertexId]; i++) {
+                final long reference = references[vertexId][i];
+                final CompactElementMap<?> map = store.getMap((int) (reference >>> MAP_ID_SHIFT));
+                final int index = (int) (reference & INDEX_MASK);
+                if (map.getDestinationId(index) == destinationId && map.isDirected(index) == edgeId.isDirected()) {
+                    elements.add(map.getKey(index, EdgeId.MatchedVertex.SOURCE));
+                }
+            }
+        } else {
+            for (int i = 0; i < counts[vertexId]; i++) {
+                elements.add(getElement(references[vertexId][i]));
+            }
+        }
+
+        return elements.isEmpty() ? null : elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Set<K> keySet() {
+        final Set<Object> keys = new HashSet<>();
+        for (int vertexId = 0; vertexId < counts.length; vertexId++) {
+            for (int i = 0; i < counts[vertexId]; i++) {
+                if (isEdgeIdIndex) {
+                    final Edge edge = (Edge) getElement(references[vertexId][i]);
+                    keys.add(new EdgeSeed(edge.getSource(), edge.getDestination(), edge.isDirected()));
+                } else {
+                    keys.add(new EntitySeed(vertices.getVertex(vertexId)));
+                    break;
+                }
+            }
+        }
+        return (Set<K>) keys;
+    }
+
+    @Override
+    public void clear() {
+        reset();
+    }
+
+    private void reset() {
+        references = new long[INITIAL_CAPACITY][];
+        counts = new int[INITIAL_CAPACITY];
+        indexed.clear();
+    }
+
+    private Object getVertex(final K key) {
+        return isEdgeIdIndex ? ((EdgeId) key).getSource() : ((EntityId) key).getVertex();
+    }
+
+    private Element getElement(final long reference) {
+        final CompactElementMap<?> map = store.getMap((int) (reference >>> MAP_ID_SHIFT));
+        final EdgeId.MatchedVertex matchedVertex;
+        if (!map.isEdge()) {
+            matchedVertex = null;
+        } else if (0 != (reference & DESTINATION_MATCHED)) {
+            matchedVertex = EdgeId.MatchedVertex.DESTINATION;
+        } else {
+            matchedVertex = EdgeId.MatchedVertex.SOURCE;
+        }
+        return map.getKey((int) (reference & INDEX_MASK), matchedVertex);
+    }
+
+    private void addReference(final int vertexId, final long reference) {
+        if (vertexId >= counts.length) {
+            final int capacity = Math.max(vertexId + 1, counts.length * 2);
+            references = Arrays.copyOf(references, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+
+        long[] vertexReferences = references[vertexId];
+        if (null == vertexReferences) {
+            vertexReferences = new long[INITIAL_REFERENCES];
+            references[vertexId] = vertexReferences;
+        } else if (counts[vertexId] == vertexReferences.length) {
+            vertexReferences = Arrays.copyOf(vertexReferences, vertexReferences.length * 2);
+            references[vertexId] = vertexReferences;
+        }
+        vertexReferences[counts[vertexId]++] = reference;
+    }
+}
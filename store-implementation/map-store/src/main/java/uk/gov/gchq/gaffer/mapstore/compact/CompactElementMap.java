@@ -0,0 +1,421 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * A {@code CompactElementMap} is a {@link java.util.Map} from the {@link Element}s of a
+ * single group to a value, which holds its contents column-wise rather than
+ * as {@link Element} objects.
+ * <p>
+ * The vertices of each element are interned to int ids using a shared
+ * {@link VertexDictionary} and held in primitive arrays. The properties of
+ * the element keys are serialised into a single byte slab using a
+ * {@link PropertiesCodec} and the values are held in a {@link ValueColumn}.
+ * Entries are located using an open addressing hash table of entry indices.
+ * Elements are only materialised when they are read from the map, so each
+ * {@link Element} returned is a new instance.
+ * <p>
+ * Entries cannot be removed from the map, other than by clearing it.
+ *
+ * @param <V> the type of the values
+ */
+public class CompactElementMap<V> extends AbstractMap<Element, V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int id;
+    private final String group;
+    private final boolean isEdge;
+    private final VertexDictionary vertices;
+    private final PropertiesCodec keyCodec;
+    private final ValueColumn<V> values;
+
+    private int size;
+    private int[] table;
+    private int[] hashes;
+    private int[] sources;
+    private int[] destinations;
+    private BitSet directed;
+    private byte[] keySlab;
+    private int[] keyOffsets;
+
+    CompactElementMap(final int id,
+                      final String group,
+                      final boolean isEdge,
+                      final VertexDictionary vertices,
+                      final PropertiesCodec keyCodec,
+                      final ValueColumn<V> values) {
+        this.id = id;
+        this.group = group;
+        this.isEdge = isEdge;
+        this.vertices = vertices;
+        this.keyCodec = keyCodec;
+        this.values = values;
+        reset();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public boolean isEdge() {
+        return isEdge;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final Key compactKey = toKey(key, false);
+        return null != compactKey && find(compactKey) > -1;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final Key compactKey = toKey(key, false);
+        if (null == compactKey) {
+            return null;
+        }
+
+        final int index = find(compactKey);
+        return index > -1 ? values.get(index) : null;
+    }
+
+    @Override
+    public V put(final Element key, final V value) {
+        final Key compactKey = toValidKey(key);
+        final int index = find(compactKey);
+        if (index < 0) {
+            insert(compactKey, value);
+            return null;
+        }
+
+        final V previous = values.get(index);
+        values.set(index, value);
+        return previous;
+    }
+
+    @Override
+    public V merge(final Element key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        final Key compactKey = toValidKey(key);
+        final int index = find(compactKey);
+        if (index < 0) {
+            insert(compactKey, value);
+            return value;
+        }
+
+        final V newValue = remappingFunction.apply(values.get(index), value);
+        if (null == newValue) {
+            throw new UnsupportedOperationException("Elements cannot be removed from a " + getClass().getSimpleName());
+        }
+        values.set(index, newValue);
+        return newValue;
+    }
+
+    @Override
+    public void clear() {
+        reset();
+        values.clear();
+    }
+
+    @Override
+    public Set<Entry<Element, V>> entrySet() {
+        return new AbstractSet<Entry<Element, V>>() {
+            @Override
+            public Iterator<Entry<Element, V>> iterator() {
+                return new IndexIterator<>(i -> new SimpleImmutableEntry<>(getKey(i, null), values.get(i)));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new IndexIterator<>(values::get);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Gets the index of an element key within this map.
+     *
+     * @param element the element key
+     * @return the index or -1 if the element is not in the map
+     */
+    public int indexOf(final Element element) {
+        final Key compactKey = toKey(element, false);
+        return null != compactKey ? find(compactKey) : -1;
+    }
+
+    /**
+     * Materialises the element key at the given index.
+     *
+     * @param index         the index of the element key
+     * @param matchedVertex the matched vertex to set on an edge
+     * @return a new element
+     */
+    public Element getKey(final int index, final EdgeId.MatchedVertex matchedVertex) {
+        final Properties properties = new Properties();
+        if (!keyCodec.isEmpty()) {
+            keyCodec.deserialise(keySlab, keyOffsets[index], properties);
+        }
+
+        if (isEdge) {
+            return new Edge(group, vertices.getVertex(sources[index]), vertices.getVertex(destinations[index]),
+                    directed.get(index), matchedVertex, properties);
+        }
+        return new Entity(group, vertices.getVertex(sources[index]), properties);
+    }
+
+    /**
+     * Gets the id of the vertex of an entity or the source of an edge.
+     *
+     * @param index the index of the element key
+     * @return the vertex id
+     */
+    public int getSourceId(final int index) {
+        return sources[index];
+    }
+
+    public int getDestinationId(final int index) {
+        return destinations[index];
+    }
+
+    public boolean isDirected(final int index) {
+        return directed.get(index);
+    }
+
+    private void reset() {
+        size = 0;
+        table = new int[INITIAL_CAPACITY * 2];
+        hashes = new int[INITIAL_CAPACITY];
+        sources = new int[INITIAL_CAPACITY];
+        destinations = isEdge ? new int[INITIAL_CAPACITY] : null;
+        directed = new BitSet();
+        keySlab = new byte[keyCodec.isEmpty() ? 0 : INITIAL_CAPACITY * 8];
+        keyOffsets = new int[INITIAL_CAPACITY + 1];
+    }
+
+    private Key toValidKey(final Element element) {
+        final Key compactKey = toKey(element, true);
+        if (null == compactKey) {
+            throw new IllegalArgumentException("Element is not valid for group " + group + ": " + element);
+        }
+        return compactKey;
+    }
+
+    private Key toKey(final Object obj, final boolean intern) {
+        if (!(obj instanceof Element) || !group.equals(((Element) obj).getGroup())) {
+            return null;
+        }
+
+        final int sourceId;
+        final int destinationId;
+        final boolean isDirected;
+        if (isEdge) {
+            if (!(obj instanceof Edge)) {
+                return null;
+            }
+            final Edge edge = (Edge) obj;
+            sourceId = getVertexId(edge.getSource(), intern);
+            destinationId = getVertexId(edge.getDestination(), intern);
+            isDirected = edge.isDirected();
+        } else {
+            if (!(obj instanceof Entity)) {
+                return null;
+            }
+            sourceId = getVertexId(((Entity) obj).getVertex(), intern);
+            destinationId = 0;
+            isDirected = false;
+        }
+
+        if (VertexDictionary.NOT_FOUND == sourceId || VertexDictionary.NOT_FOUND == destinationId) {
+            return null;
+        }
+
+        return new Key(sourceId, destinationId, isDirected, keyCodec.serialise(((Element) obj).getProperties()));
+    }
+
+    private int getVertexId(final Object vertex, final boolean intern) {
+        return intern ? vertices.intern(vertex) : vertices.getId(vertex);
+    }
+
+    private int find(final Key key) {
+        final int mask = table.length - 1;
+        int slot = key.hash & mask;
+        while (true) {
+            final int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (matches(index, key)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(final int index, final Key key) {
+        if (hashes[index] != key.hash || sources[index] != key.sourceId) {
+            return false;
+        }
+        if (isEdge && (destinations[index] != key.destinationId || directed.get(index) != key.directed)) {
+            return false;
+        }
+
+        final int offset = keyOffsets[index];
+        if (keyOffsets[index + 1] - offset != key.properties.length) {
+            return false;
+        }
+        for (int i = 0; i < key.properties.length; i++) {
+            if (keySlab[offset + i] != key.properties[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(final Key key, final V value) {
+        final int index = size;
+        ensureCapacity(index + 1);
+
+        hashes[index] = key.hash;
+        sources[index] = key.sourceId;
+        if (isEdge) {
+            destinations[index] = key.destinationId;
+            directed.set(index, key.directed);
+        }
+
+        final int offset = keyOffsets[index];
+        if (offset + key.properties.length > keySlab.length) {
+            keySlab = Arrays.copyOf(keySlab, Math.max(offset + key.properties.length, keySlab.length * 2));
+        }
+        System.arraycopy(key.properties, 0, keySlab, offset, key.properties.length);
+        keyOffsets[index + 1] = offset + key.properties.length;
+
+        values.set(index, value);
+        addToTable(index);
+        size++;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > hashes.length) {
+            final int newLength = hashes.length * 2;
+            hashes = Arrays.copyOf(hashes, newLength);
+            sources = Arrays.copyOf(sources, newLength);
+            if (isEdge) {
+                destinations = Arrays.copyOf(destinations, newLength);
+            }
+            keyOffsets = Arrays.copyOf(keyOffsets, newLength + 1);
+        }
+
+        // Keep the load factor of the hash table below 0.75
+        if (capacity * 4 > table.length * 3) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                addToTable(i);
+            }
+        }
+    }
+
+    private void addToTable(final int index) {
+        final int mask = table.length - 1;
+        int slot = hashes[index] & mask;
+        while (0 != table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private static final class Key {
+        private final int sourceId;
+        private final int destinationId;
+        private final boolean directed;
+        private final byte[] properties;
+        private final int hash;
+
+        private Key(final int sourceId, final int destinationId, final boolean directed, final byte[] properties) {
+            this.sourceId = sourceId;
+            this.destinationId = destinationId;
+            this.directed = directed;
+            this.properties = properties;
+
+            int h = sourceId;
+            h = 31 * h + destinationId;
+            h = 31 * h + (directed ? 1 : 0);
+            h = 31 * h + Arrays.hashCode(properties);
+            this.hash = h ^ (h >>> 16);
+        }
+    }
+
+    private final class IndexIterator<T> implements Iterator<T> {
+        private final IntFunction<T> getter;
+        private int index;
+
+        private IndexIterator(final IntFunction<T> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return getter.apply(index++);
+        }
+    }
+}
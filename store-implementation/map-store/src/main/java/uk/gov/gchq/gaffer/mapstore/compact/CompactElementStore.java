@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code CompactElementStore} creates the {@link CompactElementMap}s and
+ * {@link CompactElementIndex}es for a schema. All of the maps and indexes
+ * created by a store share a single {@link VertexDictionary}, and the indexes
+ * refer to the elements in the maps by their position rather than holding
+ * references to {@link uk.gov.gchq.gaffer.data.element.Element} objects.
+ */
+public class CompactElementStore {
+    private final Schema schema;
+    private final VertexDictionary vertices = new VertexDictionary();
+    private final List<CompactElementMap<?>> maps = new ArrayList<>();
+    private final Map<String, List<CompactElementMap<?>>> groupToMaps = new HashMap<>();
+    private final List<CompactElementIndex<?>> indexes = new ArrayList<>();
+
+    public CompactElementStore(final Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Creates a map from elements containing only their group-by properties
+     * to the rest of their properties.
+     *
+     * @param group the group of the elements
+     * @return the new map
+     */
+    public CompactElementMap<GroupedProperties> createAggElementsMap(final String group) {
+        final SchemaElementDefinition elementDef = getElementDefinition(group);
+        final Set<String> nonGroupByProperties = new LinkedHashSet<>(elementDef.getProperties());
+        nonGroupByProperties.removeAll(elementDef.getGroupBy());
+        return addMap(group, elementDef, elementDef.getGroupBy(),
+                new PropertiesColumn(group, new PropertiesCodec(nonGroupByProperties, elementDef)));
+    }
+
+    /**
+     * Creates a map from elements to the number of times they have been added.
+     *
+     * @param group the group of the elements
+     * @return the new map
+     */
+    public CompactElementMap<Long> createNonAggElementsMap(final String group) {
+        final SchemaElementDefinition elementDef = getElementDefinition(group);
+        return addMap(group, elementDef, elementDef.getProperties(), new LongColumn());
+    }
+
+    public CompactElementIndex<EntityId> createEntityIdIndex() {
+        return addIndex(new CompactElementIndex<>(this, false));
+    }
+
+    public CompactElementIndex<EdgeId> createEdgeIdIndex() {
+        return addIndex(new CompactElementIndex<>(this, true));
+    }
+
+    public VertexDictionary getVertices() {
+        return vertices;
+    }
+
+    public void clear() {
+        maps.forEach(CompactElementMap::clear);
+        indexes.forEach(CompactElementIndex::clear);
+        vertices.clear();
+    }
+
+    CompactElementMap<?> getMap(final int id) {
+        return maps.get(id);
+    }
+
+    List<CompactElementMap<?>> getMaps(final String group) {
+        return groupToMaps.getOrDefault(group, Collections.emptyList());
+    }
+
+    private SchemaElementDefinition getElementDefinition(final String group) {
+        final SchemaElementDefinition elementDef = schema.getElement(group);
+        if (null == elementDef) {
+            throw new IllegalArgumentException("Group " + group + " was not found in the schema");
+        }
+        return elementDef;
+    }
+
+    private <V> CompactElementMap<V> addMap(final String group,
+                                            final SchemaElementDefinition elementDef,
+                                            final Set<String> keyProperties,
+                                            final ValueColumn<V> values) {
+        final CompactElementMap<V> map = new CompactElementMap<>(maps.size(), group,
+                schema.getEdgeGroups().contains(group), vertices,
+                new PropertiesCodec(keyProperties, elementDef), values);
+        maps.add(map);
+        groupToMaps.computeIfAbsent(group, g -> new ArrayList<>()).add(map);
+        return map;
+    }
+
+    private <K> CompactElementIndex<K> addIndex(final CompactElementIndex<K> index) {
+        indexes.add(index);
+        return index;
+    }
+}
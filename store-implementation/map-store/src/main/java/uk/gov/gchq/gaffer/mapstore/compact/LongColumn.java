@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ValueColumn} holding counts in a primitive long array.
+ */
+class LongColumn implements ValueColumn<Long> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    @Override
+    public Long get(final int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(final int index, final Long value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        }
+        values[index] = value;
+    }
+
+    @Override
+    public void clear() {
+        values = new long[INITIAL_CAPACITY];
+    }
+}
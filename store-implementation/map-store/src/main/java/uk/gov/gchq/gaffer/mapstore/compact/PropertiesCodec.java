@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collection;
+
+/**
+ * A {@code PropertiesCodec} serialises a fixed list of properties of a group
+ * into a single byte array, using the serialisers from the schema. Each
+ * property is written as a variable length size followed by the serialised
+ * value, with a size of 0 representing a null value. Properties without a
+ * {@link ToBytesSerialiser} are serialised with a {@link JavaSerialiser}.
+ */
+public class PropertiesCodec {
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private final String[] propertyNames;
+    private final ToBytesSerialiser<Object>[] serialisers;
+
+    @SuppressWarnings("unchecked")
+    public PropertiesCodec(final Collection<String> propertyNames, final SchemaElementDefinition elementDefinition) {
+        this.propertyNames = propertyNames.toArray(new String[propertyNames.size()]);
+        this.serialisers = new ToBytesSerialiser[this.propertyNames.length];
+        for (int i = 0; i < this.propertyNames.length; i++) {
+            final TypeDefinition typeDef = elementDefinition.getPropertyTypeDef(this.propertyNames[i]);
+            final Serialiser serialiser = null != typeDef ? typeDef.getSerialiser() : null;
+            serialisers[i] = serialiser instanceof ToBytesSerialiser ? (ToBytesSerialiser) serialiser : new JavaSerialiser();
+        }
+    }
+
+    public boolean isEmpty() {
+        return 0 == propertyNames.length;
+    }
+
+    public byte[] serialise(final Properties properties) {
+        if (isEmpty()) {
+            return EMPTY_BYTES;
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (int i = 0; i < propertyNames.length; i++) {
+                final Object value = properties.get(propertyNames[i]);
+                if (null == value) {
+                    writeInt(0, out);
+                } else {
+                    final byte[] bytes = serialisers[i].serialise(value);
+                    writeInt(bytes.length + 1, out);
+                    out.write(bytes, 0, bytes.length);
+                }
+            }
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise properties", e);
+        }
+        return out.toByteArray();
+    }
+
+    public void deserialise(final byte[] bytes, final int offset, final Properties properties) {
+        final int[] position = {offset};
+        try {
+            for (int i = 0; i < propertyNames.length; i++) {
+                final int size = readInt(bytes, position) - 1;
+                if (size < 0) {
+                    properties.put(propertyNames[i], null);
+                } else {
+                    properties.put(propertyNames[i], serialisers[i].deserialise(bytes, position[0], size));
+                    position[0] += size;
+                }
+            }
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise properties", e);
+        }
+    }
+
+    private static void writeInt(final int value, final ByteArrayOutputStream out) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static int readInt(final byte[] bytes, final int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
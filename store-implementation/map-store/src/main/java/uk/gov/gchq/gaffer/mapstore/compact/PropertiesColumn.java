@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ValueColumn} holding {@link GroupedProperties} serialised into a
+ * single byte slab. Updated values are written in place when they fit,
+ * otherwise they are appended to the slab and the slab is compacted once
+ * more than half of it is no longer in use.
+ */
+class PropertiesColumn implements ValueColumn<GroupedProperties> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_SLAB_SIZE = 1024;
+
+    private final String group;
+    private final PropertiesCodec codec;
+
+    private byte[] slab = new byte[INITIAL_SLAB_SIZE];
+    private int slabSize;
+    private int unusedBytes;
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int count;
+
+    PropertiesColumn(final String group, final PropertiesCodec codec) {
+        this.group = group;
+        this.codec = codec;
+    }
+
+    @Override
+    public GroupedProperties get(final int index) {
+        final GroupedProperties properties = new GroupedProperties(group);
+        codec.deserialise(slab, offsets[index], properties);
+        return properties;
+    }
+
+    @Override
+    public void set(final int index, final GroupedProperties value) {
+        final byte[] bytes = codec.serialise(value);
+        if (index < count) {
+            if (bytes.length <= lengths[index]) {
+                System.arraycopy(bytes, 0, slab, offsets[index], bytes.length);
+                unusedBytes += lengths[index] - bytes.length;
+                lengths[index] = bytes.length;
+                return;
+            }
+            unusedBytes += lengths[index];
+            lengths[index] = 0;
+        } else {
+            count = index + 1;
+            if (count > offsets.length) {
+                final int capacity = Math.max(count, offsets.length * 2);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+        }
+
+        ensureSlabCapacity(bytes.length);
+        System.arraycopy(bytes, 0, slab, slabSize, bytes.length);
+        offsets[index] = slabSize;
+        lengths[index] = bytes.length;
+        slabSize += bytes.length;
+    }
+
+    @Override
+    public void clear() {
+        slab = new byte[INITIAL_SLAB_SIZE];
+        slabSize = 0;
+        unusedBytes = 0;
+        offsets = new int[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        count = 0;
+    }
+
+    private void ensureSlabCapacity(final int extraBytes) {
+        if (slabSize + extraBytes <= slab.length) {
+            return;
+        }
+
+        if (unusedBytes > slabSize / 2) {
+            compact();
+        }
+
+        if (slabSize + extraBytes > slab.length) {
+            final long newLength = Math.max((long) slabSize + extraBytes, (long) slab.length * 2);
+            slab = Arrays.copyOf(slab, (int) Math.min(newLength, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private void compact() {
+        final byte[] compacted = new byte[slab.length];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(slab, offsets[i], compacted, position, lengths[i]);
+            offsets[i] = position;
+            position += lengths[i];
+        }
+        slab = compacted;
+        slabSize = position;
+        unusedBytes = 0;
+    }
+}
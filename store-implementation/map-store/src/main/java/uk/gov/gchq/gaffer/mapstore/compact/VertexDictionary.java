@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@code VertexDictionary} interns vertices to dense int ids, so that each
+ * distinct vertex is only held once regardless of how many elements refer to
+ * it.
+ */
+public class VertexDictionary {
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Object, Integer> ids = new HashMap<>();
+    private Object[] vertices = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Gets the id of a vertex, adding the vertex to the dictionary if it
+     * is not already present.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex
+     */
+    public int intern(final Object vertex) {
+        final Integer id = ids.get(vertex);
+        if (null != id) {
+            return id;
+        }
+
+        final int newId = ids.size();
+        if (newId == vertices.length) {
+            vertices = Arrays.copyOf(vertices, newId * 2);
+        }
+        vertices[newId] = vertex;
+        ids.put(vertex, newId);
+        return newId;
+    }
+
+    /**
+     * Gets the id of a vertex without adding it to the dictionary.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex or {@link #NOT_FOUND} if the vertex has
+     * not been interned
+     */
+    public int getId(final Object vertex) {
+        final Integer id = ids.get(vertex);
+        return null != id ? id : NOT_FOUND;
+    }
+
+    public Object getVertex(final int id) {
+        return vertices[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public void clear() {
+        ids.clear();
+        vertices = new Object[INITIAL_CAPACITY];
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.compact.CompactElementStore;
+import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link MapFactory} that holds elements in a compact, column-oriented
+ * representation to reduce the memory required by a
+ * {@link uk.gov.gchq.gaffer.mapstore.MapStore}.
+ * <p>
+ * The element maps and indexes created by this factory intern vertices to
+ * int ids and serialise properties into byte slabs using the serialisers in
+ * the schema (see {@link CompactElementStore}). {@link Element}s are only
+ * materialised when they are read, so they do not need to be deep cloned
+ * before being returned. Any other maps are created in the same way as the
+ * {@link SimpleMapFactory}.
+ * <p>
+ * To use this factory, set the {@link MapStoreProperties#MAP_FACTORY} store
+ * property to the name of this class.
+ */
+public class CompactMapFactory extends SimpleMapFactory {
+    private static final String AGG_ELEMENTS_SUFFIX = "|" + MapImpl.AGG_ELEMENTS;
+    private static final String NON_AGG_ELEMENTS_SUFFIX = "|" + MapImpl.NON_AGG_ELEMENTS;
+
+    private final Map<String, Map> elementMaps = new HashMap<>();
+    private final Map<String, MultiMap> indexes = new HashMap<>();
+    private CompactElementStore elementStore;
+
+    @Override
+    public void initialise(final Schema schema, final MapStoreProperties properties) {
+        super.initialise(schema, properties);
+        elementStore = new CompactElementStore(schema);
+        elementMaps.clear();
+        indexes.clear();
+    }
+
+    @Override
+    public <K, V> Map<K, V> getMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        if (Element.class.equals(keyClass)) {
+            if (GroupedProperties.class.equals(valueClass) && mapName.endsWith(AGG_ELEMENTS_SUFFIX)) {
+                return elementMaps.computeIfAbsent(mapName,
+                        n -> elementStore.createAggElementsMap(getGroup(n, AGG_ELEMENTS_SUFFIX)));
+            }
+            if (Long.class.equals(valueClass) && mapName.endsWith(NON_AGG_ELEMENTS_SUFFIX)) {
+                return elementMaps.computeIfAbsent(mapName,
+                        n -> elementStore.createNonAggElementsMap(getGroup(n, NON_AGG_ELEMENTS_SUFFIX)));
+            }
+        }
+
+        return super.getMap(mapName, keyClass, valueClass);
+    }
+
+    @Override
+    public <K, V> MultiMap<K, V> getMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        if (Element.class.equals(valueClass)) {
+            if (MapImpl.ENTITY_ID_TO_ELEMENTS.equals(mapName)) {
+                return indexes.computeIfAbsent(mapName, n -> elementStore.createEntityIdIndex());
+            }
+            if (MapImpl.EDGE_ID_TO_ELEMENTS.equals(mapName)) {
+                return indexes.computeIfAbsent(mapName, n -> elementStore.createEdgeIdIndex());
+            }
+        }
+
+        return super.getMultiMap(mapName, keyClass, valueClass);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (null != elementStore) {
+            elementStore.clear();
+        }
+    }
+
+    /**
+     * The elements held by this factory are materialised each time they are
+     * read, so a shallow clone is sufficient to stop any changes to the
+     * returned element affecting other results.
+     *
+     * @param element the element to clone
+     * @param schema  the relevant schema
+     * @return the cloned element
+     */
+    @Override
+    public Element cloneElement(final Element element, final Schema schema) {
+        return element.shallowClone();
+    }
+
+    private static String getGroup(final String mapName, final String suffix) {
+        return mapName.substring(0, mapName.length() - suffix.length());
+    }
+}
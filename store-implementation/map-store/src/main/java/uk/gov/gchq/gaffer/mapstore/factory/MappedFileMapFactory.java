@@ -0,0 +1,241 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.mapped.ElementCodec;
+import uk.gov.gchq.gaffer.mapstore.mapped.MappedBytesMap;
+import uk.gov.gchq.gaffer.mapstore.mapped.MappedElementIndex;
+import uk.gov.gchq.gaffer.mapstore.mapped.MappedMap;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A {@link MapFactory} that holds elements off the Java heap in memory-mapped
+ * files, so the size of a {@link uk.gov.gchq.gaffer.mapstore.MapStore} is not
+ * limited by the heap and its elements do not need to be garbage collected.
+ * <p>
+ * The element maps and indexes created by this factory hold elements
+ * serialised using the serialisers in the schema (see {@link ElementCodec}).
+ * If the {@link #MAP_DIRECTORY} store property is set, the files are created
+ * in that directory and any existing files are remapped, so the elements are
+ * available again as soon as a store using the same directory and schema is
+ * created. The directory holds a header file recording the file format
+ * version and a hash of the schema, and a directory written with a different
+ * format version or schema is not opened, as its elements could not be
+ * deserialised correctly. Otherwise the files are created in a temporary
+ * directory which is
+ * deleted when the JVM exits. Any other maps are created in the same way as
+ * the {@link SimpleMapFactory}.
+ * <p>
+ * To use this factory, set the {@link MapStoreProperties#MAP_FACTORY} store
+ * property to the name of this class.
+ */
+public class MappedFileMapFactory extends SimpleMapFactory {
+    public static final String MAP_DIRECTORY = "gaffer.store.mapstore.map.directory";
+
+    /**
+     * The version of the layout of the map files. This must be incremented
+     * whenever the layout of the files or the encoding of the elements changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+    public static final String HEADER_FILE = "mapstore.header";
+
+    private static final String FORMAT_VERSION_KEY = "formatVersion";
+    private static final String SCHEMA_HASH_KEY = "schemaHash";
+
+    private static final String AGG_ELEMENTS_SUFFIX = "|" + MapImpl.AGG_ELEMENTS;
+    private static final String NON_AGG_ELEMENTS_SUFFIX = "|" + MapImpl.NON_AGG_ELEMENTS;
+
+    private final Map<String, Map> elementMaps = new HashMap<>();
+    private final Map<String, MultiMap> indexes = new HashMap<>();
+    private final List<MappedBytesMap> bytesMaps = new ArrayList<>();
+    private Path directory;
+    private boolean temporary;
+    private ElementCodec codec;
+
+    @Override
+    public void initialise(final Schema schema, final MapStoreProperties properties) {
+        super.initialise(schema, properties);
+        codec = new ElementCodec(schema);
+        elementMaps.clear();
+        indexes.clear();
+        bytesMaps.clear();
+
+        final String directoryName = properties.get(MAP_DIRECTORY);
+        temporary = null == directoryName;
+        try {
+            if (temporary) {
+                directory = Files.createTempDirectory("gaffer-mapstore");
+                directory.toFile().deleteOnExit();
+            } else {
+                directory = Files.createDirectories(Paths.get(directoryName));
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to create map directory: " + directoryName, e);
+        }
+
+        if (!temporary) {
+            checkHeader(schema);
+        }
+    }
+
+    @Override
+    public <K, V> Map<K, V> getMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        if (Element.class.equals(keyClass)) {
+            if (GroupedProperties.class.equals(valueClass) && mapName.endsWith(AGG_ELEMENTS_SUFFIX)) {
+                return elementMaps.computeIfAbsent(mapName,
+                        n -> new MappedMap<>(createBytesMap(n), codec.elements(), codec.groupedProperties()));
+            }
+            if (Long.class.equals(valueClass) && mapName.endsWith(NON_AGG_ELEMENTS_SUFFIX)) {
+                return elementMaps.computeIfAbsent(mapName,
+                        n -> new MappedMap<>(createBytesMap(n), codec.elements(), ElementCodec.counts()));
+            }
+        }
+
+        return super.getMap(mapName, keyClass, valueClass);
+    }
+
+    @Override
+    public <K, V> MultiMap<K, V> getMultiMap(final String mapName, final Class<K> keyClass, final Class<V> valueClass) {
+        if (Element.class.equals(valueClass)
+                && (MapImpl.ENTITY_ID_TO_ELEMENTS.equals(mapName) || MapImpl.EDGE_ID_TO_ELEMENTS.equals(mapName))) {
+            return indexes.computeIfAbsent(mapName, n -> new MappedElementIndex<>(
+                    createBytesMap(n + "|heads"), createBytesMap(n + "|entries"), codec.elementIds(), codec.elements()));
+        }
+
+        return super.getMultiMap(mapName, keyClass, valueClass);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        bytesMaps.forEach(MappedBytesMap::clear);
+    }
+
+    /**
+     * The elements held by this factory are deserialised each time they are
+     * read, so a shallow clone is sufficient to stop any changes to the
+     * returned element affecting other results.
+     *
+     * @param element the element to clone
+     * @param schema  the relevant schema
+     * @return the cloned element
+     */
+    @Override
+    public Element cloneElement(final Element element, final Schema schema) {
+        return element.shallowClone();
+    }
+
+    /**
+     * Flushes the contents of all of the maps created by this factory to
+     * their files. The operating system writes the contents of the files back
+     * in the background, so this is only required to guarantee the contents
+     * have been written at a given point.
+     */
+    public void force() {
+        bytesMaps.forEach(MappedBytesMap::force);
+    }
+
+    // Checks the header file matches the format version and schema, or writes
+    // it if the directory is empty
+    private void checkHeader(final Schema schema) {
+        final Path headerPath = directory.resolve(HEADER_FILE);
+        final String schemaHash = getSchemaHash(schema);
+        try {
+            if (Files.exists(headerPath)) {
+                final Properties header = new Properties();
+                try (final InputStream in = Files.newInputStream(headerPath)) {
+                    header.load(in);
+                }
+                if (!String.valueOf(FORMAT_VERSION).equals(header.getProperty(FORMAT_VERSION_KEY))) {
+                    throw new IllegalArgumentException("Map directory " + directory + " was written with format version "
+                            + header.getProperty(FORMAT_VERSION_KEY) + ", but version " + FORMAT_VERSION
+                            + " is required. Delete the directory to recreate the store.");
+                }
+                if (!schemaHash.equals(header.getProperty(SCHEMA_HASH_KEY))) {
+                    throw new IllegalArgumentException("Map directory " + directory
+                            + " was written with a different schema. Delete the directory to recreate the store.");
+                }
+            } else {
+                try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                    if (files.iterator().hasNext()) {
+                        throw new IllegalArgumentException("Map directory " + directory + " is not empty and has no "
+                                + HEADER_FILE + " file, so it cannot be used.");
+                    }
+                }
+                final Properties header = new Properties();
+                header.setProperty(FORMAT_VERSION_KEY, String.valueOf(FORMAT_VERSION));
+                header.setProperty(SCHEMA_HASH_KEY, schemaHash);
+                try (final OutputStream out = Files.newOutputStream(headerPath)) {
+                    header.store(out, "Gaffer map store");
+                }
+            }
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to read or write map directory header: " + headerPath, e);
+        }
+    }
+
+    private static String getSchemaHash(final Schema schema) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(schema.toCompactJson()));
+        } catch (final NoSuchAlgorithmException | SchemaException e) {
+            throw new IllegalArgumentException("Unable to create a hash of the schema", e);
+        }
+    }
+
+    private MappedBytesMap createBytesMap(final String mapName) {
+        final String fileName;
+        try {
+            fileName = URLEncoder.encode(mapName, "UTF-8");
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unable to create file name for map: " + mapName, e);
+        }
+
+        final Path dataPath = directory.resolve(fileName + ".data");
+        final Path tablePath = directory.resolve(fileName + ".table");
+        if (temporary) {
+            dataPath.toFile().deleteOnExit();
+            tablePath.toFile().deleteOnExit();
+        }
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+        bytesMaps.add(map);
+        return map;
+    }
+}
@@ -35,7 +35,7 @@ import uk.gov.gchq.gaffer.store.ValidatedElements;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
-import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+import uk.gov.gchq.gaffer.store.util.PartitionedAggregator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,6 +68,10 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             addBatch(mapImpl, schema, elements);
         } else {
             LOGGER.info("Adding elements in batches, batch size = " + bufferSize);
+            final PartitionedAggregator aggregator = new PartitionedAggregator.Builder()
+                    .schema(schema)
+                    .partitions(mapStore.getProperties().getIngestAggregationPartitions())
+                    .build();
             int count = 0;
             final List<Element> batch = new ArrayList<>(bufferSize);
             for (final Element element : elements) {
@@ -75,7 +79,7 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
                     batch.add(element);
                     count++;
                     if (count >= bufferSize) {
-                        addBatch(mapImpl, schema, AggregatorUtil.ingestAggregate(batch, schema));
+                        addBatch(mapImpl, schema, aggregator.aggregate(batch));
                         batch.clear();
                         count = 0;
                     }
@@ -83,7 +87,7 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             }
 
             if (count > 0) {
-                addBatch(mapImpl, schema, AggregatorUtil.ingestAggregate(batch, schema));
+                addBatch(mapImpl, schema, aggregator.aggregate(batch));
             }
         }
     }
@@ -25,6 +25,7 @@ import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.factory.MapFactory;
 import uk.gov.gchq.gaffer.mapstore.factory.SimpleMapFactory;
 import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
@@ -36,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 
 /**
@@ -53,6 +55,12 @@ import java.util.stream.Stream;
  * handlers for the {@link uk.gov.gchq.gaffer.mapstore.MapStore} to be placed in the
  * same package and get access to the maps, without exposing the internal state of
  * the MapStore to classes outside of this package.
+ * <p>
+ * If the {@link MapStoreProperties#CONCURRENT} store property is set then
+ * elements can be added from multiple threads. The element maps must then be
+ * {@link ConcurrentMap}s, aggregation is done using
+ * {@link ConcurrentMap#merge} and the aggregated properties held in the maps
+ * are replaced rather than modified, so readers always see complete elements.
  */
 public class MapImpl {
     public static final String AGG_ELEMENTS = "aggElements";
@@ -89,17 +97,25 @@ public class MapImpl {
     private final List<String> aggregatedGroups;
     private final Schema schema;
     private final boolean maintainIndex;
+    private final boolean concurrent;
     private final AggregatorUtil.IngestPropertiesBinaryOperator propertyAggregator;
+    private final ElementCloner cloner;
 
     public MapImpl(final Schema schema, final MapStoreProperties mapStoreProperties) {
         this.schema = schema;
         propertyAggregator = new AggregatorUtil.IngestPropertiesBinaryOperator(schema);
         mapFactory = createMapFactory(schema, mapStoreProperties);
         maintainIndex = mapStoreProperties.getCreateIndex();
+        concurrent = mapStoreProperties.isConcurrent();
+        cloner = new ElementCloner(mapStoreProperties);
 
         for (final String group : schema.getGroups()) {
             aggElements.put(group, mapFactory.getMap(group + "|" + AGG_ELEMENTS, Element.class, GroupedProperties.class));
             nonAggElements.put(group, mapFactory.getMap(group + "|" + NON_AGG_ELEMENTS, Element.class, Long.class));
+            if (concurrent && (!(aggElements.get(group) instanceof ConcurrentMap) || !(nonAggElements.get(group) instanceof ConcurrentMap))) {
+                throw new IllegalArgumentException("MapFactory " + mapFactory.getClass().getName()
+                        + " does not create thread-safe maps, so it cannot be used when " + MapStoreProperties.CONCURRENT + " is true");
+            }
         }
 
         if (maintainIndex) {
@@ -129,9 +145,13 @@ public class MapImpl {
     }
 
     void addAggElement(final Element elementWithGroupByProperties, final GroupedProperties properties) {
-        if (null != aggElements.get(elementWithGroupByProperties.getGroup())) {
-            aggElements.get(elementWithGroupByProperties.getGroup())
-                    .merge(elementWithGroupByProperties, properties, propertyAggregator);
+        final Map<Element, GroupedProperties> map = aggElements.get(elementWithGroupByProperties.getGroup());
+        if (null != map) {
+            if (concurrent) {
+                map.merge(elementWithGroupByProperties, properties, this::aggregateCopy);
+            } else {
+                map.merge(elementWithGroupByProperties, properties, propertyAggregator);
+            }
         }
     }
 
@@ -214,6 +234,10 @@ public class MapImpl {
         return maintainIndex;
     }
 
+    boolean isConcurrent() {
+        return concurrent;
+    }
+
     Element cloneElement(final Element element, final Schema schema) {
         return mapFactory.cloneElement(element, schema);
     }
@@ -252,6 +276,20 @@ public class MapImpl {
         return totalCount;
     }
 
+    /**
+     * Aggregates a copy of the existing properties, so the properties held in
+     * the map, and their values, are never modified.
+     *
+     * @param existing   the properties held in the map
+     * @param properties the properties to aggregate
+     * @return the aggregated properties
+     */
+    private GroupedProperties aggregateCopy(final GroupedProperties existing, final GroupedProperties properties) {
+        final GroupedProperties copy = cloner.cloneProperties(existing, new GroupedProperties(existing.getGroup()),
+                schema.getElement(existing.getGroup()));
+        return propertyAggregator.apply(copy, properties);
+    }
+
     private MapFactory createMapFactory(final Schema schema,
                                         final MapStoreProperties mapStoreProperties) {
         final MapFactory mapFactory;
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+/**
+ * Converts the keys or values of a {@link MappedMap} to and from bytes.
+ * The bytes for equal objects must be equal, as keys are compared by their
+ * bytes.
+ *
+ * @param <T> the type of object
+ */
+public interface BytesCodec<T> {
+    /**
+     * @param obj the object to serialise
+     * @return the bytes or null if the object cannot be serialised by this
+     * codec
+     */
+    byte[] serialise(final T obj);
+
+    T deserialise(final byte[] bytes);
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.mapstore.compact.PropertiesCodec;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.serialisation.Serialiser;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.util.LengthValueBytesSerialiserUtil;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@code ElementCodec} creates the {@link BytesCodec}s used to hold
+ * elements, element ids and properties in a {@link MappedMap}, using the
+ * vertex and property serialisers in the schema. Vertices and properties
+ * without a {@link ToBytesSerialiser} are serialised with a
+ * {@link JavaSerialiser}.
+ * <p>
+ * Element keys hold the group-by properties of the elements in aggregated
+ * groups and all of the properties of the elements in non-aggregated groups,
+ * which matches the elements held as keys by the
+ * {@link uk.gov.gchq.gaffer.mapstore.impl.MapImpl}. The matched vertex of an
+ * edge is not included. Elements of groups that are not in the schema cannot
+ * be serialised.
+ */
+public class ElementCodec {
+    private static final byte ENTITY = 0;
+    private static final byte DIRECTED_EDGE = 1;
+    private static final byte UNDIRECTED_EDGE = 2;
+
+    private final ToBytesSerialiser<Object> vertexSerialiser;
+    private final Map<String, PropertiesCodec> keyCodecs = new HashMap<>();
+    private final Map<String, PropertiesCodec> valueCodecs = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public ElementCodec(final Schema schema) {
+        final Serialiser serialiser = schema.getVertexSerialiser();
+        vertexSerialiser = serialiser instanceof ToBytesSerialiser ? (ToBytesSerialiser) serialiser : new JavaSerialiser();
+
+        for (final String group : schema.getGroups()) {
+            final SchemaElementDefinition elementDef = schema.getElement(group);
+            final Set<String> nonGroupByProperties = new LinkedHashSet<>(elementDef.getProperties());
+            nonGroupByProperties.removeAll(elementDef.getGroupBy());
+            keyCodecs.put(group, new PropertiesCodec(
+                    elementDef.isAggregate() ? elementDef.getGroupBy() : elementDef.getProperties(), elementDef));
+            valueCodecs.put(group, new PropertiesCodec(nonGroupByProperties, elementDef));
+        }
+    }
+
+    public BytesCodec<Element> elements() {
+        return new BytesCodec<Element>() {
+            @Override
+            public byte[] serialise(final Element element) {
+                return serialiseElement(element);
+            }
+
+            @Override
+            public Element deserialise(final byte[] bytes) {
+                return deserialiseElement(bytes);
+            }
+        };
+    }
+
+    public BytesCodec<GroupedProperties> groupedProperties() {
+        return new BytesCodec<GroupedProperties>() {
+            @Override
+            public byte[] serialise(final GroupedProperties properties) {
+                return serialiseGroupedProperties(properties);
+            }
+
+            @Override
+            public GroupedProperties deserialise(final byte[] bytes) {
+                return deserialiseGroupedProperties(bytes);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends ElementId> BytesCodec<T> elementIds() {
+        return new BytesCodec<T>() {
+            @Override
+            public byte[] serialise(final T elementId) {
+                return serialiseElementId(elementId);
+            }
+
+            @Override
+            public T deserialise(final byte[] bytes) {
+                return (T) deserialiseElementId(bytes);
+            }
+        };
+    }
+
+    public static BytesCodec<Long> counts() {
+        final CompactRawLongSerialiser serialiser = new CompactRawLongSerialiser();
+        return new BytesCodec<Long>() {
+            @Override
+            public byte[] serialise(final Long count) {
+                try {
+                    return serialiser.serialise(count);
+                } catch (final SerialisationException e) {
+                    throw new RuntimeException("Unable to serialise count", e);
+                }
+            }
+
+            @Override
+            public Long deserialise(final byte[] bytes) {
+                try {
+                    return serialiser.deserialise(bytes);
+                } catch (final SerialisationException e) {
+                    throw new RuntimeException("Unable to deserialise count", e);
+                }
+            }
+        };
+    }
+
+    private byte[] serialiseElement(final Element element) {
+        final PropertiesCodec codec = keyCodecs.get(element.getGroup());
+        if (null == codec) {
+            return null;
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeGroup(element.getGroup(), out);
+            if (element instanceof Entity) {
+                out.write(ENTITY);
+                writeVertex(((Entity) element).getVertex(), out);
+            } else {
+                final Edge edge = (Edge) element;
+                out.write(edge.isDirected() ? DIRECTED_EDGE : UNDIRECTED_EDGE);
+                writeVertex(edge.getSource(), out);
+                writeVertex(edge.getDestination(), out);
+            }
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise element " + element, e);
+        }
+        final byte[] properties = codec.serialise(element.getProperties());
+        out.write(properties, 0, properties.length);
+        return out.toByteArray();
+    }
+
+    private Element deserialiseElement(final byte[] bytes) {
+        final int[] position = {0};
+        try {
+            final String group = readGroup(bytes, position);
+            final byte kind = bytes[position[0]++];
+            final Properties properties = new Properties();
+            final Element element;
+            if (ENTITY == kind) {
+                element = new Entity(group, readVertex(bytes, position), properties);
+            } else {
+                final Object source = readVertex(bytes, position);
+                final Object destination = readVertex(bytes, position);
+                element = new Edge(group, source, destination, DIRECTED_EDGE == kind, null, properties);
+            }
+            keyCodecs.get(group).deserialise(bytes, position[0], properties);
+            return element;
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise element", e);
+        }
+    }
+
+    private byte[] serialiseGroupedProperties(final GroupedProperties properties) {
+        final PropertiesCodec codec = valueCodecs.get(properties.getGroup());
+        if (null == codec) {
+            return null;
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeGroup(properties.getGroup(), out);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise properties", e);
+        }
+        final byte[] bytes = codec.serialise(properties);
+        out.write(bytes, 0, bytes.length);
+        return out.toByteArray();
+    }
+
+    private GroupedProperties deserialiseGroupedProperties(final byte[] bytes) {
+        final int[] position = {0};
+        try {
+            final GroupedProperties properties = new GroupedProperties(readGroup(bytes, position));
+            valueCodecs.get(properties.getGroup()).deserialise(bytes, position[0], properties);
+            return properties;
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise properties", e);
+        }
+    }
+
+    private byte[] serialiseElementId(final ElementId elementId) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (elementId instanceof EntityId) {
+                out.write(ENTITY);
+                writeVertex(((EntityId) elementId).getVertex(), out);
+            } else {
+                final EdgeId edgeId = (EdgeId) elementId;
+                out.write(edgeId.isDirected() ? DIRECTED_EDGE : UNDIRECTED_EDGE);
+                writeVertex(edgeId.getSource(), out);
+                writeVertex(edgeId.getDestination(), out);
+            }
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to serialise element id " + elementId, e);
+        }
+        return out.toByteArray();
+    }
+
+    private ElementId deserialiseElementId(final byte[] bytes) {
+        final int[] position = {1};
+        try {
+            if (ENTITY == bytes[0]) {
+                return new EntitySeed(readVertex(bytes, position));
+            }
+            final Object source = readVertex(bytes, position);
+            final Object destination = readVertex(bytes, position);
+            return new EdgeSeed(source, destination, DIRECTED_EDGE == bytes[0]);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise element id", e);
+        }
+    }
+
+    private void writeVertex(final Object vertex, final ByteArrayOutputStream out) throws SerialisationException {
+        LengthValueBytesSerialiserUtil.serialise(vertexSerialiser, vertex, out);
+    }
+
+    private Object readVertex(final byte[] bytes, final int[] position) throws SerialisationException {
+        return LengthValueBytesSerialiserUtil.deserialise(vertexSerialiser, bytes, position);
+    }
+
+    private static void writeGroup(final String group, final ByteArrayOutputStream out) throws SerialisationException {
+        LengthValueBytesSerialiserUtil.serialise(group.getBytes(StandardCharsets.UTF_8), out);
+    }
+
+    private static String readGroup(final byte[] bytes, final int[] position) throws SerialisationException {
+        return new String(LengthValueBytesSerialiserUtil.deserialise(bytes, position), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@code MappedBytesMap} is a hash map from byte array keys to byte array
+ * values which is held in a pair of {@link MappedFile}s, so none of its
+ * contents are held on the Java heap.
+ * <p>
+ * The data file holds the records in the order they were added. Each record
+ * contains a header, the key and the value, with some spare capacity in the
+ * value so it can be updated in place. A value that no longer fits is written
+ * to a new record at the end of the file and the old record is marked as
+ * removed. The table file holds an open addressing hash table of the offsets
+ * of the records. If the files already exist when the map is created, the
+ * existing contents are used, and if the table file is missing it is rebuilt
+ * from the data file.
+ */
+public class MappedBytesMap {
+    static final long HEADER_SIZE = 64;
+
+    private static final long MAGIC = 0x4761666665724D4DL;
+    private static final int INITIAL_TABLE_CAPACITY = 256;
+    private static final int MIN_VALUE_CAPACITY = 8;
+
+    // Data file header positions
+    private static final long DATA_END = 8;
+    private static final long SIZE = 16;
+
+    // Table file header positions
+    private static final long TABLE_CAPACITY = 8;
+
+    // Record layout: live flag, hash, key length, value length, value capacity
+    private static final long RECORD_HASH = 1;
+    private static final long RECORD_KEY_LENGTH = 5;
+    private static final long RECORD_VALUE_LENGTH = 9;
+    private static final long RECORD_VALUE_CAPACITY = 13;
+    private static final long RECORD_HEADER_SIZE = 17;
+
+    private final Path dataPath;
+    private final Path tablePath;
+    private MappedFile data;
+    private MappedFile table;
+    private long tableCapacity;
+
+    public MappedBytesMap(final Path dataPath, final Path tablePath) {
+        this.dataPath = dataPath;
+        this.tablePath = tablePath;
+        open();
+    }
+
+    public long size() {
+        return data.getLong(SIZE);
+    }
+
+    public byte[] get(final byte[] key) {
+        final long record = find(key, hash(key));
+        return record > 0 ? getValue(record) : null;
+    }
+
+    public boolean containsKey(final byte[] key) {
+        return find(key, hash(key)) > 0;
+    }
+
+    /**
+     * Adds or replaces the value for a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the offset of the record holding the key and value
+     */
+    public long put(final byte[] key, final byte[] value) {
+        return merge(key, value, (oldValue, newValue) -> newValue);
+    }
+
+    /**
+     * Adds the value for a key if the key is not in the map, otherwise
+     * replaces the value with the result of the merge function.
+     *
+     * @param key           the key
+     * @param value         the value
+     * @param mergeFunction the function to merge the existing value and the
+     *                      new value
+     * @return the offset of the record holding the key and value
+     */
+    public long merge(final byte[] key, final byte[] value, final BinaryOperator<byte[]> mergeFunction) {
+        final int hash = hash(key);
+        final long slot = findSlot(key, hash);
+        final long record = table.getLong(slotPosition(slot));
+        if (0 == record) {
+            final long newRecord = append(key, hash, value);
+            table.putLong(slotPosition(slot), newRecord);
+            final long size = size() + 1;
+            data.putLong(SIZE, size);
+            if (size * 4 > tableCapacity * 3) {
+                resize(tableCapacity * 2);
+            }
+            return newRecord;
+        }
+
+        final byte[] mergedValue = mergeFunction.apply(getValue(record), value);
+        if (mergedValue.length <= data.getInt(record + RECORD_VALUE_CAPACITY)) {
+            data.putBytes(record + RECORD_HEADER_SIZE + key.length, mergedValue);
+            data.putInt(record + RECORD_VALUE_LENGTH, mergedValue.length);
+            return record;
+        }
+
+        final long newRecord = append(key, hash, mergedValue);
+        data.putByte(record, (byte) 0);
+        table.putLong(slotPosition(slot), newRecord);
+        return newRecord;
+    }
+
+    public byte[] getKey(final long record) {
+        return data.getBytes(record + RECORD_HEADER_SIZE, data.getInt(record + RECORD_KEY_LENGTH));
+    }
+
+    public byte[] getValue(final long record) {
+        return data.getBytes(record + RECORD_HEADER_SIZE + data.getInt(record + RECORD_KEY_LENGTH),
+                data.getInt(record + RECORD_VALUE_LENGTH));
+    }
+
+    /**
+     * Gets an iterator over the offsets of the records in the map, in the
+     * order the records were written.
+     *
+     * @return the record iterator
+     */
+    public PrimitiveIterator.OfLong records() {
+        return new PrimitiveIterator.OfLong() {
+            private final long end = data.getLong(DATA_END);
+            private long next = nextLive(HEADER_SIZE);
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final long record = next;
+                next = nextLive(record + recordSize(record));
+                return record;
+            }
+
+            private long nextLive(final long start) {
+                long record = start;
+                while (record < end && 0 == data.getByte(record)) {
+                    record += recordSize(record);
+                }
+                return record;
+            }
+        };
+    }
+
+    /**
+     * Flushes the contents of the map to its files.
+     */
+    public void force() {
+        data.force();
+        table.force();
+    }
+
+    /**
+     * Removes all of the contents of the map by deleting its files.
+     */
+    public void clear() {
+        data.delete();
+        table.delete();
+        open();
+    }
+
+    private void open() {
+        data = new MappedFile(dataPath);
+        if (MAGIC != data.getLong(0)) {
+            data.putLong(0, MAGIC);
+            data.putLong(DATA_END, HEADER_SIZE);
+            data.putLong(SIZE, 0);
+        }
+
+        table = new MappedFile(tablePath);
+        if (MAGIC != table.getLong(0)) {
+            resize(Math.max(INITIAL_TABLE_CAPACITY, Long.highestOneBit(size() * 2) * 2));
+        } else {
+            tableCapacity = table.getLong(TABLE_CAPACITY);
+        }
+    }
+
+    private long append(final byte[] key, final int hash, final byte[] value) {
+        final int valueCapacity = Math.max(MIN_VALUE_CAPACITY, value.length + (value.length >> 2));
+        final long record = data.getLong(DATA_END);
+        final long end = record + RECORD_HEADER_SIZE + key.length + valueCapacity;
+        data.ensureCapacity(end);
+        data.putByte(record, (byte) 1);
+        data.putInt(record + RECORD_HASH, hash);
+        data.putInt(record + RECORD_KEY_LENGTH, key.length);
+        data.putInt(record + RECORD_VALUE_LENGTH, value.length);
+        data.putInt(record + RECORD_VALUE_CAPACITY, valueCapacity);
+        data.putBytes(record + RECORD_HEADER_SIZE, key);
+        data.putBytes(record + RECORD_HEADER_SIZE + key.length, value);
+        data.putLong(DATA_END, end);
+        return record;
+    }
+
+    private long recordSize(final long record) {
+        return RECORD_HEADER_SIZE + data.getInt(record + RECORD_KEY_LENGTH) + data.getInt(record + RECORD_VALUE_CAPACITY);
+    }
+
+    private long find(final byte[] key, final int hash) {
+        return table.getLong(slotPosition(findSlot(key, hash)));
+    }
+
+    private long findSlot(final byte[] key, final int hash) {
+        final long mask = tableCapacity - 1;
+        long slot = hash & mask;
+        while (true) {
+            final long record = table.getLong(slotPosition(slot));
+            if (0 == record || matches(record, key, hash)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(final long record, final byte[] key, final int hash) {
+        return data.getInt(record + RECORD_HASH) == hash
+                && data.getInt(record + RECORD_KEY_LENGTH) == key.length
+                && Arrays.equals(key, getKey(record));
+    }
+
+    /**
+     * Writes a new table file containing all of the live records and then
+     * replaces the existing table file with it.
+     *
+     * @param capacity the number of slots in the new table
+     */
+    private void resize(final long capacity) {
+        final Path newTablePath = Paths.get(tablePath.toString() + ".tmp");
+        final MappedFile newTable = new MappedFile(newTablePath);
+        newTable.ensureCapacity(HEADER_SIZE + capacity * Long.BYTES);
+        final long mask = capacity - 1;
+        final PrimitiveIterator.OfLong records = records();
+        while (records.hasNext()) {
+            final long record = records.nextLong();
+            long slot = data.getInt(record + RECORD_HASH) & mask;
+            while (0 != newTable.getLong(HEADER_SIZE + slot * Long.BYTES)) {
+                slot = (slot + 1) & mask;
+            }
+            newTable.putLong(HEADER_SIZE + slot * Long.BYTES, record);
+        }
+        newTable.putLong(TABLE_CAPACITY, capacity);
+        newTable.putLong(0, MAGIC);
+
+        try {
+            Files.move(newTablePath, tablePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to replace table file " + tablePath, e);
+        }
+        table = new MappedFile(tablePath);
+        tableCapacity = capacity;
+    }
+
+    private static long slotPosition(final long slot) {
+        return HEADER_SIZE + slot * Long.BYTES;
+    }
+
+    private static int hash(final byte[] key) {
+        final int h = Arrays.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.serialisation.util.LengthValueBytesSerialiserUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * A {@code MappedElementIndex} is a {@link MultiMap} from element ids to
+ * {@link Element}s which is held in a pair of {@link MappedBytesMap}s.
+ * <p>
+ * The entries map holds each key and element pair once, along with the
+ * matched vertex of the element and the position of the next entry for the
+ * same key. The heads map holds the position of the most recent entry for each
+ * key, so the elements for a key are found by following the entries from its
+ * head. As the value of each entry has a fixed size, entries never move once
+ * they have been written.
+ * <p>
+ * As with a set of elements, an edge is only added once for a key regardless
+ * of its matched vertex. Elements that cannot be serialised, such as elements
+ * of groups that are not in the schema, are ignored.
+ *
+ * @param <K> the type of the keys
+ */
+public class MappedElementIndex<K> implements MultiMap<K, Element> {
+    private static final int NEXT_SIZE = Long.BYTES;
+    private static final byte NO_MATCHED_VERTEX = 0;
+
+    private final MappedBytesMap heads;
+    private final MappedBytesMap entries;
+    private final BytesCodec<K> keyCodec;
+    private final BytesCodec<Element> elementCodec;
+
+    public MappedElementIndex(final MappedBytesMap heads,
+                              final MappedBytesMap entries,
+                              final BytesCodec<K> keyCodec,
+                              final BytesCodec<Element> elementCodec) {
+        this.heads = heads;
+        this.entries = entries;
+        this.keyCodec = keyCodec;
+        this.elementCodec = elementCodec;
+    }
+
+    @Override
+    public boolean put(final K key, final Element element) {
+        final byte[] keyBytes = keyCodec.serialise(key);
+        final byte[] elementBytes = elementCodec.serialise(element);
+        if (null == keyBytes || null == elementBytes) {
+            return false;
+        }
+
+        final byte[] entryKey = toEntryKey(keyBytes, elementBytes);
+        if (entries.containsKey(entryKey)) {
+            return false;
+        }
+
+        final byte[] head = heads.get(keyBytes);
+        final ByteBuffer entryValue = ByteBuffer.allocate(NEXT_SIZE + 1)
+                .putLong(null != head ? ByteBuffer.wrap(head).getLong() : 0L)
+                .put(toByte(element));
+        final long entry = entries.put(entryKey, entryValue.array());
+        heads.put(keyBytes, ByteBuffer.allocate(NEXT_SIZE).putLong(entry).array());
+        return true;
+    }
+
+    @Override
+    public void put(final K key, final Collection<Element> elements) {
+        for (final Element element : elements) {
+            put(key, element);
+        }
+    }
+
+    @Override
+    public Collection<Element> get(final K key) {
+        final byte[] keyBytes = keyCodec.serialise(key);
+        final byte[] head = null != keyBytes ? heads.get(keyBytes) : null;
+        if (null == head) {
+            return null;
+        }
+
+        final List<Element> elements = new ArrayList<>();
+        long entry = ByteBuffer.wrap(head).getLong();
+        while (0 != entry) {
+            final ByteBuffer entryValue = ByteBuffer.wrap(entries.getValue(entry));
+            elements.add(toElement(entries.getKey(entry), entryValue.get(NEXT_SIZE)));
+            entry = entryValue.getLong(0);
+        }
+        return elements;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                final PrimitiveIterator.OfLong records = heads.records();
+                return new Iterator<K>() {
+                    @Override
+                    public boolean hasNext() {
+                        return records.hasNext();
+                    }
+
+                    @Override
+                    public K next() {
+                        return keyCodec.deserialise(heads.getKey(records.nextLong()));
+                    }
+                };
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public boolean contains(final Object key) {
+                return null != get((K) key);
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(heads.size(), Integer.MAX_VALUE);
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        heads.clear();
+        entries.clear();
+    }
+
+    /**
+     * Flushes the contents of the index to its files.
+     */
+    public void force() {
+        heads.force();
+        entries.force();
+    }
+
+    private Element toElement(final byte[] entryKey, final byte matchedVertex) {
+        final int[] position = {0};
+        try {
+            LengthValueBytesSerialiserUtil.deserialise(entryKey, position);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to read index entry", e);
+        }
+
+        final Element element = elementCodec.deserialise(Arrays.copyOfRange(entryKey, position[0], entryKey.length));
+        if (NO_MATCHED_VERTEX != matchedVertex && element instanceof Edge) {
+            final Edge edge = (Edge) element;
+            edge.setIdentifiers(edge.getSource(), edge.getDestination(), edge.isDirected(),
+                    EdgeId.MatchedVertex.values()[matchedVertex - 1]);
+        }
+        return element;
+    }
+
+    private static byte[] toEntryKey(final byte[] keyBytes, final byte[] elementBytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(keyBytes.length + elementBytes.length + 4);
+        try {
+            LengthValueBytesSerialiserUtil.serialise(keyBytes, out);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to write index entry", e);
+        }
+        out.write(elementBytes, 0, elementBytes.length);
+        return out.toByteArray();
+    }
+
+    private static byte toByte(final Element element) {
+        if (element instanceof Edge && null != ((Edge) element).getMatchedVertex()) {
+            return (byte) (((Edge) element).getMatchedVertex().ordinal() + 1);
+        }
+        return NO_MATCHED_VERTEX;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A {@code MappedFile} provides random access to a file that is memory-mapped
+ * in segments, so the file can grow beyond the 2GB limit of a single
+ * {@link MappedByteBuffer}. The contents of the file are held outside
+ * of the Java heap and are written back to the file by the operating system.
+ * <p>
+ * The file channel is only held open while new segments are being mapped,
+ * as a mapping remains valid after its channel has been closed.
+ */
+public class MappedFile {
+    static final int SEGMENT_BITS = 24;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final long MIN_CAPACITY = 1L << 16;
+
+    private final Path path;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long capacity;
+
+    public MappedFile(final Path path) {
+        this.path = path;
+        try {
+            ensureCapacity(Files.exists(path) ? Math.max(Files.size(path), 1) : 1);
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to read the size of file " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows the file so it holds at least the given number of bytes. Small
+     * files are doubled in size until they reach a full segment, then whole
+     * segments are added.
+     *
+     * @param minCapacity the required capacity in bytes
+     */
+    public void ensureCapacity(final long minCapacity) {
+        if (minCapacity <= capacity) {
+            return;
+        }
+
+        final long newCapacity = minCapacity > SEGMENT_SIZE
+                ? (minCapacity + SEGMENT_MASK) & ~SEGMENT_MASK
+                : Math.max(MIN_CAPACITY, Long.highestOneBit(minCapacity - 1) << 1);
+        final int segmentCount = (int) ((newCapacity + SEGMENT_MASK) >>> SEGMENT_BITS);
+        // The last existing segment is remapped if it is not a full segment
+        final int firstSegment = segments.length * SEGMENT_SIZE == capacity ? segments.length : segments.length - 1;
+        try (final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer[] newSegments = Arrays.copyOf(segments, segmentCount);
+            for (int i = firstSegment; i < segmentCount; i++) {
+                final long start = i * SEGMENT_SIZE;
+                newSegments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(SEGMENT_SIZE, newCapacity - start));
+            }
+            segments = newSegments;
+            capacity = newCapacity;
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to map file " + path, e);
+        }
+    }
+
+    public byte getByte(final long position) {
+        return segments[segment(position)].get(offset(position));
+    }
+
+    public void putByte(final long position, final byte value) {
+        segments[segment(position)].put(offset(position), value);
+    }
+
+    public int getInt(final long position) {
+        final int offset = offset(position);
+        if (offset <= SEGMENT_SIZE - Integer.BYTES) {
+            return segments[segment(position)].getInt(offset);
+        }
+        return ByteBuffer.wrap(getBytes(position, Integer.BYTES)).getInt();
+    }
+
+    public void putInt(final long position, final int value) {
+        final int offset = offset(position);
+        if (offset <= SEGMENT_SIZE - Integer.BYTES) {
+            segments[segment(position)].putInt(offset, value);
+        } else {
+            putBytes(position, ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+        }
+    }
+
+    public long getLong(final long position) {
+        final int offset = offset(position);
+        if (offset <= SEGMENT_SIZE - Long.BYTES) {
+            return segments[segment(position)].getLong(offset);
+        }
+        return ByteBuffer.wrap(getBytes(position, Long.BYTES)).getLong();
+    }
+
+    public void putLong(final long position, final long value) {
+        final int offset = offset(position);
+        if (offset <= SEGMENT_SIZE - Long.BYTES) {
+            segments[segment(position)].putLong(offset, value);
+        } else {
+            putBytes(position, ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+        }
+    }
+
+    public byte[] getBytes(final long position, final int length) {
+        final byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            final long current = position + copied;
+            final ByteBuffer segment = segments[segment(current)].duplicate();
+            segment.position(offset(current));
+            final int count = Math.min(length - copied, segment.remaining());
+            segment.get(bytes, copied, count);
+            copied += count;
+        }
+        return bytes;
+    }
+
+    public void putBytes(final long position, final byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            final long current = position + copied;
+            final ByteBuffer segment = segments[segment(current)].duplicate();
+            segment.position(offset(current));
+            final int count = Math.min(bytes.length - copied, segment.remaining());
+            segment.put(bytes, copied, count);
+            copied += count;
+        }
+    }
+
+    /**
+     * Flushes any changes to the mapped segments to the file.
+     */
+    public void force() {
+        for (final MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Deletes the file. The file must not be used after it has been deleted.
+     */
+    public void delete() {
+        segments = new MappedByteBuffer[0];
+        capacity = 0;
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to delete file " + path, e);
+        }
+    }
+
+    private static int segment(final long position) {
+        return (int) (position >>> SEGMENT_BITS);
+    }
+
+    private static int offset(final long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+}
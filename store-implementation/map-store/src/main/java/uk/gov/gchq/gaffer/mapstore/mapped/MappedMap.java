@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+/**
+ * A {@code MappedMap} is a {@link java.util.Map} which holds its keys and
+ * values as bytes in a {@link MappedBytesMap}, so its contents are held
+ * outside of the Java heap and are retained in its files.
+ * <p>
+ * Keys and values are deserialised each time they are read from the map, so
+ * changes to a value read from the map are not reflected in the map unless
+ * the value is put back into the map. Entries cannot be removed from the map,
+ * other than by clearing it.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class MappedMap<K, V> extends AbstractMap<K, V> {
+    private final MappedBytesMap map;
+    private final BytesCodec<K> keyCodec;
+    private final BytesCodec<V> valueCodec;
+
+    public MappedMap(final MappedBytesMap map, final BytesCodec<K> keyCodec, final BytesCodec<V> valueCodec) {
+        this.map = map;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(map.size(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final byte[] keyBytes = serialiseKey(key);
+        return null != keyBytes && map.containsKey(keyBytes);
+    }
+
+    @Override
+    public V get(final Object key) {
+        final byte[] keyBytes = serialiseKey(key);
+        if (null == keyBytes) {
+            return null;
+        }
+
+        final byte[] valueBytes = map.get(keyBytes);
+        return null != valueBytes ? valueCodec.deserialise(valueBytes) : null;
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final byte[] keyBytes = serialiseValidKey(key);
+        final byte[] previous = map.get(keyBytes);
+        map.put(keyBytes, serialiseValue(value));
+        return null != previous ? valueCodec.deserialise(previous) : null;
+    }
+
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        final long record = map.merge(serialiseValidKey(key), serialiseValue(value), (oldBytes, newBytes) -> {
+            final V newValue = remappingFunction.apply(valueCodec.deserialise(oldBytes), value);
+            if (null == newValue) {
+                throw new UnsupportedOperationException("Entries cannot be removed from a " + getClass().getSimpleName());
+            }
+            return serialiseValue(newValue);
+        });
+        return valueCodec.deserialise(map.getValue(record));
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new RecordIterator<>(record -> new SimpleImmutableEntry<>(
+                        keyCodec.deserialise(map.getKey(record)),
+                        valueCodec.deserialise(map.getValue(record))));
+            }
+
+            @Override
+            public int size() {
+                return MappedMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new RecordIterator<>(record -> valueCodec.deserialise(map.getValue(record)));
+            }
+
+            @Override
+            public int size() {
+                return MappedMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Flushes the contents of the map to its files.
+     */
+    public void force() {
+        map.force();
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialiseKey(final Object key) {
+        try {
+            return null != key ? keyCodec.serialise((K) key) : null;
+        } catch (final ClassCastException e) {
+            return null;
+        }
+    }
+
+    private byte[] serialiseValidKey(final K key) {
+        final byte[] keyBytes = null != key ? keyCodec.serialise(key) : null;
+        if (null == keyBytes) {
+            throw new IllegalArgumentException("Key cannot be held in a " + getClass().getSimpleName() + ": " + key);
+        }
+        return keyBytes;
+    }
+
+    private byte[] serialiseValue(final V value) {
+        final byte[] valueBytes = null != value ? valueCodec.serialise(value) : null;
+        if (null == valueBytes) {
+            throw new IllegalArgumentException("Value cannot be held in a " + getClass().getSimpleName() + ": " + value);
+        }
+        return valueBytes;
+    }
+
+    private final class RecordIterator<T> implements Iterator<T> {
+        private final PrimitiveIterator.OfLong records = map.records();
+        private final LongFunction<T> getter;
+
+        private RecordIterator(final LongFunction<T> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return records.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return getter.apply(records.nextLong());
+        }
+    }
+}
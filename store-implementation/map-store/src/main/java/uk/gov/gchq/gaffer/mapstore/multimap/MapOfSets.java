@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 public class MapOfSets<K, V> implements MultiMap<K, V> {
     private final Map<K, Set<V>> multiMap;
@@ -32,13 +33,36 @@ public class MapOfSets<K, V> implements MultiMap<K, V> {
      */
     private final Class<? extends Set> setClass;
 
+    /**
+     * Creates the Sets, if provided. This allows Sets without a public no
+     * argument constructor, such as {@link java.util.concurrent.ConcurrentHashMap#newKeySet()}, to
+     * be used.
+     */
+    private final Supplier<Set<V>> setSupplier;
+
     public MapOfSets(final Map<K, Set<V>> multiMap) {
-        this(multiMap, null);
+        this(multiMap, (Class<? extends Set>) null);
     }
 
     public MapOfSets(final Map<K, Set<V>> multiMap, final Class<? extends Set> setClass) {
         this.multiMap = multiMap;
         this.setClass = setClass;
+        this.setSupplier = null;
+    }
+
+    /**
+     * Creates a {@code MapOfSets} using the given supplier to create the
+     * Sets. Values are always added to the Sets held in the map, so if the
+     * map and the supplied Sets are thread-safe then values can be added from
+     * multiple threads.
+     *
+     * @param multiMap    the map to hold the Sets
+     * @param setSupplier the supplier of new Sets
+     */
+    public MapOfSets(final Map<K, Set<V>> multiMap, final Supplier<Set<V>> setSupplier) {
+        this.multiMap = multiMap;
+        this.setClass = null;
+        this.setSupplier = setSupplier;
     }
 
     @Override
@@ -49,6 +73,11 @@ public class MapOfSets<K, V> implements MultiMap<K, V> {
 
     @Override
     public void put(final K key, final Collection<V> value) {
+        if (null != setSupplier) {
+            multiMap.computeIfAbsent(key, k -> createSet()).addAll(value);
+            return;
+        }
+
         final Set<V> existingValue = multiMap.get(key);
         if (null == existingValue) {
             if (value instanceof Set) {
@@ -82,7 +111,9 @@ public class MapOfSets<K, V> implements MultiMap<K, V> {
 
     protected Set<V> createSet() {
         final Set<V> values;
-        if (null == setClass) {
+        if (null != setSupplier) {
+            values = setSupplier.get();
+        } else if (null == setClass) {
             values = new HashSet<>();
         } else {
             try {
@@ -19,17 +19,69 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.serialisation.Serialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.koryphe.serialisation.json.SimpleClassNameIdResolver;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Utility class to create a clone of an {@link Element}.
+ * <p>
+ * Only mutable property values are deep cloned, using the serialisers from
+ * the schema. Values of immutable types, such as {@link String} and
+ * {@link Long}, are shared between the element and its clone, and
+ * {@link Date}s are copied directly. Additional immutable types can be
+ * provided when the cloner is created, or configured using
+ * {@link MapStoreProperties#IMMUTABLE_CLASSES}.
  */
 public class ElementCloner {
+    /**
+     * The property types that are known to be immutable, so can be shared
+     * rather than cloned.
+     */
+    public static final Set<Class<?>> DEFAULT_IMMUTABLE_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class, Class.class)));
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ElementCloner.class);
 
+    private final Set<Class<?>> immutableClasses;
+
+    public ElementCloner() {
+        this(Collections.emptySet());
+    }
+
+    /**
+     * @param immutableClasses additional property types that are immutable,
+     *                         on top of the {@link #DEFAULT_IMMUTABLE_CLASSES}
+     */
+    public ElementCloner(final Collection<Class<?>> immutableClasses) {
+        this.immutableClasses = new HashSet<>(DEFAULT_IMMUTABLE_CLASSES);
+        this.immutableClasses.addAll(immutableClasses);
+    }
+
+    /**
+     * @param properties the store properties containing the additional
+     *                   property types that are immutable
+     */
+    public ElementCloner(final MapStoreProperties properties) {
+        this(getImmutableClasses(properties));
+    }
+
     /**
      * Clone an {@link Element}, based on a target {@link Schema}.
      *
@@ -38,20 +90,38 @@ public class ElementCloner {
      * @return the cloned element
      */
     public Element cloneElement(final Element element, final Schema schema) {
+        final Element clone = element.emptyClone();
+        cloneProperties(element.getProperties(), clone.getProperties(), schema.getElement(clone.getGroup()));
+        return clone;
+    }
+
+    /**
+     * Clone the values of some {@link Properties}, based on a target
+     * {@link SchemaElementDefinition}.
+     *
+     * @param properties the properties to clone
+     * @param clone      the properties to add the cloned values to
+     * @param sed        the schema element definition for the group of the
+     *                   properties
+     * @param <T>        the type of the cloned properties
+     * @return the cloned properties
+     */
+    public <T extends Properties> T cloneProperties(final Properties properties, final T clone, final SchemaElementDefinition sed) {
         try {
-            final Element clone = element.emptyClone();
-            final SchemaElementDefinition sed = schema.getElement(clone.getGroup());
-            for (final String propertyName : element.getProperties().keySet()) {
-                final Object property = element.getProperty(propertyName);
-                if (null == sed.getPropertyTypeDef(propertyName) || null == sed.getPropertyTypeDef(propertyName).getSerialiser()) {
+            for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+                final String propertyName = entry.getKey();
+                final Object property = entry.getValue();
+                if (null == property || isImmutable(property)) {
+                    clone.put(propertyName, property);
+                } else if (property instanceof Date) {
+                    clone.put(propertyName, ((Date) property).clone());
+                } else if (null == sed.getPropertyTypeDef(propertyName) || null == sed.getPropertyTypeDef(propertyName).getSerialiser()) {
                     // This can happen if transient properties are derived - they will not have serialisers.
                     LOGGER.warn("Can't find Serialisation for {}, returning uncloned property", propertyName);
-                    clone.putProperty(propertyName, property);
-                } else if (null != property) {
-                    final Serialiser serialiser = sed.getPropertyTypeDef(propertyName).getSerialiser();
-                    clone.putProperty(propertyName, serialiser.deserialise(serialiser.serialise(property)));
+                    clone.put(propertyName, property);
                 } else {
-                    clone.putProperty(propertyName, null);
+                    final Serialiser serialiser = sed.getPropertyTypeDef(propertyName).getSerialiser();
+                    clone.put(propertyName, serialiser.deserialise(serialiser.serialise(property)));
                 }
             }
             return clone;
@@ -59,4 +129,22 @@ public class ElementCloner {
             throw new RuntimeException("SerialisationException converting elements", e);
         }
     }
+
+    private static Collection<Class<?>> getImmutableClasses(final MapStoreProperties properties) {
+        final Set<Class<?>> classes = new HashSet<>();
+        for (final String className : properties.getImmutableClasses().split(",")) {
+            if (!className.trim().isEmpty()) {
+                try {
+                    classes.add(Class.forName(SimpleClassNameIdResolver.getClassName(className.trim())));
+                } catch (final ClassNotFoundException e) {
+                    throw new IllegalArgumentException("Immutable class is invalid: " + className, e);
+                }
+            }
+        }
+        return classes;
+    }
+
+    private boolean isImmutable(final Object property) {
+        return immutableClasses.contains(property.getClass()) || property instanceof Enum;
+    }
 }
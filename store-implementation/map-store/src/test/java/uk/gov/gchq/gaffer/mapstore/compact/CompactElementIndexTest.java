@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactElementIndexTest {
+    private CompactElementStore store;
+    private CompactElementMap<Long> edges;
+    private CompactElementMap<Long> entities;
+
+    @Before
+    public void before() {
+        store = new CompactElementStore(Schema.fromJson(StreamUtil.schemas(getClass())));
+        edges = store.createNonAggElementsMap(TestGroups.EDGE);
+        entities = store.createNonAggElementsMap(TestGroups.ENTITY);
+    }
+
+    @Test
+    public void shouldLookupElementsByEntityIdWithMatchedVertex() {
+        // Given
+        final CompactElementIndex<EntityId> index = store.createEntityIdIndex();
+        final Entity entity = addEntity("A");
+        final Edge edge = addEdge("A", "B", true);
+        final Edge destMatchedEdge = new Edge(edge.getGroup(), edge.getSource(), edge.getDestination(), edge.isDirected(), EdgeId.MatchedVertex.DESTINATION, edge.getProperties());
+
+        // When
+        index.put(new EntitySeed("A"), entity);
+        index.put(new EntitySeed("A"), edge);
+        index.put(new EntitySeed("B"), destMatchedEdge);
+
+        // Then
+        assertEquals(Sets.newHashSet(entity, edge), Sets.newHashSet(index.get(new EntitySeed("A"))));
+        final Collection<Element> results = index.get(new EntitySeed("B"));
+        assertEquals(1, results.size());
+        final Edge result = (Edge) results.iterator().next();
+        assertEquals(edge, result);
+        assertEquals(EdgeId.MatchedVertex.DESTINATION, result.getMatchedVertex());
+        assertNull(index.get(new EntitySeed("C")));
+        assertEquals(Sets.newHashSet(new EntitySeed("A"), new EntitySeed("B")), index.keySet());
+    }
+
+    @Test
+    public void shouldNotIndexElementsTwice() {
+        // Given
+        final CompactElementIndex<EntityId> index = store.createEntityIdIndex();
+        final Edge selfLoop = addEdge("A", "A", true);
+        final Edge destMatchedSelfLoop = new Edge(selfLoop.getGroup(), "A", "A", true, EdgeId.MatchedVertex.DESTINATION, selfLoop.getProperties());
+
+        // When
+        final boolean firstPut = index.put(new EntitySeed("A"), selfLoop);
+        final boolean secondPut = index.put(new EntitySeed("A"), selfLoop);
+        final boolean destMatchedPut = index.put(new EntitySeed("A"), destMatchedSelfLoop);
+
+        // Then
+        assertTrue(firstPut);
+        assertFalse(secondPut);
+        assertFalse(destMatchedPut);
+        assertEquals(1, index.get(new EntitySeed("A")).size());
+    }
+
+    @Test
+    public void shouldLookupEdgesByEdgeId() {
+        // Given
+        final CompactElementIndex<EdgeId> index = store.createEdgeIdIndex();
+        final List<Edge> added = new ArrayList<>();
+        added.add(addEdge("A", "B", true));
+        added.add(addEdge("A", "B", false));
+        added.add(addEdge("A", "C", true));
+        for (final Edge edge : added) {
+            index.put(new EdgeSeed(edge.getSource(), edge.getDestination(), edge.isDirected()), edge);
+        }
+
+        // When
+        final Collection<Element> directedResults = index.get(new EdgeSeed("A", "B", true));
+        final Collection<Element> undirectedResults = index.get(new EdgeSeed("B", "A", false));
+
+        // Then
+        assertEquals(Sets.newHashSet(added.get(0)), Sets.newHashSet(directedResults));
+        assertEquals(Sets.newHashSet(added.get(1)), Sets.newHashSet(undirectedResults));
+        assertNull(index.get(new EdgeSeed("B", "A", true)));
+        assertNull(index.get(new EdgeSeed("A", "D", true)));
+        assertEquals(3, index.keySet().size());
+    }
+
+    @Test
+    public void shouldIgnoreElementsThatHaveNotBeenAdded() {
+        // Given
+        final CompactElementIndex<EntityId> index = store.createEntityIdIndex();
+
+        // When
+        final boolean put = index.put(new EntitySeed("A"), new Entity(TestGroups.ENTITY, "A"));
+
+        // Then
+        assertFalse(put);
+        assertNull(index.get(new EntitySeed("A")));
+    }
+
+    private Entity addEntity(final String vertex) {
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .property(TestPropertyNames.PROP_1, "value1")
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+        entities.merge(entity, 1L, Long::sum);
+        return entity;
+    }
+
+    private Edge addEdge(final String source, final String destination, final boolean directed) {
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(directed)
+                .matchedVertex(EdgeId.MatchedVertex.SOURCE)
+                .property(TestPropertyNames.PROP_1, "value1")
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+        edges.merge(edge, 1L, Long::sum);
+        return edge;
+    }
+}
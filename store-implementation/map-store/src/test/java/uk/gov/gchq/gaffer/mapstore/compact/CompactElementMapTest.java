@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.compact;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompactElementMapTest {
+    private Schema schema;
+    private CompactElementStore store;
+
+    @Before
+    public void before() {
+        schema = new SchemaOptimiser().optimise(Schema.fromJson(StreamUtil.schemas(getClass())), false);
+        store = new CompactElementStore(schema);
+    }
+
+    @Test
+    public void shouldAddAndGetNonAggregatedElements() {
+        // Given
+        final CompactElementMap<Long> map = store.createNonAggElementsMap(TestGroups.EDGE);
+        final Edge edge = createEdge("A", "B", "value1", 1);
+
+        // When
+        map.merge(edge, 1L, Long::sum);
+        map.merge(createEdge("A", "B", "value1", 1), 1L, Long::sum);
+        map.merge(createEdge("A", "B", "value1", 2), 1L, Long::sum);
+
+        // Then
+        assertEquals(2, map.size());
+        assertEquals(2L, (long) map.get(edge));
+        assertEquals(1L, (long) map.get(createEdge("A", "B", "value1", 2)));
+        assertNull(map.get(createEdge("A", "C", "value1", 1)));
+        assertNull(map.get(createEdge("B", "A", "value1", 1)));
+    }
+
+    @Test
+    public void shouldAggregatePropertiesOfElementsWithTheSameGroupByProperties() {
+        // Given
+        final CompactElementMap<GroupedProperties> map = store.createAggElementsMap(TestGroups.ENTITY);
+        final AggregatorUtil.IngestPropertiesBinaryOperator aggregator = new AggregatorUtil.IngestPropertiesBinaryOperator(schema);
+        final Entity key = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("A")
+                .property(TestPropertyNames.PROP_1, "value1")
+                .build();
+
+        // When
+        map.merge(key, createCount(TestGroups.ENTITY, 1), aggregator);
+        map.merge(key, createCount(TestGroups.ENTITY, 2), aggregator);
+
+        // Then
+        assertEquals(1, map.size());
+        assertEquals(createCount(TestGroups.ENTITY, 3), map.get(key));
+    }
+
+    @Test
+    public void shouldMaterialiseNewElementsWhenIterating() {
+        // Given
+        final CompactElementMap<Long> map = store.createNonAggElementsMap(TestGroups.EDGE);
+        final Edge edge = createEdge("A", "B", "value1", 1);
+        map.merge(edge, 1L, Long::sum);
+
+        // When
+        final Map.Entry<Element, Long> entry1 = map.entrySet().iterator().next();
+        final Map.Entry<Element, Long> entry2 = map.entrySet().iterator().next();
+
+        // Then
+        assertEquals(edge, entry1.getKey());
+        assertEquals(1L, (long) entry1.getValue());
+        assertNotSame(entry1.getKey(), entry2.getKey());
+    }
+
+    @Test
+    public void shouldHoldManyElementsAndGrowingValues() {
+        // Given
+        final CompactElementMap<GroupedProperties> map = store.createAggElementsMap(TestGroups.EDGE);
+        final AggregatorUtil.IngestPropertiesBinaryOperator aggregator = new AggregatorUtil.IngestPropertiesBinaryOperator(schema);
+        final Map<Element, GroupedProperties> expected = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            final Edge key = createEdge("vertex" + (i % 100), "vertex" + i, "value" + (i % 3), null);
+            key.getProperties().remove(TestPropertyNames.COUNT);
+            for (int j = 0; j < 3; j++) {
+                map.merge(key, createCount(TestGroups.EDGE, i * 1000 + j), aggregator);
+            }
+            expected.put(key, createCount(TestGroups.EDGE, 3 * i * 1000 + 3));
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        for (final Map.Entry<Element, GroupedProperties> entry : map.entrySet()) {
+            assertEquals(expected.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void shouldNotAddVerticesWhenGettingElements() {
+        // Given
+        final CompactElementMap<Long> map = store.createNonAggElementsMap(TestGroups.EDGE);
+
+        // When
+        final Long count = map.get(createEdge("A", "B", "value1", 1));
+
+        // Then
+        assertNull(count);
+        assertEquals(0, store.getVertices().size());
+        assertFalse(map.containsKey(createEdge("A", "B", "value1", 1)));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAddingElementOfADifferentGroup() {
+        // Given
+        final CompactElementMap<Long> map = store.createNonAggElementsMap(TestGroups.EDGE);
+
+        // When / Then
+        try {
+            map.merge(new Entity(TestGroups.ENTITY, "A"), 1L, Long::sum);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(TestGroups.EDGE));
+        }
+    }
+
+    @Test
+    public void shouldClearElements() {
+        // Given
+        final CompactElementMap<Long> map = store.createNonAggElementsMap(TestGroups.EDGE);
+        map.merge(createEdge("A", "B", "value1", 1), 1L, Long::sum);
+
+        // When
+        map.clear();
+
+        // Then
+        assertTrue(map.isEmpty());
+        assertNull(map.get(createEdge("A", "B", "value1", 1)));
+    }
+
+    private Edge createEdge(final String source, final String destination, final String property1, final Integer count) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .property(TestPropertyNames.PROP_1, property1)
+                .property(TestPropertyNames.COUNT, count)
+                .build();
+    }
+
+    private GroupedProperties createCount(final String group, final int count) {
+        final GroupedProperties properties = new GroupedProperties(group);
+        properties.put(TestPropertyNames.COUNT, count);
+        return properties;
+    }
+}
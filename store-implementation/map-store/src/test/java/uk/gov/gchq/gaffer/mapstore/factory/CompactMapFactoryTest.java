@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.compact.CompactElementIndex;
+import uk.gov.gchq.gaffer.mapstore.compact.CompactElementMap;
+import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactMapFactoryTest {
+    private Schema schema;
+    private CompactMapFactory factory;
+
+    @Before
+    public void before() {
+        schema = Schema.fromJson(StreamUtil.schemas(getClass()));
+        factory = new CompactMapFactory();
+        factory.initialise(schema, new MapStoreProperties());
+    }
+
+    @Test
+    public void shouldCreateCompactMapsForElements() {
+        // When
+        final Map<Element, GroupedProperties> aggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class);
+        final Map<Element, Long> nonAggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Long.class);
+        final MultiMap<EntityId, Element> entityIdToElements = factory.getMultiMap(MapImpl.ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class);
+        final MultiMap<EdgeId, Element> edgeIdToElements = factory.getMultiMap(MapImpl.EDGE_ID_TO_ELEMENTS, EdgeId.class, Element.class);
+
+        // Then
+        assertTrue(aggElements instanceof CompactElementMap);
+        assertTrue(nonAggElements instanceof CompactElementMap);
+        assertNotSame(aggElements, nonAggElements);
+        assertSame(aggElements, factory.getMap(TestGroups.ENTITY + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class));
+        assertTrue(entityIdToElements instanceof CompactElementIndex);
+        assertTrue(edgeIdToElements instanceof CompactElementIndex);
+    }
+
+    @Test
+    public void shouldCreateSimpleMapsForOtherMaps() {
+        // When
+        final Map<Object, Object> map = factory.getMap("mapName", Object.class, Object.class);
+        final MultiMap<Object, Object> multiMap = factory.getMultiMap("multiMapName", Object.class, Object.class);
+
+        // Then
+        assertTrue(map instanceof HashMap);
+        assertTrue(multiMap instanceof MapOfSets);
+    }
+
+    @Test
+    public void shouldClearElementsAndIndexes() {
+        // Given
+        final Map<Element, Long> nonAggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Long.class);
+        final MultiMap<EntityId, Element> entityIdToElements = factory.getMultiMap(MapImpl.ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class);
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+        nonAggElements.merge(entity, 1L, Long::sum);
+        entityIdToElements.put(new EntitySeed("vertex"), entity);
+
+        // When
+        factory.clear();
+
+        // Then
+        assertTrue(nonAggElements.isEmpty());
+        assertEquals(null, entityIdToElements.get(new EntitySeed("vertex")));
+    }
+
+    @Test
+    public void shouldShallowCloneElements() {
+        // Given
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+
+        // When
+        final Element clone = factory.cloneElement(entity, schema);
+
+        // Then
+        assertEquals(entity, clone);
+        assertNotSame(entity, clone);
+        assertNotSame(entity.getProperties(), clone.getProperties());
+    }
+}
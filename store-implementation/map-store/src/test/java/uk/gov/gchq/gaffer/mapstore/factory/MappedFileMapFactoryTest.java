@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.factory;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.GroupedProperties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.mapped.MappedElementIndex;
+import uk.gov.gchq.gaffer.mapstore.mapped.MappedMap;
+import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedFileMapFactoryTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Schema schema;
+    private MappedFileMapFactory factory;
+
+    @Before
+    public void before() {
+        schema = new SchemaOptimiser().optimise(Schema.fromJson(StreamUtil.schemas(getClass())), false);
+        factory = new MappedFileMapFactory();
+        factory.initialise(schema, new MapStoreProperties());
+    }
+
+    @Test
+    public void shouldCreateMappedMapsForElements() {
+        // When
+        final Map<Element, GroupedProperties> aggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class);
+        final Map<Element, Long> nonAggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Long.class);
+        final MultiMap<EntityId, Element> entityIdToElements = factory.getMultiMap(MapImpl.ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class);
+        final MultiMap<EdgeId, Element> edgeIdToElements = factory.getMultiMap(MapImpl.EDGE_ID_TO_ELEMENTS, EdgeId.class, Element.class);
+
+        // Then
+        assertTrue(aggElements instanceof MappedMap);
+        assertTrue(nonAggElements instanceof MappedMap);
+        assertNotSame(aggElements, nonAggElements);
+        assertSame(aggElements, factory.getMap(TestGroups.ENTITY + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class));
+        assertTrue(entityIdToElements instanceof MappedElementIndex);
+        assertTrue(edgeIdToElements instanceof MappedElementIndex);
+    }
+
+    @Test
+    public void shouldCreateSimpleMapsForOtherMaps() {
+        // When
+        final Map<Object, Object> map = factory.getMap("mapName", Object.class, Object.class);
+        final MultiMap<Object, Object> multiMap = factory.getMultiMap("multiMapName", Object.class, Object.class);
+
+        // Then
+        assertTrue(map instanceof HashMap);
+        assertTrue(multiMap instanceof MapOfSets);
+    }
+
+    @Test
+    public void shouldRemapElementsAndIndexesFromMapDirectory() {
+        // Given
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.set(MappedFileMapFactory.MAP_DIRECTORY, folder.getRoot().getAbsolutePath());
+        factory.initialise(schema, properties);
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.PROP_1, "value1")
+                .build();
+        final GroupedProperties groupedProperties = new GroupedProperties(TestGroups.ENTITY);
+        groupedProperties.put(TestPropertyNames.COUNT, 3);
+        getAggElements(factory).merge(entity, groupedProperties, (a, b) -> b);
+        getEntityIdToElements(factory).put(new EntitySeed("vertex"), entity);
+        factory.force();
+
+        // When
+        final MappedFileMapFactory restartedFactory = new MappedFileMapFactory();
+        restartedFactory.initialise(schema, properties);
+
+        // Then
+        final Map<Element, GroupedProperties> aggElements = getAggElements(restartedFactory);
+        assertEquals(1, aggElements.size());
+        assertEquals(3, aggElements.get(entity).get(TestPropertyNames.COUNT));
+        assertEquals(Collections.singletonList(entity), getEntityIdToElements(restartedFactory).get(new EntitySeed("vertex")));
+    }
+
+    @Test
+    public void shouldRefuseToOpenMapDirectoryWrittenWithADifferentSchema() {
+        // Given
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.set(MappedFileMapFactory.MAP_DIRECTORY, folder.getRoot().getAbsolutePath());
+        factory.initialise(schema, properties);
+        final Schema otherSchema = new Schema.Builder()
+                .merge(schema)
+                .entity(TestGroups.ENTITY_2, new SchemaEntityDefinition.Builder()
+                        .vertex(schema.getEntity(TestGroups.ENTITY).getVertex())
+                        .build())
+                .build();
+
+        // When / Then
+        try {
+            new MappedFileMapFactory().initialise(otherSchema, properties);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("different schema"));
+        }
+    }
+
+    @Test
+    public void shouldRefuseToOpenMapDirectoryWrittenWithADifferentFormatVersion() throws IOException {
+        // Given
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.set(MappedFileMapFactory.MAP_DIRECTORY, folder.getRoot().getAbsolutePath());
+        factory.initialise(schema, properties);
+        final Path headerPath = folder.getRoot().toPath().resolve(MappedFileMapFactory.HEADER_FILE);
+        final String header = new String(Files.readAllBytes(headerPath), StandardCharsets.ISO_8859_1);
+        Files.write(headerPath, header.replace("formatVersion=" + MappedFileMapFactory.FORMAT_VERSION, "formatVersion=0")
+                .getBytes(StandardCharsets.ISO_8859_1));
+
+        // When / Then
+        try {
+            new MappedFileMapFactory().initialise(schema, properties);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("format version 0"));
+        }
+    }
+
+    @Test
+    public void shouldClearElementsAndIndexes() {
+        // Given
+        final Map<Element, Long> nonAggElements = factory.getMap(TestGroups.ENTITY + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Long.class);
+        final MultiMap<EntityId, Element> entityIdToElements = getEntityIdToElements(factory);
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+        nonAggElements.merge(entity, 1L, Long::sum);
+        entityIdToElements.put(new EntitySeed("vertex"), entity);
+
+        // When
+        factory.clear();
+
+        // Then
+        assertTrue(nonAggElements.isEmpty());
+        assertNull(entityIdToElements.get(new EntitySeed("vertex")));
+    }
+
+    @Test
+    public void shouldShallowCloneElements() {
+        // Given
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+
+        // When
+        final Element clone = factory.cloneElement(entity, schema);
+
+        // Then
+        assertEquals(entity, clone);
+        assertNotSame(entity, clone);
+        assertNotSame(entity.getProperties(), clone.getProperties());
+    }
+
+    private Map<Element, GroupedProperties> getAggElements(final MapFactory mapFactory) {
+        return mapFactory.getMap(TestGroups.ENTITY + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class);
+    }
+
+    private MultiMap<EntityId, Element> getEntityIdToElements(final MapFactory mapFactory) {
+        return mapFactory.getMultiMap(MapImpl.ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class);
+    }
+}
@@ -20,12 +20,14 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.multimap.MapOfSets;
+import uk.gov.gchq.gaffer.mapstore.multimap.MultiMap;
 import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -48,6 +50,7 @@ public class SimpleMapFactoryTest {
         final SimpleMapFactory factory = new SimpleMapFactory();
 
         given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.MAP_CLASS_DEFAULT)).willReturn(mapClass.getName());
+        given(properties.getImmutableClasses()).willReturn("");
 
         // When / Then
         try {
@@ -67,6 +70,7 @@ public class SimpleMapFactoryTest {
         final SimpleMapFactory factory = new SimpleMapFactory();
 
         given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.MAP_CLASS_DEFAULT)).willReturn(mapClass.getName());
+        given(properties.getImmutableClasses()).willReturn("");
 
         // When
         factory.initialise(schema, properties);
@@ -84,6 +88,7 @@ public class SimpleMapFactoryTest {
         final SimpleMapFactory factory = new SimpleMapFactory();
 
         given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.MAP_CLASS_DEFAULT)).willReturn(mapClass.getName());
+        given(properties.getImmutableClasses()).willReturn("");
 
         factory.initialise(schema, properties);
 
@@ -108,6 +113,7 @@ public class SimpleMapFactoryTest {
         final SimpleMapFactory factory = new SimpleMapFactory();
 
         given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.MAP_CLASS_DEFAULT)).willReturn(mapClass.getName());
+        given(properties.getImmutableClasses()).willReturn("");
 
         factory.initialise(schema, properties);
 
@@ -129,6 +135,7 @@ public class SimpleMapFactoryTest {
         final SimpleMapFactory factory = new SimpleMapFactory();
 
         given(properties.get(SimpleMapFactory.MAP_CLASS, SimpleMapFactory.MAP_CLASS_DEFAULT)).willReturn(mapClass.getName());
+        given(properties.getImmutableClasses()).willReturn("");
 
         factory.initialise(schema, properties);
 
@@ -144,6 +151,45 @@ public class SimpleMapFactoryTest {
         assertNotSame(map1, map2);
     }
 
+    @Test
+    public void shouldCreateConcurrentMapsWhenConcurrent() throws StoreException {
+        // Given
+        final Schema schema = mock(Schema.class);
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setConcurrent(true);
+        final SimpleMapFactory factory = new SimpleMapFactory();
+
+        factory.initialise(schema, properties);
+
+        // When
+        final Map<Object, Object> map = factory.getMap("mapName1", Object.class, Object.class);
+        final MultiMap<Object, Object> multiMap = factory.getMultiMap("mapName2", Object.class, Object.class);
+        multiMap.put("key", "value");
+
+        // Then
+        assertTrue(map instanceof ConcurrentHashMap);
+        assertTrue(((MapOfSets) multiMap).getWrappedMap() instanceof ConcurrentHashMap);
+        assertEquals(ConcurrentHashMap.newKeySet().getClass(), multiMap.get("key").getClass());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConcurrentAndMapClassIsNotConcurrent() throws StoreException {
+        // Given
+        final Schema schema = mock(Schema.class);
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setConcurrent(true);
+        properties.set(SimpleMapFactory.MAP_CLASS, LinkedHashMap.class.getName());
+        final SimpleMapFactory factory = new SimpleMapFactory();
+
+        // When / Then
+        try {
+            factory.initialise(schema, properties);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     @Test
     public void shouldCloneElementUsingCloner() throws StoreException {
         // Given
@@ -15,19 +15,36 @@
  */
 package uk.gov.gchq.gaffer.mapstore.impl;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.SingleUseMapStore;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -47,4 +64,63 @@ public class AddElementsHandlerTest {
         // When / Then - should not throw NPE
         handler.doOperation(addElements, context, store);
     }
+
+    @Test
+    public void shouldAggregateElementsAddedConcurrently() throws Exception {
+        // Given
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setConcurrent(true);
+        final MapStore store = new SingleUseMapStore();
+        store.initialise("graphId1", Schema.fromJson(StreamUtil.schemas(getClass())), properties);
+        final AddElementsHandler handler = new AddElementsHandler();
+        final int threads = 4;
+        final int batches = 50;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<Void>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                for (int j = 0; j < batches; j++) {
+                    final AddElements addElements = new AddElements.Builder()
+                            .input(new Entity.Builder()
+                                            .group(TestGroups.ENTITY)
+                                            .vertex("vertex")
+                                            .property(TestPropertyNames.PROP_1, "value")
+                                            .property(TestPropertyNames.COUNT, 1)
+                                            .build(),
+                                    new Edge.Builder()
+                                            .group(TestGroups.EDGE)
+                                            .source("vertex")
+                                            .dest("vertex" + j)
+                                            .directed(true)
+                                            .property(TestPropertyNames.PROP_1, "value")
+                                            .property(TestPropertyNames.COUNT, 1)
+                                            .build())
+                            .build();
+                    handler.doOperation(addElements, new Context(), store);
+                }
+                return null;
+            }));
+        }
+        for (final Future<Void> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        final List<Element> elements = Lists.newArrayList(new GetAllElementsHandler().doOperation(new GetAllElements.Builder()
+                .view(new View.Builder().entity(TestGroups.ENTITY).edge(TestGroups.EDGE).build())
+                .build(), new Context(), store));
+        assertEquals(batches + 1, elements.size());
+        for (final Element element : elements) {
+            final int expectedCount = element instanceof Entity ? threads * batches : threads;
+            assertEquals(expectedCount, element.getProperty(TestPropertyNames.COUNT));
+        }
+        final List<Element> adjacentEdges = Lists.newArrayList(new GetElementsHandler().doOperation(new GetElements.Builder()
+                .input(new EntitySeed("vertex"))
+                .view(new View.Builder().edge(TestGroups.EDGE).build())
+                .build(), new Context(), store));
+        assertEquals(batches, adjacentEdges.size());
+    }
 }
@@ -64,6 +64,7 @@ public class MapImplTest {
         given(schema.getGroups()).willReturn(Sets.newHashSet(TestGroups.EDGE));
         given(properties.getMapFactory()).willReturn(TestMapFactory.class.getName());
         given(properties.getCreateIndex()).willReturn(true);
+        given(properties.getImmutableClasses()).willReturn("");
         given(mockMapFactory.getMap(TestGroups.EDGE + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class)).willReturn(aggElements);
         given(mockMapFactory.getMap(TestGroups.EDGE + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Integer.class)).willReturn(nonAggElements);
         given(mockMapFactory.getMultiMap(MapImpl.ENTITY_ID_TO_ELEMENTS, EntityId.class, Element.class)).willReturn(entityIdToElements);
@@ -90,6 +91,7 @@ public class MapImplTest {
         given(schema.getGroups()).willReturn(Sets.newHashSet(TestGroups.EDGE));
         given(properties.getMapFactory()).willReturn(TestMapFactory.class.getName());
         given(properties.getCreateIndex()).willReturn(false);
+        given(properties.getImmutableClasses()).willReturn("");
         given(mockMapFactory.getMap(TestGroups.EDGE + "|" + MapImpl.AGG_ELEMENTS, Element.class, GroupedProperties.class)).willReturn(aggElements);
         given(mockMapFactory.getMap(TestGroups.EDGE + "|" + MapImpl.NON_AGG_ELEMENTS, Element.class, Integer.class)).willReturn(nonAggElements);
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MappedBytesMapTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dataPath;
+    private Path tablePath;
+
+    @Before
+    public void before() {
+        dataPath = folder.getRoot().toPath().resolve("map.data");
+        tablePath = folder.getRoot().toPath().resolve("map.table");
+    }
+
+    @Test
+    public void shouldPutAndGetValues() {
+        // Given
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            map.put(bytes("key" + i), bytes("value" + i));
+        }
+
+        // Then
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertArrayEquals(bytes("value" + i), map.get(bytes("key" + i)));
+        }
+        assertNull(map.get(bytes("key1000")));
+        assertFalse(map.containsKey(bytes("key1000")));
+    }
+
+    @Test
+    public void shouldMergeValues() {
+        // Given
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+        map.put(bytes("key"), bytes("a"));
+
+        // When
+        final long inPlaceRecord = map.merge(bytes("key"), bytes("b"), this::concat);
+        final long movedRecord = map.merge(bytes("key"), bytes("cdefghijklmnop"), this::concat);
+
+        // Then
+        assertArrayEquals(bytes("abcdefghijklmnop"), map.get(bytes("key")));
+        assertEquals(1, map.size());
+        assertTrue(movedRecord > inPlaceRecord);
+        final PrimitiveIterator.OfLong records = map.records();
+        assertEquals(movedRecord, records.nextLong());
+        assertFalse(records.hasNext());
+    }
+
+    @Test
+    public void shouldRemapExistingFiles() {
+        // Given
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+        map.put(bytes("key1"), bytes("value1"));
+        map.put(bytes("key2"), bytes("value2"));
+        map.force();
+
+        // When
+        final MappedBytesMap remapped = new MappedBytesMap(dataPath, tablePath);
+
+        // Then
+        assertEquals(2, remapped.size());
+        assertArrayEquals(bytes("value1"), remapped.get(bytes("key1")));
+        assertArrayEquals(bytes("value2"), remapped.get(bytes("key2")));
+    }
+
+    @Test
+    public void shouldRebuildMissingTableFile() throws IOException {
+        // Given
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+        map.put(bytes("key1"), bytes("value1"));
+        map.merge(bytes("key1"), bytes("value1value1"), this::concat);
+        map.force();
+        Files.delete(tablePath);
+
+        // When
+        final MappedBytesMap remapped = new MappedBytesMap(dataPath, tablePath);
+
+        // Then
+        assertEquals(1, remapped.size());
+        assertArrayEquals(bytes("value1value1value1"), remapped.get(bytes("key1")));
+    }
+
+    @Test
+    public void shouldClearMap() {
+        // Given
+        final MappedBytesMap map = new MappedBytesMap(dataPath, tablePath);
+        map.put(bytes("key"), bytes("value"));
+
+        // When
+        map.clear();
+
+        // Then
+        assertEquals(0, map.size());
+        assertNull(map.get(bytes("key")));
+        assertFalse(map.records().hasNext());
+    }
+
+    private byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] bytes = new byte[first.length + second.length];
+        System.arraycopy(first, 0, bytes, 0, first.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MappedElementIndexTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ElementCodec codec;
+
+    @Before
+    public void before() {
+        codec = new ElementCodec(new SchemaOptimiser().optimise(Schema.fromJson(StreamUtil.schemas(getClass())), false));
+    }
+
+    @Test
+    public void shouldLookupElementsByEntityIdWithMatchedVertex() {
+        // Given
+        final MappedElementIndex<EntityId> index = createIndex("entityIdToElements");
+        final Entity entity = createEntity("A");
+        final Edge edge = createEdge("A", "B", true);
+        final Edge destMatchedEdge = new Edge(edge.getGroup(), edge.getSource(), edge.getDestination(), edge.isDirected(), EdgeId.MatchedVertex.DESTINATION, edge.getProperties());
+
+        // When
+        index.put(new EntitySeed("A"), entity);
+        index.put(new EntitySeed("A"), edge);
+        index.put(new EntitySeed("B"), destMatchedEdge);
+
+        // Then
+        assertEquals(Sets.newHashSet(entity, edge), Sets.newHashSet(index.get(new EntitySeed("A"))));
+        final Collection<Element> results = index.get(new EntitySeed("B"));
+        assertEquals(1, results.size());
+        final Edge result = (Edge) results.iterator().next();
+        assertEquals(edge, result);
+        assertEquals(EdgeId.MatchedVertex.DESTINATION, result.getMatchedVertex());
+        assertNull(index.get(new EntitySeed("C")));
+        assertEquals(Sets.newHashSet(new EntitySeed("A"), new EntitySeed("B")), index.keySet());
+    }
+
+    @Test
+    public void shouldLookupEdgesByEdgeId() {
+        // Given
+        final MappedElementIndex<EdgeId> index = createIndex("edgeIdToElements");
+        final Edge directed = createEdge("A", "B", true);
+        final Edge undirected = createEdge("A", "B", false);
+        index.put(new EdgeSeed("A", "B", true), directed);
+        index.put(new EdgeSeed("A", "B", false), undirected);
+
+        // When
+        final Collection<Element> directedResults = index.get(new EdgeSeed("A", "B", true));
+        final Collection<Element> undirectedResults = index.get(new EdgeSeed("B", "A", false));
+
+        // Then
+        assertEquals(Sets.newHashSet(directed), Sets.newHashSet(directedResults));
+        assertEquals(Sets.newHashSet(undirected), Sets.newHashSet(undirectedResults));
+        assertNull(index.get(new EdgeSeed("B", "A", true)));
+    }
+
+    @Test
+    public void shouldNotIndexElementsTwice() {
+        // Given
+        final MappedElementIndex<EntityId> index = createIndex("entityIdToElements");
+        final Edge selfLoop = createEdge("A", "A", true);
+        final Edge destMatchedSelfLoop = new Edge(selfLoop.getGroup(), "A", "A", true, EdgeId.MatchedVertex.DESTINATION, selfLoop.getProperties());
+
+        // When
+        final boolean firstPut = index.put(new EntitySeed("A"), selfLoop);
+        final boolean secondPut = index.put(new EntitySeed("A"), selfLoop);
+        final boolean destMatchedPut = index.put(new EntitySeed("A"), destMatchedSelfLoop);
+
+        // Then
+        assertTrue(firstPut);
+        assertFalse(secondPut);
+        assertFalse(destMatchedPut);
+        assertEquals(1, index.get(new EntitySeed("A")).size());
+    }
+
+    @Test
+    public void shouldIgnoreElementsOfGroupsNotInTheSchema() {
+        // Given
+        final MappedElementIndex<EntityId> index = createIndex("entityIdToElements");
+
+        // When
+        final boolean put = index.put(new EntitySeed("A"), new Entity("unknownGroup", "A"));
+
+        // Then
+        assertFalse(put);
+        assertNull(index.get(new EntitySeed("A")));
+    }
+
+    private <K extends ElementId> MappedElementIndex<K> createIndex(final String name) {
+        final Path root = folder.getRoot().toPath();
+        return new MappedElementIndex<>(
+                new MappedBytesMap(root.resolve(name + ".heads.data"), root.resolve(name + ".heads.table")),
+                new MappedBytesMap(root.resolve(name + ".entries.data"), root.resolve(name + ".entries.table")),
+                codec.elementIds(), codec.elements());
+    }
+
+    private Entity createEntity(final String vertex) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .property(TestPropertyNames.PROP_1, "value1")
+                .build();
+    }
+
+    private Edge createEdge(final String source, final String destination, final boolean directed) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(directed)
+                .matchedVertex(EdgeId.MatchedVertex.SOURCE)
+                .property(TestPropertyNames.PROP_1, "value1")
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.mapped;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MappedFileTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldGrowAndKeepContents() {
+        // Given
+        final MappedFile file = new MappedFile(folder.getRoot().toPath().resolve("file"));
+        file.putLong(0, 1L);
+        final long initialCapacity = file.capacity();
+
+        // When
+        file.ensureCapacity(initialCapacity + 1);
+        file.ensureCapacity(MappedFile.SEGMENT_SIZE * 2 + 1);
+
+        // Then
+        assertTrue(file.capacity() > initialCapacity);
+        assertEquals(MappedFile.SEGMENT_SIZE * 3, file.capacity());
+        assertEquals(1L, file.getLong(0));
+    }
+
+    @Test
+    public void shouldReadAndWriteAcrossSegments() {
+        // Given
+        final Path path = folder.getRoot().toPath().resolve("file");
+        final MappedFile file = new MappedFile(path);
+        file.ensureCapacity(MappedFile.SEGMENT_SIZE * 4);
+        final long boundary = MappedFile.SEGMENT_SIZE;
+        final byte[] bytes = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        // When
+        file.putLong(boundary - 3, Long.MAX_VALUE);
+        file.putInt(boundary * 3 - 2, Integer.MIN_VALUE);
+        file.putBytes(boundary * 2 - 5, bytes);
+
+        // Then
+        final MappedFile remapped = new MappedFile(path);
+        assertEquals(Long.MAX_VALUE, remapped.getLong(boundary - 3));
+        assertEquals(Integer.MIN_VALUE, remapped.getInt(boundary * 3 - 2));
+        assertArrayEquals(bytes, remapped.getBytes(boundary * 2 - 5, bytes.length));
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.Test;
 
 import uk.gov.gchq.gaffer.store.StoreException;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -71,6 +72,24 @@ public class MapOfSetsTest {
         assertEquals(Sets.newHashSet(value), mapOfSets.get(key));
     }
 
+    @Test
+    public void shouldPutValuesInSetsFromSupplier() throws StoreException {
+        // Given
+        final Map<String, Set<String>> map = new HashMap<>();
+        final MapOfSets<String, String> mapOfSets = new MapOfSets<>(map, LinkedHashSet::new);
+
+        // When
+        mapOfSets.put("key1", "value1");
+        mapOfSets.put("key1", Arrays.asList("value2", "value3"));
+        mapOfSets.put("key2", Collections.singletonList("value4"));
+
+        // Then
+        assertTrue(mapOfSets.get("key1") instanceof LinkedHashSet);
+        assertEquals(Sets.newHashSet("value1", "value2", "value3"), mapOfSets.get("key1"));
+        assertTrue(mapOfSets.get("key2") instanceof LinkedHashSet);
+        assertEquals(Sets.newHashSet("value4"), mapOfSets.get("key2"));
+    }
+
     @Test
     public void shouldPutValueInMapWhenNullSetAndLinkedHashSetClass() throws StoreException {
         // Given
@@ -17,14 +17,30 @@ package uk.gov.gchq.gaffer.mapstore.utils;
 
 import org.junit.Test;
 
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.TreeSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class ElementClonerTest {
 
@@ -40,4 +56,96 @@ public class ElementClonerTest {
                 .map(element -> new Pair<>(element, cloner.cloneElement(element, mapStore.getSchema())))
                 .forEach(pair -> assertEquals(pair.getFirst(), pair.getSecond()));
     }
+
+    @Test
+    public void shouldOnlyDeepCloneMutableProperties() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "string")
+                        .property(TestPropertyNames.PROP_2, "date")
+                        .property(TestPropertyNames.PROP_3, "set")
+                        .build())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("date", new TypeDefinition.Builder()
+                        .clazz(Date.class)
+                        .serialiser(new JavaSerialiser())
+                        .build())
+                .type("set", new TypeDefinition.Builder()
+                        .clazz(TreeSet.class)
+                        .serialiser(new JavaSerialiser())
+                        .build())
+                .build();
+        final String string = "value";
+        final Date date = new Date(1000L);
+        final TreeSet<String> set = new TreeSet<>(Collections.singleton("item"));
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.PROP_1, string)
+                .property(TestPropertyNames.PROP_2, date)
+                .property(TestPropertyNames.PROP_3, set)
+                .build();
+
+        // When
+        final Element clone = new ElementCloner().cloneElement(entity, schema);
+
+        // Then
+        assertEquals(entity, clone);
+        assertNotSame(entity.getProperties(), clone.getProperties());
+        assertSame(string, clone.getProperty(TestPropertyNames.PROP_1));
+        assertNotSame(date, clone.getProperty(TestPropertyNames.PROP_2));
+        assertNotSame(set, clone.getProperty(TestPropertyNames.PROP_3));
+    }
+
+    @Test
+    public void shouldShareValuesOfAdditionalImmutableClasses() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "set")
+                        .build())
+                .type("string", String.class)
+                .type("set", new TypeDefinition.Builder()
+                        .clazz(TreeSet.class)
+                        .serialiser(new JavaSerialiser())
+                        .build())
+                .build();
+        final TreeSet<String> set = new TreeSet<>(Collections.singleton("item"));
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.PROP_1, set)
+                .build();
+
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setImmutableClasses(Collections.singleton(TreeSet.class));
+
+        // When
+        final Element clone = new ElementCloner(properties).cloneElement(entity, schema);
+
+        // Then
+        assertEquals(entity, clone);
+        assertSame(set, clone.getProperty(TestPropertyNames.PROP_1));
+    }
+
+    @Test
+    public void shouldRejectInvalidImmutableClasses() {
+        // Given
+        final MapStoreProperties properties = new MapStoreProperties();
+        properties.setImmutableClasses("java.util.TreeSet,unknown.Class");
+
+        // When / Then
+        try {
+            new ElementCloner(properties);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Immutable class is invalid: unknown.Class", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.proxystore;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.Error;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.GafferWrappedErrorRuntimeException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import javax.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@code ChunkedResultIterable} contains the results of an operation chain
+ * executed via the chunked endpoint of a Gaffer REST API. The results are
+ * deserialised one at a time as they are read from the response, so they do
+ * not all need to be held in memory.
+ * <p>
+ * The first iterator reads the response this iterable was created with. Any
+ * further iterators request the results again using the
+ * {@link ResponseSupplier}, so the operation chain will be re-executed on the
+ * delegate store. The iterable should be closed once it is no longer required
+ * so that the connections are released.
+ * <p>
+ * As the response status has already been sent when the results start to be
+ * streamed, the REST API reports a failure part way through the results by
+ * writing an {@link Error} as the final chunk. If an {@link Error} is read, or
+ * the response ends part way through a result, the iterator throws an
+ * exception rather than returning the partial results as if they were
+ * complete.
+ *
+ * @param <T> the type of the results
+ */
+public class ChunkedResultIterable<T> implements CloseableIterable<T> {
+    private static final String STATUS_CODE = "statusCode";
+    private static final String STATUS = "status";
+    private static final String SIMPLE_MESSAGE = "simpleMessage";
+
+    private final ObjectReader reader;
+    private final ResponseSupplier responseSupplier;
+    private final List<ResultIterator> iterators = new ArrayList<>();
+    private Response response;
+
+    public ChunkedResultIterable(final Response response, final ObjectReader reader, final ResponseSupplier responseSupplier) {
+        this.response = response;
+        this.reader = reader;
+        this.responseSupplier = responseSupplier;
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        final Response nextResponse;
+        if (null != response) {
+            nextResponse = response;
+            response = null;
+        } else {
+            try {
+                nextResponse = responseSupplier.get();
+            } catch (final StoreException e) {
+                throw new GafferRuntimeException(e.getMessage(), e);
+            }
+        }
+
+        final ResultIterator itr = new ResultIterator(nextResponse);
+        iterators.add(itr);
+        return itr;
+    }
+
+    @Override
+    public void close() {
+        if (null != response) {
+            response.close();
+            response = null;
+        }
+        iterators.forEach(ResultIterator::close);
+        iterators.clear();
+    }
+
+    /**
+     * Supplies a new {@link Response} containing the chunked results.
+     */
+    @FunctionalInterface
+    public interface ResponseSupplier {
+        Response get() throws StoreException;
+    }
+
+    private static boolean isError(final JsonNode node) {
+        return node.isObject() && 4 >= node.size()
+                && node.has(STATUS_CODE) && node.has(STATUS) && node.has(SIMPLE_MESSAGE);
+    }
+
+    private final class ResultIterator implements CloseableIterator<T> {
+        private final Response response;
+        private final JsonParser parser;
+        private JsonNode nextResult;
+        private boolean closed;
+
+        private ResultIterator(final Response response) {
+            this.response = response;
+            try {
+                // Reading each result from the parser as a tree, rather than
+                // reading from the stream, stops a result that is an array
+                // from being unwrapped and allows errors to be detected
+                parser = reader.getFactory().createParser(response.readEntity(InputStream.class));
+            } catch (final IOException e) {
+                response.close();
+                throw new GafferRuntimeException("Unable to read chunked results: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            if (null != nextResult) {
+                return true;
+            }
+
+            final JsonNode node;
+            try {
+                node = null != parser.nextToken() ? reader.readTree(parser) : null;
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Chunked results were truncated or could not be read: " + e.getMessage(), e);
+            }
+
+            if (null == node) {
+                close();
+                return false;
+            }
+            if (isError(node)) {
+                close();
+                final Error error;
+                try {
+                    error = JSONSerialiser.getMapper().treeToValue(node, Error.class);
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Delegate Gaffer store failed while returning chunked results: " + node, e);
+                }
+                throw new GafferWrappedErrorRuntimeException(error);
+            }
+
+            nextResult = node;
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final JsonNode node = nextResult;
+            nextResult = null;
+            try {
+                return reader.readValue(node);
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Unable to deserialise chunked results: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                nextResult = null;
+                CloseableUtil.close(parser);
+                response.close();
+            }
+        }
+    }
+}
@@ -35,12 +35,14 @@ public class ProxyProperties extends StoreProperties {
     public static final String GAFFER_CONTEXT_ROOT = "gaffer.context-root";
     public static final String CONNECT_TIMEOUT = "gaffer.connect-timeout";
     public static final String READ_TIMEOUT = "gaffer.read-timeout";
+    public static final String CHUNKED_RESULTS = "gaffer.chunked-results";
 
     public static final String DEFAULT_GAFFER_HOST = "localhost";
     public static final String DEFAULT_GAFFER_CONTEXT_ROOT = "/rest";
     public static final int DEFAULT_GAFFER_PORT = 8080;
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
     public static final int DEFAULT_READ_TIMEOUT = 10000;
+    public static final boolean DEFAULT_CHUNKED_RESULTS = false;
 
     private static final String GAFFER_REST_API_VERSION = "v2";
 
@@ -94,6 +96,21 @@ public class ProxyProperties extends StoreProperties {
         set(READ_TIMEOUT, String.valueOf(timeout));
     }
 
+    /**
+     * If true, operation chains that output an {@link Iterable} are executed
+     * using the chunked REST endpoint and the results are deserialised
+     * incrementally as they are read, rather than all at once.
+     *
+     * @return true if the chunked endpoint should be used for iterable results
+     */
+    public boolean isChunkedResults() {
+        return Boolean.parseBoolean(get(CHUNKED_RESULTS, String.valueOf(DEFAULT_CHUNKED_RESULTS)));
+    }
+
+    public void setChunkedResults(final boolean chunkedResults) {
+        set(CHUNKED_RESULTS, String.valueOf(chunkedResults));
+    }
+
     public String getGafferHost() {
         return get(GAFFER_HOST, DEFAULT_GAFFER_HOST);
     }
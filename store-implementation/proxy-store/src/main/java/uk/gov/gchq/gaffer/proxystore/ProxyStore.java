@@ -17,6 +17,8 @@
 package uk.gov.gchq.gaffer.proxystore;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.collect.Sets;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.glassfish.jersey.client.ClientProperties;
@@ -76,6 +78,21 @@ import java.util.Set;
  * <p>
  * The ProxyStore is simply a Gaffer store which delegates all operations to a Gaffer
  * REST API.
+ * <p>
+ * If {@link ProxyProperties#CHUNKED_RESULTS} is true, operation chains that output
+ * an {@link Iterable} are executed using the chunked endpoint of the REST API and
+ * the results are returned as a {@link ChunkedResultIterable}, which deserialises
+ * the results as they are read.
+ * <p>
+ * Requests are made using the default Jersey connector, which is backed by
+ * {@link java.net.HttpURLConnection}. There is no connection pool per store.
+ * Instead, connections are reused from the JVM wide keep-alive cache. The
+ * {@code http.keepAlive} system property turns reuse on or off, and
+ * {@code http.maxConnections} sets the number of idle connections kept per
+ * host, which defaults to 5. Both are read when the first connection is made,
+ * so they must be set on the command line rather than in the store properties.
+ * Responses are always closed once they have been read, so their connections
+ * return to the cache.
  */
 public class ProxyStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProxyStore.class);
@@ -167,14 +184,70 @@ public class ProxyStore extends Store {
             throw new OperationException("Unable to serialise operation chain into JSON.", e);
         }
 
-        final URL url = getProperties().getGafferUrl("graph/operations/execute");
+        final TypeReference<O> outputType = opChain.getOutputTypeReference();
         try {
-            return doPost(url, opChainJson, opChain.getOutputTypeReference(), context);
+            if (getProperties().isChunkedResults()) {
+                final JavaType resultType = getChunkedResultType(outputType);
+                if (null != resultType) {
+                    final URL url = getProperties().getGafferUrl("graph/operations/execute/chunked");
+                    return (O) doPostChunked(url, opChainJson, resultType, context);
+                }
+            }
+
+            final URL url = getProperties().getGafferUrl("graph/operations/execute");
+            return doPost(url, opChainJson, outputType, context);
         } catch (final StoreException e) {
             throw new OperationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Gets the type of the items in the output of an operation chain, if the
+     * output can be returned as a {@link ChunkedResultIterable}.
+     *
+     * @param outputType the output type of the operation chain
+     * @return the type of the items, or null if the chunked endpoint should not be used
+     */
+    protected JavaType getChunkedResultType(final TypeReference<?> outputType) {
+        final TypeFactory typeFactory = JSONSerialiser.getMapper().getTypeFactory();
+        final JavaType type = typeFactory.constructType(outputType);
+        final Class<?> rawClass = type.getRawClass();
+        if (!Iterable.class.isAssignableFrom(rawClass) || !rawClass.isAssignableFrom(ChunkedResultIterable.class)) {
+            return null;
+        }
+
+        final JavaType[] typeParams = typeFactory.findTypeParameters(type, Iterable.class);
+        return null == typeParams || 1 != typeParams.length ? null : typeParams[0];
+    }
+
+    protected <T> CloseableIterable<T> doPostChunked(final URL url, final String jsonBody,
+                                                     final JavaType resultType,
+                                                     final Context context) throws StoreException {
+        return new ChunkedResultIterable<>(
+                doPostChunked(url, jsonBody, context),
+                JSONSerialiser.getMapper().readerFor(resultType),
+                () -> doPostChunked(url, jsonBody, context));
+    }
+
+    protected Response doPostChunked(final URL url, final String jsonBody,
+                                     final Context context) throws StoreException {
+        final Invocation.Builder request = createRequest(jsonBody, url, context);
+        final Response response;
+        try {
+            response = request.post(Entity.json(jsonBody));
+        } catch (final Exception e) {
+            throw new StoreException("Failed to execute post via " +
+                    "the Gaffer URL " + url.toExternalForm(), e);
+        }
+
+        if (Family.SUCCESSFUL != response.getStatusInfo().getFamily()) {
+            // Reads the error from the response and throws an exception
+            handleResponse(response, new TypeReferenceImpl.Void());
+        }
+
+        return response;
+    }
+
     protected <O> O doPost(final URL url, final Object body,
                            final TypeReference<O> outputType,
                            final Context context) throws StoreException {
@@ -372,6 +445,11 @@ public class ProxyStore extends Store {
             return this;
         }
 
+        public Builder chunkedResults(final boolean chunkedResults) {
+            properties.setChunkedResults(chunkedResults);
+            return this;
+        }
+
         public Builder jsonSerialiser(final Class<? extends JSONSerialiser> serialiserClass) {
             properties.setJsonSerialiserClass(serialiserClass);
             return this;
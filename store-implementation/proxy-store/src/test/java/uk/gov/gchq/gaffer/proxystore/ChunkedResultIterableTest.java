@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.proxystore;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.GafferWrappedErrorRuntimeException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+
+import javax.ws.rs.core.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ChunkedResultIterableTest {
+
+    @Test
+    public void shouldReadAllResults() {
+        // Given
+        final Response response = createResponse("[1,2]\r\n[3]\r\n[]");
+        final ChunkedResultIterable<List<Integer>> results = createIterable(response);
+
+        // When
+        final List<List<Integer>> resultList = Lists.newArrayList(results);
+
+        // Then
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3), Arrays.asList()), resultList);
+        verify(response).close();
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenErrorIsWrittenAfterResults() {
+        // Given
+        final Response response = createResponse("[1]\r\n{\"statusCode\":500,\"status\":\"INTERNAL_SERVER_ERROR\",\"simpleMessage\":\"Scan failed\"}");
+        final ChunkedResultIterable<List<Integer>> results = createIterable(response);
+
+        // When / Then
+        try {
+            Lists.newArrayList(results);
+            fail("Exception expected");
+        } catch (final GafferWrappedErrorRuntimeException e) {
+            assertEquals("Scan failed", e.getMessage());
+            assertEquals(500, e.getError().getStatusCode());
+        }
+        verify(response).close();
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenResultsAreTruncated() {
+        // Given
+        final Response response = createResponse("[1]\r\n[2,");
+        final ChunkedResultIterable<List<Integer>> results = createIterable(response);
+
+        // When / Then
+        try {
+            Lists.newArrayList(results);
+            fail("Exception expected");
+        } catch (final GafferRuntimeException e) {
+            assertTrue(e.getMessage().contains("truncated"));
+        }
+        verify(response).close();
+    }
+
+    private ChunkedResultIterable<List<Integer>> createIterable(final Response response) {
+        return new ChunkedResultIterable<>(response,
+                JSONSerialiser.getMapper().readerFor(JSONSerialiser.getMapper().getTypeFactory()
+                        .constructCollectionType(List.class, Integer.class)),
+                () -> {
+                    throw new IllegalStateException("Results should only be requested once");
+                });
+    }
+
+    private Response createResponse(final String body) {
+        final Response response = mock(Response.class);
+        given(response.readEntity(InputStream.class)).willReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+}
@@ -49,6 +49,7 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.output.ToList;
+import uk.gov.gchq.gaffer.proxystore.ChunkedResultIterable;
 import uk.gov.gchq.gaffer.proxystore.ProxyStore;
 import uk.gov.gchq.gaffer.rest.RestApiTestClient;
 import uk.gov.gchq.gaffer.rest.service.v2.RestApiV2TestClient;
@@ -63,6 +64,7 @@ import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ProxyStoreBasicIT {
@@ -145,6 +147,53 @@ public class ProxyStoreBasicIT {
         assertThat((CloseableIterable<Element>) results, hasItems(DEFAULT_ELEMENTS));
     }
 
+    @Test
+    public void shouldGetAllElementsFromChunkedResults() throws Exception {
+        // Given
+        graph = new Graph.Builder()
+                .store(new ProxyStore.Builder()
+                        .graphId("graph1")
+                        .host("localhost")
+                        .port(8080)
+                        .contextRoot("rest")
+                        .chunkedResults(true)
+                        .build())
+                .build();
+        addDefaultElements();
+
+        // When
+        final CloseableIterable<? extends Element> results = graph.execute(new GetAllElements(), USER);
+
+        // Then
+        assertTrue(results instanceof ChunkedResultIterable);
+        assertEquals(DEFAULT_ELEMENTS.length, Iterables.size(results));
+        assertThat((CloseableIterable<Element>) results, hasItems(DEFAULT_ELEMENTS));
+        results.close();
+    }
+
+    @Test
+    public void shouldGetAllElementsWithoutChunkedResults() throws Exception {
+        // Given
+        graph = new Graph.Builder()
+                .store(new ProxyStore.Builder()
+                        .graphId("graph1")
+                        .host("localhost")
+                        .port(8080)
+                        .contextRoot("rest")
+                        .chunkedResults(false)
+                        .build())
+                .build();
+        addDefaultElements();
+
+        // When
+        final CloseableIterable<? extends Element> results = graph.execute(new GetAllElements(), USER);
+
+        // Then
+        assertTrue(!(results instanceof ChunkedResultIterable));
+        assertEquals(DEFAULT_ELEMENTS.length, Iterables.size(results));
+        assertThat((CloseableIterable<Element>) results, hasItems(DEFAULT_ELEMENTS));
+    }
+
     @Test
     public void shouldAddElementsAndGetRelatedElements() throws Exception {
         // Given